@@ -0,0 +1,711 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testcontainers.containers.exceptions.CartridgeAdminException;
+
+/**
+ * Client for the Cartridge HTTP admin API: the GraphQL endpoint at /admin/api and the clusterwide configuration
+ * endpoint at /admin/config.
+ * <p>
+ * Each operation is a single HTTP request. The connections are kept alive and reused from the JVM-wide pool, since
+ * the responses are always read completely.
+ *
+ * @see TarantoolCartridgeContainer#getAdminClient()
+ */
+public class CartridgeAdminClient {
+
+    private static final String GRAPHQL_PATH = "/admin/api";
+    private static final String CONFIG_PATH = "/admin/config";
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String SERVERS_QUERY =
+            "query { servers { uri uuid alias status message replicaset { uuid } } }";
+    private static final String REPLICASETS_QUERY =
+            "query { replicasets { uuid alias roles status weight vshard_group all_rw " +
+            "master { uri } servers { uri } } }";
+    private static final String HEALTH_QUERY =
+            "query { servers { uri uuid alias status message replicaset { uuid } } " +
+            "cluster { issues { level topic message instance_uuid replicaset_uuid } } }";
+    private static final String FAILOVER_PARAMS_FIELDS =
+            "{ mode state_provider failover_timeout fencing_enabled fencing_timeout fencing_pause }";
+    private static final String FAILOVER_PARAMS_QUERY =
+            "query { cluster { failover_params " + FAILOVER_PARAMS_FIELDS + " } }";
+    private static final String FAILOVER_PARAMS_MUTATION =
+            "mutation($mode: String, $state_provider: String, $failover_timeout: Float, " +
+            "$tarantool_params: FailoverStateProviderCfgInputTarantool, " +
+            "$etcd2_params: FailoverStateProviderCfgInputEtcd2, " +
+            "$fencing_enabled: Boolean, $fencing_timeout: Float, $fencing_pause: Float) { " +
+            "cluster { failover_params(mode: $mode, state_provider: $state_provider, " +
+            "failover_timeout: $failover_timeout, tarantool_params: $tarantool_params, " +
+            "etcd2_params: $etcd2_params, fencing_enabled: $fencing_enabled, " +
+            "fencing_timeout: $fencing_timeout, fencing_pause: $fencing_pause) " + FAILOVER_PARAMS_FIELDS + " } }";
+    private static final String EDIT_TOPOLOGY_MUTATION =
+            "mutation($replicasets: [EditReplicasetInput], $servers: [EditServerInput]) { " +
+            "cluster { edit_topology(replicasets: $replicasets, servers: $servers) { " +
+            "replicasets { uuid } } } }";
+
+    private final String baseUrl;
+    private final String authorization;
+    private Duration timeout = DEFAULT_TIMEOUT;
+
+    /**
+     * Basic constructor
+     *
+     * @param host     Cartridge instance HTTP host
+     * @param port     Cartridge instance HTTP port
+     * @param username user name, may be null if the authorization is disabled
+     * @param password user password
+     */
+    public CartridgeAdminClient(String host, int port, String username, String password) {
+        this.baseUrl = String.format("http://%s:%d", host, port);
+        this.authorization = username == null ? null : "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Set the connect and read timeout for the requests
+     *
+     * @param timeout request timeout
+     * @return this client instance
+     */
+    public CartridgeAdminClient withTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Get all servers known to the cluster
+     *
+     * @return servers
+     */
+    public List<Server> getServers() {
+        List<Server> servers = new ArrayList<>();
+        for (Map<?, ?> server : listOf(query(SERVERS_QUERY).get("servers"))) {
+            servers.add(new Server(server));
+        }
+        return servers;
+    }
+
+    /**
+     * Get all replicasets of the cluster
+     *
+     * @return replicasets
+     */
+    public List<Replicaset> getReplicasets() {
+        List<Replicaset> replicasets = new ArrayList<>();
+        for (Map<?, ?> replicaset : listOf(query(REPLICASETS_QUERY).get("replicasets"))) {
+            replicasets.add(new Replicaset(replicaset));
+        }
+        return replicasets;
+    }
+
+    /**
+     * Get the server states and the cluster issues
+     *
+     * @return cluster health
+     */
+    public Health getHealth() {
+        Map<String, Object> data = query(HEALTH_QUERY);
+        List<Server> servers = new ArrayList<>();
+        for (Map<?, ?> server : listOf(data.get("servers"))) {
+            servers.add(new Server(server));
+        }
+        List<Issue> issues = new ArrayList<>();
+        Object cluster = data.get("cluster");
+        if (cluster instanceof Map) {
+            for (Map<?, ?> issue : listOf(((Map<?, ?>) cluster).get("issues"))) {
+                issues.add(new Issue(issue));
+            }
+        }
+        return new Health(servers, issues);
+    }
+
+    /**
+     * Change the cluster topology. See the EditReplicasetInput and EditServerInput types of the Cartridge GraphQL
+     * schema for the available fields, for example:
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; replicaset = new HashMap&lt;&gt;();
+     * replicaset.put("alias", "s2-storage");
+     * replicaset.put("roles", Arrays.asList("vshard-storage"));
+     * replicaset.put("join_servers", Collections.singletonList(Collections.singletonMap("uri", "localhost:3303")));
+     * client.editTopology(Collections.singletonList(replicaset), Collections.emptyList());
+     * </code>
+     * </pre>
+     *
+     * @param replicasets replicasets to add or change
+     * @param servers     servers to change
+     */
+    public void editTopology(List<Map<String, Object>> replicasets, List<Map<String, Object>> servers) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("replicasets", replicasets);
+        variables.put("servers", servers);
+        query(EDIT_TOPOLOGY_MUTATION, variables);
+    }
+
+    /**
+     * Get the failover parameters
+     *
+     * @return failover parameters
+     */
+    public FailoverParams getFailoverParams() {
+        Map<?, ?> cluster = (Map<?, ?>) query(FAILOVER_PARAMS_QUERY).get("cluster");
+        return new FailoverParams((Map<?, ?>) cluster.get("failover_params"));
+    }
+
+    /**
+     * Change the failover parameters. The null values are left unchanged. Use
+     * {@link #setFailoverParams(CartridgeTopology.Failover)} for the stateful failover, which needs the state
+     * provider parameters.
+     *
+     * @param mode            failover mode: "disabled", "eventual", "stateful" or "raft"
+     * @param stateProvider   state provider for the stateful failover: "tarantool" (stateboard) or "etcd2"
+     * @param failoverTimeout failover timeout in seconds
+     * @param fencingEnabled  true if fencing must be enabled
+     * @return new failover parameters
+     */
+    public FailoverParams setFailoverParams(String mode, String stateProvider, Double failoverTimeout,
+                                            Boolean fencingEnabled) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("mode", mode);
+        variables.put("state_provider", stateProvider);
+        variables.put("failover_timeout", failoverTimeout);
+        variables.put("fencing_enabled", fencingEnabled);
+        return setFailoverParams(variables);
+    }
+
+    /**
+     * Change the failover parameters, including the state provider parameters and the fencing timeouts. The
+     * parameters not specified in the failover instance are left unchanged.
+     *
+     * @param failover failover parameters, e.g.
+     *                 {@code new CartridgeTopology.Failover("stateful").withStateboard("stateboard:4401", "secret")}
+     * @return new failover parameters
+     */
+    public FailoverParams setFailoverParams(CartridgeTopology.Failover failover) {
+        return setFailoverParams(new LinkedHashMap<>(failover.toParams()));
+    }
+
+    private FailoverParams setFailoverParams(Map<String, Object> variables) {
+        Map<?, ?> cluster = (Map<?, ?>) query(FAILOVER_PARAMS_MUTATION, variables).get("cluster");
+        return new FailoverParams((Map<?, ?>) cluster.get("failover_params"));
+    }
+
+    /**
+     * Download the clusterwide configuration
+     *
+     * @return configuration in YAML format
+     */
+    public String downloadConfig() {
+        return request("GET", CONFIG_PATH, null, null);
+    }
+
+    /**
+     * Upload the clusterwide configuration. The sections which are not present in the document are left unchanged,
+     * the sections with null values are removed.
+     *
+     * @param yaml configuration in YAML format
+     */
+    public void uploadConfig(String yaml) {
+        request("PUT", CONFIG_PATH, "application/yaml", yaml);
+    }
+
+    /**
+     * Execute a GraphQL query
+     *
+     * @param query GraphQL query
+     * @return the "data" field of the response
+     * @throws CartridgeAdminException if the request fails or the response contains errors
+     */
+    public Map<String, Object> query(String query) {
+        return query(query, Collections.emptyMap());
+    }
+
+    /**
+     * Execute a GraphQL query
+     *
+     * @param query     GraphQL query
+     * @param variables query variables
+     * @return the "data" field of the response
+     * @throws CartridgeAdminException if the request fails or the response contains errors
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> query(String query, Map<String, Object> variables) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("query", query);
+        body.put("variables", variables);
+        String response = request("POST", GRAPHQL_PATH, "application/json", JsonUtils.write(body));
+
+        Map<String, Object> result;
+        try {
+            result = (Map<String, Object>) JsonUtils.parse(response);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            throw new CartridgeAdminException("Failed to parse the GraphQL response: " + response, e);
+        }
+        Object errors = result.get("errors");
+        if (errors instanceof List && !((List<?>) errors).isEmpty()) {
+            List<String> messages = new ArrayList<>();
+            for (Map<?, ?> error : listOf(errors)) {
+                messages.add(String.valueOf(error.get("message")));
+            }
+            throw new CartridgeAdminException("GraphQL request failed: " + String.join("; ", messages));
+        }
+        Object data = result.get("data");
+        return data instanceof Map ? (Map<String, Object>) data : Collections.emptyMap();
+    }
+
+    private String request(String method, String path, String contentType, String body) {
+        HttpUtils.Response response;
+        try {
+            response = HttpUtils.request(new URL(baseUrl + path), method, timeout, authorization, contentType,
+                    body == null ? null : body.getBytes(StandardCharsets.UTF_8), null);
+        } catch (IOException e) {
+            throw new CartridgeAdminException(String.format("%s %s failed", method, path), e);
+        }
+        if (!response.isSuccessful()) {
+            throw new CartridgeAdminException(String.format("%s %s failed with HTTP status %d: %s",
+                    method, path, response.getCode(), response.getText()));
+        }
+        return response.getText();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<?, ?>> listOf(Object value) {
+        return value instanceof List ? (List<Map<?, ?>>) value : Collections.emptyList();
+    }
+
+    private static String stringOf(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Cartridge server state
+     */
+    public static class Server {
+        private final String uri;
+        private final String uuid;
+        private final String alias;
+        private final String status;
+        private final String message;
+        private final String replicasetUuid;
+
+        Server(Map<?, ?> map) {
+            this.uri = stringOf(map.get("uri"));
+            this.uuid = stringOf(map.get("uuid"));
+            this.alias = stringOf(map.get("alias"));
+            this.status = stringOf(map.get("status"));
+            this.message = stringOf(map.get("message"));
+            Object replicaset = map.get("replicaset");
+            this.replicasetUuid = replicaset instanceof Map ? stringOf(((Map<?, ?>) replicaset).get("uuid")) : null;
+        }
+
+        /**
+         * Get the advertise URI of the server
+         *
+         * @return advertise URI
+         */
+        public String getUri() {
+            return uri;
+        }
+
+        /**
+         * Get the UUID of the server
+         *
+         * @return server UUID, null if the server has not joined the cluster
+         */
+        public String getUuid() {
+            return uuid;
+        }
+
+        /**
+         * Get the alias of the server
+         *
+         * @return server alias
+         */
+        public String getAlias() {
+            return alias;
+        }
+
+        /**
+         * Get the status of the server
+         *
+         * @return status, e.g. "healthy" or "unconfigured"
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * Get the status message of the server
+         *
+         * @return status message
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Get the UUID of the replicaset of the server
+         *
+         * @return replicaset UUID, null if the server has not joined the cluster
+         */
+        public String getReplicasetUuid() {
+            return replicasetUuid;
+        }
+
+        /**
+         * Check if the server has joined the cluster and its roles are configured
+         *
+         * @return true if the server status is "healthy"
+         */
+        public boolean isHealthy() {
+            return "healthy".equals(status);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Server{alias=%s, uri=%s, status=%s}", alias, uri, status);
+        }
+    }
+
+    /**
+     * Cartridge replicaset state
+     */
+    public static class Replicaset {
+        private final String uuid;
+        private final String alias;
+        private final List<String> roles = new ArrayList<>();
+        private final String status;
+        private final Double weight;
+        private final String vshardGroup;
+        private final boolean allRw;
+        private final String masterUri;
+        private final List<String> serverUris = new ArrayList<>();
+
+        Replicaset(Map<?, ?> map) {
+            this.uuid = stringOf(map.get("uuid"));
+            this.alias = stringOf(map.get("alias"));
+            if (map.get("roles") instanceof List) {
+                for (Object role : (List<?>) map.get("roles")) {
+                    roles.add(String.valueOf(role));
+                }
+            }
+            this.status = stringOf(map.get("status"));
+            this.weight = map.get("weight") instanceof Number ? ((Number) map.get("weight")).doubleValue() : null;
+            this.vshardGroup = stringOf(map.get("vshard_group"));
+            this.allRw = Boolean.TRUE.equals(map.get("all_rw"));
+            Object master = map.get("master");
+            this.masterUri = master instanceof Map ? stringOf(((Map<?, ?>) master).get("uri")) : null;
+            for (Map<?, ?> server : listOf(map.get("servers"))) {
+                serverUris.add(stringOf(server.get("uri")));
+            }
+        }
+
+        /**
+         * Get the replicaset UUID
+         *
+         * @return replicaset UUID
+         */
+        public String getUuid() {
+            return uuid;
+        }
+
+        /**
+         * Get the replicaset alias
+         *
+         * @return replicaset alias
+         */
+        public String getAlias() {
+            return alias;
+        }
+
+        /**
+         * Get the roles enabled on the replicaset
+         *
+         * @return role names
+         */
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        /**
+         * Get the replicaset status
+         *
+         * @return status, e.g. "healthy"
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * Get the vshard weight of the replicaset
+         *
+         * @return weight, null if the replicaset is not a vshard storage
+         */
+        public Double getWeight() {
+            return weight;
+        }
+
+        /**
+         * Get the vshard group of the replicaset
+         *
+         * @return vshard group name, null if the replicaset is not a vshard storage
+         */
+        public String getVshardGroup() {
+            return vshardGroup;
+        }
+
+        /**
+         * Check whether all instances of the replicaset are writable
+         *
+         * @return true if all instances are writable
+         */
+        public boolean isAllRw() {
+            return allRw;
+        }
+
+        /**
+         * Get the URI of the replicaset master
+         *
+         * @return master URI
+         */
+        public String getMasterUri() {
+            return masterUri;
+        }
+
+        /**
+         * Get the URIs of the replicaset servers
+         *
+         * @return server URIs
+         */
+        public List<String> getServerUris() {
+            return serverUris;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Replicaset{alias=%s, roles=%s, weight=%s, servers=%s}",
+                    alias, roles, weight, serverUris);
+        }
+    }
+
+    /**
+     * Cartridge cluster issue
+     */
+    public static class Issue {
+        private final String level;
+        private final String topic;
+        private final String message;
+        private final String instanceUuid;
+        private final String replicasetUuid;
+
+        Issue(Map<?, ?> map) {
+            this.level = stringOf(map.get("level"));
+            this.topic = stringOf(map.get("topic"));
+            this.message = stringOf(map.get("message"));
+            this.instanceUuid = stringOf(map.get("instance_uuid"));
+            this.replicasetUuid = stringOf(map.get("replicaset_uuid"));
+        }
+
+        /**
+         * Get the issue level
+         *
+         * @return level, e.g. "warning" or "critical"
+         */
+        public String getLevel() {
+            return level;
+        }
+
+        /**
+         * Get the issue topic
+         *
+         * @return topic, e.g. "replication"
+         */
+        public String getTopic() {
+            return topic;
+        }
+
+        /**
+         * Get the issue message
+         *
+         * @return message
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Get the UUID of the instance which reported the issue
+         *
+         * @return instance UUID
+         */
+        public String getInstanceUuid() {
+            return instanceUuid;
+        }
+
+        /**
+         * Get the UUID of the replicaset which reported the issue
+         *
+         * @return replicaset UUID
+         */
+        public String getReplicasetUuid() {
+            return replicasetUuid;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Issue{level=%s, topic=%s, message=%s}", level, topic, message);
+        }
+    }
+
+    /**
+     * Cartridge cluster health: the server states and the issues reported by the cluster
+     */
+    public static class Health {
+        private final List<Server> servers;
+        private final List<Issue> issues;
+
+        Health(List<Server> servers, List<Issue> issues) {
+            this.servers = Collections.unmodifiableList(servers);
+            this.issues = Collections.unmodifiableList(issues);
+        }
+
+        /**
+         * Get the server states
+         *
+         * @return servers
+         */
+        public List<Server> getServers() {
+            return servers;
+        }
+
+        /**
+         * Get the cluster issues
+         *
+         * @return issues
+         */
+        public List<Issue> getIssues() {
+            return issues;
+        }
+
+        /**
+         * Check if all servers are healthy and there are no critical issues
+         *
+         * @return true if the cluster is healthy
+         */
+        public boolean isHealthy() {
+            for (Server server : servers) {
+                if (!server.isHealthy()) {
+                    return false;
+                }
+            }
+            for (Issue issue : issues) {
+                if ("critical".equals(issue.getLevel())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Health{servers=%s, issues=%s}", servers, issues);
+        }
+    }
+
+    /**
+     * Cartridge failover parameters
+     */
+    public static class FailoverParams {
+        private final String mode;
+        private final String stateProvider;
+        private final Double failoverTimeout;
+        private final boolean fencingEnabled;
+        private final Double fencingTimeout;
+        private final Double fencingPause;
+
+        FailoverParams(Map<?, ?> map) {
+            this.mode = stringOf(map.get("mode"));
+            this.stateProvider = stringOf(map.get("state_provider"));
+            this.failoverTimeout = doubleOf(map.get("failover_timeout"));
+            this.fencingEnabled = Boolean.TRUE.equals(map.get("fencing_enabled"));
+            this.fencingTimeout = doubleOf(map.get("fencing_timeout"));
+            this.fencingPause = doubleOf(map.get("fencing_pause"));
+        }
+
+        private static Double doubleOf(Object value) {
+            return value instanceof Number ? ((Number) value).doubleValue() : null;
+        }
+
+        /**
+         * Get the failover mode
+         *
+         * @return failover mode
+         */
+        public String getMode() {
+            return mode;
+        }
+
+        /**
+         * Get the state provider of the stateful failover
+         *
+         * @return state provider, null if not set
+         */
+        public String getStateProvider() {
+            return stateProvider;
+        }
+
+        /**
+         * Get the failover timeout
+         *
+         * @return timeout in seconds
+         */
+        public Double getFailoverTimeout() {
+            return failoverTimeout;
+        }
+
+        /**
+         * Check whether fencing is enabled
+         *
+         * @return true if fencing is enabled
+         */
+        public boolean isFencingEnabled() {
+            return fencingEnabled;
+        }
+
+        /**
+         * Get the fencing timeout
+         *
+         * @return timeout in seconds
+         */
+        public Double getFencingTimeout() {
+            return fencingTimeout;
+        }
+
+        /**
+         * Get the fencing pause
+         *
+         * @return pause in seconds
+         */
+        public Double getFencingPause() {
+            return fencingPause;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("FailoverParams{mode=%s, stateProvider=%s, failoverTimeout=%s}",
+                    mode, stateProvider, failoverTimeout);
+        }
+    }
+}
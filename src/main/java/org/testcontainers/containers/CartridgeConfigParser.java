@@ -5,6 +5,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -25,6 +26,10 @@ class CartridgeConfigParser {
         instances.set(Collections.unmodifiableMap(yaml.load(inputStream)));
     }
 
+    public CartridgeConfigParser(Map<String, Map<String, Object>> instances) {
+        this.instances.set(Collections.unmodifiableMap(instances));
+    }
+
     public Integer[] getExposablePorts() {
         List<Integer> ports = instances.get().values().stream()
             .map(Instance::new)
@@ -39,6 +44,22 @@ class CartridgeConfigParser {
         return ports.toArray(new Integer[]{});
     }
 
+    /**
+     * Get the HTTP ports of the instances
+     *
+     * @return HTTP port by instance name, without the application name prefix
+     */
+    public Map<String, Integer> getHttpPorts() {
+        Map<String, Integer> ports = new TreeMap<>();
+        instances.get().forEach((name, instance) -> {
+            Integer httpPort = new Instance(instance).getHttpPort();
+            if (httpPort != null) {
+                ports.put(name.substring(name.indexOf('.') + 1), httpPort);
+            }
+        });
+        return ports;
+    }
+
     static class Instance {
         private String workdir;
         private String advertiseUri;
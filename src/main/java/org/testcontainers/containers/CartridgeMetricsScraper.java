@@ -0,0 +1,171 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.testcontainers.containers.exceptions.CartridgeMetricsException;
+
+/**
+ * Scraper of the metrics exported over HTTP by the Cartridge metrics role. The export must be enabled in the
+ * application, for example with the "metrics" section of the clusterwide configuration:
+ *
+ * <pre>
+ * <code>
+ * metrics:
+ *   export:
+ *     - path: '/metrics'
+ *       format: prometheus
+ * </code>
+ * </pre>
+ * <p>
+ * Both the Prometheus text format and the JSON format are supported, the format is detected from the response. The
+ * response is read into a buffer reused between the scrapes and parsed in place, see {@link TarantoolMetricsParser}.
+ * Typical usage is scraping before and after the tested actions and asserting on the {@link TarantoolMetrics#delta}:
+ *
+ * <pre>
+ * <code>
+ * Map&lt;String, TarantoolMetrics&gt; before = scraper.scrape();
+ * // ... send the requests ...
+ * Map&lt;String, TarantoolMetrics&gt; delta = CartridgeMetricsScraper.delta(before, scraper.scrape());
+ * double rps = delta.get("router").getRate("http_server_request_latency_count");
+ * </code>
+ * </pre>
+ *
+ * @see TarantoolCartridgeContainer#getMetricsScraper()
+ */
+public class CartridgeMetricsScraper {
+
+    private static final String DEFAULT_PATH = "/metrics";
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String host;
+    private final Map<String, Integer> ports;
+    private final TarantoolMetricsParser parser = new TarantoolMetricsParser();
+    private String path = DEFAULT_PATH;
+    private Duration timeout = DEFAULT_TIMEOUT;
+    private byte[] buffer = new byte[64 * 1024];
+
+    /**
+     * Basic constructor
+     *
+     * @param host  instances HTTP host
+     * @param ports instance HTTP ports by instance name
+     */
+    public CartridgeMetricsScraper(String host, Map<String, Integer> ports) {
+        this.host = host;
+        this.ports = new TreeMap<>(ports);
+    }
+
+    /**
+     * Specify the path of the metrics endpoint. Defaults to "/metrics".
+     *
+     * @param path HTTP path
+     * @return this scraper
+     */
+    public CartridgeMetricsScraper withPath(String path) {
+        this.path = path;
+        return this;
+    }
+
+    /**
+     * Set the connect and read timeout for the requests
+     *
+     * @param timeout request timeout
+     * @return this scraper
+     */
+    public CartridgeMetricsScraper withTimeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Get the names of the instances with an HTTP port
+     *
+     * @return instance names
+     */
+    public List<String> getInstances() {
+        return new ArrayList<>(ports.keySet());
+    }
+
+    /**
+     * Scrape the metrics of all instances
+     *
+     * @return metrics by instance name
+     * @throws CartridgeMetricsException if the metrics of an instance cannot be scraped
+     */
+    public synchronized Map<String, TarantoolMetrics> scrape() {
+        Map<String, TarantoolMetrics> result = new TreeMap<>();
+        for (String instance : ports.keySet()) {
+            result.put(instance, scrape(instance));
+        }
+        return result;
+    }
+
+    /**
+     * Scrape the metrics of an instance
+     *
+     * @param instance instance name
+     * @return instance metrics
+     * @throws CartridgeMetricsException if the metrics cannot be scraped
+     */
+    public synchronized TarantoolMetrics scrape(String instance) {
+        Integer port = ports.get(instance);
+        if (port == null) {
+            throw new IllegalArgumentException(String.format("Instance %s has no HTTP port", instance));
+        }
+        Instant timestamp = Instant.now();
+        long nanoTime = System.nanoTime();
+        int length = request(instance, port);
+        int first = 0;
+        while (first < length && buffer[first] <= ' ') {
+            first++;
+        }
+        List<TarantoolMetric> samples = first < length && buffer[first] == '[' ?
+                parser.parseJson(new String(buffer, 0, length, StandardCharsets.UTF_8)) :
+                parser.parsePrometheus(buffer, length);
+        return new TarantoolMetrics(instance, timestamp, nanoTime, Duration.ZERO, samples);
+    }
+
+    /**
+     * Compute the changes of the metrics of each instance between two scrapes, see
+     * {@link TarantoolMetrics#delta(TarantoolMetrics)}
+     *
+     * @param before metrics scraped earlier
+     * @param after  metrics scraped later
+     * @return deltas by instance name, only for the instances present in both scrapes
+     */
+    public static Map<String, TarantoolMetrics> delta(Map<String, TarantoolMetrics> before,
+                                                      Map<String, TarantoolMetrics> after) {
+        Map<String, TarantoolMetrics> result = new TreeMap<>();
+        for (Map.Entry<String, TarantoolMetrics> entry : after.entrySet()) {
+            TarantoolMetrics earlier = before.get(entry.getKey());
+            if (earlier != null) {
+                result.put(entry.getKey(), entry.getValue().delta(earlier));
+            }
+        }
+        return result;
+    }
+
+    private int request(String instance, int port) {
+        HttpUtils.Response response;
+        try {
+            response = HttpUtils.request(new URL("http", host, port, path), "GET", timeout, null, null, null,
+                    buffer);
+        } catch (IOException e) {
+            throw new CartridgeMetricsException(String.format("GET %s on instance %s failed", path, instance), e);
+        }
+        buffer = response.getBuffer();
+        if (!response.isSuccessful()) {
+            throw new CartridgeMetricsException(String.format("GET %s on instance %s failed with HTTP status %d: %s",
+                    path, instance, response.getCode(), response.getText()));
+        }
+        return response.getLength();
+    }
+}
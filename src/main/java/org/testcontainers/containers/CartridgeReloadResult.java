@@ -0,0 +1,135 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of a hot reload of the Cartridge application code, see
+ * {@link TarantoolCartridgeContainer#reloadApplication()}
+ */
+public class CartridgeReloadResult {
+
+    private final List<String> changedFiles;
+    private final List<String> deletedFiles;
+    private final int sentFiles;
+    private final List<String> reloadedInstances;
+    private final Duration scanDuration;
+    private final Duration syncDuration;
+    private final Duration reloadDuration;
+    private final Duration healthDuration;
+
+    /**
+     * Basic constructor
+     *
+     * @param changedFiles      added and modified files, relative to the directory binding
+     * @param deletedFiles      deleted files, relative to the directory binding
+     * @param sentFiles         number of the files sent to the container
+     * @param reloadedInstances aliases of the instances which reloaded the roles
+     * @param scanDuration      time spent on hashing the files
+     * @param syncDuration      time spent on sending the files to the container
+     * @param reloadDuration    time spent on reloading the roles
+     * @param healthDuration    time spent on waiting for the cluster health
+     */
+    public CartridgeReloadResult(List<String> changedFiles, List<String> deletedFiles, int sentFiles,
+                                 List<String> reloadedInstances, Duration scanDuration, Duration syncDuration,
+                                 Duration reloadDuration, Duration healthDuration) {
+        this.changedFiles = Collections.unmodifiableList(changedFiles);
+        this.deletedFiles = Collections.unmodifiableList(deletedFiles);
+        this.sentFiles = sentFiles;
+        this.reloadedInstances = Collections.unmodifiableList(reloadedInstances);
+        this.scanDuration = scanDuration;
+        this.syncDuration = syncDuration;
+        this.reloadDuration = reloadDuration;
+        this.healthDuration = healthDuration;
+    }
+
+    /**
+     * Get the files added or modified since the container start or the previous reload
+     *
+     * @return file paths relative to the directory binding
+     */
+    public List<String> getChangedFiles() {
+        return changedFiles;
+    }
+
+    /**
+     * Get the files deleted since the container start or the previous reload
+     *
+     * @return file paths relative to the directory binding
+     */
+    public List<String> getDeletedFiles() {
+        return deletedFiles;
+    }
+
+    /**
+     * Get the number of the files sent to the container. The files in a bind-mounted directory are not sent.
+     *
+     * @return number of the files
+     */
+    public int getSentFiles() {
+        return sentFiles;
+    }
+
+    /**
+     * Get the instances which reloaded the roles
+     *
+     * @return instance aliases, empty if no files have changed
+     */
+    public List<String> getReloadedInstances() {
+        return reloadedInstances;
+    }
+
+    /**
+     * Get the time spent on hashing the files
+     *
+     * @return scan duration
+     */
+    public Duration getScanDuration() {
+        return scanDuration;
+    }
+
+    /**
+     * Get the time spent on sending the changed files to the container
+     *
+     * @return sync duration
+     */
+    public Duration getSyncDuration() {
+        return syncDuration;
+    }
+
+    /**
+     * Get the time spent on cartridge.reload_roles() on all instances
+     *
+     * @return reload duration
+     */
+    public Duration getReloadDuration() {
+        return reloadDuration;
+    }
+
+    /**
+     * Get the time spent on waiting until the cluster is healthy after the reload
+     *
+     * @return health check duration
+     */
+    public Duration getHealthDuration() {
+        return healthDuration;
+    }
+
+    /**
+     * Get the total reload time
+     *
+     * @return sum of all phases
+     */
+    public Duration getDuration() {
+        return scanDuration.plus(syncDuration).plus(reloadDuration).plus(healthDuration);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("changed=%s, deleted=%s, sent=%d, reloaded=%s, scan=%dms, sync=%dms, reload=%dms, " +
+                        "health=%dms, total=%dms", changedFiles, deletedFiles, sentFiles, reloadedInstances,
+                scanDuration.toMillis(), syncDuration.toMillis(), reloadDuration.toMillis(),
+                healthDuration.toMillis(), getDuration().toMillis());
+    }
+}
@@ -0,0 +1,415 @@
+package org.testcontainers.containers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Describes a Cartridge cluster topology in Java code: the instances (the contents of the instances.yml file),
+ * the replicasets and the failover parameters. Replaces the instances file and the topology script or
+ * replicasets.yml in the classpath resources:
+ *
+ * <pre>
+ * <code>
+ * CartridgeTopology topology = new CartridgeTopology("testapp")
+ *     .withInstance("router", "localhost:3301", 8081)
+ *     .withInstance("s1-master", "localhost:3302", 8082)
+ *     .withInstance("s1-replica", "localhost:3303", 8083)
+ *     .withReplicaset(new CartridgeTopology.Replicaset("router")
+ *         .withRoles("vshard-router", "app.roles.api_router")
+ *         .withInstances("router"))
+ *     .withReplicaset(new CartridgeTopology.Replicaset("s1-storage")
+ *         .withRoles("vshard-storage", "app.roles.api_storage")
+ *         .withInstances("s1-master", "s1-replica")
+ *         .withWeight(1))
+ *     .withFailover(new CartridgeTopology.Failover("eventual"));
+ *
+ * TarantoolCartridgeContainer container = new TarantoolCartridgeContainer(topology);
+ * </code>
+ * </pre>
+ * <p>
+ * The whole topology is applied with a single cartridge.admin_edit_topology() call.
+ */
+public class CartridgeTopology {
+
+    private final String appName;
+    private final Map<String, Map<String, Object>> instances = new LinkedHashMap<>();
+    private final List<Replicaset> replicasets = new ArrayList<>();
+    private Failover failover;
+
+    /**
+     * Basic constructor
+     *
+     * @param appName Cartridge application name, the instance names in the generated instances file are prefixed
+     *                with it (see the "package" field in the application rockspec)
+     */
+    public CartridgeTopology(String appName) {
+        if (appName == null || appName.isEmpty()) {
+            throw new IllegalArgumentException("Application name must not be null or empty");
+        }
+        this.appName = appName;
+    }
+
+    /**
+     * Add an instance
+     *
+     * @param name         instance name without the application name prefix, e.g. "router"
+     * @param advertiseUri instance advertise URI, e.g. "localhost:3301"
+     * @param httpPort     instance HTTP port
+     * @return this topology instance
+     */
+    public CartridgeTopology withInstance(String name, String advertiseUri, int httpPort) {
+        return withInstance(name, advertiseUri, httpPort, Collections.emptyMap());
+    }
+
+    /**
+     * Add an instance with additional options
+     *
+     * @param name         instance name without the application name prefix, e.g. "router"
+     * @param advertiseUri instance advertise URI, e.g. "localhost:3301"
+     * @param httpPort     instance HTTP port
+     * @param options      other instance options, like "memtx_memory" or "workdir"
+     * @return this topology instance
+     */
+    public CartridgeTopology withInstance(String name, String advertiseUri, int httpPort,
+                                          Map<String, Object> options) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Instance name must not be null or empty");
+        }
+        if (advertiseUri == null || advertiseUri.indexOf(':') < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid advertise URI %s for instance %s", advertiseUri, name));
+        }
+        Map<String, Object> instance = new LinkedHashMap<>(options);
+        instance.put("advertise_uri", advertiseUri);
+        instance.put("http_port", httpPort);
+        instances.put(name, instance);
+        return this;
+    }
+
+    /**
+     * Add a replicaset
+     *
+     * @param replicaset replicaset description
+     * @return this topology instance
+     */
+    public CartridgeTopology withReplicaset(Replicaset replicaset) {
+        replicasets.add(replicaset);
+        return this;
+    }
+
+    /**
+     * Set the failover parameters, which are applied after the topology
+     *
+     * @param failover failover parameters
+     * @return this topology instance
+     */
+    public CartridgeTopology withFailover(Failover failover) {
+        this.failover = failover;
+        return this;
+    }
+
+    /**
+     * Get the application name
+     *
+     * @return application name
+     */
+    public String getAppName() {
+        return appName;
+    }
+
+    /**
+     * Get the failover parameters
+     *
+     * @return failover parameters or null if not specified
+     */
+    public Failover getFailover() {
+        return failover;
+    }
+
+    /**
+     * Get the contents of the instances.yml file as a map
+     *
+     * @return instance options by full instance name
+     */
+    Map<String, Map<String, Object>> toInstancesMap() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : instances.entrySet()) {
+            result.put(appName + "." + entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Generate the contents of the instances.yml file
+     *
+     * @return YAML document
+     */
+    String toInstancesYaml() {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        return new Yaml(options).dump(toInstancesMap());
+    }
+
+    /**
+     * Generate the Lua command applying the replicasets
+     *
+     * @return Lua command
+     */
+    String toEditTopologyCommand() {
+        if (replicasets.isEmpty()) {
+            throw new IllegalStateException("The topology must contain at least one replicaset");
+        }
+        List<Map<String, Object>> result = new ArrayList<>(replicasets.size());
+        for (Replicaset replicaset : replicasets) {
+            result.add(replicaset.toEditTopologyParams(instances));
+        }
+        return String.format(
+                "return require('cartridge').admin_edit_topology({replicasets = %s})", LuaLiterals.toLua(result));
+    }
+
+    /**
+     * Generate the Lua command applying the failover parameters
+     *
+     * @return Lua command
+     */
+    String toFailoverCommand() {
+        return String.format("return require('cartridge').failover_set_params(%s)",
+                LuaLiterals.toLua(failover.toParams()));
+    }
+
+    /**
+     * Cartridge replicaset description
+     */
+    public static class Replicaset {
+        private final String alias;
+        private final List<String> roles = new ArrayList<>();
+        private final List<String> instances = new ArrayList<>();
+        private Double weight;
+        private String vshardGroup;
+        private Boolean allRw;
+
+        /**
+         * Basic constructor
+         *
+         * @param alias replicaset alias
+         */
+        public Replicaset(String alias) {
+            if (alias == null || alias.isEmpty()) {
+                throw new IllegalArgumentException("Replicaset alias must not be null or empty");
+            }
+            this.alias = alias;
+        }
+
+        /**
+         * Add the replicaset roles
+         *
+         * @param roles role names, e.g. "vshard-storage"
+         * @return this replicaset instance
+         */
+        public Replicaset withRoles(String... roles) {
+            this.roles.addAll(Arrays.asList(roles));
+            return this;
+        }
+
+        /**
+         * Add the replicaset instances. The first instance becomes the replicaset master.
+         *
+         * @param instanceNames names of the instances added to the topology
+         * @return this replicaset instance
+         */
+        public Replicaset withInstances(String... instanceNames) {
+            this.instances.addAll(Arrays.asList(instanceNames));
+            return this;
+        }
+
+        /**
+         * Set the vshard weight of the replicaset
+         *
+         * @param weight replicaset weight
+         * @return this replicaset instance
+         */
+        public Replicaset withWeight(double weight) {
+            this.weight = weight;
+            return this;
+        }
+
+        /**
+         * Set the vshard group of the replicaset
+         *
+         * @param vshardGroup vshard group name
+         * @return this replicaset instance
+         */
+        public Replicaset withVshardGroup(String vshardGroup) {
+            this.vshardGroup = vshardGroup;
+            return this;
+        }
+
+        /**
+         * Make all instances of the replicaset writable
+         *
+         * @param allRw true if all instances must be writable
+         * @return this replicaset instance
+         */
+        public Replicaset withAllRw(boolean allRw) {
+            this.allRw = allRw;
+            return this;
+        }
+
+        /**
+         * Get the replicaset alias
+         *
+         * @return replicaset alias
+         */
+        public String getAlias() {
+            return alias;
+        }
+
+        Map<String, Object> toEditTopologyParams(Map<String, Map<String, Object>> knownInstances) {
+            if (instances.isEmpty()) {
+                throw new IllegalStateException(
+                        String.format("Replicaset %s must contain at least one instance", alias));
+            }
+            List<Map<String, Object>> joinServers = new ArrayList<>(instances.size());
+            for (String name : instances) {
+                Map<String, Object> instance = knownInstances.get(name);
+                if (instance == null) {
+                    throw new IllegalStateException(
+                            String.format("Instance %s of replicaset %s is not added to the topology", name, alias));
+                }
+                joinServers.add(Collections.singletonMap("uri", instance.get("advertise_uri")));
+            }
+            Map<String, Object> params = new LinkedHashMap<>();
+            params.put("alias", alias);
+            params.put("roles", roles);
+            params.put("join_servers", joinServers);
+            if (weight != null) {
+                params.put("weight", weight);
+            }
+            if (vshardGroup != null) {
+                params.put("vshard_group", vshardGroup);
+            }
+            if (allRw != null) {
+                params.put("all_rw", allRw);
+            }
+            return params;
+        }
+    }
+
+    /**
+     * Cartridge failover parameters, see cartridge.failover_set_params()
+     */
+    public static class Failover {
+        private final String mode;
+        private String stateProvider;
+        private Map<String, Object> stateProviderParams;
+        private Double failoverTimeout;
+        private Boolean fencingEnabled;
+        private Double fencingTimeout;
+        private Double fencingPause;
+
+        /**
+         * Basic constructor
+         *
+         * @param mode failover mode: "disabled", "eventual", "stateful" or "raft"
+         */
+        public Failover(String mode) {
+            if (mode == null || mode.isEmpty()) {
+                throw new IllegalArgumentException("Failover mode must not be null or empty");
+            }
+            this.mode = mode;
+        }
+
+        /**
+         * Use the stateboard state provider for the stateful failover
+         *
+         * @param uri      stateboard URI
+         * @param password stateboard password
+         * @return this failover instance
+         */
+        public Failover withStateboard(String uri, String password) {
+            Map<String, Object> params = new LinkedHashMap<>();
+            params.put("uri", uri);
+            params.put("password", password);
+            // Cartridge names the stateboard state provider "tarantool"
+            this.stateProvider = "tarantool";
+            this.stateProviderParams = params;
+            return this;
+        }
+
+        /**
+         * Use the etcd v2 state provider for the stateful failover
+         *
+         * @param prefix    etcd key prefix
+         * @param endpoints etcd endpoints
+         * @return this failover instance
+         */
+        public Failover withEtcd2(String prefix, String... endpoints) {
+            Map<String, Object> params = new LinkedHashMap<>();
+            params.put("prefix", prefix);
+            params.put("endpoints", Arrays.asList(endpoints));
+            this.stateProvider = "etcd2";
+            this.stateProviderParams = params;
+            return this;
+        }
+
+        /**
+         * Set the failover timeout
+         *
+         * @param failoverTimeout timeout in seconds
+         * @return this failover instance
+         */
+        public Failover withFailoverTimeout(double failoverTimeout) {
+            this.failoverTimeout = failoverTimeout;
+            return this;
+        }
+
+        /**
+         * Enable or disable fencing
+         *
+         * @param fencingEnabled true if fencing must be enabled
+         * @param fencingTimeout fencing timeout in seconds
+         * @param fencingPause   fencing pause in seconds
+         * @return this failover instance
+         */
+        public Failover withFencing(boolean fencingEnabled, double fencingTimeout, double fencingPause) {
+            this.fencingEnabled = fencingEnabled;
+            this.fencingTimeout = fencingTimeout;
+            this.fencingPause = fencingPause;
+            return this;
+        }
+
+        /**
+         * Get the failover mode
+         *
+         * @return failover mode
+         */
+        public String getMode() {
+            return mode;
+        }
+
+        Map<String, Object> toParams() {
+            Map<String, Object> params = new LinkedHashMap<>();
+            params.put("mode", mode);
+            if (stateProvider != null) {
+                params.put("state_provider", stateProvider);
+                params.put(stateProvider + "_params", stateProviderParams);
+            }
+            if (failoverTimeout != null) {
+                params.put("failover_timeout", failoverTimeout);
+            }
+            if (fencingEnabled != null) {
+                params.put("fencing_enabled", fencingEnabled);
+                params.put("fencing_timeout", fencingTimeout);
+                params.put("fencing_pause", fencingPause);
+            }
+            return params;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.testcontainers.containers;
+
+/**
+ * Defines how the directory binding is made available in the container instance directory
+ */
+public enum DirectoryBindingMode {
+    /**
+     * Bind-mount the host directory read-write. The changes on the host are visible in the container immediately,
+     * and the server can write into the host directory. This is the default mode.
+     */
+    BIND,
+    /**
+     * Copy the host directory into the container filesystem before the start. The changes on the host are sent to
+     * the container on demand.
+     */
+    COPY,
+    /**
+     * Mount a tmpfs into the instance directory and copy the host directory onto it before the server is launched.
+     * The changes on the host are sent to the container on demand.
+     */
+    TMPFS
+}
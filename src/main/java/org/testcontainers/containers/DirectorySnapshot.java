@@ -0,0 +1,170 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content hashes of the files in a host directory, used for finding the files changed since the previous snapshot.
+ * The directories ignored by {@link TarantoolContainerFingerprint} are skipped.
+ */
+final class DirectorySnapshot {
+
+    private final Map<String, String> hashes;
+
+    private DirectorySnapshot(Map<String, String> hashes) {
+        this.hashes = Collections.unmodifiableMap(hashes);
+    }
+
+    /**
+     * Hash all files in a directory
+     *
+     * @param root host directory
+     * @return snapshot with the hashes by the normalized relative file path
+     */
+    static DirectorySnapshot of(Path root) {
+        Map<String, String> hashes = new TreeMap<>();
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(file -> !TarantoolContainerFingerprint.isIgnored(root.relativize(file)))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        for (Path file : files) {
+            digest.reset();
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            hashes.put(PathUtils.normalizePath(root.relativize(file)), toHex(digest.digest()));
+        }
+        return new DirectorySnapshot(hashes);
+    }
+
+    /**
+     * Create a snapshot of an empty directory
+     *
+     * @return empty snapshot
+     */
+    static DirectorySnapshot empty() {
+        return new DirectorySnapshot(Collections.emptyMap());
+    }
+
+    /**
+     * Get the file hashes
+     *
+     * @return hex-encoded SHA-256 hashes by the relative file path
+     */
+    Map<String, String> getHashes() {
+        return hashes;
+    }
+
+    /**
+     * Compare with a previous snapshot of the same directory
+     *
+     * @param previous previous snapshot
+     * @return added, modified and deleted files
+     */
+    Changes diff(DirectorySnapshot previous) {
+        List<String> added = new ArrayList<>();
+        List<String> modified = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (Map.Entry<String, String> file : hashes.entrySet()) {
+            String previousHash = previous.hashes.get(file.getKey());
+            if (previousHash == null) {
+                added.add(file.getKey());
+            } else if (!previousHash.equals(file.getValue())) {
+                modified.add(file.getKey());
+            }
+        }
+        for (String file : previous.hashes.keySet()) {
+            if (!hashes.containsKey(file)) {
+                deleted.add(file);
+            }
+        }
+        return new Changes(added, modified, deleted);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Files changed between two snapshots, the paths are relative to the directory
+     */
+    static final class Changes {
+        private final List<String> added;
+        private final List<String> modified;
+        private final List<String> deleted;
+
+        Changes(List<String> added, List<String> modified, List<String> deleted) {
+            this.added = Collections.unmodifiableList(added);
+            this.modified = Collections.unmodifiableList(modified);
+            this.deleted = Collections.unmodifiableList(deleted);
+        }
+
+        List<String> getAdded() {
+            return added;
+        }
+
+        List<String> getModified() {
+            return modified;
+        }
+
+        List<String> getDeleted() {
+            return deleted;
+        }
+
+        /**
+         * Get the added and modified files
+         *
+         * @return files which content must be sent
+         */
+        List<String> getChanged() {
+            List<String> changed = new ArrayList<>(added);
+            changed.addAll(modified);
+            Collections.sort(changed);
+            return changed;
+        }
+
+        boolean isEmpty() {
+            return added.isEmpty() && modified.isEmpty() && deleted.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "Changes{added=" + added + ", modified=" + modified + ", deleted=" + deleted + '}';
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.testcontainers.containers.exceptions.TarantoolDirectorySyncException;
+
+/**
+ * Sends the changes of a host directory to a container directory. The files are hashed (see
+ * {@link DirectorySnapshot}), the added and modified ones are sent in a single tar archive and the deleted ones are
+ * removed, so that only the changes since the previous sync are transferred.
+ */
+final class DirectorySync {
+
+    private static final int DELETE_BATCH_SIZE = 100;
+
+    private final Path root;
+    private final String containerDir;
+    private DirectorySnapshot snapshot = DirectorySnapshot.empty();
+
+    /**
+     * Basic constructor
+     *
+     * @param root         host directory
+     * @param containerDir target directory in the container
+     */
+    DirectorySync(Path root, String containerDir) {
+        this.root = root;
+        this.containerDir = containerDir;
+    }
+
+    /**
+     * Get the host directory
+     *
+     * @return directory path
+     */
+    Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Remember the current directory contents as already present in the container, e.g. when the directory has
+     * been copied into the container before the start
+     */
+    synchronized void markSynced() {
+        snapshot = DirectorySnapshot.of(root);
+    }
+
+    /**
+     * Send the files changed since the previous sync to the container and remove the deleted ones
+     *
+     * @param container running container
+     * @return changed files and the sync duration
+     */
+    synchronized DirectorySyncResult sync(Container<?> container) {
+        long startedAt = System.nanoTime();
+        DirectorySnapshot current = DirectorySnapshot.of(root);
+        DirectorySnapshot.Changes changes = current.diff(snapshot);
+        int sentFiles = send(container, changes);
+        snapshot = current;
+        return new DirectorySyncResult(changes.getChanged(), changes.getDeleted(), sentFiles,
+                Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+
+    /**
+     * Send the already detected changes to the container
+     *
+     * @param container running container
+     * @param changes   changes of the host directory
+     * @return number of the sent files
+     */
+    int send(Container<?> container, DirectorySnapshot.Changes changes) {
+        List<String> changed = changes.getChanged();
+        try {
+            if (!changed.isEmpty()) {
+                sendFiles(container, changed);
+            }
+            if (!changes.getDeleted().isEmpty()) {
+                deleteFiles(container, changes.getDeleted());
+            }
+        } catch (IOException e) {
+            throw new TarantoolDirectorySyncException(
+                    String.format("Failed to send the changes of %s to the container", root), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TarantoolDirectorySyncException("Interrupted while sending the files to the container", e);
+        }
+        return changed.size();
+    }
+
+    private void sendFiles(Container<?> container, List<String> files) throws IOException {
+        Path archive = Files.createTempFile("tarantool-sync", ".tar");
+        try {
+            try (OutputStream out = Files.newOutputStream(archive)) {
+                writeArchive(root, files, out);
+            }
+            try (InputStream in = Files.newInputStream(archive)) {
+                container.getDockerClient().copyArchiveToContainerCmd(container.getContainerId())
+                        .withRemotePath(containerDir)
+                        .withTarInputStream(in)
+                        .exec();
+            }
+        } finally {
+            Files.deleteIfExists(archive);
+        }
+    }
+
+    private void deleteFiles(Container<?> container, List<String> files) throws IOException, InterruptedException {
+        for (int from = 0; from < files.size(); from += DELETE_BATCH_SIZE) {
+            List<String> command = new ArrayList<>();
+            command.add("rm");
+            command.add("-f");
+            for (String file : files.subList(from, Math.min(from + DELETE_BATCH_SIZE, files.size()))) {
+                command.add(PathUtils.normalizePath(Paths.get(containerDir, file)));
+            }
+            Container.ExecResult result = container.execInContainer(command.toArray(new String[0]));
+            if (result.getExitCode() != 0) {
+                throw new IOException("Failed to delete the files: " + result.getStderr());
+            }
+        }
+    }
+
+    /**
+     * Write the files into a tar archive, the entry names are the relative file paths. The executable files keep
+     * the executable permission.
+     *
+     * @param root  host directory
+     * @param files file paths relative to the directory
+     * @param out   archive stream, not closed
+     * @throws IOException if a file cannot be read
+     */
+    static void writeArchive(Path root, Collection<String> files, OutputStream out) throws IOException {
+        TarArchiveOutputStream tar = new TarArchiveOutputStream(out);
+        tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        for (String file : files) {
+            Path path = root.resolve(file);
+            TarArchiveEntry entry = new TarArchiveEntry(file);
+            entry.setSize(Files.size(path));
+            entry.setMode(Files.isExecutable(path) ? 0100755 : 0100644);
+            entry.setModTime(Files.getLastModifiedTime(path).toMillis());
+            tar.putArchiveEntry(entry);
+            Files.copy(path, tar);
+            tar.closeArchiveEntry();
+        }
+        tar.finish();
+        tar.flush();
+    }
+}
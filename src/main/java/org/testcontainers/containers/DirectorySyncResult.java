@@ -0,0 +1,75 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of sending the changed files of a directory binding to the container, see
+ * {@link TarantoolContainer#syncDirectoryBinding()}
+ */
+public class DirectorySyncResult {
+
+    private final List<String> changedFiles;
+    private final List<String> deletedFiles;
+    private final int sentFiles;
+    private final Duration duration;
+
+    /**
+     * Basic constructor
+     *
+     * @param changedFiles added and modified files, relative to the directory binding
+     * @param deletedFiles deleted files, relative to the directory binding
+     * @param sentFiles    number of the files sent to the container
+     * @param duration     time spent on hashing and sending the files
+     */
+    public DirectorySyncResult(List<String> changedFiles, List<String> deletedFiles, int sentFiles,
+                               Duration duration) {
+        this.changedFiles = Collections.unmodifiableList(changedFiles);
+        this.deletedFiles = Collections.unmodifiableList(deletedFiles);
+        this.sentFiles = sentFiles;
+        this.duration = duration;
+    }
+
+    /**
+     * Get the files added or modified since the container start or the previous sync
+     *
+     * @return file paths relative to the directory binding
+     */
+    public List<String> getChangedFiles() {
+        return changedFiles;
+    }
+
+    /**
+     * Get the files deleted since the container start or the previous sync
+     *
+     * @return file paths relative to the directory binding
+     */
+    public List<String> getDeletedFiles() {
+        return deletedFiles;
+    }
+
+    /**
+     * Get the number of the files sent to the container. The files in a bind-mounted directory are not sent.
+     *
+     * @return number of the files
+     */
+    public int getSentFiles() {
+        return sentFiles;
+    }
+
+    /**
+     * Get the time spent on hashing and sending the files
+     *
+     * @return sync duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("changed=%s, deleted=%s, sent=%d, total=%dms", changedFiles, deletedFiles, sentFiles,
+                duration.toMillis());
+    }
+}
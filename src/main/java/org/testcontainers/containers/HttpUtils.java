@@ -0,0 +1,140 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Minimal HTTP client for the Cartridge HTTP endpoints. The requests are sent with {@link HttpURLConnection}, which
+ * keeps the connections alive and reuses them from the JVM-wide pool as long as the responses are read completely.
+ */
+final class HttpUtils {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private HttpUtils() {
+    }
+
+    /**
+     * Send a request and read the whole response body, including the body of an error response
+     *
+     * @param url           request URL
+     * @param method        HTTP method
+     * @param timeout       connect and read timeout
+     * @param authorization value of the Authorization header, may be null
+     * @param contentType   content type of the request body, ignored if there is no body
+     * @param body          request body, may be null
+     * @param buffer        buffer for the response body, grown if the body does not fit, may be null
+     * @return response status and body
+     * @throws IOException if the request fails
+     */
+    static Response request(URL url, String method, Duration timeout, String authorization, String contentType,
+                            byte[] body, byte[] buffer) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout((int) timeout.toMillis());
+            connection.setReadTimeout((int) timeout.toMillis());
+            if (authorization != null) {
+                connection.setRequestProperty("Authorization", authorization);
+            }
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", contentType);
+                connection.setFixedLengthStreamingMode(body.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+
+            int code = connection.getResponseCode();
+            InputStream in = code < 400 ? connection.getInputStream() : connection.getErrorStream();
+            byte[] target = buffer == null || buffer.length == 0 ? new byte[DEFAULT_BUFFER_SIZE] : buffer;
+            return in == null ? new Response(code, target, 0) : readFully(code, in, target);
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private static Response readFully(int code, InputStream in, byte[] buffer) throws IOException {
+        // the stream must be read until the end and closed for the connection to return to the keep-alive pool
+        try (InputStream stream = in) {
+            int length = 0;
+            int read;
+            while ((read = stream.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            return new Response(code, buffer, length);
+        }
+    }
+
+    /**
+     * HTTP status and body of a response
+     */
+    static final class Response {
+
+        private final int code;
+        private final byte[] buffer;
+        private final int length;
+
+        private Response(int code, byte[] buffer, int length) {
+            this.code = code;
+            this.buffer = buffer;
+            this.length = length;
+        }
+
+        /**
+         * Get the HTTP status code
+         *
+         * @return status code
+         */
+        int getCode() {
+            return code;
+        }
+
+        /**
+         * Check whether the status code is not an error
+         *
+         * @return true if the status code is below 400
+         */
+        boolean isSuccessful() {
+            return code < 400;
+        }
+
+        /**
+         * Get the buffer holding the body, which may be a grown copy of the buffer passed to the request
+         *
+         * @return buffer, the body takes its first {@link #getLength()} bytes
+         */
+        byte[] getBuffer() {
+            return buffer;
+        }
+
+        /**
+         * Get the body length
+         *
+         * @return number of the body bytes in the buffer
+         */
+        int getLength() {
+            return length;
+        }
+
+        /**
+         * Decode the body as UTF-8
+         *
+         * @return body text
+         */
+        String getText() {
+            return new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.testcontainers.containers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes a Lua command on one or several instances and collects the first returned values
+ */
+@FunctionalInterface
+interface InstanceCommandRunner {
+
+    /**
+     * Execute a command
+     *
+     * @param command Lua command
+     * @return the first returned value by instance alias, the instances which returned nil may be skipped
+     * @throws Exception if the execution fails
+     */
+    Map<String, Object> run(String command) throws Exception;
+
+    /**
+     * Create a runner executing the commands on the single instance of a container, the instance alias is empty
+     *
+     * @param container container
+     * @return command runner
+     */
+    static InstanceCommandRunner of(TarantoolContainerOperations<?> container) {
+        return command -> {
+            List<?> result = container.executeCommandDecoded(command);
+            return result == null || result.isEmpty() || result.get(0) == null ? Collections.emptyMap() :
+                    Collections.singletonMap("", result.get(0));
+        };
+    }
+}
@@ -0,0 +1,353 @@
+package org.testcontainers.containers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer for the HTTP APIs and files handled by the containers. Objects are read into
+ * {@link LinkedHashMap}, arrays into {@link ArrayList}, integral numbers into {@link Integer} or {@link Long} and
+ * other numbers into {@link Double}, like the YAML documents returned by the command execution methods.
+ */
+final class JsonUtils {
+
+    private JsonUtils() {
+    }
+
+    /**
+     * Parse a JSON document
+     *
+     * @param json JSON text
+     * @return parsed value
+     * @throws IllegalArgumentException if the document is malformed
+     */
+    static Object parse(String json) {
+        Parser parser = new Parser(json);
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != json.length()) {
+            throw parser.error("Unexpected trailing characters");
+        }
+        return value;
+    }
+
+    /**
+     * Serialize a value into a JSON document. Supports {@code null}, strings, numbers, booleans, maps and
+     * collections.
+     *
+     * @param value Java value
+     * @return JSON text
+     */
+    static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, value, null, 0);
+        return sb.toString();
+    }
+
+    /**
+     * Serialize a value into an indented JSON document
+     *
+     * @param value Java value
+     * @return JSON text
+     */
+    static String writePretty(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, value, "  ", 0);
+        return sb.append('\n').toString();
+    }
+
+    private static void write(StringBuilder sb, Object value, String indent, int level) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof CharSequence) {
+            writeString(sb, value.toString());
+        } else if (value instanceof Number) {
+            if (value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite())) {
+                throw new IllegalArgumentException("Cannot represent " + value + " in JSON");
+            }
+            sb.append(value);
+        } else if (value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Map) {
+            sb.append('{');
+            Iterator<? extends Map.Entry<?, ?>> it = ((Map<?, ?>) value).entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<?, ?> entry = it.next();
+                newLine(sb, indent, level + 1);
+                writeString(sb, String.valueOf(entry.getKey()));
+                sb.append(indent == null ? ":" : ": ");
+                write(sb, entry.getValue(), indent, level + 1);
+                if (it.hasNext()) {
+                    sb.append(',');
+                }
+            }
+            if (!((Map<?, ?>) value).isEmpty()) {
+                newLine(sb, indent, level);
+            }
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            sb.append('[');
+            Iterator<?> it = ((Collection<?>) value).iterator();
+            while (it.hasNext()) {
+                newLine(sb, indent, level + 1);
+                write(sb, it.next(), indent, level + 1);
+                if (it.hasNext()) {
+                    sb.append(',');
+                }
+            }
+            if (!((Collection<?>) value).isEmpty()) {
+                newLine(sb, indent, level);
+            }
+            sb.append(']');
+        } else {
+            throw new IllegalArgumentException(
+                    String.format("Cannot represent a value of type %s in JSON", value.getClass()));
+        }
+    }
+
+    private static void newLine(StringBuilder sb, String indent, int level) {
+        if (indent != null) {
+            sb.append('\n');
+            for (int i = 0; i < level; i++) {
+                sb.append(indent);
+            }
+        }
+    }
+
+    private static void writeString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static final class Parser {
+        private final String json;
+        private int pos;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        Object readValue() {
+            if (pos >= json.length()) {
+                throw error("Unexpected end of document");
+            }
+            char c = json.charAt(pos);
+            switch (c) {
+                case '{':
+                    return readObject();
+                case '[':
+                    return readArray();
+                case '"':
+                    return readString();
+                case 't':
+                    expect("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    expect("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    expect("null");
+                    return null;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return readNumber();
+                    }
+                    throw error("Unexpected character '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected an object key");
+                }
+                String key = readString();
+                skipWhitespace();
+                if (peek() != ':') {
+                    throw error("Expected ':'");
+                }
+                pos++;
+                skipWhitespace();
+                result.put(key, readValue());
+                skipWhitespace();
+                char c = peek();
+                pos++;
+                if (c == '}') {
+                    return result;
+                } else if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> result = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return result;
+            }
+            while (true) {
+                skipWhitespace();
+                result.add(readValue());
+                skipWhitespace();
+                char c = peek();
+                pos++;
+                if (c == ']') {
+                    return result;
+                } else if (c != ',') {
+                    throw error("Expected ',' or ']'");
+                }
+            }
+        }
+
+        private String readString() {
+            pos++;
+            StringBuilder sb = null;
+            int start = pos;
+            while (true) {
+                if (pos >= json.length()) {
+                    throw error("Unterminated string");
+                }
+                char c = json.charAt(pos);
+                if (c == '"') {
+                    String result = sb == null ?
+                            json.substring(start, pos) : sb.append(json, start, pos).toString();
+                    pos++;
+                    return result;
+                }
+                if (c != '\\') {
+                    pos++;
+                    continue;
+                }
+                if (sb == null) {
+                    sb = new StringBuilder();
+                }
+                sb.append(json, start, pos);
+                pos++;
+                char escaped = peek();
+                pos++;
+                switch (escaped) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > json.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+                start = pos;
+            }
+        }
+
+        private Number readNumber() {
+            int start = pos;
+            boolean integral = true;
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    integral = false;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+            String number = json.substring(start, pos);
+            try {
+                if (integral) {
+                    long value = Long.parseLong(number);
+                    if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                        return (int) value;
+                    }
+                    return value;
+                }
+                return Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                if (integral) {
+                    return Double.parseDouble(number);
+                }
+                throw error("Invalid number " + number);
+            }
+        }
+
+        private void expect(String literal) {
+            if (!json.startsWith(literal, pos)) {
+                throw error("Expected " + literal);
+            }
+            pos += literal.length();
+        }
+
+        private char peek() {
+            if (pos >= json.length()) {
+                throw error("Unexpected end of document");
+            }
+            return json.charAt(pos);
+        }
+
+        void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(String.format("%s at position %d of JSON document", message, pos));
+        }
+    }
+}
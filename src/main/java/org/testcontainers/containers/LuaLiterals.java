@@ -0,0 +1,114 @@
+package org.testcontainers.containers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Converts Java values into Lua literals which can be embedded into the commands passed to
+ * {@link TarantoolContainerOperations#executeCommand(String)}.
+ * <p>
+ * The commands are passed through the shell and the Lua parser inside the container, so the produced literals never
+ * contain line breaks, backslashes or shell-sensitive characters.
+ */
+final class LuaLiterals {
+
+    private LuaLiterals() {
+    }
+
+    /**
+     * Convert a value into a Lua literal. Supports {@code null}, strings, numbers, booleans, maps and collections.
+     *
+     * @param value Java value
+     * @return Lua literal
+     */
+    static String toLua(Object value) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, value);
+        return sb.toString();
+    }
+
+    /**
+     * Convert a string into a Lua string literal
+     *
+     * @param value string value, must not be null
+     * @return Lua literal
+     */
+    static String string(String value) {
+        StringBuilder sb = new StringBuilder();
+        appendString(sb, value);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("nil");
+        } else if (value instanceof CharSequence) {
+            appendString(sb, value.toString());
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long ||
+                value instanceof Short || value instanceof Byte) {
+            sb.append(value);
+        } else if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                throw new IllegalArgumentException("Cannot represent " + value + " as a Lua literal");
+            }
+            sb.append(number);
+        } else if (value instanceof Map) {
+            sb.append('{');
+            Iterator<? extends Map.Entry<?, ?>> it = ((Map<?, ?>) value).entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<?, ?> entry = it.next();
+                sb.append('[');
+                append(sb, entry.getKey());
+                sb.append("] = ");
+                append(sb, entry.getValue());
+                if (it.hasNext()) {
+                    sb.append(", ");
+                }
+            }
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            sb.append('{');
+            Iterator<?> it = ((Collection<?>) value).iterator();
+            while (it.hasNext()) {
+                append(sb, it.next());
+                if (it.hasNext()) {
+                    sb.append(", ");
+                }
+            }
+            sb.append('}');
+        } else {
+            throw new IllegalArgumentException(
+                    String.format("Cannot represent a value of type %s as a Lua literal", value.getClass()));
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (isPlain(value)) {
+            sb.append('\'').append(value).append('\'');
+            return;
+        }
+        // string.char() keeps the literal free of quotes and escape sequences
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        sb.append("string.char(");
+        for (int i = 0; i < bytes.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(bytes[i] & 0xff);
+        }
+        sb.append(')');
+    }
+
+    private static boolean isPlain(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7e || c == '\'' || c == '"' || c == '\\' || c == '$' || c == '`') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
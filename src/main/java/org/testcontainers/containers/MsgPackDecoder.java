@@ -0,0 +1,333 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes MessagePack values from a byte buffer in place. The buffer position is not used, the decoder keeps its own
+ * offset, so the same buffer can be shared and no value is allocated unless {@link #readValue()} is called.
+ */
+final class MsgPackDecoder {
+
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * Start decoding a buffer region
+     *
+     * @param buffer   buffer
+     * @param position offset of the first value
+     * @param limit    offset after the last byte
+     * @return this decoder
+     */
+    MsgPackDecoder reset(ByteBuffer buffer, int position, int limit) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+        return this;
+    }
+
+    int position() {
+        return position;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * Check whether the next value is a map without consuming it
+     *
+     * @return true if a map follows
+     * @throws IOException if the buffer region is exhausted
+     */
+    boolean isMap() throws IOException {
+        int b = peek();
+        return (b >= 0x80 && b <= 0x8f) || b == 0xde || b == 0xdf;
+    }
+
+    int readMapHeader() throws IOException {
+        int b = read();
+        if (b >= 0x80 && b <= 0x8f) {
+            return b & 0x0f;
+        } else if (b == 0xde) {
+            return (int) readUnsigned(2);
+        } else if (b == 0xdf) {
+            return (int) readUnsigned(4);
+        }
+        throw error("map", b);
+    }
+
+    int readArrayHeader() throws IOException {
+        int b = read();
+        if (b >= 0x90 && b <= 0x9f) {
+            return b & 0x0f;
+        } else if (b == 0xdc) {
+            return (int) readUnsigned(2);
+        } else if (b == 0xdd) {
+            return (int) readUnsigned(4);
+        }
+        throw error("array", b);
+    }
+
+    long readLong() throws IOException {
+        int b = read();
+        if (b <= 0x7f) {
+            return b;
+        } else if (b >= 0xe0) {
+            return (byte) b;
+        }
+        switch (b) {
+            case 0xcc:
+                return readUnsigned(1);
+            case 0xcd:
+                return readUnsigned(2);
+            case 0xce:
+                return readUnsigned(4);
+            case 0xcf:
+                return readUnsigned(8);
+            case 0xd0:
+                return (byte) readUnsigned(1);
+            case 0xd1:
+                return (short) readUnsigned(2);
+            case 0xd2:
+                return (int) readUnsigned(4);
+            case 0xd3:
+                return readUnsigned(8);
+            default:
+                throw error("integer", b);
+        }
+    }
+
+    double readDouble() throws IOException {
+        int b = peek();
+        if (b == 0xca) {
+            position++;
+            return Float.intBitsToFloat((int) readUnsigned(4));
+        } else if (b == 0xcb) {
+            position++;
+            return Double.longBitsToDouble(readUnsigned(8));
+        }
+        return readLong();
+    }
+
+    /**
+     * Skip the next value including the nested ones
+     *
+     * @throws IOException if the value is malformed
+     */
+    void skip() throws IOException {
+        long count = 1;
+        while (count > 0) {
+            count--;
+            int b = read();
+            if (b <= 0x7f || b >= 0xe0 || b == 0xc0 || b == 0xc2 || b == 0xc3) {
+                continue;
+            } else if (b >= 0x80 && b <= 0x8f) {
+                count += 2L * (b & 0x0f);
+            } else if (b >= 0x90 && b <= 0x9f) {
+                count += b & 0x0f;
+            } else if (b >= 0xa0 && b <= 0xbf) {
+                advance(b & 0x1f);
+            } else {
+                switch (b) {
+                    case 0xc4:
+                    case 0xd9:
+                        advance(readUnsigned(1));
+                        break;
+                    case 0xc5:
+                    case 0xda:
+                        advance(readUnsigned(2));
+                        break;
+                    case 0xc6:
+                    case 0xdb:
+                        advance(readUnsigned(4));
+                        break;
+                    case 0xc7:
+                        advance(readUnsigned(1) + 1);
+                        break;
+                    case 0xc8:
+                        advance(readUnsigned(2) + 1);
+                        break;
+                    case 0xc9:
+                        advance(readUnsigned(4) + 1);
+                        break;
+                    case 0xcc:
+                    case 0xd0:
+                        advance(1);
+                        break;
+                    case 0xcd:
+                    case 0xd1:
+                        advance(2);
+                        break;
+                    case 0xca:
+                    case 0xce:
+                    case 0xd2:
+                        advance(4);
+                        break;
+                    case 0xcb:
+                    case 0xcf:
+                    case 0xd3:
+                        advance(8);
+                        break;
+                    case 0xd4:
+                        advance(2);
+                        break;
+                    case 0xd5:
+                        advance(3);
+                        break;
+                    case 0xd6:
+                        advance(5);
+                        break;
+                    case 0xd7:
+                        advance(9);
+                        break;
+                    case 0xd8:
+                        advance(17);
+                        break;
+                    case 0xdc:
+                        count += readUnsigned(2);
+                        break;
+                    case 0xdd:
+                        count += readUnsigned(4);
+                        break;
+                    case 0xde:
+                        count += 2 * readUnsigned(2);
+                        break;
+                    case 0xdf:
+                        count += 2 * readUnsigned(4);
+                        break;
+                    default:
+                        throw error("value", b);
+                }
+            }
+        }
+    }
+
+    /**
+     * Decode the next value into Java objects: integers become Integer, Long or BigInteger, strings become String,
+     * binary and extension values become byte arrays, arrays become lists and maps become maps
+     *
+     * @return decoded value, null for nil
+     * @throws IOException if the value is malformed
+     */
+    Object readValue() throws IOException {
+        int b = peek();
+        if (b <= 0x7f || b >= 0xe0 || (b >= 0xcc && b <= 0xd3)) {
+            if (b == 0xcf) {
+                position++;
+                long value = readUnsigned(8);
+                return value >= 0 ? (Object) value : new BigInteger(Long.toUnsignedString(value));
+            }
+            long value = readLong();
+            return value == (int) value ? (Object) (int) value : (Object) value;
+        } else if (b >= 0x80 && b <= 0x8f || b == 0xde || b == 0xdf) {
+            int size = readMapHeader();
+            Map<Object, Object> map = new LinkedHashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                map.put(readValue(), readValue());
+            }
+            return map;
+        } else if (b >= 0x90 && b <= 0x9f || b == 0xdc || b == 0xdd) {
+            int size = readArrayHeader();
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue());
+            }
+            return list;
+        } else if (b >= 0xa0 && b <= 0xbf) {
+            position++;
+            return readString(b & 0x1f);
+        }
+        position++;
+        switch (b) {
+            case 0xc0:
+                return null;
+            case 0xc2:
+                return false;
+            case 0xc3:
+                return true;
+            case 0xca:
+                return Float.intBitsToFloat((int) readUnsigned(4));
+            case 0xcb:
+                return Double.longBitsToDouble(readUnsigned(8));
+            case 0xd9:
+                return readString(readUnsigned(1));
+            case 0xda:
+                return readString(readUnsigned(2));
+            case 0xdb:
+                return readString(readUnsigned(4));
+            case 0xc4:
+                return readBytes(readUnsigned(1));
+            case 0xc5:
+                return readBytes(readUnsigned(2));
+            case 0xc6:
+                return readBytes(readUnsigned(4));
+            default:
+                // extension values (decimal, uuid, datetime, ...) are returned as raw bytes with the type byte
+                position--;
+                int start = position;
+                skip();
+                return copy(start, position);
+        }
+    }
+
+    private String readString(long length) throws IOException {
+        return new String(readBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes(long length) throws IOException {
+        int start = position;
+        advance(length);
+        return copy(start, position);
+    }
+
+    private byte[] copy(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return bytes;
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit) {
+            throw new IOException("Unexpected end of the MessagePack data at offset " + position);
+        }
+        return buffer.get(position) & 0xff;
+    }
+
+    private int read() throws IOException {
+        int b = peek();
+        position++;
+        return b;
+    }
+
+    private void advance(long length) throws IOException {
+        if (length < 0 || position + length > limit) {
+            throw new IOException("Unexpected end of the MessagePack data at offset " + position);
+        }
+        position += (int) length;
+    }
+
+    private long readUnsigned(int bytes) throws IOException {
+        advance(bytes);
+        long value = 0;
+        for (int i = position - bytes; i < position; i++) {
+            value = (value << 8) | (buffer.get(i) & 0xff);
+        }
+        return value;
+    }
+
+    private IOException error(String expected, int b) {
+        return new IOException(String.format("Expected a MessagePack %s at offset %d, found 0x%02x", expected,
+                position - 1, b));
+    }
+}
@@ -0,0 +1,234 @@
+package org.testcontainers.containers;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.testcontainers.containers.exceptions.TarantoolBackupException;
+
+/**
+ * Streams the checkpoint files of the instances into a tar archive and copies such an archive back into a created
+ * container.
+ * <p>
+ * A checkpoint is made on every instance and pinned with {@code box.backup.start()}, so that the garbage collector
+ * keeps the files while they are copied. Each file is streamed from the Docker archive API straight into the output
+ * archive, nothing is staged in memory or in temporary files. The entries are named by the absolute file paths
+ * without the leading slash and keep the owner and the permissions, the parent directories are added with the
+ * attributes they have in the container, so the archive can be extracted into the root of a fresh container.
+ */
+final class TarantoolBackup {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    // Returns the checkpoint files and the Cartridge clusterwide configuration with all their parent directories
+    static final String START_COMMAND =
+            "local fio = require('fio') " +
+            "local files, dirs, seen = {}, {}, {} " +
+            "local function add_dir(path) " +
+            "if path == '/' or path == '.' or seen[path] then return end " +
+            "seen[path] = true add_dir(fio.dirname(path)) " +
+            "local st = fio.stat(path) table.insert(dirs, {path, st.mode, st.uid, st.gid}) end " +
+            "local function add(path) path = fio.abspath(path) " +
+            "add_dir(fio.dirname(path)) table.insert(files, path) end " +
+            "local function walk(path) if fio.path.is_dir(path) then " +
+            "for _, name in ipairs(fio.listdir(path) or {}) do walk(fio.pathjoin(path, name)) end " +
+            "elseif fio.path.exists(path) then add(path) end end " +
+            "box.snapshot() " +
+            "for _, path in ipairs(box.backup.start()) do add(path) end " +
+            "local confapplier = package.loaded['cartridge.confapplier'] " +
+            "local workdir = confapplier ~= nil and confapplier.get_workdir() or nil " +
+            "if workdir ~= nil then walk(fio.pathjoin(workdir, 'config')) " +
+            "walk(fio.pathjoin(workdir, 'config.yml')) end " +
+            "return {files = files, dirs = dirs}";
+    static final String STOP_COMMAND = "box.backup.stop() return true";
+
+    /**
+     * Opens the tar stream of a container file as returned by the Docker archive API
+     */
+    @FunctionalInterface
+    interface FileSource {
+        InputStream open(String path) throws IOException;
+    }
+
+    private TarantoolBackup() {
+    }
+
+    /**
+     * Make a checkpoint on the instances and stream their files into a tar archive
+     *
+     * @param container container with the instances
+     * @param runner    command runner for the instances
+     * @param out       archive stream, not closed
+     * @return backed up files and the backup duration
+     */
+    static TarantoolBackupResult write(Container<?> container, InstanceCommandRunner runner, OutputStream out) {
+        return write(runner, path -> container.getDockerClient()
+                .copyArchiveFromContainerCmd(container.getContainerId(), path).exec(), out);
+    }
+
+    static TarantoolBackupResult write(InstanceCommandRunner runner, FileSource source, OutputStream out) {
+        long startedAt = System.nanoTime();
+        TarantoolBackupResult result = null;
+        Exception failure = null;
+        try {
+            Map<String, Object> manifests = runner.run(START_COMMAND);
+            long bytes = writeArchive(manifests, source, out);
+            result = new TarantoolBackupResult(new ArrayList<>(manifests.keySet()), listFiles(manifests), bytes,
+                    Duration.ofNanos(System.nanoTime() - startedAt));
+        } catch (Exception e) {
+            failure = e;
+        }
+        try {
+            runner.run(STOP_COMMAND);
+        } catch (Exception e) {
+            if (failure == null) {
+                failure = e;
+            } else {
+                failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) {
+            throw new TarantoolBackupException("Failed to back up the instance data", failure);
+        }
+        return result;
+    }
+
+    /**
+     * Write the directories and the files listed by the instances into a tar archive
+     *
+     * @param manifests results of {@link #START_COMMAND} by instance alias
+     * @param source    container file source
+     * @param out       archive stream, not closed
+     * @return total size of the files
+     * @throws IOException if a file cannot be read or written
+     */
+    static long writeArchive(Map<String, Object> manifests, FileSource source, OutputStream out)
+            throws IOException {
+        TarArchiveOutputStream tar = new TarArchiveOutputStream(out);
+        tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+        for (List<?> dir : listDirectories(manifests).values()) {
+            TarArchiveEntry entry = new TarArchiveEntry(entryName(dir.get(0).toString()) + "/");
+            entry.setMode(((Number) dir.get(1)).intValue());
+            entry.setUserId(((Number) dir.get(2)).longValue());
+            entry.setGroupId(((Number) dir.get(3)).longValue());
+            tar.putArchiveEntry(entry);
+            tar.closeArchiveEntry();
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long bytes = 0;
+        for (String file : listFiles(manifests)) {
+            bytes += copyFile(file, source, tar, buffer);
+        }
+        tar.finish();
+        tar.flush();
+        return bytes;
+    }
+
+    private static long copyFile(String path, FileSource source, TarArchiveOutputStream tar, byte[] buffer)
+            throws IOException {
+        try (TarArchiveInputStream in = new TarArchiveInputStream(
+                new BufferedInputStream(source.open(path), BUFFER_SIZE))) {
+            TarArchiveEntry file = in.getNextTarEntry();
+            if (file == null || !file.isFile()) {
+                throw new IOException(String.format("File %s is not found in the container", path));
+            }
+            TarArchiveEntry entry = new TarArchiveEntry(entryName(path));
+            entry.setSize(file.getSize());
+            entry.setMode(file.getMode());
+            entry.setModTime(file.getModTime());
+            entry.setUserId(file.getLongUserId());
+            entry.setGroupId(file.getLongGroupId());
+            entry.setUserName(file.getUserName());
+            entry.setGroupName(file.getGroupName());
+            tar.putArchiveEntry(entry);
+            long copied = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                tar.write(buffer, 0, read);
+                copied += read;
+            }
+            tar.closeArchiveEntry();
+            return copied;
+        }
+    }
+
+    /**
+     * Copy a backup archive into the root of a created container, keeping the owners of the files
+     *
+     * @param container   container
+     * @param containerId id of the created container
+     * @param archive     archive written by {@link #write(Container, InstanceCommandRunner, OutputStream)}
+     */
+    static void restore(Container<?> container, String containerId, Path archive) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(archive), BUFFER_SIZE)) {
+            container.getDockerClient().copyArchiveToContainerCmd(containerId)
+                    .withRemotePath("/")
+                    .withCopyUIDGID(true)
+                    .withTarInputStream(in)
+                    .exec();
+        } catch (IOException | RuntimeException e) {
+            throw new TarantoolBackupException(String.format("Failed to restore the backup %s", archive), e);
+        }
+    }
+
+    /**
+     * Describe an archive for the container fingerprint, so that a reused container is not taken for a restored one
+     *
+     * @param archive archive file
+     * @return path, size and modification time
+     */
+    static String describe(Path archive) {
+        try {
+            return String.format("%s:%d:%d", archive.toAbsolutePath(), Files.size(archive),
+                    Files.getLastModifiedTime(archive).toMillis());
+        } catch (IOException e) {
+            throw new TarantoolBackupException(String.format("Failed to read the backup %s", archive), e);
+        }
+    }
+
+    static String entryName(String path) {
+        int start = 0;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        return path.substring(start);
+    }
+
+    private static List<String> listFiles(Map<String, Object> manifests) {
+        List<String> files = new ArrayList<>();
+        for (Object manifest : manifests.values()) {
+            if (manifest instanceof Map && ((Map<?, ?>) manifest).get("files") instanceof List) {
+                for (Object file : (List<?>) ((Map<?, ?>) manifest).get("files")) {
+                    files.add(file.toString());
+                }
+            }
+        }
+        return files;
+    }
+
+    // The parents come before the children within each manifest, the directories shared by the instances are
+    // listed once
+    private static Map<String, List<?>> listDirectories(Map<String, Object> manifests) {
+        Map<String, List<?>> dirs = new LinkedHashMap<>();
+        for (Object manifest : manifests.values()) {
+            if (manifest instanceof Map && ((Map<?, ?>) manifest).get("dirs") instanceof List) {
+                for (Object dir : (List<?>) ((Map<?, ?>) manifest).get("dirs")) {
+                    dirs.putIfAbsent(((List<?>) dir).get(0).toString(), (List<?>) dir);
+                }
+            }
+        }
+        return dirs;
+    }
+}
@@ -0,0 +1,73 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of a backup written by {@link TarantoolContainerOperations#backup(java.nio.file.Path)}
+ */
+public class TarantoolBackupResult {
+
+    private final List<String> instances;
+    private final List<String> files;
+    private final long bytes;
+    private final Duration duration;
+
+    /**
+     * Basic constructor
+     *
+     * @param instances aliases of the backed up instances, empty for a single instance container
+     * @param files     absolute paths of the backed up files in the container
+     * @param bytes     total size of the backed up files
+     * @param duration  time spent on the checkpoint and on streaming the files
+     */
+    public TarantoolBackupResult(List<String> instances, List<String> files, long bytes, Duration duration) {
+        this.instances = Collections.unmodifiableList(instances);
+        this.files = Collections.unmodifiableList(files);
+        this.bytes = bytes;
+        this.duration = duration;
+    }
+
+    /**
+     * Get the aliases of the backed up instances
+     *
+     * @return instance aliases, an empty string for a single instance container
+     */
+    public List<String> getInstances() {
+        return instances;
+    }
+
+    /**
+     * Get the backed up files. The archive entries are named by these paths without the leading slash.
+     *
+     * @return absolute paths in the container
+     */
+    public List<String> getFiles() {
+        return files;
+    }
+
+    /**
+     * Get the total size of the backed up files
+     *
+     * @return number of bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the time spent on the checkpoint and on streaming the files
+     *
+     * @return backup duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("instances=%s, files=%d, bytes=%d, total=%dms", instances, files.size(), bytes,
+                duration.toMillis());
+    }
+}
@@ -0,0 +1,166 @@
+package org.testcontainers.containers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Comparison of the benchmark medians with the stored baseline, see
+ * {@link TarantoolPerformanceBaseline#compare(TarantoolBenchmarkResult)}. The string representation is a table
+ * suitable for the test failure messages.
+ */
+public class TarantoolBaselineReport {
+
+    /**
+     * Outcome of the comparison of a metric
+     */
+    public enum Status {
+        /**
+         * The change is within the tolerance
+         */
+        OK,
+        /**
+         * The metric has got worse beyond the tolerance
+         */
+        REGRESSION,
+        /**
+         * The metric has got better beyond the tolerance, the baseline may be updated
+         */
+        IMPROVED,
+        /**
+         * The metric is only reported and not compared
+         */
+        INFO,
+        /**
+         * The baseline has no value for the metric
+         */
+        NEW
+    }
+
+    /**
+     * Comparison of a single metric
+     */
+    public static final class Metric {
+        private final String name;
+        private final Double baseline;
+        private final double actual;
+        private final String unit;
+        private final Status status;
+
+        Metric(String name, Double baseline, double actual, String unit, Status status) {
+            this.name = name;
+            this.baseline = baseline;
+            this.actual = actual;
+            this.unit = unit;
+            this.status = status;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the baseline value
+         *
+         * @return baseline value or null if the baseline has no value
+         */
+        public Double getBaseline() {
+            return baseline;
+        }
+
+        public double getActual() {
+            return actual;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Get the relative change of the metric
+         *
+         * @return change as a fraction of the baseline value, NaN if the baseline has no value
+         */
+        public double getChange() {
+            return baseline == null || baseline == 0 ? Double.NaN : (actual - baseline) / baseline;
+        }
+    }
+
+    private final String name;
+    private final List<Metric> metrics;
+    private final boolean updated;
+
+    TarantoolBaselineReport(String name, List<Metric> metrics, boolean updated) {
+        this.name = name;
+        this.metrics = Collections.unmodifiableList(new ArrayList<>(metrics));
+        this.updated = updated;
+    }
+
+    /**
+     * Get the benchmark name
+     *
+     * @return benchmark name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the compared metrics
+     *
+     * @return metric comparisons
+     */
+    public List<Metric> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Check whether any metric has got worse beyond the tolerance
+     *
+     * @return true if a regression is found
+     */
+    public boolean hasRegressions() {
+        return metrics.stream().anyMatch(metric -> metric.getStatus() == Status.REGRESSION);
+    }
+
+    /**
+     * Check whether the baseline has no values for the benchmark
+     *
+     * @return true if the benchmark is not in the baseline
+     */
+    public boolean isBaselineMissing() {
+        return metrics.stream().anyMatch(metric -> metric.getStatus() == Status.NEW);
+    }
+
+    /**
+     * Check whether the baseline has been updated with the benchmark results
+     *
+     * @return true if the baseline has been written
+     */
+    public boolean isUpdated() {
+        return updated;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format("Benchmark %s%s%n", name,
+                updated ? " (baseline updated)" : ""));
+        sb.append(String.format("  %-10s %14s %14s %9s  %s%n", "metric", "baseline", "actual", "change", "status"));
+        for (Metric metric : metrics) {
+            sb.append(String.format("  %-10s %14s %14s %9s  %s%n", metric.getName(),
+                    metric.getBaseline() == null ? "-" : format(metric.getBaseline(), metric.getUnit()),
+                    format(metric.getActual(), metric.getUnit()),
+                    Double.isNaN(metric.getChange()) ? "-" : String.format("%+.1f%%", metric.getChange() * 100),
+                    metric.getStatus()));
+        }
+        return sb.toString();
+    }
+
+    private static String format(double value, String unit) {
+        return String.format("%.1f %s", value, unit);
+    }
+}
@@ -0,0 +1,174 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.testcontainers.containers.exceptions.TarantoolQueryException;
+
+/**
+ * Measures the throughput and the latency percentiles of a workload over several runs, for comparing them with a
+ * stored baseline (see {@link TarantoolPerformanceBaseline}).
+ * <p>
+ * A Lua workload is executed inside the instance in a loop, so the measurements exclude the network and the client.
+ * A Java workload is measured around each call. Each run is preceded by the warmup iterations, which are not
+ * measured. The medians over the runs are used for the comparison.
+ */
+public class TarantoolBenchmark {
+
+    public static final int DEFAULT_RUNS = 5;
+    public static final int DEFAULT_ITERATIONS = 1000;
+    public static final int DEFAULT_WARMUP_ITERATIONS = 100;
+
+    static final String LUA_WORKLOAD_COMMAND_TEMPLATE =
+            "local clock = require('clock') " +
+            "local fn = assert(loadstring(%s)) " +
+            "local n = %d " +
+            "for i = 1, %d do fn() end " +
+            "local lat = {} local started = clock.monotonic64() " +
+            "for i = 1, n do local t = clock.monotonic64() fn() lat[i] = tonumber(clock.monotonic64() - t) end " +
+            "local total = tonumber(clock.monotonic64() - started) " +
+            "table.sort(lat) " +
+            "local function p(q) return lat[math.min(math.max(math.ceil(q * n), 1), n)] end " +
+            "return {total = total, p50 = p(0.5), p90 = p(0.9), p99 = p(0.99), max = lat[n]}";
+
+    /**
+     * Operation of a Java workload
+     */
+    @FunctionalInterface
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    interface Workload {
+        TarantoolBenchmarkMetrics measure(int warmupIterations, int iterations) throws Exception;
+    }
+
+    private final String name;
+    private final Workload workload;
+    private int runs = DEFAULT_RUNS;
+    private int iterations = DEFAULT_ITERATIONS;
+    private int warmupIterations = DEFAULT_WARMUP_ITERATIONS;
+
+    TarantoolBenchmark(String name, Workload workload) {
+        this.name = name;
+        this.workload = workload;
+    }
+
+    /**
+     * Create a benchmark of a Lua snippet executed inside the instance
+     *
+     * @param name      benchmark name, the key of the baseline
+     * @param container container executing the snippet, the router for a Cartridge cluster
+     * @param snippet   Lua code measured as one operation, e.g. "box.space.users:get(1)"
+     * @return benchmark
+     */
+    public static TarantoolBenchmark lua(String name, TarantoolContainerOperations<?> container, String snippet) {
+        return new TarantoolBenchmark(name, (warmupIterations, iterations) -> {
+            List<?> result = container.executeCommandDecoded(String.format(LUA_WORKLOAD_COMMAND_TEMPLATE,
+                    LuaLiterals.string(snippet), iterations, warmupIterations));
+            Map<?, ?> value = (Map<?, ?>) result.get(0);
+            return new TarantoolBenchmarkMetrics(iterations * 1e9 / Math.max(toLong(value.get("total")), 1),
+                    Duration.ofNanos(toLong(value.get("p50"))), Duration.ofNanos(toLong(value.get("p90"))),
+                    Duration.ofNanos(toLong(value.get("p99"))), Duration.ofNanos(toLong(value.get("max"))));
+        });
+    }
+
+    /**
+     * Create a benchmark of a Java callback, e.g. a call made with a Tarantool client
+     *
+     * @param name      benchmark name, the key of the baseline
+     * @param operation operation measured on each iteration
+     * @return benchmark
+     */
+    public static TarantoolBenchmark java(String name, Operation operation) {
+        return new TarantoolBenchmark(name, (warmupIterations, iterations) -> {
+            for (int i = 0; i < warmupIterations; i++) {
+                operation.run();
+            }
+            long[] latencies = new long[iterations];
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                long callStartedAt = System.nanoTime();
+                operation.run();
+                latencies[i] = System.nanoTime() - callStartedAt;
+            }
+            return TarantoolBenchmarkMetrics.of(latencies, System.nanoTime() - startedAt);
+        });
+    }
+
+    /**
+     * Specify the number of the runs, the medians over the runs are compared with the baseline. Defaults to 5.
+     *
+     * @param runs number of the runs
+     * @return this benchmark
+     */
+    public TarantoolBenchmark withRuns(int runs) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("The number of the runs must be positive");
+        }
+        this.runs = runs;
+        return this;
+    }
+
+    /**
+     * Specify the number of the measured operations in each run. Defaults to 1000.
+     *
+     * @param iterations number of the operations
+     * @return this benchmark
+     */
+    public TarantoolBenchmark withIterations(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("The number of the iterations must be positive");
+        }
+        this.iterations = iterations;
+        return this;
+    }
+
+    /**
+     * Specify the number of the operations executed before each run without measuring. Defaults to 100.
+     *
+     * @param warmupIterations number of the operations
+     * @return this benchmark
+     */
+    public TarantoolBenchmark withWarmupIterations(int warmupIterations) {
+        if (warmupIterations < 0) {
+            throw new IllegalArgumentException("The number of the warmup iterations must not be negative");
+        }
+        this.warmupIterations = warmupIterations;
+        return this;
+    }
+
+    /**
+     * Get the benchmark name
+     *
+     * @return benchmark name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Execute all runs
+     *
+     * @return metrics of the runs and their medians
+     */
+    public TarantoolBenchmarkResult run() {
+        List<TarantoolBenchmarkMetrics> results = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            try {
+                results.add(workload.measure(warmupIterations, iterations));
+            } catch (Exception e) {
+                throw new TarantoolQueryException(String.format("Benchmark %s has failed in run %d", name, i + 1),
+                        e);
+            }
+        }
+        return new TarantoolBenchmarkResult(name, results);
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,104 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Throughput and latency percentiles of a benchmark run, see {@link TarantoolBenchmark}
+ */
+public class TarantoolBenchmarkMetrics {
+
+    private final double throughput;
+    private final Duration p50;
+    private final Duration p90;
+    private final Duration p99;
+    private final Duration max;
+
+    /**
+     * Basic constructor
+     *
+     * @param throughput operations per second
+     * @param p50        median latency
+     * @param p90        90th percentile of the latency
+     * @param p99        99th percentile of the latency
+     * @param max        maximum latency
+     */
+    public TarantoolBenchmarkMetrics(double throughput, Duration p50, Duration p90, Duration p99, Duration max) {
+        this.throughput = throughput;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    /**
+     * Compute the metrics of a run from the operation latencies
+     *
+     * @param latencies     latency of each operation in nanoseconds, sorted in place
+     * @param totalDuration wall time of all operations in nanoseconds
+     * @return run metrics
+     */
+    static TarantoolBenchmarkMetrics of(long[] latencies, long totalDuration) {
+        Arrays.sort(latencies);
+        return new TarantoolBenchmarkMetrics(latencies.length * 1e9 / Math.max(totalDuration, 1),
+                Duration.ofNanos(percentile(latencies, 0.5)), Duration.ofNanos(percentile(latencies, 0.9)),
+                Duration.ofNanos(percentile(latencies, 0.99)), Duration.ofNanos(latencies[latencies.length - 1]));
+    }
+
+    // Nearest-rank percentile of the sorted values
+    static long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.min(Math.max(rank, 1), sorted.length) - 1];
+    }
+
+    /**
+     * Get the throughput
+     *
+     * @return operations per second
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Get the median latency
+     *
+     * @return 50th percentile
+     */
+    public Duration getP50() {
+        return p50;
+    }
+
+    /**
+     * Get the 90th percentile of the latency
+     *
+     * @return 90th percentile
+     */
+    public Duration getP90() {
+        return p90;
+    }
+
+    /**
+     * Get the 99th percentile of the latency
+     *
+     * @return 99th percentile
+     */
+    public Duration getP99() {
+        return p99;
+    }
+
+    /**
+     * Get the maximum latency
+     *
+     * @return maximum latency
+     */
+    public Duration getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("throughput=%.1f ops/s, p50=%.1fus, p90=%.1fus, p99=%.1fus, max=%.1fus", throughput,
+                p50.toNanos() / 1000.0, p90.toNanos() / 1000.0, p99.toNanos() / 1000.0, max.toNanos() / 1000.0);
+    }
+}
@@ -0,0 +1,81 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Metrics of all runs of a {@link TarantoolBenchmark} and their medians
+ */
+public class TarantoolBenchmarkResult {
+
+    private final String name;
+    private final List<TarantoolBenchmarkMetrics> runs;
+    private final TarantoolBenchmarkMetrics median;
+
+    /**
+     * Basic constructor
+     *
+     * @param name benchmark name, the key of the baseline
+     * @param runs metrics of each run, not empty
+     */
+    public TarantoolBenchmarkResult(String name, List<TarantoolBenchmarkMetrics> runs) {
+        if (runs.isEmpty()) {
+            throw new IllegalArgumentException("At least one run is required");
+        }
+        this.name = name;
+        this.runs = Collections.unmodifiableList(new ArrayList<>(runs));
+        this.median = new TarantoolBenchmarkMetrics(
+                median(runs, TarantoolBenchmarkMetrics::getThroughput),
+                Duration.ofNanos((long) median(runs, m -> (double) m.getP50().toNanos())),
+                Duration.ofNanos((long) median(runs, m -> (double) m.getP90().toNanos())),
+                Duration.ofNanos((long) median(runs, m -> (double) m.getP99().toNanos())),
+                Duration.ofNanos((long) median(runs, m -> (double) m.getMax().toNanos())));
+    }
+
+    private static double median(List<TarantoolBenchmarkMetrics> runs,
+                                 Function<TarantoolBenchmarkMetrics, Double> metric) {
+        List<Double> values = new ArrayList<>();
+        for (TarantoolBenchmarkMetrics run : runs) {
+            values.add(metric.apply(run));
+        }
+        Collections.sort(values);
+        int middle = values.size() / 2;
+        return values.size() % 2 == 1 ? values.get(middle) : (values.get(middle - 1) + values.get(middle)) / 2;
+    }
+
+    /**
+     * Get the benchmark name
+     *
+     * @return benchmark name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the metrics of each run
+     *
+     * @return run metrics in the execution order
+     */
+    public List<TarantoolBenchmarkMetrics> getRuns() {
+        return runs;
+    }
+
+    /**
+     * Get the median of each metric over the runs. The medians are compared with the baseline, so that a single
+     * run disturbed by the noise does not fail the test.
+     *
+     * @return median metrics
+     */
+    public TarantoolBenchmarkMetrics getMedian() {
+        return median;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s (median of %d runs)", name, median, runs.size());
+    }
+}
@@ -1,18 +1,36 @@
 package org.testcontainers.containers;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import com.github.dockerjava.api.command.InspectContainerResponse;
+import org.testcontainers.containers.exceptions.CartridgeRebalanceException;
+import org.testcontainers.containers.exceptions.CartridgeReloadException;
 import org.testcontainers.containers.exceptions.CartridgeTopologyException;
+import org.testcontainers.containers.exceptions.TarantoolDirectorySyncException;
 import org.testcontainers.images.builder.ImageFromDockerfile;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.MountableFile;
 import org.testcontainers.shaded.org.apache.commons.lang3.ArrayUtils;
 import static org.testcontainers.containers.PathUtils.normalizePath;
 
@@ -75,6 +93,8 @@ import static org.testcontainers.containers.PathUtils.normalizePath;
  * <p>
  * After the topology changes are applied, the vshard bootstrap command will be executed.
  * <p>
+ * Alternatively, the instances and the topology can be described in Java code with {@link CartridgeTopology}.
+ * <p>
  * The instances.yml file will be analyzed and the ports, specified in advertise_uri options together with the ports,
  * specified in the http_port options, will be exposed.
  *
@@ -106,8 +126,93 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
     public static final String ENV_TARANTOOL_DATADIR = "TARANTOOL_DATADIR";
     public static final String ENV_TARANTOOL_INSTANCES_FILE = "TARANTOOL_INSTANCES_FILE";
     public static final String ENV_TARANTOOL_CLUSTER_COOKIE = "TARANTOOL_CLUSTER_COOKIE";
+    public static final String ENV_TARANTOOL_BUCKET_COUNT = "TARANTOOL_BUCKET_COUNT";
+    public static final String ENV_TARANTOOL_BUCKET_CHUNK_SIZE = "TARANTOOL_BUCKET_CHUNK_SIZE";
+    public static final String ENV_TARANTOOL_LOG_FORMAT = "TARANTOOL_LOG_FORMAT";
     protected static final String healthyCmd = "return require('cartridge').is_healthy()";
     protected static final int TIMEOUT_ROUTER_UP_CARTRIDGE_HEALTH_IN_SECONDS = 60;
+    protected static final Duration TOPOLOGY_SETUP_TIMEOUT = Duration.ofSeconds(15);
+    protected static final long TOPOLOGY_SETUP_INITIAL_DELAY_MS = 100;
+    protected static final long TOPOLOGY_SETUP_MAX_DELAY_MS = 2_000;
+    // net.box errors of the call interrupted by the router reconfiguration, the topology is applied in this case
+    private static final String[] TOPOLOGY_CONNECTION_CLOSED_ERRORS =
+            {"Peer closed", "Connection closed", "reset by peer", "Broken pipe"};
+    protected static final String GENERATED_INSTANCES_FILE = "/tmp/testcontainers-instances.yml";
+    protected static final Duration REBALANCE_TIMEOUT = Duration.ofMinutes(5);
+    protected static final Duration REBALANCE_POLL_INTERVAL = Duration.ofMillis(500);
+    protected static final double REBALANCE_DISBALANCE_THRESHOLD = 1.0;
+    protected static final String VSHARD_BUCKETS_COMMAND =
+            "local cartridge = require('cartridge') " +
+            "local router = cartridge.service_get('vshard-router').get() " +
+            "local aliases, weights = {}, {} " +
+            "for _, rs in pairs(cartridge.admin_get_replicasets()) do " +
+            "aliases[rs.uuid] = rs.alias weights[rs.alias] = rs.weight end " +
+            "local buckets = {} " +
+            "for uuid, rs in pairs(router:routeall()) do " +
+            "local info = rs:callrw('vshard.storage.info', {}, {timeout = 5}) " +
+            "buckets[aliases[uuid] or uuid] = info.bucket end " +
+            "return buckets, weights";
+    protected static final String VSHARD_REBALANCER_WAKEUP_COMMAND =
+            "local router = require('cartridge').service_get('vshard-router').get() " +
+            "for _, rs in pairs(router:routeall()) do " +
+            "pcall(rs.callrw, rs, 'vshard.storage.rebalancer_wakeup', {}, {timeout = 5}) end " +
+            "return true";
+    protected static final String RELOAD_ROLES_COMMAND =
+            "local ok, err = require('cartridge').reload_roles() " +
+            "if not ok then error(tostring(err)) end " +
+            "return true";
+    protected static final String CHANGE_WEIGHT_COMMAND_TEMPLATE =
+            "local cartridge = require('cartridge') " +
+            "for _, rs in pairs(cartridge.admin_get_replicasets()) do " +
+            "if rs.alias == %s then " +
+            "return cartridge.admin_edit_topology({replicasets = {{uuid = rs.uuid, weight = %s}}}) end end " +
+            "return nil, {str = 'Replicaset ' .. %s .. ' is not found'}";
+    protected static final String JOIN_REPLICASET_COMMAND_TEMPLATE =
+            "return require('cartridge').admin_edit_topology({replicasets = {{" +
+            "alias = %s, roles = %s, weight = %s, join_servers = %s}}})";
+    protected static final String CLUSTER_BOOTSTRAPPED_COMMAND =
+            "local cartridge = require('cartridge') " +
+            "if not cartridge.is_healthy() then return false end " +
+            "local vshard = cartridge.config_get_readonly('vshard') " +
+            "if vshard ~= nil then return vshard.bootstrapped == true end " +
+            "local groups = cartridge.config_get_readonly('vshard_groups') or {} " +
+            "if next(groups) == nil then return false end " +
+            "for _, group in pairs(groups) do if not group.bootstrapped then return false end end " +
+            "return true";
+    // Evaluates the code on the instance with the given alias, returns all results
+    protected static final String ON_INSTANCE_COMMAND_TEMPLATE =
+            "local cartridge = require('cartridge') " +
+            "local pool = require('cartridge.pool') " +
+            "for _, server in pairs(cartridge.admin_get_servers()) do if server.alias == %s then " +
+            "local conn = assert(pool.connect(server.uri, {wait_connected = true})) " +
+            "return conn:eval([==[%s]==]) end end " +
+            "error('Instance not found: ' .. %s)";
+    // Evaluates the code on all configured instances in parallel, returns the results by instance alias
+    protected static final String ON_ALL_INSTANCES_COMMAND_PREFIX =
+            "local cartridge = require('cartridge') " +
+            "local pool = require('cartridge.pool') " +
+            "local fiber = require('fiber') " +
+            "local results, errors, pending, cond = {}, {}, 0, fiber.cond() " +
+            "local code = [==[";
+    protected static final String ON_ALL_INSTANCES_COMMAND_SUFFIX =
+            "]==] " +
+            "for _, server in pairs(cartridge.admin_get_servers()) do if server.replicaset ~= nil then " +
+            "local alias = server.alias or server.uri " +
+            "pending = pending + 1 " +
+            "fiber.create(function() " +
+            "local ok, res = pcall(function() " +
+            "local conn = assert(pool.connect(server.uri, {wait_connected = true})) " +
+            "return conn:eval(code) end) " +
+            "if ok then results[alias] = res else errors[alias] = tostring(res) end " +
+            "pending = pending - 1 cond:signal() end) end end " +
+            "while pending > 0 do cond:wait() end " +
+            "return results, next(errors) ~= nil and errors or nil";
+
+    private static final ConcurrentMap<String, ImageFromDockerfile> sharedImages = new ConcurrentHashMap<>();
+
+    static {
+        TarantoolImagePrewarmer.startIfEnabled();
+    }
 
     protected final CartridgeConfigParser instanceFileParser;
     protected final TarantoolContainerClientHelper clientHelper;
@@ -123,7 +228,24 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
     protected String instanceDir = INSTANCE_DIR;
     protected String topologyConfigurationFile;
     protected String instancesFile;
+    protected CartridgeTopology topology;
     protected SslContext sslContext;
+    protected Integer bucketCount;
+    protected Integer bucketChunkSize;
+    protected CartridgeAdminClient adminClient;
+    protected String dockerFile = DOCKERFILE;
+    protected String buildImageName = "";
+    protected Map<String, String> buildArgs;
+    protected boolean resetOnReuse = false;
+    private DirectoryBindingMode directoryBindingMode = DirectoryBindingMode.BIND;
+    private DirectorySnapshot applicationSnapshot = DirectorySnapshot.empty();
+    private Path restoreFrom;
+    private volatile Duration commandTimeout;
+    private boolean useProxy = false;
+    private final TarantoolProxies proxies = new TarantoolProxies();
+    private TarantoolLogCapture logCapture;
+    private Closeable logCaptureHandle;
+    private Exception lastTopologyFailure;
 
     /**
      * Create a container with default image and specified instances file from the classpath resources. Assumes that
@@ -193,6 +315,60 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
     public TarantoolCartridgeContainer(String dockerFile, String buildImageName, String instancesFile,
                                        String topologyConfigurationFile, final Map<String, String> buildArgs) {
         this(buildImage(dockerFile, buildImageName, buildArgs), instancesFile, topologyConfigurationFile, buildArgs);
+        this.dockerFile = dockerFile;
+        this.buildImageName = buildImageName;
+    }
+
+    /**
+     * Create a container with default image and the instances and topology described in Java code. Assumes that
+     * there is a file named Dockerfile in the project resources classpath.
+     *
+     * @param topology cluster topology
+     */
+    public TarantoolCartridgeContainer(CartridgeTopology topology) {
+        this(DOCKERFILE, "", topology);
+    }
+
+    /**
+     * Create a container with specified image and the instances and topology described in Java code.
+     *
+     * @param dockerFile     URL resource path to a Dockerfile which configures Cartridge and other necessary services
+     * @param buildImageName Specify a stable image name for the test container to prevent rebuilds
+     * @param topology       cluster topology
+     */
+    public TarantoolCartridgeContainer(String dockerFile, String buildImageName, CartridgeTopology topology) {
+        this(dockerFile, buildImageName, topology, Collections.emptyMap());
+    }
+
+    /**
+     * Create a container with specified image and the instances and topology described in Java code.
+     *
+     * @param dockerFile     URL resource path to a Dockerfile which configures Cartridge and other necessary services
+     * @param buildImageName Specify a stable image name for the test container to prevent rebuilds
+     * @param topology       cluster topology
+     * @param buildArgs      a map of arguments that will be passed to docker ARG commands on image build.
+     *                       This values can be overridden by environment.
+     */
+    public TarantoolCartridgeContainer(String dockerFile, String buildImageName, CartridgeTopology topology,
+                                       final Map<String, String> buildArgs) {
+        this(buildImage(dockerFile, buildImageName, buildArgs), topology, buildArgs);
+        this.dockerFile = dockerFile;
+        this.buildImageName = buildImageName;
+    }
+
+    protected TarantoolCartridgeContainer(ImageFromDockerfile image, CartridgeTopology topology,
+                                          Map<String, String> buildArgs) {
+        super(withBuildArgs(image, buildArgs));
+
+        this.buildArgs = mergeBuildArguments(buildArgs);
+        TARANTOOL_RUN_DIR = this.buildArgs.getOrDefault(ENV_TARANTOOL_RUNDIR, "/tmp/run");
+
+        if (topology == null) {
+            throw new IllegalArgumentException("Topology must not be null");
+        }
+        this.topology = topology;
+        this.instanceFileParser = new CartridgeConfigParser(topology.toInstancesMap());
+        this.clientHelper = new TarantoolContainerClientHelper(this);
     }
 
     protected TarantoolCartridgeContainer(ImageFromDockerfile image, String instancesFile,
@@ -200,7 +376,8 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
                                         Map<String, String> buildArgs) {
         super(withBuildArgs(image, buildArgs));
 
-        TARANTOOL_RUN_DIR = mergeBuildArguments(buildArgs).getOrDefault(ENV_TARANTOOL_RUNDIR, "/tmp/run");
+        this.buildArgs = mergeBuildArguments(buildArgs);
+        TARANTOOL_RUN_DIR = this.buildArgs.getOrDefault(ENV_TARANTOOL_RUNDIR, "/tmp/run");
 
         if (instancesFile == null || instancesFile.isEmpty()) {
             throw new IllegalArgumentException("Instance file name must not be null or empty");
@@ -260,15 +437,23 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
 
     protected static ImageFromDockerfile buildImage(String dockerFile, String buildImageName,
                                                   final Map<String, String> buildArgs) {
-        ImageFromDockerfile image;
         if (buildImageName != null && !buildImageName.isEmpty()) {
-            image = new ImageFromDockerfile(buildImageName, false);
-        } else {
-            image = new ImageFromDockerfile();
+            // the containers with the same image name and build arguments share the build
+            String key = String.join("|", buildImageName, dockerFile,
+                    new TreeMap<>(mergeBuildArguments(buildArgs)).toString());
+            return sharedImages.computeIfAbsent(key, k ->
+                    withSources(new ImageFromDockerfile(buildImageName, false), dockerFile, buildArgs));
         }
+        return withSources(new ImageFromDockerfile(), dockerFile, buildArgs);
+    }
+
+    private static ImageFromDockerfile withSources(ImageFromDockerfile image, String dockerFile,
+                                                   Map<String, String> buildArgs) {
         return image.withFileFromClasspath("Dockerfile", dockerFile)
                 .withFileFromClasspath("cartridge", buildArgs.get("CARTRIDGE_SRC_DIR") == null ?
-                        "cartridge" : buildArgs.get("CARTRIDGE_SRC_DIR"));
+                        "cartridge" : buildArgs.get("CARTRIDGE_SRC_DIR"))
+                .withBuildImageCmdModifier(cmd ->
+                        TarantoolImageArchives.loadClasspathBaseImages(dockerFile, cmd.getBuildArgs()));
     }
 
     /**
@@ -283,9 +468,16 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
     /**
      * Get the router port
      *
-     * @return router mapped port
+     * @return router mapped port, or the port of the router proxy if {@link #withProxy(boolean)} is enabled
      */
     public int getRouterPort() {
+        if (useProxy) {
+            return getRouterProxy().getPort();
+        }
+        return getMappedRouterPort();
+    }
+
+    private int getMappedRouterPort() {
         if (useFixedPorts) {
             return routerPort;
         }
@@ -394,6 +586,34 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
         return this;
     }
 
+    /**
+     * Specify how the directory binding is made available in the instance directory. The default mode is
+     * {@link DirectoryBindingMode#BIND}. In the {@link DirectoryBindingMode#COPY} mode the directory is copied over
+     * the application built into the image, the changes are sent with {@link #reloadApplication()}. The
+     * {@link DirectoryBindingMode#TMPFS} mode is not supported, since a tmpfs would hide the built application.
+     *
+     * @param directoryBindingMode directory binding mode
+     * @return this container instance
+     */
+    public TarantoolCartridgeContainer withDirectoryBindingMode(DirectoryBindingMode directoryBindingMode) {
+        checkNotRunning();
+        if (directoryBindingMode == DirectoryBindingMode.TMPFS) {
+            throw new IllegalArgumentException(
+                    "The tmpfs mode would hide the application built into the image, use the copy mode instead");
+        }
+        this.directoryBindingMode = directoryBindingMode;
+        return this;
+    }
+
+    /**
+     * Get the directory binding mode
+     *
+     * @return directory binding mode
+     */
+    public DirectoryBindingMode getDirectoryBindingMode() {
+        return directoryBindingMode;
+    }
+
     /**
      * Get Cartridge router HTTP API port
      *
@@ -406,6 +626,38 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
         return getMappedPort(apiPort);
     }
 
+    /**
+     * Get a client for the Cartridge HTTP admin API of the router, authenticated with the router credentials
+     *
+     * @return admin API client
+     */
+    public CartridgeAdminClient getAdminClient() {
+        if (!isRunning()) {
+            throw new IllegalStateException("Cannot access the admin API of a stopped container");
+        }
+        if (adminClient == null) {
+            adminClient = new CartridgeAdminClient(getAPIHost(), getAPIPort(), getRouterUsername(),
+                    getRouterPassword());
+        }
+        return adminClient;
+    }
+
+    /**
+     * Get a scraper of the metrics exported by the metrics role on the HTTP port of each instance with an
+     * "http_port" option. The metrics export must be enabled in the application, see {@link CartridgeMetricsScraper}.
+     *
+     * @return metrics scraper, the instances are named like in instances.yml without the application name prefix
+     */
+    public CartridgeMetricsScraper getMetricsScraper() {
+        if (!isRunning()) {
+            throw new IllegalStateException("Cannot scrape the metrics of a stopped container");
+        }
+        Map<String, Integer> ports = new TreeMap<>();
+        instanceFileParser.getHttpPorts().forEach((instance, port) ->
+                ports.put(instance, useFixedPorts ? port : getMappedPort(port)));
+        return new CartridgeMetricsScraper(getAPIHost(), ports);
+    }
+
     /**
      * Use fixed ports binding.
      * Defaults to false.
@@ -478,10 +730,212 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
         return this;
     }
 
+    /**
+     * Set the total number of vshard buckets in the cluster. The value is passed to the instances in the
+     * TARANTOOL_BUCKET_COUNT environment variable, which is recognized by cartridge.cfg().
+     *
+     * @param bucketCount number of buckets, must be greater than 0
+     * @return this container instance
+     */
+    public TarantoolCartridgeContainer withBucketCount(int bucketCount) {
+        checkNotRunning();
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("The bucket count must be greater than 0, but was %d", bucketCount));
+        }
+        this.bucketCount = bucketCount;
+        return this;
+    }
+
+    /**
+     * Set the number of buckets sent by the vshard rebalancer in one batch (vshard.consts.BUCKET_CHUNK_SIZE).
+     * The value is passed to the instances in the TARANTOOL_BUCKET_CHUNK_SIZE environment variable, the application
+     * init.lua is expected to apply it before calling cartridge.cfg(), for example:
+     *
+     * <pre>
+     * <code>
+     * require('vshard.consts').BUCKET_CHUNK_SIZE = tonumber(os.getenv('TARANTOOL_BUCKET_CHUNK_SIZE')) or 30000
+     * </code>
+     * </pre>
+     *
+     * @param bucketChunkSize number of buckets, must be greater than 0
+     * @return this container instance
+     */
+    public TarantoolCartridgeContainer withBucketChunkSize(int bucketChunkSize) {
+        checkNotRunning();
+        if (bucketChunkSize <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("The bucket chunk size must be greater than 0, but was %d", bucketChunkSize));
+        }
+        this.bucketChunkSize = bucketChunkSize;
+        return this;
+    }
+
+    /**
+     * Reset the cluster state (see {@link #resetState()}) when a running cluster is reused (see
+     * {@link #withReuse(boolean)}), so that the tests start with empty spaces without waiting for the cluster
+     * bootstrap. Defaults to false.
+     *
+     * @param resetOnReuse true if the state must be reset
+     * @return this container instance
+     */
+    public TarantoolCartridgeContainer withResetOnReuse(boolean resetOnReuse) {
+        checkNotRunning();
+        this.resetOnReuse = resetOnReuse;
+        return this;
+    }
+
+    /**
+     * Restore the instance data and the clusterwide configuration from a backup archive (see {@link #backup(Path)})
+     * when the container is created. The instances recover from the backed up checkpoints and the configured
+     * topology, so the topology setup and the vshard bootstrap are skipped. The container must use the same image
+     * and instances file as the backed up one.
+     *
+     * @param backupArchive archive written by {@link #backup(Path)}, null to start with empty data
+     * @return this container instance
+     */
+    public TarantoolCartridgeContainer withRestoreFrom(Path backupArchive) {
+        checkNotRunning();
+        if (backupArchive != null && !Files.isRegularFile(backupArchive)) {
+            throw new IllegalArgumentException(String.format("Backup archive %s is not found", backupArchive));
+        }
+        this.restoreFrom = backupArchive;
+        return this;
+    }
+
+    /**
+     * Get the backup archive restored on start
+     *
+     * @return archive path or null
+     */
+    public Path getRestoreFrom() {
+        return restoreFrom;
+    }
+
+    /**
+     * Specify the default timeout of the commands and scripts executed without an explicit timeout, see
+     * {@link #executeCommand(String, Duration)}. Can be changed while the container is running.
+     *
+     * @param commandTimeout command timeout, null for no timeout
+     * @return this container instance
+     */
+    public TarantoolCartridgeContainer withCommandTimeout(Duration commandTimeout) {
+        if (commandTimeout != null && (commandTimeout.isNegative() || commandTimeout.isZero())) {
+            throw new IllegalArgumentException("The command timeout must be positive");
+        }
+        this.commandTimeout = commandTimeout;
+        return this;
+    }
+
+    @Override
+    public Duration getCommandTimeout() {
+        return commandTimeout;
+    }
+
+    /**
+     * Put a {@link TarantoolProxy} between the clients and the router port, {@link #getRouterPort()} returns the port
+     * of the proxy then. The proxy is started on first use and closed with the container.
+     * Defaults to false.
+     *
+     * @param useProxy true if the router port must be proxied
+     * @return this container instance
+     */
+    public TarantoolCartridgeContainer withProxy(boolean useProxy) {
+        checkNotRunning();
+        this.useProxy = useProxy;
+        return this;
+    }
+
+    /**
+     * Get the proxy of the router port for changing the network conditions and reading the traffic counters
+     *
+     * @return started proxy
+     * @throws IllegalStateException if the proxy is not enabled with {@link #withProxy(boolean)}
+     */
+    public TarantoolProxy getRouterProxy() {
+        if (!useProxy) {
+            throw new IllegalStateException("The proxy is not enabled, use withProxy(true)");
+        }
+        return proxies.get(super.getHost(), getMappedRouterPort());
+    }
+
+    /**
+     * Capture the logs of all instances into structured records, see {@link TarantoolLogCapture}. The instances are
+     * started with the JSON log format and the records are named by the instance.
+     *
+     * @param logCapture log capture
+     * @return this container instance
+     */
+    public TarantoolCartridgeContainer withLogCapture(TarantoolLogCapture logCapture) {
+        checkNotRunning();
+        this.logCapture = logCapture;
+        withEnv(ENV_TARANTOOL_LOG_FORMAT, "json");
+        return this;
+    }
+
+    /**
+     * Get the log capture
+     *
+     * @return log capture, null if not specified
+     */
+    public TarantoolLogCapture getLogCapture() {
+        return logCapture;
+    }
+
+    /**
+     * Compute the fingerprint of the cluster configuration: the Dockerfile, the build arguments, the application
+     * sources, the instances and topology files and the directory binding contents. A reusable container is
+     * labeled with it, so that a changed configuration forces a fresh container.
+     *
+     * @return hex-encoded hash
+     */
+    protected String computeFingerprint() {
+        TarantoolContainerFingerprint fingerprint = new TarantoolContainerFingerprint()
+                .addResource("dockerfile", dockerFile)
+                .add("buildArgs", buildArgs)
+                .addResource("sources", buildArgs.getOrDefault("CARTRIDGE_SRC_DIR", "cartridge"));
+        if (topology != null) {
+            fingerprint.add("instances", topology.toInstancesYaml())
+                    .add("topology", topology.toEditTopologyCommand())
+                    .add("failover", topology.getFailover() == null ? null : topology.toFailoverCommand());
+        } else {
+            fingerprint.addResource("instances", instancesFile)
+                    .addResource("topology", topologyConfigurationFile);
+        }
+        if (restoreFrom != null) {
+            fingerprint.add("restoreFrom", TarantoolBackup.describe(restoreFrom));
+        }
+        return fingerprint.addPath("directory", getDirectoryBinding())
+                .add("directoryBindingMode", directoryBindingMode.name())
+                .toHex();
+    }
+
     @Override
     protected void configure() {
+        if (isShouldBeReused()) {
+            if (buildImageName == null || buildImageName.isEmpty()) {
+                logger().warn("The container reuse requires a stable image name, " +
+                        "specify buildImageName in the container constructor");
+            }
+            withLabel(TarantoolContainerFingerprint.LABEL, computeFingerprint());
+        }
+        if (topology != null) {
+            withCopyToContainer(Transferable.of(topology.toInstancesYaml()), GENERATED_INSTANCES_FILE);
+            withEnv(ENV_TARANTOOL_INSTANCES_FILE, GENERATED_INSTANCES_FILE);
+        }
+        if (bucketCount != null) {
+            withEnv(ENV_TARANTOOL_BUCKET_COUNT, String.valueOf(bucketCount));
+        }
+        if (bucketChunkSize != null) {
+            withEnv(ENV_TARANTOOL_BUCKET_CHUNK_SIZE, String.valueOf(bucketChunkSize));
+        }
         if (!getDirectoryBinding().isEmpty()) {
-            withFileSystemBind(getDirectoryBinding(), getInstanceDir(), BindMode.READ_WRITE);
+            if (directoryBindingMode == DirectoryBindingMode.COPY) {
+                applicationSnapshot = DirectorySnapshot.of(Paths.get(getDirectoryBinding()));
+                withCopyFileToContainer(MountableFile.forHostPath(getDirectoryBinding()), getInstanceDir());
+            } else {
+                withFileSystemBind(getDirectoryBinding(), getInstanceDir(), BindMode.READ_WRITE);
+            }
         }
         if (useFixedPorts) {
             for (Integer port : instanceFileParser.getExposablePorts()) {
@@ -492,12 +946,28 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
         }
     }
 
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        if (restoreFrom != null) {
+            TarantoolBackup.restore(this, containerId, restoreFrom);
+            logger().info("Restored the cluster data from {}", restoreFrom);
+        }
+    }
+
     @Override
     protected void containerIsStarting(InspectContainerResponse containerInfo) {
         logger().info("Tarantool Cartridge cluster is starting");
+        if (logCapture != null) {
+            logCaptureHandle = logCapture.attach(getDockerClient(), getContainerId());
+        }
     }
 
     protected boolean setupTopology() {
+        if (topology != null) {
+            return applyTopologyScript(() -> executeCommandDecoded(topology.toEditTopologyCommand()));
+        }
+
         String fileType = topologyConfigurationFile
             .substring(topologyConfigurationFile.lastIndexOf('.') + 1);
         if (fileType.equals("yml")) {
@@ -524,39 +994,84 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
             }
 
         } else {
-            try {
-                List<?> res = executeScriptDecoded(topologyConfigurationFile);
-                if (res.size() >= 2 && res.get(1) != null && res.get(1) instanceof Map) {
-                    HashMap<?, ?> error = ((HashMap<?, ?>) res.get(1));
-                    // that means topology already exists
-                    return error.get("str").toString().contains("collision with another server");
-                }
-                // The client connection will be closed after that command
-            } catch (Exception e) {
-                if (e instanceof ExecutionException) {
-                    if (e.getCause() instanceof TimeoutException) {
-                        return true;
-                        // Do nothing, the cluster is reloading
-                    }
-                } else {
-                    throw new CartridgeTopologyException(e);
-                }
+            return applyTopologyScript(() -> executeScriptDecoded(topologyConfigurationFile));
+        }
+        return true;
+    }
+
+    /**
+     * Apply the topology with a Lua call returning the result of cartridge.admin_edit_topology()
+     *
+     * @param script executes the Lua call
+     * @return false if the topology has not been applied and the call should be retried
+     */
+    protected boolean applyTopologyScript(Callable<List<?>> script) {
+        try {
+            List<?> res = script.call();
+            if (res.size() >= 2 && res.get(1) != null && res.get(1) instanceof Map) {
+                HashMap<?, ?> error = ((HashMap<?, ?>) res.get(1));
+                // that means topology already exists
+                return error.get("str").toString().contains("collision with another server");
+            }
+            // The client connection will be closed after that command
+        } catch (ExecutionException | IllegalStateException e) {
+            if (e.getCause() instanceof TimeoutException || isConnectionClosed(e.getMessage())) {
+                // Do nothing, the cluster is reloading
+                return true;
             }
+            // the router may be still starting or the topology may be rejected, retried until the deadline
+            lastTopologyFailure = e;
+            logger().debug("Failed to change the app topology: {}", e.getMessage());
+            return false;
+        } catch (Exception e) {
+            throw new CartridgeTopologyException(e);
         }
         return true;
     }
 
+    private static boolean isConnectionClosed(String message) {
+        if (message == null) {
+            return false;
+        }
+        for (String error : TOPOLOGY_CONNECTION_CLOSED_ERRORS) {
+            if (message.contains(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected void retryingSetupTopology() {
-        if (!setupTopology()) {
+        long deadline = System.nanoTime() + TOPOLOGY_SETUP_TIMEOUT.toNanos();
+        long delay = TOPOLOGY_SETUP_INITIAL_DELAY_MS;
+        lastTopologyFailure = null;
+        while (!setupTopology()) {
+            if (System.nanoTime() + delay * 1_000_000 > deadline) {
+                throw new CartridgeTopologyException("Failed to change the app topology after retry",
+                        lastTopologyFailure);
+            }
             try {
-                logger().info("Retrying setup topology in 10 seconds");
-                Thread.sleep(10_000);
+                logger().info("Retrying setup topology in {} ms", delay);
+                Thread.sleep(delay);
             } catch (InterruptedException e) {
                 throw new RuntimeException(e);
             }
-            if (!setupTopology()) {
-                throw new CartridgeTopologyException("Failed to change the app topology after retry");
-            }
+            delay = Math.min(delay * 2, TOPOLOGY_SETUP_MAX_DELAY_MS);
+        }
+    }
+
+    protected void setupFailover() {
+        if (topology == null || topology.getFailover() == null) {
+            return;
+        }
+        List<?> result;
+        try {
+            result = executeCommandDecoded(topology.toFailoverCommand());
+        } catch (Exception e) {
+            throw new CartridgeTopologyException(e);
+        }
+        if (result.isEmpty() || !Boolean.TRUE.equals(result.get(0))) {
+            throw new CartridgeTopologyException("Failed to set the failover parameters: " + result);
         }
     }
 
@@ -574,16 +1089,318 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
         super.containerIsStarted(containerInfo, reused);
 
         waitUntilRouterIsUp(TIMEOUT_ROUTER_UP_CARTRIDGE_HEALTH_IN_SECONDS);
-        retryingSetupTopology();
-        // wait until Roles are configured
-        waitUntilCartridgeIsHealthy(TIMEOUT_ROUTER_UP_CARTRIDGE_HEALTH_IN_SECONDS);
-        bootstrapVshard();
+        boolean bootstrapped = (reused || restoreFrom != null) && isClusterBootstrapped();
+        if (bootstrapped) {
+            logger().info(reused ? "Reusing the bootstrapped Tarantool Cartridge cluster" :
+                    "Tarantool Cartridge cluster is restored from the backup");
+        } else {
+            retryingSetupTopology();
+            // wait until Roles are configured
+            waitUntilCartridgeIsHealthy(TIMEOUT_ROUTER_UP_CARTRIDGE_HEALTH_IN_SECONDS);
+            setupFailover();
+            bootstrapVshard();
+        }
+        try {
+            executeCommandOnAllInstances(TarantoolStateCommands.CAPTURE_MISSING_BASELINE_COMMAND);
+            if (bootstrapped && resetOnReuse) {
+                resetState();
+            }
+        } catch (Exception e) {
+            logger().error("Failed to capture or reset the cluster state", e);
+            throw new RuntimeException(e);
+        }
+
+        if (!getDirectoryBinding().isEmpty() && (directoryBindingMode == DirectoryBindingMode.BIND || reused)) {
+            applicationSnapshot = DirectorySnapshot.of(Paths.get(getDirectoryBinding()));
+        }
 
         logger().info("Tarantool Cartridge cluster is started");
         logger().info("Tarantool Cartridge router is listening at {}:{}", getRouterHost(), getRouterPort());
         logger().info("Tarantool Cartridge HTTP API is available at {}:{}", getAPIHost(), getAPIPort());
     }
 
+    @Override
+    protected void containerIsStopping(InspectContainerResponse containerInfo) {
+        super.containerIsStopping(containerInfo);
+        proxies.close();
+    }
+
+    @Override
+    protected void containerIsStopped(InspectContainerResponse containerInfo) {
+        super.containerIsStopped(containerInfo);
+        // the API port is mapped anew on the next start
+        adminClient = null;
+        if (logCaptureHandle != null) {
+            try {
+                logCaptureHandle.close();
+            } catch (IOException e) {
+                logger().warn("Failed to stop the log capture", e);
+            }
+            logCaptureHandle = null;
+        }
+    }
+
+    /**
+     * Check whether the topology is applied, the cluster is healthy and vshard is bootstrapped
+     *
+     * @return true if the cluster is ready to use
+     */
+    protected boolean isClusterBootstrapped() {
+        try {
+            List<?> result = executeCommandDecoded(CLUSTER_BOOTSTRAPPED_COMMAND);
+            return !result.isEmpty() && Boolean.TRUE.equals(result.get(0));
+        } catch (Exception e) {
+            logger().warn("Failed to check the cluster bootstrap state: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reload the application code without restarting the cluster: find the files in the directory binding (see
+     * {@link #withDirectoryBinding(String)}) which content has changed since the container start or the previous
+     * reload, send them to the container unless the directory is bind-mounted, call cartridge.reload_roles() on all
+     * instances and wait until the cluster is healthy. The application must enable the reload with
+     * {@code cartridge.cfg({roles_reload_allowed = true})}. Nothing is reloaded if no files have changed.
+     *
+     * @return changed files and the duration of each phase
+     */
+    public CartridgeReloadResult reloadApplication() {
+        if (!isRunning()) {
+            throw new IllegalStateException("Cannot reload the application in a stopped container");
+        }
+        if (getDirectoryBinding().isEmpty()) {
+            throw new IllegalStateException("The application reload requires a directory binding");
+        }
+        long startedAt = System.nanoTime();
+        DirectorySnapshot snapshot = DirectorySnapshot.of(Paths.get(getDirectoryBinding()));
+        DirectorySnapshot.Changes changes = snapshot.diff(applicationSnapshot);
+        long scannedAt = System.nanoTime();
+        if (changes.isEmpty()) {
+            return new CartridgeReloadResult(Collections.emptyList(), Collections.emptyList(), 0,
+                    Collections.emptyList(), Duration.ofNanos(scannedAt - startedAt), Duration.ZERO, Duration.ZERO,
+                    Duration.ZERO);
+        }
+
+        int sentFiles = syncApplicationFiles(changes);
+        long syncedAt = System.nanoTime();
+
+        Map<String, Object> reloaded;
+        try {
+            reloaded = executeCommandOnAllInstances(RELOAD_ROLES_COMMAND);
+        } catch (Exception e) {
+            throw new CartridgeReloadException("Failed to reload the roles", e);
+        }
+        long reloadedAt = System.nanoTime();
+
+        waitUntilCartridgeIsHealthy(TIMEOUT_ROUTER_UP_CARTRIDGE_HEALTH_IN_SECONDS);
+        long healthyAt = System.nanoTime();
+        applicationSnapshot = snapshot;
+
+        CartridgeReloadResult result = new CartridgeReloadResult(changes.getChanged(), changes.getDeleted(),
+                sentFiles, new ArrayList<>(reloaded.keySet()), Duration.ofNanos(scannedAt - startedAt),
+                Duration.ofNanos(syncedAt - scannedAt), Duration.ofNanos(reloadedAt - syncedAt),
+                Duration.ofNanos(healthyAt - reloadedAt));
+        logger().info("Tarantool Cartridge application is reloaded: {}", result);
+        return result;
+    }
+
+    // The bind-mounted directory binding is visible in the container as is, so only the changes are detected
+    private int syncApplicationFiles(DirectorySnapshot.Changes changes) {
+        if (directoryBindingMode == DirectoryBindingMode.BIND) {
+            logger().debug("Application files changed in the bind-mounted directory: {}", changes);
+            return 0;
+        }
+        try {
+            return new DirectorySync(Paths.get(getDirectoryBinding()), getInstanceDir()).send(this, changes);
+        } catch (TarantoolDirectorySyncException e) {
+            throw new CartridgeReloadException("Failed to send the application files", e);
+        }
+    }
+
+    /**
+     * Truncate all user spaces (the spaces with names not starting with "_") on all writable cluster instances
+     *
+     * @return number of the truncated spaces
+     */
+    public int truncateUserSpaces() {
+        Map<String, Object> results;
+        try {
+            results = executeCommandOnAllInstances(TarantoolStateCommands.TRUNCATE_USER_SPACES_COMMAND);
+        } catch (Exception e) {
+            logger().error("Failed to truncate the user spaces", e);
+            throw new RuntimeException(e);
+        }
+        int count = 0;
+        for (Object result : results.values()) {
+            count += ((Number) result).intValue();
+        }
+        logger().info("Truncated {} user spaces", count);
+        return count;
+    }
+
+    /**
+     * Capture the schema baseline on all writable cluster instances, replacing the existing one. The replicas
+     * capture the baseline when they become writable and the state is reset for the first time.
+     *
+     * @throws Exception if failed to connect to the instances or execution fails
+     */
+    @Override
+    public void captureStateBaseline() throws Exception {
+        executeCommandOnAllInstances(TarantoolStateCommands.CAPTURE_BASELINE_COMMAND);
+    }
+
+    /**
+     * Restore the schema baseline on all writable cluster instances in parallel. The vshard buckets and other
+     * system spaces are kept as is, so the cluster stays bootstrapped.
+     *
+     * @throws Exception if failed to connect to the instances or execution fails
+     */
+    @Override
+    public void resetState() throws Exception {
+        long startedAt = System.nanoTime();
+        Map<String, Object> results = executeCommandOnAllInstances(TarantoolStateCommands.RESET_STATE_COMMAND);
+        logger().debug("The cluster state is reset in {} ms: {}",
+                (System.nanoTime() - startedAt) / 1_000_000, results);
+    }
+
+    /**
+     * Execute a command on all configured cluster instances in parallel. The command is sent to the router, which
+     * evaluates it on every instance via the Cartridge connection pool. Example of a command:
+     * `return box.info.ro`
+     *
+     * @param command a valid Lua command or a sequence of Lua commands, must not contain "]==]"
+     * @return the first value returned by the command on each instance by instance alias, nil values are skipped
+     * @throws Exception if failed to connect to the router or the execution fails on any instance
+     */
+    public Map<String, Object> executeCommandOnAllInstances(String command) throws Exception {
+        if (command.contains("]==]")) {
+            throw new IllegalArgumentException("The command must not contain ']==]'");
+        }
+        List<?> result = executeCommandDecoded(ON_ALL_INSTANCES_COMMAND_PREFIX + command +
+                ON_ALL_INSTANCES_COMMAND_SUFFIX);
+        if (result.size() >= 2 && result.get(1) != null) {
+            throw new IllegalStateException(
+                    String.format("Failed to execute the command on the instances: %s", result.get(1)));
+        }
+        Map<String, Object> results = new HashMap<>();
+        if (!result.isEmpty() && result.get(0) instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) result.get(0)).entrySet()) {
+                results.put(entry.getKey().toString(), entry.getValue());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Execute a command on a single cluster instance. The command is sent to the router, which evaluates it on the
+     * instance via the Cartridge connection pool.
+     *
+     * @param alias   instance alias
+     * @param command a valid Lua command or a sequence of Lua commands, must not contain "]==]"
+     * @return the first value returned by the command
+     * @throws Exception if failed to connect to the instance or the execution fails
+     */
+    public Object executeCommandOnInstance(String alias, String command) throws Exception {
+        if (command.contains("]==]")) {
+            throw new IllegalArgumentException("The command must not contain ']==]'");
+        }
+        String aliasLiteral = LuaLiterals.string(alias);
+        List<?> result = executeCommandDecoded(String.format(ON_INSTANCE_COMMAND_TEMPLATE, aliasLiteral, command,
+                aliasLiteral));
+        return result == null || result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Get a profiler for a single cluster instance, see {@link TarantoolProfiler}
+     *
+     * @param alias instance alias
+     * @return profiler for the instance
+     */
+    public TarantoolProfiler profiler(String alias) {
+        return new TarantoolProfiler(this, alias, command -> {
+            Object result = executeCommandOnInstance(alias, command);
+            return result == null ? Collections.emptyMap() : Collections.singletonMap(alias, result);
+        });
+    }
+
+    /**
+     * Subscribe to the committed changes of a space on all writable instances. The events of all instances are
+     * merged in each poll, see {@link TarantoolContainerOperations#subscribe(String, int)}.
+     *
+     * @param spaceName space name
+     * @param capacity  maximum number of the buffered events on each instance
+     * @return subscription, must be closed to remove the triggers
+     * @throws Exception if the space does not exist or the execution fails
+     */
+    @Override
+    public TarantoolSpaceSubscription subscribe(String spaceName, int capacity) throws Exception {
+        return TarantoolSpaceSubscription.open(this::executeCommandOnAllInstances, spaceName, capacity);
+    }
+
+    /**
+     * Read the tuples of a space page by page from all writable instances having it. Each page request reads the
+     * next page from every instance in parallel, the tuples are ordered by the index key within each instance, but
+     * not across the instances. See {@link TarantoolContainerOperations#select(String, String, int)}.
+     *
+     * @param spaceName space name
+     * @param indexName unique index name, the primary index if null
+     * @param pageSize  maximum number of the tuples read from each instance at once
+     * @return cursor over the tuples
+     */
+    @Override
+    public TarantoolSelectCursor select(String spaceName, String indexName, int pageSize) {
+        return new TarantoolSelectCursor(this::executeCommandOnAllInstances, spaceName, indexName, pageSize, true);
+    }
+
+    /**
+     * Back up the data and the clusterwide configuration of all configured instances into a tar stream. The
+     * checkpoints are made on the instances in parallel, then the files are streamed one by one, see
+     * {@link TarantoolContainerOperations#backup(OutputStream)}.
+     *
+     * @param out archive stream, not closed
+     * @return backed up files and the backup duration
+     */
+    @Override
+    public TarantoolBackupResult backup(OutputStream out) {
+        return TarantoolBackup.write(this, this::executeCommandOnAllInstances, out);
+    }
+
+    /**
+     * Make a checkpoint on all configured instances in parallel and wait for all of them to complete, see
+     * {@link TarantoolContainerOperations#checkpoint()}
+     *
+     * @return checkpoint measurements ordered by instance alias
+     * @throws Exception if the checkpoint fails on any instance
+     */
+    @Override
+    public List<TarantoolCheckpointResult> checkpoint() throws Exception {
+        return TarantoolCheckpoints.checkpoint(this::executeCommandOnAllInstances);
+    }
+
+    /**
+     * Get the checkpoints kept on all configured instances, see {@link TarantoolContainerOperations#getCheckpoints()}
+     *
+     * @return checkpoints ordered by instance alias and signature
+     * @throws Exception if failed to connect to the instances or execution fails
+     */
+    @Override
+    public List<TarantoolCheckpoint> getCheckpoints() throws Exception {
+        return TarantoolCheckpoints.getCheckpoints(this::executeCommandOnAllInstances);
+    }
+
+    /**
+     * Generate a synthetic dataset on all writable instances having the space in parallel. With a bucket id field
+     * each vshard storage inserts only the rows of its own buckets, see {@link TarantoolDataset}.
+     *
+     * @param dataset dataset specification
+     * @return number of the inserted rows by instance alias and the duration on the slowest instance
+     * @throws Exception if the generation fails on any instance
+     */
+    @Override
+    public TarantoolDatasetResult generate(TarantoolDataset dataset) throws Exception {
+        return dataset.generate(this::executeCommandOnAllInstances, true);
+    }
+
     protected void waitUntilRouterIsUp(int secondsToWait) {
         if(!waitUntilTrue(secondsToWait, this::routerIsUp)) {
             throw new RuntimeException("Timeout exceeded during router starting stage." +
@@ -657,6 +1474,175 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
         }
     }
 
+    /**
+     * Change the weight of a storage replicaset and wait until the vshard rebalancer moves the buckets.
+     *
+     * @param alias  replicaset alias
+     * @param weight new replicaset weight
+     * @return rebalancing summary
+     */
+    public VshardRebalanceResult changeReplicasetWeight(String alias, double weight) {
+        return changeReplicasetWeight(alias, weight, progress -> {
+        });
+    }
+
+    /**
+     * Change the weight of a storage replicaset and wait until the vshard rebalancer moves the buckets.
+     *
+     * @param alias    replicaset alias
+     * @param weight   new replicaset weight
+     * @param listener receives the rebalancing progress samples while waiting
+     * @return rebalancing summary
+     */
+    public VshardRebalanceResult changeReplicasetWeight(String alias, double weight,
+                                                        Consumer<VshardRebalanceProgress> listener) {
+        String aliasLiteral = LuaLiterals.string(alias);
+        applyTopologyChange(String.format(CHANGE_WEIGHT_COMMAND_TEMPLATE,
+                aliasLiteral, LuaLiterals.toLua(weight), aliasLiteral));
+        return awaitRebalance(REBALANCE_TIMEOUT, REBALANCE_POLL_INTERVAL, listener);
+    }
+
+    /**
+     * Join a new storage replicaset to the running cluster and wait until the vshard rebalancer moves the buckets
+     * to it. The instances must be already started, i.e. they must be specified in the instances file.
+     *
+     * @param alias      replicaset alias
+     * @param roles      replicaset roles, e.g. "vshard-storage"
+     * @param serverUris advertise URIs of the replicaset instances, the first one becomes the master
+     * @param weight     replicaset weight
+     * @param listener   receives the rebalancing progress samples while waiting
+     * @return rebalancing summary
+     */
+    public VshardRebalanceResult joinStorageReplicaset(String alias, List<String> roles, List<String> serverUris,
+                                                       double weight, Consumer<VshardRebalanceProgress> listener) {
+        List<Map<String, String>> joinServers = new ArrayList<>(serverUris.size());
+        for (String uri : serverUris) {
+            joinServers.add(Collections.singletonMap("uri", uri));
+        }
+        applyTopologyChange(String.format(JOIN_REPLICASET_COMMAND_TEMPLATE,
+                LuaLiterals.string(alias), LuaLiterals.toLua(roles), LuaLiterals.toLua(weight),
+                LuaLiterals.toLua(joinServers)));
+        waitUntilCartridgeIsHealthy(TIMEOUT_ROUTER_UP_CARTRIDGE_HEALTH_IN_SECONDS);
+        return awaitRebalance(REBALANCE_TIMEOUT, REBALANCE_POLL_INTERVAL, listener);
+    }
+
+    /**
+     * Join a new storage replicaset to the running cluster and wait until the vshard rebalancer moves the buckets
+     * to it. The instances must be already started, i.e. they must be specified in the instances file.
+     *
+     * @param alias      replicaset alias
+     * @param roles      replicaset roles, e.g. "vshard-storage"
+     * @param serverUris advertise URIs of the replicaset instances, the first one becomes the master
+     * @param weight     replicaset weight
+     * @return rebalancing summary
+     */
+    public VshardRebalanceResult joinStorageReplicaset(String alias, List<String> roles, List<String> serverUris,
+                                                       double weight) {
+        return joinStorageReplicaset(alias, roles, serverUris, weight, progress -> {
+        });
+    }
+
+    /**
+     * Wake up the vshard rebalancer and poll the bucket counters on all storages until the buckets are distributed
+     * according to the replicaset weights.
+     *
+     * @param timeout      maximum time to wait
+     * @param pollInterval interval between the samples
+     * @param listener     receives the rebalancing progress samples while waiting
+     * @return rebalancing summary
+     * @throws CartridgeRebalanceException if the cluster is not balanced in time or the state cannot be read
+     */
+    public VshardRebalanceResult awaitRebalance(Duration timeout, Duration pollInterval,
+                                                Consumer<VshardRebalanceProgress> listener) {
+        try {
+            executeCommandDecoded(VSHARD_REBALANCER_WAKEUP_COMMAND);
+        } catch (Exception e) {
+            throw new CartridgeRebalanceException("Failed to wake up the vshard rebalancer", e);
+        }
+
+        List<VshardRebalanceProgress> samples = new ArrayList<>();
+        Map<String, VshardBucketCounts> previous = null;
+        long startedAt = System.nanoTime();
+        long previousAt = startedAt;
+        long bucketsMoved = 0;
+        while (true) {
+            List<?> result;
+            try {
+                result = executeCommandDecoded(VSHARD_BUCKETS_COMMAND);
+            } catch (Exception e) {
+                throw new CartridgeRebalanceException("Failed to read the vshard bucket counters", e);
+            }
+            long now = System.nanoTime();
+
+            Map<String, VshardBucketCounts> buckets = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) result.get(0)).entrySet()) {
+                buckets.put(entry.getKey().toString(), VshardBucketCounts.fromMap((Map<?, ?>) entry.getValue()));
+            }
+            Map<String, Double> weights = new HashMap<>();
+            if (result.size() > 1 && result.get(1) instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) result.get(1)).entrySet()) {
+                    if (entry.getValue() instanceof Number && buckets.containsKey(entry.getKey().toString())) {
+                        weights.put(entry.getKey().toString(), ((Number) entry.getValue()).doubleValue());
+                    }
+                }
+            }
+
+            long sent = 0;
+            long received = 0;
+            if (previous != null) {
+                for (Map.Entry<String, VshardBucketCounts> entry : buckets.entrySet()) {
+                    VshardBucketCounts before = previous.get(entry.getKey());
+                    int delta = entry.getValue().getActive() - (before == null ? 0 : before.getActive());
+                    if (delta > 0) {
+                        received += delta;
+                    } else {
+                        sent -= delta;
+                    }
+                }
+            }
+            bucketsMoved += received;
+            double seconds = Math.max(now - previousAt, 1) / 1e9;
+            VshardRebalanceProgress progress = new VshardRebalanceProgress(Duration.ofNanos(now - startedAt),
+                    buckets, weights, sent / seconds, received / seconds);
+            samples.add(progress);
+            listener.accept(progress);
+
+            if (progress.isBalanced(REBALANCE_DISBALANCE_THRESHOLD)) {
+                VshardRebalanceResult rebalanceResult =
+                        new VshardRebalanceResult(progress.getElapsed(), bucketsMoved, samples);
+                logger().info("Vshard rebalancing is finished: {}", rebalanceResult);
+                return rebalanceResult;
+            }
+            if (progress.getElapsed().compareTo(timeout) > 0) {
+                throw new CartridgeRebalanceException(
+                        String.format("The cluster is not balanced after %d ms, last state: %s",
+                                progress.getElapsed().toMillis(), progress));
+            }
+
+            previous = buckets;
+            previousAt = now;
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CartridgeRebalanceException("Interrupted while waiting for the vshard rebalancing", e);
+            }
+        }
+    }
+
+    protected void applyTopologyChange(String command) {
+        List<?> result;
+        try {
+            result = executeCommandDecoded(command);
+        } catch (Exception e) {
+            throw new CartridgeTopologyException(e);
+        }
+        if (result.size() >= 2 && result.get(1) instanceof Map) {
+            Object error = ((Map<?, ?>) result.get(1)).get("str");
+            throw new CartridgeTopologyException("Failed to change the app topology: " + error);
+        }
+    }
+
     @Override
     public ExecResult executeScript(String scriptResourcePath) throws Exception {
         return clientHelper.executeScript(scriptResourcePath, this.sslContext);
@@ -676,4 +1662,14 @@ public class TarantoolCartridgeContainer extends GenericContainer<TarantoolCartr
     public <T> T executeCommandDecoded(String command) throws Exception {
         return clientHelper.executeCommandDecoded(command, this.sslContext);
     }
+
+    @Override
+    public Container.ExecResult executeCommand(String command, Duration timeout) throws Exception {
+        return clientHelper.executeCommand(command, this.sslContext, timeout);
+    }
+
+    @Override
+    public <T> T executeCommandDecoded(String command, Duration timeout) throws Exception {
+        return clientHelper.executeCommandDecoded(command, this.sslContext, timeout);
+    }
 }
@@ -0,0 +1,97 @@
+package org.testcontainers.containers;
+
+import java.util.List;
+
+/**
+ * A committed change of a space tuple captured by a {@link TarantoolSpaceSubscription}
+ */
+public class TarantoolChangeEvent {
+
+    private final String instance;
+    private final long sequence;
+    private final String operation;
+    private final long lsn;
+    private final List<?> oldTuple;
+    private final List<?> newTuple;
+
+    /**
+     * Basic constructor
+     *
+     * @param instance  alias of the instance where the change happened, empty for a single instance
+     * @param sequence  number of the event in the subscription on the instance, starting from 1
+     * @param operation request type: INSERT, REPLACE, UPDATE, UPSERT or DELETE
+     * @param lsn       instance LSN after the transaction commit
+     * @param oldTuple  tuple before the change or null
+     * @param newTuple  tuple after the change or null
+     */
+    public TarantoolChangeEvent(String instance, long sequence, String operation, long lsn, List<?> oldTuple,
+                                List<?> newTuple) {
+        this.instance = instance;
+        this.sequence = sequence;
+        this.operation = operation;
+        this.lsn = lsn;
+        this.oldTuple = oldTuple;
+        this.newTuple = newTuple;
+    }
+
+    /**
+     * Get the alias of the instance where the change happened
+     *
+     * @return instance alias, empty for a single instance container
+     */
+    public String getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the number of the event in the subscription on the instance. A gap in the numbers means that the
+     * server-side buffer has overflown and the older events have been dropped.
+     *
+     * @return sequence number, starting from 1
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Get the request type
+     *
+     * @return INSERT, REPLACE, UPDATE, UPSERT or DELETE
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get the instance LSN observed after the transaction commit. The changes of one transaction have the same LSN.
+     *
+     * @return log sequence number
+     */
+    public long getLsn() {
+        return lsn;
+    }
+
+    /**
+     * Get the tuple before the change
+     *
+     * @return tuple fields or null for an insert
+     */
+    public List<?> getOldTuple() {
+        return oldTuple;
+    }
+
+    /**
+     * Get the tuple after the change
+     *
+     * @return tuple fields or null for a delete
+     */
+    public List<?> getNewTuple() {
+        return newTuple;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s#%d %s lsn=%d old=%s new=%s", instance, sequence, operation, lsn, oldTuple,
+                newTuple);
+    }
+}
@@ -0,0 +1,72 @@
+package org.testcontainers.containers;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A checkpoint kept by the instance garbage collector, see {@link TarantoolContainerOperations#getCheckpoints()}
+ */
+public class TarantoolCheckpoint {
+
+    private final String instance;
+    private final long signature;
+    private final long snapshotSize;
+    private final List<String> references;
+
+    /**
+     * Basic constructor
+     *
+     * @param instance     instance alias, empty for a single instance
+     * @param signature    signature (sum of the vclock components) of the checkpoint
+     * @param snapshotSize size of the .snap file in bytes
+     * @param references   names of the consumers pinning the checkpoint, e.g. "backup"
+     */
+    public TarantoolCheckpoint(String instance, long signature, long snapshotSize, List<String> references) {
+        this.instance = instance;
+        this.signature = signature;
+        this.snapshotSize = snapshotSize;
+        this.references = Collections.unmodifiableList(references);
+    }
+
+    /**
+     * Get the alias of the instance
+     *
+     * @return instance alias, empty for a single instance container
+     */
+    public String getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the signature of the checkpoint, the .snap file is named by it
+     *
+     * @return sum of the vclock components
+     */
+    public long getSignature() {
+        return signature;
+    }
+
+    /**
+     * Get the size of the snapshot file
+     *
+     * @return number of bytes, 0 if the instance has no memtx snapshot file
+     */
+    public long getSnapshotSize() {
+        return snapshotSize;
+    }
+
+    /**
+     * Get the consumers pinning the checkpoint
+     *
+     * @return reference names
+     */
+    public List<String> getReferences() {
+        return references;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("instance=%s, signature=%d, snapshot=%d bytes, references=%s", instance, signature,
+                snapshotSize, references);
+    }
+}
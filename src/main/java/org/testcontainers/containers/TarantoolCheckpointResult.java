@@ -0,0 +1,146 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+
+/**
+ * Measurements of a checkpoint made by {@link TarantoolContainerOperations#checkpoint()} on an instance
+ */
+public class TarantoolCheckpointResult {
+
+    private final String instance;
+    private final long signature;
+    private final Duration duration;
+    private final long snapshotSize;
+    private final int walFilesBefore;
+    private final int walFilesAfter;
+    private final long walBytesBefore;
+    private final long walBytesAfter;
+    private final Duration maxEventLoopLag;
+
+    /**
+     * Basic constructor
+     *
+     * @param instance        instance alias, empty for a single instance
+     * @param signature       signature (sum of the vclock components) of the new checkpoint
+     * @param duration        time spent in {@code box.snapshot()}
+     * @param snapshotSize    size of the written .snap file in bytes
+     * @param walFilesBefore  number of the .xlog files before the checkpoint
+     * @param walFilesAfter   number of the .xlog files after the garbage collection
+     * @param walBytesBefore  size of the .xlog files before the checkpoint
+     * @param walBytesAfter   size of the .xlog files after the garbage collection
+     * @param maxEventLoopLag maximum delay of the instance event loop observed during the checkpoint
+     */
+    public TarantoolCheckpointResult(String instance, long signature, Duration duration, long snapshotSize,
+                                     int walFilesBefore, int walFilesAfter, long walBytesBefore,
+                                     long walBytesAfter, Duration maxEventLoopLag) {
+        this.instance = instance;
+        this.signature = signature;
+        this.duration = duration;
+        this.snapshotSize = snapshotSize;
+        this.walFilesBefore = walFilesBefore;
+        this.walFilesAfter = walFilesAfter;
+        this.walBytesBefore = walBytesBefore;
+        this.walBytesAfter = walBytesAfter;
+        this.maxEventLoopLag = maxEventLoopLag;
+    }
+
+    /**
+     * Get the alias of the instance
+     *
+     * @return instance alias, empty for a single instance container
+     */
+    public String getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the signature of the new checkpoint, the .snap file is named by it
+     *
+     * @return sum of the vclock components
+     */
+    public long getSignature() {
+        return signature;
+    }
+
+    /**
+     * Get the time spent in {@code box.snapshot()}, which returns when the snapshot file is written
+     *
+     * @return checkpoint duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get the size of the written snapshot
+     *
+     * @return number of bytes, 0 if the instance has no memtx snapshot file
+     */
+    public long getSnapshotSize() {
+        return snapshotSize;
+    }
+
+    /**
+     * Get the number of the WAL files before the checkpoint
+     *
+     * @return number of the .xlog files
+     */
+    public int getWalFilesBefore() {
+        return walFilesBefore;
+    }
+
+    /**
+     * Get the number of the WAL files after the garbage collection triggered by the checkpoint
+     *
+     * @return number of the .xlog files
+     */
+    public int getWalFilesAfter() {
+        return walFilesAfter;
+    }
+
+    /**
+     * Get the size of the WAL files before the checkpoint
+     *
+     * @return number of bytes
+     */
+    public long getWalBytesBefore() {
+        return walBytesBefore;
+    }
+
+    /**
+     * Get the size of the WAL files after the garbage collection triggered by the checkpoint
+     *
+     * @return number of bytes
+     */
+    public long getWalBytesAfter() {
+        return walBytesAfter;
+    }
+
+    /**
+     * Get the number of the WAL files removed by the garbage collection. The files are kept while they are needed
+     * by the older checkpoints (see {@code checkpoint_count}), the replicas or the backups.
+     *
+     * @return number of the removed .xlog files, may be negative if new files were created meanwhile
+     */
+    public int getRemovedWalFiles() {
+        return walFilesBefore - walFilesAfter;
+    }
+
+    /**
+     * Get the maximum delay of the instance event loop observed during the checkpoint. The requests processed by
+     * the instance at that time were delayed by up to this value.
+     *
+     * @return maximum event loop lag
+     */
+    public Duration getMaxEventLoopLag() {
+        return maxEventLoopLag;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("instance=%s, signature=%d, duration=%dms, snapshot=%d bytes, wal=%d->%d files " +
+                        "(%d->%d bytes), maxEventLoopLag=%dms", instance, signature, duration.toMillis(),
+                snapshotSize, walFilesBefore, walFilesAfter, walBytesBefore, walBytesAfter,
+                maxEventLoopLag.toMillis());
+    }
+}
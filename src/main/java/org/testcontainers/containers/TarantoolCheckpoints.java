@@ -0,0 +1,139 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lua commands for making checkpoints and inspecting the checkpoints kept by the garbage collector, executed on a
+ * single instance or on all instances of a cluster in parallel
+ */
+final class TarantoolCheckpoints {
+
+    private TarantoolCheckpoints() {
+    }
+
+    // Lists the WAL files with their total size and finds the size of a snapshot by its signature
+    private static final String FILE_FUNCTIONS =
+            "local fio, clock, fiber = require('fio'), require('clock'), require('fiber') " +
+            "local function wal() " +
+            "local files = fio.glob(fio.pathjoin(fio.abspath(box.cfg.wal_dir), '*.xlog')) " +
+            "table.sort(files) local size = 0 " +
+            "for _, f in ipairs(files) do local st = fio.stat(f) size = size + (st and st.size or 0) end " +
+            "return files, size end " +
+            "local function snap_size(signature) " +
+            "local st = fio.stat(fio.pathjoin(fio.abspath(box.cfg.memtx_dir), " +
+            "string.format('%020d.snap', tonumber(signature)))) " +
+            "return st and st.size or 0 end ";
+
+    /**
+     * Makes a checkpoint while a probe fiber measures the event loop lag, then waits up to a second for the garbage
+     * collector to remove the WAL files older than the retained vclock. Returns the measurements.
+     */
+    static final String CHECKPOINT_COMMAND = FILE_FUNCTIONS +
+            "local before, before_size = wal() " +
+            "local probe = {running = true, max = 0} " +
+            "fiber.create(function() while probe.running do " +
+            "local t = clock.monotonic() fiber.sleep(0.001) " +
+            "local lag = clock.monotonic() - t - 0.001 " +
+            "if lag > probe.max then probe.max = lag end end end) " +
+            "local started = clock.monotonic() " +
+            "local ok, err = pcall(box.snapshot) " +
+            "local duration = clock.monotonic() - started " +
+            "probe.running = false " +
+            "if not ok then error(err) end " +
+            "local checkpoints = box.info.gc().checkpoints " +
+            "local signature = checkpoints[#checkpoints].signature " +
+            "local function collectable(files) for i = 1, #files - 1 do " +
+            "if tonumber(fio.basename(files[i + 1], '.xlog')) <= tonumber(box.info.gc().signature) then " +
+            "return true end end return false end " +
+            "local after, after_size = wal() " +
+            "local deadline = clock.monotonic() + 1 " +
+            "while collectable(after) and clock.monotonic() < deadline do " +
+            "fiber.sleep(0.01) after, after_size = wal() end " +
+            "return {signature = tonumber(signature), duration = duration, " +
+            "snapshot_size = snap_size(signature), wal_files_before = #before, wal_files_after = #after, " +
+            "wal_bytes_before = before_size, wal_bytes_after = after_size, max_lag = probe.max}";
+
+    /**
+     * Returns the checkpoints kept by the garbage collector, from the oldest to the newest
+     */
+    static final String CHECKPOINTS_COMMAND = FILE_FUNCTIONS +
+            "local result = {} " +
+            "for i, c in ipairs(box.info.gc().checkpoints) do " +
+            "result[i] = {signature = tonumber(c.signature), snapshot_size = snap_size(c.signature), " +
+            "references = c.references} end " +
+            "return result";
+
+    /**
+     * Make a checkpoint on each instance of the runner
+     *
+     * @param runner command runner
+     * @return measurements ordered by instance alias
+     * @throws Exception if the checkpoint fails on any instance
+     */
+    static List<TarantoolCheckpointResult> checkpoint(InstanceCommandRunner runner) throws Exception {
+        return parseCheckpointResults(runner.run(CHECKPOINT_COMMAND));
+    }
+
+    /**
+     * Get the checkpoints kept on each instance of the runner
+     *
+     * @param runner command runner
+     * @return checkpoints ordered by instance alias and signature
+     * @throws Exception if the execution fails on any instance
+     */
+    static List<TarantoolCheckpoint> getCheckpoints(InstanceCommandRunner runner) throws Exception {
+        return parseCheckpoints(runner.run(CHECKPOINTS_COMMAND));
+    }
+
+    static List<TarantoolCheckpointResult> parseCheckpointResults(Map<String, Object> results) {
+        List<TarantoolCheckpointResult> checkpoints = new ArrayList<>();
+        for (Map.Entry<String, Object> result : new TreeMap<>(results).entrySet()) {
+            if (!(result.getValue() instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> value = (Map<?, ?>) result.getValue();
+            checkpoints.add(new TarantoolCheckpointResult(result.getKey(), toLong(value.get("signature")),
+                    toDuration(value.get("duration")), toLong(value.get("snapshot_size")),
+                    (int) toLong(value.get("wal_files_before")), (int) toLong(value.get("wal_files_after")),
+                    toLong(value.get("wal_bytes_before")), toLong(value.get("wal_bytes_after")),
+                    toDuration(value.get("max_lag"))));
+        }
+        return checkpoints;
+    }
+
+    static List<TarantoolCheckpoint> parseCheckpoints(Map<String, Object> results) {
+        List<TarantoolCheckpoint> checkpoints = new ArrayList<>();
+        for (Map.Entry<String, Object> result : new TreeMap<>(results).entrySet()) {
+            // an empty Lua table is decoded as a map
+            if (!(result.getValue() instanceof List)) {
+                continue;
+            }
+            for (Object item : (List<?>) result.getValue()) {
+                Map<?, ?> value = (Map<?, ?>) item;
+                List<String> references = new ArrayList<>();
+                if (value.get("references") instanceof List) {
+                    for (Object reference : (List<?>) value.get("references")) {
+                        references.add(String.valueOf(reference));
+                    }
+                }
+                checkpoints.add(new TarantoolCheckpoint(result.getKey(), toLong(value.get("signature")),
+                        toLong(value.get("snapshot_size")), references));
+            }
+        }
+        return checkpoints;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static Duration toDuration(Object seconds) {
+        return seconds instanceof Number ?
+                Duration.ofNanos(Math.max(0, (long) (((Number) seconds).doubleValue() * 1_000_000_000L))) :
+                Duration.ZERO;
+    }
+}
@@ -0,0 +1,476 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Describes a Tarantool 3.x cluster configuration (the config.yaml file) in Java code or loads it from the classpath
+ * resources:
+ *
+ * <pre>
+ * <code>
+ * TarantoolClusterConfig config = new TarantoolClusterConfig()
+ *     .withCredentials("admin", "secret")
+ *     .withOption("replication.failover", "manual")
+ *     .withGroup(new TarantoolClusterConfig.Group("routers")
+ *         .withOption("roles", Collections.singletonList("roles.crud-router"))
+ *         .withReplicaset(new TarantoolClusterConfig.Replicaset("router")
+ *             .withInstance("router", 3301)))
+ *     .withGroup(new TarantoolClusterConfig.Group("storages")
+ *         .withReplicaset(new TarantoolClusterConfig.Replicaset("storage-a")
+ *             .withOption("leader", "storage-a-001")
+ *             .withInstance("storage-a-001", 3302)
+ *             .withInstance("storage-a-002", 3303)));
+ *
+ * TarantoolClusterContainer container = new TarantoolClusterContainer(config);
+ * </code>
+ * </pre>
+ * <p>
+ * The options are set with dot-separated paths, e.g. "replication.failover", and are nested in the generated YAML.
+ * The instance binary ports are taken from the first "iproto.listen" URI of each instance.
+ */
+public class TarantoolClusterConfig {
+
+    private static final String LISTEN_OPTION = "iproto.listen";
+    private static final String LISTEN_HOST = "0.0.0.0";
+    private static final String ADVERTISE_HOST = "localhost";
+
+    private final Map<String, Object> options = new LinkedHashMap<>();
+    private final List<Group> groups = new ArrayList<>();
+    private String username;
+    private String password;
+
+    /**
+     * Load a configuration from a config.yaml file in the classpath resources
+     *
+     * @param resourcePath path to the file, relative to the classpath resources
+     * @return configuration
+     */
+    public static TarantoolClusterConfig fromResource(String resourcePath) {
+        InputStream input = TarantoolClusterConfig.class.getClassLoader().getResourceAsStream(resourcePath);
+        if (input == null) {
+            throw new IllegalArgumentException(
+                    String.format("No resource path found for the specified resource %s", resourcePath));
+        }
+        try (InputStream stream = input) {
+            Map<String, Object> root = new Yaml().load(stream);
+            return fromMap(root == null ? Collections.emptyMap() : root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parse a configuration from the config.yaml contents
+     *
+     * @param yaml YAML document
+     * @return configuration
+     */
+    public static TarantoolClusterConfig fromYaml(String yaml) {
+        Map<String, Object> root = new Yaml().load(yaml);
+        return fromMap(root == null ? Collections.emptyMap() : root);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TarantoolClusterConfig fromMap(Map<String, Object> root) {
+        TarantoolClusterConfig config = new TarantoolClusterConfig();
+        for (Map.Entry<String, Object> entry : root.entrySet()) {
+            if (!entry.getKey().equals("groups")) {
+                config.options.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Map<String, Object> groups = (Map<String, Object>) root.getOrDefault("groups", Collections.emptyMap());
+        for (Map.Entry<String, Object> groupEntry : groups.entrySet()) {
+            Map<String, Object> groupMap = (Map<String, Object>) groupEntry.getValue();
+            Group group = new Group(groupEntry.getKey());
+            for (Map.Entry<String, Object> entry : groupMap.entrySet()) {
+                if (!entry.getKey().equals("replicasets")) {
+                    group.options.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Map<String, Object> replicasets =
+                    (Map<String, Object>) groupMap.getOrDefault("replicasets", Collections.emptyMap());
+            for (Map.Entry<String, Object> replicasetEntry : replicasets.entrySet()) {
+                Map<String, Object> replicasetMap = (Map<String, Object>) replicasetEntry.getValue();
+                Replicaset replicaset = new Replicaset(replicasetEntry.getKey());
+                for (Map.Entry<String, Object> entry : replicasetMap.entrySet()) {
+                    if (!entry.getKey().equals("instances")) {
+                        replicaset.options.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                Map<String, Object> instances =
+                        (Map<String, Object>) replicasetMap.getOrDefault("instances", Collections.emptyMap());
+                for (Map.Entry<String, Object> instance : instances.entrySet()) {
+                    replicaset.instances.put(instance.getKey(), instance.getValue() == null ?
+                            new LinkedHashMap<>() : new LinkedHashMap<>((Map<String, Object>) instance.getValue()));
+                }
+                group.withReplicaset(replicaset);
+            }
+            config.withGroup(group);
+        }
+        return config;
+    }
+
+    /**
+     * Create the user for connecting to the instances with the "super" role. The user is also used for the
+     * replication between the generated instances.
+     *
+     * @param username user name
+     * @param password user password
+     * @return this configuration instance
+     */
+    public TarantoolClusterConfig withCredentials(String username, String password) {
+        if (username == null || username.isEmpty()) {
+            throw new IllegalArgumentException("User name must not be null or empty");
+        }
+        this.username = username;
+        this.password = password;
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("password", password);
+        user.put("roles", Collections.singletonList("super"));
+        putOption(options, "credentials.users." + username, user);
+        putOption(options, "iproto.advertise.peer.login", username);
+        return this;
+    }
+
+    /**
+     * Set a global option
+     *
+     * @param path  dot-separated option path, e.g. "replication.failover"
+     * @param value option value, a string, a number, a boolean, a list or a map
+     * @return this configuration instance
+     */
+    public TarantoolClusterConfig withOption(String path, Object value) {
+        if (path != null && (path.equals("groups") || path.startsWith("groups."))) {
+            throw new IllegalArgumentException("Use withGroup() and getGroup() for changing the groups");
+        }
+        putOption(options, path, value);
+        return this;
+    }
+
+    /**
+     * Add a group
+     *
+     * @param group group description
+     * @return this configuration instance
+     */
+    public TarantoolClusterConfig withGroup(Group group) {
+        for (Group existing : groups) {
+            if (existing.name.equals(group.name)) {
+                throw new IllegalArgumentException(String.format("Group %s is already added", group.name));
+            }
+        }
+        groups.add(group);
+        return this;
+    }
+
+    /**
+     * Get a group, e.g. for changing the options of a loaded configuration
+     *
+     * @param name group name
+     * @return group description
+     */
+    public Group getGroup(String name) {
+        for (Group group : groups) {
+            if (group.name.equals(name)) {
+                return group;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Group %s is not found", name));
+    }
+
+    /**
+     * Get the user name specified with {@link #withCredentials(String, String)}
+     *
+     * @return user name or null
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Get the user password specified with {@link #withCredentials(String, String)}
+     *
+     * @return user password or null
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Get the instance names in the order of appearance
+     *
+     * @return instance names
+     */
+    public List<String> getInstanceNames() {
+        return new ArrayList<>(getInstancePorts().keySet());
+    }
+
+    /**
+     * Get the binary ports of the instances, taken from the first "iproto.listen" URI of each instance
+     *
+     * @return ports by instance name, null for the instances without a TCP listen URI
+     */
+    public Map<String, Integer> getInstancePorts() {
+        Map<String, Integer> ports = new LinkedHashMap<>();
+        for (Group group : groups) {
+            for (Replicaset replicaset : group.replicasets) {
+                for (Map.Entry<String, Map<String, Object>> instance : replicaset.instances.entrySet()) {
+                    if (ports.containsKey(instance.getKey())) {
+                        throw new IllegalStateException(
+                                String.format("Instance %s is defined more than once", instance.getKey()));
+                    }
+                    ports.put(instance.getKey(), getListenPort(instance.getValue()));
+                }
+            }
+        }
+        return ports;
+    }
+
+    /**
+     * Generate the contents of the config.yaml file
+     *
+     * @return YAML document
+     */
+    public String toYaml() {
+        DumperOptions dumperOptions = new DumperOptions();
+        dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        return new Yaml(dumperOptions).dump(toMap());
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> root = new LinkedHashMap<>(options);
+        Map<String, Object> groupsMap = new LinkedHashMap<>();
+        for (Group group : groups) {
+            groupsMap.put(group.name, group.toMap());
+        }
+        root.put("groups", groupsMap);
+        return root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static void putOption(Map<String, Object> options, String path, Object value) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Option path must not be null or empty");
+        }
+        String[] keys = path.split("\\.");
+        Map<String, Object> current = options;
+        for (int i = 0; i < keys.length - 1; i++) {
+            Object next = current.get(keys[i]);
+            if (!(next instanceof Map)) {
+                next = new LinkedHashMap<String, Object>();
+                current.put(keys[i], next);
+            }
+            current = (Map<String, Object>) next;
+        }
+        current.put(keys[keys.length - 1], value);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object getOption(Map<String, Object> options, String path) {
+        Object current = options;
+        for (String key : path.split("\\.")) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            current = ((Map<String, Object>) current).get(key);
+        }
+        return current;
+    }
+
+    // "iproto.listen" is a list of {uri = ...} maps, the URI may be "host:port", "port" or a unix socket
+    @SuppressWarnings("unchecked")
+    private static Integer getListenPort(Map<String, Object> instance) {
+        Object listen = getOption(instance, LISTEN_OPTION);
+        if (!(listen instanceof List) || ((List<Object>) listen).isEmpty()) {
+            return null;
+        }
+        Object first = ((List<Object>) listen).get(0);
+        Object uri = first instanceof Map ? ((Map<String, Object>) first).get("uri") : first;
+        if (uri == null) {
+            return null;
+        }
+        String value = uri.toString();
+        if (value.startsWith("unix/")) {
+            return null;
+        }
+        String port = value.substring(value.lastIndexOf(':') + 1);
+        try {
+            return Integer.parseInt(port);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(String.format("Invalid listen URI %s", value), e);
+        }
+    }
+
+    /**
+     * Configuration group
+     */
+    public static class Group {
+        private final String name;
+        private final Map<String, Object> options = new LinkedHashMap<>();
+        private final List<Replicaset> replicasets = new ArrayList<>();
+
+        /**
+         * Basic constructor
+         *
+         * @param name group name
+         */
+        public Group(String name) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Group name must not be null or empty");
+            }
+            this.name = name;
+        }
+
+        /**
+         * Set an option for all instances of the group
+         *
+         * @param path  dot-separated option path, e.g. "sharding.roles"
+         * @param value option value
+         * @return this group instance
+         */
+        public Group withOption(String path, Object value) {
+            putOption(options, path, value);
+            return this;
+        }
+
+        /**
+         * Add a replicaset
+         *
+         * @param replicaset replicaset description
+         * @return this group instance
+         */
+        public Group withReplicaset(Replicaset replicaset) {
+            replicasets.add(replicaset);
+            return this;
+        }
+
+        /**
+         * Get a replicaset of the group
+         *
+         * @param name replicaset name
+         * @return replicaset description
+         */
+        public Replicaset getReplicaset(String name) {
+            for (Replicaset replicaset : replicasets) {
+                if (replicaset.name.equals(name)) {
+                    return replicaset;
+                }
+            }
+            throw new IllegalArgumentException(
+                    String.format("Replicaset %s is not found in group %s", name, this.name));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>(options);
+            Map<String, Object> replicasetsMap = new LinkedHashMap<>();
+            for (Replicaset replicaset : replicasets) {
+                replicasetsMap.put(replicaset.name, replicaset.toMap());
+            }
+            result.put("replicasets", replicasetsMap);
+            return result;
+        }
+    }
+
+    /**
+     * Configuration replicaset
+     */
+    public static class Replicaset {
+        private final String name;
+        private final Map<String, Object> options = new LinkedHashMap<>();
+        private final Map<String, Map<String, Object>> instances = new LinkedHashMap<>();
+
+        /**
+         * Basic constructor
+         *
+         * @param name replicaset name
+         */
+        public Replicaset(String name) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Replicaset name must not be null or empty");
+            }
+            this.name = name;
+        }
+
+        /**
+         * Set an option for all instances of the replicaset
+         *
+         * @param path  dot-separated option path, e.g. "leader"
+         * @param value option value
+         * @return this replicaset instance
+         */
+        public Replicaset withOption(String path, Object value) {
+            putOption(options, path, value);
+            return this;
+        }
+
+        /**
+         * Add an instance listening on the specified binary port on all interfaces and advertised to the other
+         * instances at localhost
+         *
+         * @param name instance name
+         * @param port instance binary port
+         * @return this replicaset instance
+         */
+        public Replicaset withInstance(String name, int port) {
+            return withInstance(name, port, Collections.emptyMap());
+        }
+
+        /**
+         * Add an instance with additional options
+         *
+         * @param name    instance name
+         * @param port    instance binary port
+         * @param options other instance options by dot-separated path, e.g. "database.mode"
+         * @return this replicaset instance
+         */
+        public Replicaset withInstance(String name, int port, Map<String, Object> options) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Instance name must not be null or empty");
+            }
+            Map<String, Object> instance = new LinkedHashMap<>();
+            putOption(instance, LISTEN_OPTION, Collections.singletonList(
+                    Collections.singletonMap("uri", String.format("%s:%d", LISTEN_HOST, port))));
+            putOption(instance, "iproto.advertise.peer.uri", String.format("%s:%d", ADVERTISE_HOST, port));
+            for (Map.Entry<String, Object> option : options.entrySet()) {
+                putOption(instance, option.getKey(), option.getValue());
+            }
+            instances.put(name, instance);
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        Map<String, Object> toMap() {
+            if (instances.isEmpty()) {
+                throw new IllegalStateException(
+                        String.format("Replicaset %s must contain at least one instance", name));
+            }
+            Map<String, Object> result = new LinkedHashMap<>(options);
+            result.put("instances", new LinkedHashMap<>(instances));
+            return result;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TarantoolClusterConfig{groups=" + Arrays.toString(groups.stream().map(g -> g.name).toArray()) +
+                ", instances=" + getInstancePorts() + '}';
+    }
+}
@@ -0,0 +1,715 @@
+package org.testcontainers.containers;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import org.testcontainers.containers.exceptions.TarantoolClusterException;
+import org.testcontainers.images.builder.Transferable;
+
+/**
+ * Starts a Tarantool 3.x cluster from a declarative config.yaml in a single container. The configuration is
+ * generated from Java code with {@link TarantoolClusterConfig} or loaded from the classpath resources:
+ *
+ * <pre>
+ * <code>
+ * TarantoolClusterContainer container = new TarantoolClusterContainer("cluster/config.yaml")
+ *     .withUsername("admin")
+ *     .withPassword("secret");
+ * container.start();
+ *
+ * int routerPort = container.getInstancePort("router");
+ * List&lt;?&gt; result = container.executeCommandDecoded("storage-a-001", "return box.info.ro");
+ * </code>
+ * </pre>
+ * <p>
+ * The instances are started with "tt start" if tt is available in the image, otherwise each instance is started
+ * with "tarantool --name &lt;instance&gt; --config config.yaml". The binary port of each instance, taken from its
+ * "iproto.listen" option, is exposed. The container is ready when all instances report the "ready" configuration
+ * status. The configuration can be changed without a restart with {@link #reloadConfig(TarantoolClusterConfig)}.
+ */
+public class TarantoolClusterContainer extends GenericContainer<TarantoolClusterContainer>
+        implements TarantoolContainerOperations<TarantoolClusterContainer> {
+
+    public static final String DEFAULT_TAG = "3.2";
+    public static final String DEFAULT_IMAGE_NAME =
+            String.format("%s:%s", TarantoolContainer.DEFAULT_IMAGE, DEFAULT_TAG);
+
+    protected static final String DEFAULT_HOST = "localhost";
+    protected static final String DEFAULT_USERNAME = "guest";
+    protected static final String ENV_DIR = "/opt/tarantool";
+    protected static final String APP_NAME = "cluster";
+    protected static final String APP_DIR = ENV_DIR + "/instances.enabled/" + APP_NAME;
+    protected static final String CONFIG_FILE = APP_DIR + "/config.yaml";
+    protected static final String START_SCRIPT = ENV_DIR + "/start.sh";
+    protected static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+    protected static final Duration STATUS_POLL_INTERVAL = Duration.ofMillis(200);
+    protected static final String CONFIG_STATUS_COMMAND =
+            "local ok, config = pcall(require, 'config') " +
+            "if not ok then return 'not_loaded' end " +
+            "return config:info().status";
+    protected static final String RELOAD_CONFIG_COMMAND =
+            "local config = require('config') config:reload() return config:info().status";
+
+    private static final ExecutorService executor =
+            Executors.newCachedThreadPool(new DaemonThreadFactory("tarantool-cluster"));
+
+    protected final TarantoolContainerClientHelper clientHelper;
+
+    protected TarantoolClusterConfig config;
+    protected String configResource;
+    protected String host = DEFAULT_HOST;
+    protected String username;
+    protected String password;
+    protected String defaultInstance;
+    protected boolean useFixedPorts = false;
+    protected boolean useTt = true;
+    protected volatile Duration commandTimeout;
+    protected boolean useProxy = false;
+    private final TarantoolProxies proxies = new TarantoolProxies();
+
+    /**
+     * Create a container with the default image and a configuration generated from Java code
+     *
+     * @param config cluster configuration
+     */
+    public TarantoolClusterContainer(TarantoolClusterConfig config) {
+        this(DEFAULT_IMAGE_NAME, config);
+    }
+
+    /**
+     * Create a container with the specified image and a configuration generated from Java code
+     *
+     * @param dockerImageName Tarantool 3.x image name
+     * @param config          cluster configuration
+     */
+    public TarantoolClusterContainer(String dockerImageName, TarantoolClusterConfig config) {
+        super(TarantoolContainerImageHelper.getSharedImage(dockerImageName));
+        if (config == null) {
+            throw new IllegalArgumentException("Cluster configuration must not be null");
+        }
+        this.config = config;
+        this.username = config.getUsername() != null ? config.getUsername() : DEFAULT_USERNAME;
+        this.password = config.getPassword() != null ? config.getPassword() : "";
+        this.clientHelper = new TarantoolContainerClientHelper(this);
+    }
+
+    /**
+     * Create a container with the default image and a config.yaml file from the classpath resources
+     *
+     * @param configResource path to config.yaml, relative to the classpath resources
+     */
+    public TarantoolClusterContainer(String configResource) {
+        this(DEFAULT_IMAGE_NAME, configResource);
+    }
+
+    /**
+     * Create a container with the specified image and a config.yaml file from the classpath resources
+     *
+     * @param dockerImageName Tarantool 3.x image name
+     * @param configResource  path to config.yaml, relative to the classpath resources
+     */
+    public TarantoolClusterContainer(String dockerImageName, String configResource) {
+        this(dockerImageName, TarantoolClusterConfig.fromResource(configResource));
+        this.configResource = configResource;
+    }
+
+    /**
+     * Specify the host for connecting to the instances inside the container
+     *
+     * @param host valid IP address or hostname
+     * @return this container instance
+     */
+    public TarantoolClusterContainer withHost(String host) {
+        checkNotRunning();
+        this.host = host;
+        return this;
+    }
+
+    /**
+     * Specify the user name for connecting to the instances. Defaults to the user specified in
+     * {@link TarantoolClusterConfig#withCredentials(String, String)} or "guest".
+     *
+     * @param username user name, must be present in the "credentials" section of the configuration
+     * @return this container instance
+     */
+    public TarantoolClusterContainer withUsername(String username) {
+        checkNotRunning();
+        this.username = username;
+        return this;
+    }
+
+    /**
+     * Specify the user password for connecting to the instances
+     *
+     * @param password user password
+     * @return this container instance
+     */
+    public TarantoolClusterContainer withPassword(String password) {
+        checkNotRunning();
+        this.password = password;
+        return this;
+    }
+
+    /**
+     * Specify the instance which executes the commands without an instance name and which port is returned by
+     * {@link #getPort()}. Defaults to the first instance in the configuration.
+     *
+     * @param instanceName instance name
+     * @return this container instance
+     */
+    public TarantoolClusterContainer withDefaultInstance(String instanceName) {
+        checkNotRunning();
+        if (!config.getInstancePorts().containsKey(instanceName)) {
+            throw new IllegalArgumentException(String.format("Instance %s is not found in the configuration",
+                    instanceName));
+        }
+        this.defaultInstance = instanceName;
+        return this;
+    }
+
+    /**
+     * Use fixed ports binding. Defaults to false.
+     *
+     * @param useFixedPorts true if the instance ports must be bound to the same host ports
+     * @return this container instance
+     */
+    public TarantoolClusterContainer withUseFixedPorts(boolean useFixedPorts) {
+        checkNotRunning();
+        this.useFixedPorts = useFixedPorts;
+        return this;
+    }
+
+    /**
+     * Start the instances with tt if it is available in the image. Defaults to true, if false or tt is not found,
+     * the instances are started with the tarantool executable.
+     *
+     * @param useTt true if tt must be used
+     * @return this container instance
+     */
+    public TarantoolClusterContainer withTt(boolean useTt) {
+        checkNotRunning();
+        this.useTt = useTt;
+        return this;
+    }
+
+    /**
+     * Specify the default timeout of the commands and scripts executed without an explicit timeout, see
+     * {@link #executeCommand(String, Duration)}. Can be changed while the container is running.
+     *
+     * @param commandTimeout command timeout, null for no timeout
+     * @return this container instance
+     */
+    public TarantoolClusterContainer withCommandTimeout(Duration commandTimeout) {
+        if (commandTimeout != null && (commandTimeout.isNegative() || commandTimeout.isZero())) {
+            throw new IllegalArgumentException("The command timeout must be positive");
+        }
+        this.commandTimeout = commandTimeout;
+        return this;
+    }
+
+    @Override
+    public Duration getCommandTimeout() {
+        return commandTimeout;
+    }
+
+    /**
+     * Put a {@link TarantoolProxy} between the clients and each instance port, {@link #getInstancePort(String)}
+     * returns the port of the instance proxy then. The proxies are started on first use and closed with the container.
+     * Defaults to false.
+     *
+     * @param useProxy true if the instance ports must be proxied
+     * @return this container instance
+     */
+    public TarantoolClusterContainer withProxy(boolean useProxy) {
+        checkNotRunning();
+        this.useProxy = useProxy;
+        return this;
+    }
+
+    /**
+     * Get the proxy of an instance port for changing the network conditions and reading the traffic counters
+     *
+     * @param instanceName instance name
+     * @return started proxy
+     * @throws IllegalStateException if the proxy is not enabled with {@link #withProxy(boolean)}
+     */
+    public TarantoolProxy getInstanceProxy(String instanceName) {
+        if (!useProxy) {
+            throw new IllegalStateException("The proxy is not enabled, use withProxy(true)");
+        }
+        return proxies.get(super.getHost(), getMappedInstancePort(instanceName));
+    }
+
+    /**
+     * Get the current cluster configuration
+     *
+     * @return configuration
+     */
+    public TarantoolClusterConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Get the instance names
+     *
+     * @return instance names in the order of appearance in the configuration
+     */
+    public List<String> getInstanceNames() {
+        return config.getInstanceNames();
+    }
+
+    /**
+     * Get the mapped binary port of an instance, or the port of its proxy if {@link #withProxy(boolean)} is enabled
+     *
+     * @param instanceName instance name
+     * @return port on the Docker host
+     */
+    public int getInstancePort(String instanceName) {
+        return useProxy ? getInstanceProxy(instanceName).getPort() : getMappedInstancePort(instanceName);
+    }
+
+    private int getMappedInstancePort(String instanceName) {
+        int port = getInstanceInternalPort(instanceName);
+        return useFixedPorts ? port : getMappedPort(port);
+    }
+
+    /**
+     * Get the binary port of an instance inside the container
+     *
+     * @param instanceName instance name
+     * @return port from the "iproto.listen" option
+     */
+    public int getInstanceInternalPort(String instanceName) {
+        Map<String, Integer> ports = config.getInstancePorts();
+        if (!ports.containsKey(instanceName)) {
+            throw new IllegalArgumentException(String.format("Instance %s is not found in the configuration",
+                    instanceName));
+        }
+        Integer port = ports.get(instanceName);
+        if (port == null) {
+            throw new IllegalArgumentException(String.format("Instance %s has no TCP listen URI", instanceName));
+        }
+        return port;
+    }
+
+    @Override
+    public String getHost() {
+        return host;
+    }
+
+    @Override
+    public int getPort() {
+        return getInstancePort(getDefaultInstance());
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getDirectoryBinding() {
+        return "";
+    }
+
+    /**
+     * Get the application directory containing config.yaml. The instances are started in it, so the Lua modules
+     * copied there (e.g. with {@link #withCopyToContainer(Transferable, String)}) can be used as roles.
+     *
+     * @return the application directory
+     */
+    @Override
+    public String getInstanceDir() {
+        return APP_DIR;
+    }
+
+    @Override
+    public int getInternalPort() {
+        return getInstanceInternalPort(getDefaultInstance());
+    }
+
+    @Override
+    public Container.ExecResult executeScript(String scriptResourcePath) throws Exception {
+        return clientHelper.executeScript(scriptResourcePath, null);
+    }
+
+    @Override
+    public <T> T executeScriptDecoded(String scriptResourcePath) throws Exception {
+        return clientHelper.executeScriptDecoded(scriptResourcePath, null);
+    }
+
+    @Override
+    public Container.ExecResult executeCommand(String command) throws Exception {
+        return clientHelper.executeCommand(command, null);
+    }
+
+    @Override
+    public <T> T executeCommandDecoded(String command) throws Exception {
+        return clientHelper.executeCommandDecoded(command, null);
+    }
+
+    @Override
+    public Container.ExecResult executeCommand(String command, Duration timeout) throws Exception {
+        return clientHelper.executeCommand(command, null, timeout);
+    }
+
+    @Override
+    public <T> T executeCommandDecoded(String command, Duration timeout) throws Exception {
+        return clientHelper.executeCommandDecoded(command, null, timeout);
+    }
+
+    /**
+     * Execute a command on the specified instance
+     *
+     * @param instanceName instance name
+     * @param command      a valid Lua command or a sequence of Lua commands
+     * @return command execution result
+     * @throws Exception if failed to connect to the instance or execution fails
+     */
+    public Container.ExecResult executeCommand(String instanceName, String command) throws Exception {
+        return clientHelper.executeCommand(command, null, host, getInstanceInternalPort(instanceName));
+    }
+
+    /**
+     * Execute a command on the specified instance
+     *
+     * @param <T>          the result of the command
+     * @param instanceName instance name
+     * @param command      a valid Lua command or a sequence of Lua commands
+     * @return command execution result decoded from YAML
+     * @throws Exception if failed to connect to the instance or execution fails
+     */
+    public <T> T executeCommandDecoded(String instanceName, String command) throws Exception {
+        return clientHelper.executeCommandDecoded(command, null, host, getInstanceInternalPort(instanceName));
+    }
+
+    /**
+     * Get a profiler for a single instance, see {@link TarantoolProfiler}
+     *
+     * @param instanceName instance name
+     * @return profiler for the instance
+     */
+    public TarantoolProfiler profiler(String instanceName) {
+        return new TarantoolProfiler(this, instanceName, command -> {
+            List<?> result = executeCommandDecoded(instanceName, command);
+            return result == null || result.isEmpty() || result.get(0) == null ? Collections.emptyMap() :
+                    Collections.singletonMap(instanceName, result.get(0));
+        });
+    }
+
+    /**
+     * Execute a command on all instances in parallel
+     *
+     * @param command a valid Lua command or a sequence of Lua commands
+     * @return the first returned value by instance name
+     * @throws Exception if failed to connect to an instance or execution fails
+     */
+    public Map<String, Object> executeCommandOnAllInstances(String command) throws Exception {
+        Map<String, Future<List<?>>> results = new LinkedHashMap<>();
+        for (String instanceName : getInstanceNames()) {
+            results.put(instanceName, executor.submit(() -> executeCommandDecoded(instanceName, command)));
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<String, Future<List<?>>> result : results.entrySet()) {
+            try {
+                List<?> value = result.getValue().get();
+                values.put(result.getKey(), value == null || value.isEmpty() ? null : value.get(0));
+            } catch (ExecutionException e) {
+                errors.add(String.format("%s: %s", result.getKey(), e.getCause().getMessage()));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Failed to execute the command on the instances: " + errors);
+        }
+        return values;
+    }
+
+    /**
+     * Subscribe to the committed changes of a space on all writable instances. The events of all instances are
+     * merged in each poll, see {@link TarantoolContainerOperations#subscribe(String, int)}.
+     *
+     * @param spaceName space name
+     * @param capacity  maximum number of the buffered events on each instance
+     * @return subscription, must be closed to remove the triggers
+     * @throws Exception if the space does not exist or the execution fails
+     */
+    @Override
+    public TarantoolSpaceSubscription subscribe(String spaceName, int capacity) throws Exception {
+        return TarantoolSpaceSubscription.open(this::executeCommandOnAllInstances, spaceName, capacity);
+    }
+
+    /**
+     * Read the tuples of a space page by page from all writable instances having it. Each page request reads the
+     * next page from every instance in parallel, the tuples are ordered by the index key within each instance, but
+     * not across the instances. See {@link TarantoolContainerOperations#select(String, String, int)}.
+     *
+     * @param spaceName space name
+     * @param indexName unique index name, the primary index if null
+     * @param pageSize  maximum number of the tuples read from each instance at once
+     * @return cursor over the tuples
+     */
+    @Override
+    public TarantoolSelectCursor select(String spaceName, String indexName, int pageSize) {
+        return new TarantoolSelectCursor(this::executeCommandOnAllInstances, spaceName, indexName, pageSize, true);
+    }
+
+    /**
+     * Back up the data of all instances into a tar stream. The checkpoints are made on the instances in parallel,
+     * then the files are streamed one by one, see {@link TarantoolContainerOperations#backup(OutputStream)}.
+     *
+     * @param out archive stream, not closed
+     * @return backed up files and the backup duration
+     */
+    @Override
+    public TarantoolBackupResult backup(OutputStream out) {
+        return TarantoolBackup.write(this, this::executeCommandOnAllInstances, out);
+    }
+
+    /**
+     * Make a checkpoint on all instances in parallel and wait for all of them to complete, see
+     * {@link TarantoolContainerOperations#checkpoint()}
+     *
+     * @return checkpoint measurements ordered by instance alias
+     * @throws Exception if the checkpoint fails on any instance
+     */
+    @Override
+    public List<TarantoolCheckpointResult> checkpoint() throws Exception {
+        return TarantoolCheckpoints.checkpoint(this::executeCommandOnAllInstances);
+    }
+
+    /**
+     * Get the checkpoints kept on all instances, see {@link TarantoolContainerOperations#getCheckpoints()}
+     *
+     * @return checkpoints ordered by instance alias and signature
+     * @throws Exception if failed to connect to the instances or execution fails
+     */
+    @Override
+    public List<TarantoolCheckpoint> getCheckpoints() throws Exception {
+        return TarantoolCheckpoints.getCheckpoints(this::executeCommandOnAllInstances);
+    }
+
+    /**
+     * Generate a synthetic dataset on all writable instances having the space in parallel. With a bucket id field
+     * each vshard storage inserts only the rows of its own buckets, see {@link TarantoolDataset}.
+     *
+     * @param dataset dataset specification
+     * @return number of the inserted rows by instance alias and the duration on the slowest instance
+     * @throws Exception if the generation fails on any instance
+     */
+    @Override
+    public TarantoolDatasetResult generate(TarantoolDataset dataset) throws Exception {
+        return dataset.generate(this::executeCommandOnAllInstances, true);
+    }
+
+    /**
+     * Capture the schema baseline on all writable instances, replacing the existing one
+     *
+     * @throws Exception if failed to connect to the instances or execution fails
+     */
+    @Override
+    public void captureStateBaseline() throws Exception {
+        executeCommandOnAllInstances(TarantoolStateCommands.CAPTURE_BASELINE_COMMAND);
+    }
+
+    /**
+     * Restore the schema baseline on all writable instances in parallel
+     *
+     * @throws Exception if failed to connect to the instances or execution fails
+     */
+    @Override
+    public void resetState() throws Exception {
+        executeCommandOnAllInstances(TarantoolStateCommands.RESET_STATE_COMMAND);
+    }
+
+    /**
+     * Apply a new configuration without restarting the instances: the config.yaml file is replaced and
+     * config:reload() is called on all instances. The instances and their ports must stay the same, since the
+     * ports are exposed on the container start.
+     *
+     * @param newConfig new cluster configuration
+     */
+    public void reloadConfig(TarantoolClusterConfig newConfig) {
+        if (!isRunning()) {
+            throw new IllegalStateException("Cannot reload the configuration of a stopped container");
+        }
+        if (!newConfig.getInstancePorts().equals(config.getInstancePorts())) {
+            throw new IllegalArgumentException(String.format(
+                    "The instances and their ports cannot be changed on reload, expected %s but was %s",
+                    config.getInstancePorts(), newConfig.getInstancePorts()));
+        }
+        long startedAt = System.nanoTime();
+        copyFileToContainer(Transferable.of(newConfig.toYaml()), CONFIG_FILE);
+        Map<String, Object> statuses;
+        try {
+            statuses = executeCommandOnAllInstances(RELOAD_CONFIG_COMMAND);
+        } catch (Exception e) {
+            throw new TarantoolClusterException("Failed to reload the cluster configuration", e);
+        }
+        config = newConfig;
+        logger().info("Tarantool cluster configuration is reloaded in {} ms: {}",
+                (System.nanoTime() - startedAt) / 1_000_000, statuses);
+    }
+
+    /**
+     * Apply a new configuration from the classpath resources without restarting the instances
+     *
+     * @param configResource path to config.yaml, relative to the classpath resources
+     * @see #reloadConfig(TarantoolClusterConfig)
+     */
+    public void reloadConfig(String configResource) {
+        reloadConfig(TarantoolClusterConfig.fromResource(configResource));
+        this.configResource = configResource;
+    }
+
+    /**
+     * Checks if already running and if so raises an exception to prevent too-late setters.
+     */
+    protected void checkNotRunning() {
+        if (isRunning()) {
+            throw new IllegalStateException("This option can be changed only before the container is running");
+        }
+    }
+
+    protected String getDefaultInstance() {
+        if (defaultInstance != null) {
+            return defaultInstance;
+        }
+        List<String> instanceNames = getInstanceNames();
+        if (instanceNames.isEmpty()) {
+            throw new IllegalStateException("The cluster configuration contains no instances");
+        }
+        return instanceNames.get(0);
+    }
+
+    /**
+     * Generate the script starting all instances in the foreground
+     *
+     * @return shell script
+     */
+    protected String toStartScript() {
+        StringBuilder script = new StringBuilder("#!/bin/sh\n");
+        script.append("cd ").append(APP_DIR).append('\n');
+        if (useTt) {
+            script.append("if command -v tt >/dev/null 2>&1; then\n")
+                    .append("  cd ").append(ENV_DIR).append(" && exec tt start -i ").append(APP_NAME).append('\n')
+                    .append("fi\n");
+        }
+        for (String instanceName : getInstanceNames()) {
+            script.append("tarantool --name ").append(instanceName)
+                    .append(" --config ").append(CONFIG_FILE).append(" &\n");
+        }
+        script.append("wait\n");
+        return script.toString();
+    }
+
+    // tt finds the application in the instances.enabled directory, instances.yml lists the instances to start
+    private String toInstancesYaml() {
+        StringBuilder instances = new StringBuilder();
+        for (String instanceName : getInstanceNames()) {
+            instances.append(instanceName).append(":\n");
+        }
+        return instances.toString();
+    }
+
+    @Override
+    protected void configure() {
+        Map<String, Integer> ports = config.getInstancePorts();
+        if (ports.isEmpty()) {
+            throw new IllegalStateException("The cluster configuration contains no instances");
+        }
+        withCopyToContainer(Transferable.of(config.toYaml()), CONFIG_FILE);
+        withCopyToContainer(Transferable.of(toInstancesYaml()), APP_DIR + "/instances.yml");
+        withCopyToContainer(Transferable.of("env:\n  instances_enabled: instances.enabled\n"), ENV_DIR + "/tt.yaml");
+        withCopyToContainer(Transferable.of(toStartScript(), 0755), START_SCRIPT);
+        withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("/bin/sh"));
+        withCommand(START_SCRIPT);
+
+        for (Integer port : ports.values()) {
+            if (port == null) {
+                continue;
+            }
+            if (useFixedPorts) {
+                addFixedExposedPort(port, port);
+            } else {
+                addExposedPort(port);
+            }
+        }
+    }
+
+    @Override
+    protected void containerIsStarting(InspectContainerResponse containerInfo) {
+        logger().info("Tarantool cluster is starting");
+    }
+
+    @Override
+    protected void containerIsStarted(InspectContainerResponse containerInfo, boolean reused) {
+        super.containerIsStarted(containerInfo, reused);
+        waitUntilConfigured();
+        try {
+            executeCommandOnAllInstances(TarantoolStateCommands.CAPTURE_MISSING_BASELINE_COMMAND);
+        } catch (Exception e) {
+            throw new TarantoolClusterException("Failed to capture the cluster state", e);
+        }
+        logger().info("Tarantool cluster is started, instances: {}", config.getInstancePorts());
+    }
+
+    @Override
+    protected void containerIsStopping(InspectContainerResponse containerInfo) {
+        super.containerIsStopping(containerInfo);
+        proxies.close();
+    }
+
+    /**
+     * Wait until all instances have applied the configuration
+     */
+    protected void waitUntilConfigured() {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        Map<String, Object> statuses = null;
+        Exception lastError = null;
+        while (System.nanoTime() < deadline) {
+            try {
+                statuses = executeCommandOnAllInstances(CONFIG_STATUS_COMMAND);
+                if (isConfigured(statuses)) {
+                    return;
+                }
+            } catch (Exception e) {
+                // the instances may not accept connections yet
+                lastError = e;
+            }
+            try {
+                Thread.sleep(STATUS_POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TarantoolClusterException("Interrupted while waiting for the cluster", e);
+            }
+        }
+        throw new TarantoolClusterException(String.format(
+                "The cluster has not been configured in %d seconds, configuration statuses: %s",
+                STARTUP_TIMEOUT.getSeconds(), statuses), lastError);
+    }
+
+    static boolean isConfigured(Map<String, Object> statuses) {
+        for (Object status : statuses.values()) {
+            if (!"ready".equals(status) && !"check_warnings".equals(status)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
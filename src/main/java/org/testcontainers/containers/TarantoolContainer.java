@@ -1,11 +1,19 @@
 package org.testcontainers.containers;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import com.github.dockerjava.api.command.InspectContainerResponse;
 import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.MountableFile;
 import static org.testcontainers.containers.PathUtils.normalizePath;
 
 /**
@@ -31,6 +39,8 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
     private static final String SCRIPT_RESOURCE_DIRECTORY = "";
     private static final String SCRIPT_FILENAME = "server.lua";
     private static final String INSTANCE_DIR = "/app";
+    private static final String DIRECTORY_SYNCED_MARKER = "/tmp/.tarantool-directory-synced";
+    private static final String LOG_FORMAT_JSON_COMMAND = "box.cfg{log_format='json'} return box.cfg.log_format";
 
     private String username = API_USER;
     private String password = API_PASSWORD;
@@ -43,9 +53,22 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
     private String instanceDir = INSTANCE_DIR;
     private boolean useFixedPorts = false;
     private SslContext sslContext;
+    private boolean resetOnReuse = false;
+    private DirectoryBindingMode directoryBindingMode = DirectoryBindingMode.BIND;
+    private DirectorySync directorySync;
+    private Path restoreFrom;
+    private volatile Duration commandTimeout;
+    private boolean useProxy = false;
+    private final TarantoolProxies proxies = new TarantoolProxies();
+    private TarantoolLogCapture logCapture;
+    private Closeable logCaptureHandle;
 
     private final TarantoolContainerClientHelper clientHelper;
 
+    static {
+        TarantoolImagePrewarmer.startIfEnabled();
+    }
+
     /**
      * Constructor for {@link TarantoolContainer}
      */
@@ -61,16 +84,18 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
      */
     public TarantoolContainer(String dockerImageName) {
         super(dockerImageName);
+        setImageName(dockerImageName);
         clientHelper = new TarantoolContainerClientHelper(this);
     }
 
     /**
-     * Constructor for {@link TarantoolContainer}
+     * Constructor for {@link TarantoolContainer}. The image is checked and built in the background, the container
+     * start waits for it.
      *
      * @param tarantoolImageParams params for cached image creating
      */
     public TarantoolContainer(TarantoolImageParams tarantoolImageParams) {
-        super(TarantoolContainerImageHelper.getImage(tarantoolImageParams));
+        super(TarantoolContainerImageHelper.getImageAsync(tarantoolImageParams));
         clientHelper = new TarantoolContainerClientHelper(this);
     }
 
@@ -137,7 +162,7 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
 
     @Override
     public int getPort() {
-        return getMappedPort(port);
+        return useProxy ? getProxy().getPort() : getMappedPort(port);
     }
 
     @Override
@@ -269,6 +294,156 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
         return instanceDir;
     }
 
+    /**
+     * Specify how the directory binding is made available in the instance directory. The default mode is
+     * {@link DirectoryBindingMode#BIND}. The copying modes avoid the slow bind mounts of Docker Desktop and rootless
+     * Docker and keep the server from writing into the resource directory, the changes are sent with
+     * {@link #syncDirectoryBinding()}.
+     *
+     * @param directoryBindingMode directory binding mode
+     * @return this container instance
+     */
+    public TarantoolContainer withDirectoryBindingMode(DirectoryBindingMode directoryBindingMode) {
+        checkNotRunning();
+        this.directoryBindingMode = directoryBindingMode;
+        return this;
+    }
+
+    /**
+     * Get the directory binding mode
+     *
+     * @return directory binding mode
+     */
+    public DirectoryBindingMode getDirectoryBindingMode() {
+        return directoryBindingMode;
+    }
+
+    /**
+     * Send the files of the directory binding changed since the container start or the previous sync to the
+     * container and remove the deleted ones. Nothing is sent in the {@link DirectoryBindingMode#BIND} mode, where the
+     * changes are visible in the container immediately.
+     *
+     * @return changed files and the sync duration
+     */
+    public DirectorySyncResult syncDirectoryBinding() {
+        if (!isRunning()) {
+            throw new IllegalStateException("Cannot sync the directory binding of a stopped container");
+        }
+        if (directorySync == null) {
+            return new DirectorySyncResult(Collections.emptyList(), Collections.emptyList(), 0, Duration.ZERO);
+        }
+        DirectorySyncResult result = directorySync.sync(this);
+        logger().info("Directory binding is synced: {}", result);
+        return result;
+    }
+
+    /**
+     * Restore the instance data from a backup archive (see {@link #backup(Path)}) when the container is created, so
+     * that the server recovers from the backed up checkpoint on start. The container must use the same image and
+     * data directories as the backed up one.
+     *
+     * @param backupArchive archive written by {@link #backup(Path)}, null to start with empty data
+     * @return this container instance
+     */
+    public TarantoolContainer withRestoreFrom(Path backupArchive) {
+        checkNotRunning();
+        if (backupArchive != null && !Files.isRegularFile(backupArchive)) {
+            throw new IllegalArgumentException(String.format("Backup archive %s is not found", backupArchive));
+        }
+        this.restoreFrom = backupArchive;
+        return this;
+    }
+
+    /**
+     * Get the backup archive restored on start
+     *
+     * @return archive path or null
+     */
+    public Path getRestoreFrom() {
+        return restoreFrom;
+    }
+
+    /**
+     * Specify the default timeout of the commands and scripts executed without an explicit timeout, see
+     * {@link #executeCommand(String, Duration)}. Can be changed while the container is running.
+     *
+     * @param commandTimeout command timeout, null for no timeout
+     * @return this container instance
+     */
+    public TarantoolContainer withCommandTimeout(Duration commandTimeout) {
+        if (commandTimeout != null && (commandTimeout.isNegative() || commandTimeout.isZero())) {
+            throw new IllegalArgumentException("The command timeout must be positive");
+        }
+        this.commandTimeout = commandTimeout;
+        return this;
+    }
+
+    @Override
+    public Duration getCommandTimeout() {
+        return commandTimeout;
+    }
+
+    /**
+     * Put a {@link TarantoolProxy} between the clients and the Tarantool port, {@link #getPort()} returns the port
+     * of the proxy then. The proxy is started on first use and closed with the container.
+     * Defaults to false.
+     *
+     * @param useProxy true if the port must be proxied
+     * @return this container instance
+     */
+    public TarantoolContainer withProxy(boolean useProxy) {
+        checkNotRunning();
+        this.useProxy = useProxy;
+        return this;
+    }
+
+    /**
+     * Get the proxy of the Tarantool port for changing the network conditions and reading the traffic counters
+     *
+     * @return started proxy
+     * @throws IllegalStateException if the proxy is not enabled with {@link #withProxy(boolean)}
+     */
+    public TarantoolProxy getProxy() {
+        if (!useProxy) {
+            throw new IllegalStateException("The proxy is not enabled, use withProxy(true)");
+        }
+        return proxies.get(super.getHost(), getMappedPort(port));
+    }
+
+    /**
+     * Capture the server log into structured records, see {@link TarantoolLogCapture}. The server is switched to the
+     * JSON log format when the container is started.
+     *
+     * @param logCapture log capture
+     * @return this container instance
+     */
+    public TarantoolContainer withLogCapture(TarantoolLogCapture logCapture) {
+        checkNotRunning();
+        this.logCapture = logCapture;
+        return this;
+    }
+
+    /**
+     * Get the log capture
+     *
+     * @return log capture, null if not specified
+     */
+    public TarantoolLogCapture getLogCapture() {
+        return logCapture;
+    }
+
+    /**
+     * Import a CSV or JSON Lines file from the host into a space. The file is streamed into the container and loaded
+     * by a fiber inside the instance in batched transactions, see {@link TarantoolImport}.
+     *
+     * @param fileImport import specification
+     * @return number of the inserted rows, the transfer and the load durations
+     * @throws Exception if the file cannot be copied, parsed or inserted
+     */
+    public TarantoolImportResult importFile(TarantoolImport fileImport) throws Exception {
+        return fileImport.execute(this, this);
+    }
+
     @Override
     public int getInternalPort() {
         return port;
@@ -296,6 +471,54 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
         return scriptFileName;
     }
 
+    /**
+     * Reset the instance state (see {@link #resetState()}) when a running container is reused (see
+     * {@link #withReuse(boolean)}), so that the tests start with empty spaces. Defaults to false.
+     *
+     * @param resetOnReuse true if the state must be reset
+     * @return this container instance
+     */
+    public TarantoolContainer withResetOnReuse(boolean resetOnReuse) {
+        checkNotRunning();
+        this.resetOnReuse = resetOnReuse;
+        return this;
+    }
+
+    /**
+     * Truncate all user spaces (the spaces with names not starting with "_")
+     *
+     * @return number of the truncated spaces
+     */
+    public int truncateUserSpaces() {
+        List<?> result;
+        try {
+            result = executeCommandDecoded(TarantoolStateCommands.TRUNCATE_USER_SPACES_COMMAND);
+        } catch (Exception e) {
+            logger().error("Failed to truncate the user spaces", e);
+            throw new RuntimeException(e);
+        }
+        int count = ((Number) result.get(0)).intValue();
+        logger().info("Truncated {} user spaces", count);
+        return count;
+    }
+
+    /**
+     * Compute the fingerprint of the server configuration: the script file name and the directory binding
+     * contents. A reusable container is labeled with it, so that a changed configuration forces a fresh container.
+     *
+     * @return hex-encoded hash
+     */
+    protected String computeFingerprint() {
+        TarantoolContainerFingerprint fingerprint = new TarantoolContainerFingerprint()
+                .add("script", getScriptFileName())
+                .add("instanceDir", getInstanceDir())
+                .add("directoryBindingMode", getDirectoryBindingMode().name());
+        if (restoreFrom != null) {
+            fingerprint.add("restoreFrom", TarantoolBackup.describe(restoreFrom));
+        }
+        return fingerprint.addResource("directory", getDirectoryBinding()).toHex();
+    }
+
     /**
      * Checks if already running and if so raises an exception to prevent too-late setters.
      */
@@ -326,8 +549,24 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
         String sourceDirectoryPath = normalizePath(sourceDirectory.getPath());
 
         //disable bind if directory is empty
-        if (!sourceDirectoryPath.isEmpty()) {
-            withFileSystemBind(sourceDirectoryPath, getInstanceDir(), BindMode.READ_WRITE);
+        directorySync = null;
+        String scriptPath = normalizePath(Paths.get(getInstanceDir(), getScriptFileName()));
+        if (sourceDirectoryPath.isEmpty() || directoryBindingMode == DirectoryBindingMode.BIND) {
+            if (!sourceDirectoryPath.isEmpty()) {
+                withFileSystemBind(sourceDirectoryPath, getInstanceDir(), BindMode.READ_WRITE);
+            }
+            withCommand("tarantool", scriptPath);
+        } else if (directoryBindingMode == DirectoryBindingMode.COPY) {
+            directorySync = new DirectorySync(Paths.get(sourceDirectoryPath), getInstanceDir());
+            directorySync.markSynced();
+            withCopyFileToContainer(MountableFile.forHostPath(sourceDirectoryPath), getInstanceDir());
+            withCommand("tarantool", scriptPath);
+        } else {
+            // the files are copied onto the tmpfs after the start, so the server waits for them
+            directorySync = new DirectorySync(Paths.get(sourceDirectoryPath), getInstanceDir());
+            withTmpFs(Collections.singletonMap(getInstanceDir(), "rw,exec,mode=1777"));
+            withCommand("sh", "-c", String.format("until [ -f %s ]; do sleep 0.05; done; exec tarantool %s",
+                    DIRECTORY_SYNCED_MARKER, scriptPath));
         }
 
         if (useFixedPorts) {
@@ -336,23 +575,74 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
             addExposedPorts(port);
         }
 
-        withCommand("tarantool", normalizePath(
-                Paths.get(getInstanceDir(), getScriptFileName())));
-
         waitingFor(Wait.forLogMessage(".*entering the event loop.*", 1));
+
+        if (isShouldBeReused()) {
+            withLabel(TarantoolContainerFingerprint.LABEL, computeFingerprint());
+        }
+    }
+
+    @Override
+    protected void containerIsCreated(String containerId) {
+        super.containerIsCreated(containerId);
+        if (restoreFrom != null) {
+            TarantoolBackup.restore(this, containerId, restoreFrom);
+            logger().info("Restored the instance data from {}", restoreFrom);
+        }
     }
 
     @Override
     protected void containerIsStarting(InspectContainerResponse containerInfo) {
         logger().info("Tarantool server is starting");
+        if (logCapture != null) {
+            logCaptureHandle = logCapture.attach(getDockerClient(), getContainerId());
+        }
+        if (directoryBindingMode == DirectoryBindingMode.TMPFS && directorySync != null) {
+            // the whole directory is copied, including the installed rocks which the incremental sync skips
+            long startedAt = System.nanoTime();
+            copyFileToContainer(MountableFile.forHostPath(directorySync.getRoot()), getInstanceDir());
+            directorySync.markSynced();
+            try {
+                execInContainer("touch", DIRECTORY_SYNCED_MARKER);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to launch the server after copying the directory binding", e);
+            }
+            logger().info("Copied {} onto the tmpfs in {} ms", directorySync.getRoot(),
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        }
     }
 
     @Override
     protected void containerIsStarted(InspectContainerResponse containerInfo, boolean reused) {
         super.containerIsStarted(containerInfo, reused);
 
+        if (reused && directorySync != null) {
+            // the fingerprint guarantees that the reused container has the same directory contents
+            directorySync.markSynced();
+        }
         withMemtxMemory(memtxMemory);
         withLogLevel(logLevel);
+        if (logCapture != null) {
+            List<?> result;
+            try {
+                result = executeCommandDecoded(LOG_FORMAT_JSON_COMMAND);
+            } catch (Exception e) {
+                logger().error("Failed to switch the log format to JSON", e);
+                throw new RuntimeException(e);
+            }
+            if (result == null || result.isEmpty() || !"json".equals(result.get(0))) {
+                throw new IllegalStateException("Failed to switch the log format to JSON, the format is " + result);
+            }
+        }
+        try {
+            executeCommandDecoded(TarantoolStateCommands.CAPTURE_MISSING_BASELINE_COMMAND);
+            if (reused && resetOnReuse) {
+                resetState();
+            }
+        } catch (Exception e) {
+            logger().error("Failed to capture or reset the instance state", e);
+            throw new RuntimeException(e);
+        }
 
         logger().info("Tarantool server is listening at {}:{}", getHost(), getPort());
     }
@@ -360,9 +650,23 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
     @Override
     protected void containerIsStopping(InspectContainerResponse containerInfo) {
         super.containerIsStopping(containerInfo);
+        proxies.close();
         logger().info("Tarantool server is stopping");
     }
 
+    @Override
+    protected void containerIsStopped(InspectContainerResponse containerInfo) {
+        super.containerIsStopped(containerInfo);
+        if (logCaptureHandle != null) {
+            try {
+                logCaptureHandle.close();
+            } catch (IOException e) {
+                logger().warn("Failed to stop the log capture", e);
+            }
+            logCaptureHandle = null;
+        }
+    }
+
     @Override
     public Container.ExecResult executeScript(String scriptResourcePath) throws Exception {
         return clientHelper.executeScript(scriptResourcePath, this.sslContext);
@@ -383,14 +687,47 @@ public class TarantoolContainer extends GenericContainer<TarantoolContainer>
         return clientHelper.executeCommandDecoded(command, this.sslContext);
     }
 
+    @Override
+    public Container.ExecResult executeCommand(String command, Duration timeout) throws Exception {
+        return clientHelper.executeCommand(command, this.sslContext, timeout);
+    }
+
+    @Override
+    public <T> T executeCommandDecoded(String command, Duration timeout) throws Exception {
+        return clientHelper.executeCommandDecoded(command, this.sslContext, timeout);
+    }
+
     private void setImageNameFromEnv() {
-        String version = System.getenv("TARANTOOL_VERSION");
-        if (version != null && !version.trim().isEmpty()) {
-            String registry = System.getenv("TARANTOOL_REGISTRY");
-            String image = registry == null || registry.isEmpty() ?
-                    DEFAULT_IMAGE :
-                    (registry.endsWith("/") ? registry + DEFAULT_IMAGE : registry + "/" + DEFAULT_IMAGE);
-            setDockerImageName(String.format("%s:%s", image, version));
+        setImageName(getImageNameFromEnv());
+    }
+
+    // Waits for the pre-warmed image or shares the image with the other containers of the same image name
+    private void setImageName(String imageName) {
+        Future<String> prewarmedImage = TarantoolImagePrewarmer.getPrewarmedImage(imageName);
+        if (prewarmedImage != null) {
+            setImage(prewarmedImage);
+        } else {
+            setImage(TarantoolContainerImageHelper.getSharedImage(imageName));
+        }
+    }
+
+    /**
+     * Resolve the default image name, taking into account the TARANTOOL_VERSION and TARANTOOL_REGISTRY environment
+     * variables
+     *
+     * @return full image name
+     */
+    static String getImageNameFromEnv() {
+        return resolveImageName(System.getenv("TARANTOOL_VERSION"), System.getenv("TARANTOOL_REGISTRY"));
+    }
+
+    static String resolveImageName(String version, String registry) {
+        if (version == null || version.trim().isEmpty()) {
+            return DEFAULT_BASE_IMAGE;
         }
+        String image = registry == null || registry.isEmpty() ?
+                DEFAULT_IMAGE :
+                (registry.endsWith("/") ? registry + DEFAULT_IMAGE : registry + "/" + DEFAULT_IMAGE);
+        return String.format("%s:%s", image, version);
     }
 }
@@ -2,8 +2,16 @@ package org.testcontainers.containers;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.testcontainers.containers.exceptions.TarantoolCommandTimeoutException;
 import org.testcontainers.utility.MountableFile;
 import org.yaml.snakeyaml.Yaml;
 import static org.testcontainers.containers.PathUtils.normalizePath;
@@ -60,6 +68,53 @@ public final class TarantoolContainerClientHelper {
             "    os.exit(); " +
             "\" > container-tmp.lua &&" +
             " tarantool container-tmp.lua";
+    // Connects and evaluates the command within the deadline. On timeout the fiber evaluating the command is found by
+    // the token and cancelled, and the script exits with code 124.
+    private static final String TIMED_COMMAND_TEMPLATE = "echo \" " +
+            "    local clock = require('clock') " +
+            "    local timeout, token = %s, '%s' " +
+            "    local deadline = clock.monotonic() + timeout " +
+            "    local conn = require('net.box').connect(%s) " +
+            "    if not conn:wait_connected(timeout) then " +
+            "        if conn.error ~= nil then error(conn.error, 0) end " +
+            "        io.stderr:write('Failed to connect within the timeout') os.exit(124) " +
+            "    end " +
+            "    local ok, res = pcall(function() " +
+            "        return {conn:eval('%s', {token}, {timeout = math.max(deadline - clock.monotonic(), 0)})} " +
+            "    end) " +
+            "    if not ok then " +
+            "        if tostring(res):find('Timeout exceeded', 1, true) then " +
+            "            pcall(conn.eval, conn, 'local id = (rawget(_G, [[__testcontainers_calls]]) or {})[...] " +
+            "                if id then pcall(require([[fiber]]).kill, id) end', {token}, {timeout = 5}) " +
+            "            io.stderr:write('Timeout exceeded, the command fiber has been cancelled') os.exit(124) " +
+            "        end " +
+            "        error(res, 0) " +
+            "    end " +
+            "    print(require('yaml').encode(res)); " +
+            "    os.exit(); " +
+            "\" > container-tmp-%s.lua &&" +
+            " tarantool container-tmp-%s.lua; code=$?; rm -f container-tmp-%s.lua; exit $code";
+    // Registers the fiber evaluating the command under the token passed as the eval argument
+    private static final String CANCELLABLE_COMMAND_TEMPLATE =
+            "local token = ... " +
+            "local calls = rawget(_G, [[__testcontainers_calls]]) " +
+            "if calls == nil then calls = {} rawset(_G, [[__testcontainers_calls]], calls) end " +
+            "calls[token] = require([[fiber]]).id() " +
+            "local function finish(ok, ...) calls[token] = nil if not ok then error((...), 0) end return ... end " +
+            "return finish(pcall(assert(loadstring([=====[%s]=====]))))";
+    private static final String CONNECT_TEMPLATE =
+            "'%s:%d', { user = '%s', password = '%s', wait_connected = false }";
+    private static final String SSL_CONNECT_TEMPLATE =
+            "{ uri='%s:%d', params = { transport='ssl' }}, " +
+            "{ user = '%s', password = '%s', wait_connected = false }";
+    private static final String MTLS_CONNECT_TEMPLATE =
+            "{ uri='%s:%d', params = { transport='ssl', ssl_key_file = '%s', ssl_cert_file = '%s' }}, " +
+            "{ user = '%s', password = '%s', wait_connected = false }";
+    private static final int TIMEOUT_EXIT_CODE = 124;
+    // time for starting the client process in the container in addition to the command timeout
+    private static final Duration EXEC_GRACE_PERIOD = Duration.ofSeconds(15);
+    private static final ExecutorService executor =
+            Executors.newCachedThreadPool(new DaemonThreadFactory("tarantool-command"));
 
     TarantoolContainerClientHelper(TarantoolContainerOperations<? extends Container<?>> container) {
         this.container = container;
@@ -100,9 +155,61 @@ public final class TarantoolContainerClientHelper {
 
     public Container.ExecResult executeCommand(String command, SslContext sslContext)
             throws IOException, InterruptedException {
+        return executeCommand(command, sslContext, container.getHost(), container.getInternalPort());
+    }
+
+    /**
+     * Execute a command with a timeout, see {@link TarantoolContainerOperations#executeCommand(String, Duration)}
+     *
+     * @param command    Lua command
+     * @param sslContext SSL parameters or null
+     * @param timeout    command timeout, null for no timeout
+     * @return command execution result
+     * @throws IOException          if the command cannot be executed
+     * @throws InterruptedException if interrupted while executing the command
+     */
+    public Container.ExecResult executeCommand(String command, SslContext sslContext, Duration timeout)
+            throws IOException, InterruptedException {
+        return executeCommand(command, sslContext, container.getHost(), container.getInternalPort(), timeout);
+    }
+
+    /**
+     * Execute a command on a Tarantool instance listening at the specified address inside the container
+     *
+     * @param command    Lua command
+     * @param sslContext SSL parameters or null
+     * @param host       instance host inside the container
+     * @param port       instance binary port inside the container
+     * @return command execution result
+     * @throws IOException          if the command cannot be executed
+     * @throws InterruptedException if interrupted while executing the command
+     */
+    Container.ExecResult executeCommand(String command, SslContext sslContext, String host, int port)
+            throws IOException, InterruptedException {
+        return executeCommand(command, sslContext, host, port, container.getCommandTimeout());
+    }
+
+    /**
+     * Execute a command on a Tarantool instance listening at the specified address inside the container
+     *
+     * @param command    Lua command
+     * @param sslContext SSL parameters or null
+     * @param host       instance host inside the container
+     * @param port       instance binary port inside the container
+     * @param timeout    command timeout, null for no timeout
+     * @return command execution result
+     * @throws IOException                      if the command cannot be executed
+     * @throws InterruptedException             if interrupted while executing the command
+     * @throws TarantoolCommandTimeoutException if the command has not completed within the timeout
+     */
+    Container.ExecResult executeCommand(String command, SslContext sslContext, String host, int port,
+                                        Duration timeout) throws IOException, InterruptedException {
         if (!container.isRunning()) {
             throw new IllegalStateException("Cannot execute commands in stopped container");
         }
+        if (timeout != null) {
+            return executeCommandWithTimeout(command, sslContext, host, port, timeout);
+        }
 
         command = command.replace("\"", "\\\"");
         command = command.replace("\'", "\\\'");
@@ -110,20 +217,20 @@ public final class TarantoolContainerClientHelper {
         String bashCommand;
         if (sslContext == null) { // No SSL
             bashCommand = String.format(COMMAND_TEMPLATE,
-                    container.getHost(), container.getInternalPort(),
+                    host, port,
                     container.getUsername(), container.getPassword(),
                     command
             );
         } else if (sslContext.getKeyFile() != null && sslContext.getCertFile() != null) { // mTLS
             bashCommand = String.format(MTLS_COMMAND_TEMPLATE,
-                    container.getHost(), container.getInternalPort(),
+                    host, port,
                     sslContext.getKeyFile(), sslContext.getCertFile(),
                     container.getUsername(), container.getPassword(),
                     command
             );
         } else { // SSL
             bashCommand = String.format(SSL_COMMAND_TEMPLATE,
-                    container.getHost(), container.getInternalPort(),
+                    host, port,
                     container.getUsername(), container.getPassword(),
                     command
             );
@@ -132,8 +239,103 @@ public final class TarantoolContainerClientHelper {
         return container.execInContainer("sh", "-c", bashCommand);
     }
 
+    private Container.ExecResult executeCommandWithTimeout(String command, SslContext sslContext, String host,
+                                                           int port, Duration timeout)
+            throws IOException, InterruptedException {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("The timeout must be positive");
+        }
+        String connect;
+        if (sslContext == null) {
+            connect = String.format(CONNECT_TEMPLATE, host, port, container.getUsername(), container.getPassword());
+        } else if (sslContext.getKeyFile() != null && sslContext.getCertFile() != null) {
+            connect = String.format(MTLS_CONNECT_TEMPLATE, host, port, sslContext.getKeyFile(),
+                    sslContext.getCertFile(), container.getUsername(), container.getPassword());
+        } else {
+            connect = String.format(SSL_CONNECT_TEMPLATE, host, port, container.getUsername(),
+                    container.getPassword());
+        }
+        String bashCommand = toTimedCommand(command, connect, timeout, UUID.randomUUID().toString().replace("-", ""));
+
+        Future<Container.ExecResult> future = executor.submit(() -> container.execInContainer("sh", "-c",
+                bashCommand));
+        Container.ExecResult result;
+        try {
+            result = future.get(timeout.plus(EXEC_GRACE_PERIOD).toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TarantoolCommandTimeoutException(String.format(
+                    "Command \"%s\" has not completed within %s", command, timeout), timeout, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        if (result.getExitCode() == TIMEOUT_EXIT_CODE) {
+            throw new TarantoolCommandTimeoutException(String.format(
+                    "Command \"%s\" has not completed within %s: %s", command, timeout, result.getStderr()),
+                    timeout);
+        }
+        return result;
+    }
+
+    /**
+     * Build the shell command evaluating a Lua command with a timeout
+     *
+     * @param command Lua command
+     * @param connect arguments of {@code net.box.connect()}
+     * @param timeout command timeout
+     * @param token   unique call token, also the name of the client script
+     * @return shell command
+     */
+    static String toTimedCommand(String command, String connect, Duration timeout, String token) {
+        if (command.contains("]=====]")) {
+            throw new IllegalArgumentException("The command must not contain ']=====]'");
+        }
+        String evaluated = String.format(CANCELLABLE_COMMAND_TEMPLATE, command);
+        evaluated = evaluated.replace("\"", "\\\"");
+        evaluated = evaluated.replace("\'", "\\\'");
+        // the script file is unique, so that the timed commands can run in parallel
+        return String.format(TIMED_COMMAND_TEMPLATE, timeout.toNanos() / 1e9, token, connect, evaluated, token, token,
+                token);
+    }
+
     public <T> T executeCommandDecoded(String command, SslContext sslContext) throws IOException, InterruptedException {
-        Container.ExecResult result = executeCommand(command, sslContext);
+        return executeCommandDecoded(command, sslContext, container.getHost(), container.getInternalPort());
+    }
+
+    /**
+     * Execute a command with a timeout and decode its result, see
+     * {@link TarantoolContainerOperations#executeCommandDecoded(String, Duration)}
+     *
+     * @param <T>        the result type
+     * @param command    Lua command
+     * @param sslContext SSL parameters or null
+     * @param timeout    command timeout, null for no timeout
+     * @return decoded command result
+     * @throws IOException          if the command cannot be executed
+     * @throws InterruptedException if interrupted while executing the command
+     */
+    public <T> T executeCommandDecoded(String command, SslContext sslContext, Duration timeout)
+            throws IOException, InterruptedException {
+        return executeCommandDecoded(command, sslContext, container.getHost(), container.getInternalPort(), timeout);
+    }
+
+    <T> T executeCommandDecoded(String command, SslContext sslContext, String host, int port)
+            throws IOException, InterruptedException {
+        return executeCommandDecoded(command, sslContext, host, port, container.getCommandTimeout());
+    }
+
+    <T> T executeCommandDecoded(String command, SslContext sslContext, String host, int port, Duration timeout)
+            throws IOException, InterruptedException {
+        Container.ExecResult result = executeCommand(command, sslContext, host, port, timeout);
 
         if (result.getExitCode() != 0) {
             throw new IllegalStateException(String.format(EXECUTE_COMMAND_ERROR_TEMPLATE,
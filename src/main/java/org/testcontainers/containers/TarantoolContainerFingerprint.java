@@ -0,0 +1,174 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes a SHA-256 fingerprint of the inputs which define the state of a container: the Dockerfile, the build
+ * arguments, the instances and topology files and the application directory. The fingerprint is attached to the
+ * container as a label, so a reusable container is recreated when any of the inputs changes.
+ */
+final class TarantoolContainerFingerprint {
+
+    static final String LABEL = "io.tarantool.testcontainers.fingerprint";
+
+    // Directories which are changed by the running instances or built inside the image
+    private static final List<String> IGNORED_DIRECTORIES = Arrays.asList(".rocks", "tmp", ".git");
+
+    private final MessageDigest digest;
+
+    TarantoolContainerFingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Add a named string value
+     *
+     * @param name  value name
+     * @param value value, may be null
+     * @return this fingerprint instance
+     */
+    TarantoolContainerFingerprint add(String name, String value) {
+        update(name);
+        update(value == null ? "\0null" : value);
+        return this;
+    }
+
+    /**
+     * Add a map of values, the order of the entries does not matter
+     *
+     * @param name   map name
+     * @param values map entries
+     * @return this fingerprint instance
+     */
+    TarantoolContainerFingerprint add(String name, Map<String, String> values) {
+        update(name);
+        for (Map.Entry<String, String> entry : new TreeMap<>(values).entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    /**
+     * Add the contents of a classpath resource. A directory resource is added with all its files.
+     *
+     * @param name         value name
+     * @param resourcePath classpath resource path, may be null
+     * @return this fingerprint instance
+     */
+    TarantoolContainerFingerprint addResource(String name, String resourcePath) {
+        update(name);
+        URL resource = resourcePath == null ? null : getClass().getClassLoader().getResource(resourcePath);
+        if (resource == null) {
+            update("\0missing");
+            return this;
+        }
+        if ("file".equals(resource.getProtocol())) {
+            return addPath(name, PathUtils.normalizePath(resource.getPath()));
+        }
+        try (InputStream in = resource.openStream()) {
+            update(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Add the contents of a host file or all files in a host directory. The directories with the instance working
+     * files (tmp) and the installed rocks (.rocks) are skipped.
+     *
+     * @param name value name
+     * @param path host file or directory path, may be null or empty
+     * @return this fingerprint instance
+     */
+    TarantoolContainerFingerprint addPath(String name, String path) {
+        update(name);
+        if (path == null || path.isEmpty() || !Files.exists(Paths.get(path))) {
+            update("\0missing");
+            return this;
+        }
+        Path root = Paths.get(path);
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(file -> !isIgnored(root.relativize(file)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (Path file : files) {
+            update(PathUtils.normalizePath(root.relativize(file)));
+            try (InputStream in = Files.newInputStream(file)) {
+                update(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this;
+    }
+
+    static boolean isIgnored(Path relativePath) {
+        for (Path part : relativePath) {
+            if (IGNORED_DIRECTORIES.contains(part.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the fingerprint
+     *
+     * @return hex-encoded SHA-256 hash
+     */
+    String toHex() {
+        byte[] hash = digest.digest();
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private void update(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateLength(bytes.length);
+        digest.update(bytes);
+    }
+
+    private void update(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        digest.update((byte) 0);
+    }
+
+    private void updateLength(int length) {
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+    }
+}
@@ -7,12 +7,21 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.command.BuildImageCmd;
 import com.github.dockerjava.api.command.BuildImageResultCallback;
 import com.github.dockerjava.api.model.Image;
 import org.testcontainers.DockerClientFactory;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.DockerImageName;
 
 /**
  * Class for working with docker directly
@@ -21,27 +30,70 @@ import org.testcontainers.DockerClientFactory;
  */
 class TarantoolContainerImageHelper {
 
+    // Images being prepared or already prepared in this JVM by tag
+    private static final ConcurrentMap<String, CompletableFuture<String>> images = new ConcurrentHashMap<>();
+    // Pulled or archived images by name
+    private static final ConcurrentMap<String, Future<String>> sharedImages = new ConcurrentHashMap<>();
+    private static final ExecutorService executor =
+            Executors.newCachedThreadPool(new DaemonThreadFactory("tarantool-image-build"));
+
     private TarantoolContainerImageHelper() {
     }
 
     /**
-     * Checks image for existing by name and build if it not exist
+     * Get the image with the specified name, pulling it or loading it from the local archives if they are
+     * configured. The containers with the same image name share the returned future, so the image is resolved once.
+     *
+     * @param imageName docker image name
+     * @return future with image name, resolved on the first get
+     */
+    static Future<String> getSharedImage(String imageName) {
+        return sharedImages.computeIfAbsent(imageName, name -> TarantoolImageArchives.isEnabled() ?
+                TarantoolImageArchives.image(name) : new RemoteDockerImage(DockerImageName.parse(name)));
+    }
+
+    /**
+     * Checks image for existing by name and build if it not exist in the background
+     *
+     * @param imageParams parameters for building tarantool image
+     * @return future with image name
+     */
+    static CompletableFuture<String> getImageAsync(TarantoolImageParams imageParams) {
+        return getImageAsync(imageParams, executor);
+    }
+
+    /**
+     * Checks image for existing by name and build if it not exist. Concurrent calls for the same tag share the same
+     * build, a failed build is retried on the next call.
      *
      * @param imageParams parameters for building tarantool image
-     * @return image name
+     * @param executor    executes the image check and build
+     * @return future with image name
      */
-    static String getImage(TarantoolImageParams imageParams) {
+    static CompletableFuture<String> getImageAsync(TarantoolImageParams imageParams, Executor executor) {
         final String tag = imageParams.getTag();
 
         if (tag == null || tag.isEmpty()) {
             throw new IllegalArgumentException("Image tag is null or empty!");
         }
 
-        if (!hasImage(tag)) {
-            buildImage(imageParams);
+        CompletableFuture<String> image = new CompletableFuture<>();
+        CompletableFuture<String> existing = images.putIfAbsent(tag, image);
+        if (existing != null) {
+            return existing;
         }
-
-        return tag;
+        executor.execute(() -> {
+            try {
+                if (!hasImage(tag)) {
+                    buildImage(imageParams);
+                }
+                image.complete(tag);
+            } catch (Throwable e) {
+                images.remove(tag, image);
+                image.completeExceptionally(e);
+            }
+        });
+        return image;
     }
 
     /**
@@ -50,6 +102,9 @@ class TarantoolContainerImageHelper {
      * @param imageParams parameters for building tarantool image
      */
     private static void buildImage(TarantoolImageParams imageParams) {
+        // the base images are loaded from the local archives if they are configured
+        TarantoolImageArchives.loadBaseImages(imageParams.getDockerfile(), imageParams.getBuildArgs());
+
         final BuildImageCmd buildImageCmd = getDockerClient().buildImageCmd(imageParams.getDockerfile());
 
         final Map<String, String> buildArgs = imageParams.getBuildArgs();
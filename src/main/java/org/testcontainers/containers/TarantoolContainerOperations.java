@@ -1,5 +1,15 @@
 package org.testcontainers.containers;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.testcontainers.containers.exceptions.TarantoolBackupException;
+
 /**
  * Represents operations available on a Tarantool Container
  *
@@ -88,4 +98,199 @@ public interface TarantoolContainerOperations<T extends Container<T>> extends Co
      * @throws Exception if failed to connect to the instance or execution fails
      */
     <V> V executeCommandDecoded(String command) throws Exception;
+
+    /**
+     * Execute a command in the Tarantool instance with a timeout. The command is evaluated in a fiber registered on
+     * the instance, on timeout the fiber is cancelled with {@code fiber.kill()} and the call fails. A cancelled
+     * fiber stops at its next yield, a loop which never yields cannot be interrupted. The same timeout limits the
+     * connection to the instance.
+     *
+     * @param command a valid Lua command or a sequence of Lua commands
+     * @param timeout command timeout, null for no timeout
+     * @return command execution result
+     * @throws org.testcontainers.containers.exceptions.TarantoolCommandTimeoutException if the command has not
+     *                                                                                  completed within the timeout
+     * @throws Exception if failed to connect to the instance or execution fails
+     */
+    Container.ExecResult executeCommand(String command, Duration timeout) throws Exception;
+
+    /**
+     * Execute a command in the Tarantool instance with a timeout and decode its result, see
+     * {@link #executeCommand(String, Duration)}
+     *
+     * @param <V>     the result of script
+     * @param command a valid Lua command or a sequence of Lua commands
+     * @param timeout command timeout, null for no timeout
+     * @return decoded command result
+     * @throws org.testcontainers.containers.exceptions.TarantoolCommandTimeoutException if the command has not
+     *                                                                                  completed within the timeout
+     * @throws Exception if failed to connect to the instance or execution fails
+     */
+    <V> V executeCommandDecoded(String command, Duration timeout) throws Exception;
+
+    /**
+     * Get the default timeout of the commands and scripts executed without an explicit timeout
+     *
+     * @return command timeout, null if the commands have no timeout
+     */
+    Duration getCommandTimeout();
+
+    /**
+     * Record the current schema (spaces, users, roles, functions and sequences) as the baseline for
+     * {@link #resetState()}, replacing the existing baseline. The baseline is captured automatically after the
+     * container startup, call this method after creating the fixture schema to keep it across the resets.
+     *
+     * @throws Exception if failed to connect to the instance or execution fails
+     */
+    default void captureStateBaseline() throws Exception {
+        executeCommandDecoded(TarantoolStateCommands.CAPTURE_BASELINE_COMMAND);
+    }
+
+    /**
+     * Restore the schema baseline without restarting the container: drop the spaces, users, roles, functions and
+     * sequences created after the baseline was captured, truncate the remaining user spaces and reset the
+     * sequences. The spaces with names starting with "_" are kept as is.
+     *
+     * @throws Exception if failed to connect to the instance or execution fails
+     */
+    default void resetState() throws Exception {
+        executeCommandDecoded(TarantoolStateCommands.RESET_STATE_COMMAND);
+    }
+
+    /**
+     * Subscribe to the committed changes of a space with the default buffer capacity, see
+     * {@link #subscribe(String, int)}
+     *
+     * @param spaceName space name
+     * @return subscription, must be closed to remove the trigger
+     * @throws Exception if the space does not exist or the execution fails
+     */
+    default TarantoolSpaceSubscription subscribe(String spaceName) throws Exception {
+        return subscribe(spaceName, TarantoolSpaceSubscription.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Subscribe to the committed changes of a space. An {@code on_replace} trigger is installed on the space and
+     * collects the changes into a server-side buffer keeping at most {@code capacity} events, the test pulls them
+     * with {@link TarantoolSpaceSubscription#poll(int)} or waits for a specific one with
+     * {@link TarantoolSpaceSubscription#await(java.util.function.Predicate, java.time.Duration)}.
+     *
+     * @param spaceName space name
+     * @param capacity  maximum number of the buffered events, the oldest events are dropped on overflow
+     * @return subscription, must be closed to remove the trigger
+     * @throws Exception if the space does not exist or the execution fails
+     */
+    default TarantoolSpaceSubscription subscribe(String spaceName, int capacity) throws Exception {
+        return TarantoolSpaceSubscription.open(InstanceCommandRunner.of(this), spaceName, capacity);
+    }
+
+    /**
+     * Read the tuples of a space by its primary index page by page, see
+     * {@link #select(String, String, int)}
+     *
+     * @param spaceName space name
+     * @param pageSize  maximum number of the tuples read at once
+     * @return cursor over the tuples
+     */
+    default TarantoolSelectCursor select(String spaceName, int pageSize) {
+        return select(spaceName, null, pageSize);
+    }
+
+    /**
+     * Read the tuples of a space by a unique index page by page. The next page is requested only when the previous
+     * one has been consumed, so large spaces can be processed without materializing them. The pages are selected
+     * after the key of the last read tuple, the server keeps no iterator between them.
+     *
+     * @param spaceName space name
+     * @param indexName unique index name, the primary index if null
+     * @param pageSize  maximum number of the tuples read at once
+     * @return cursor over the tuples, the tuples are ordered by the index key
+     */
+    default TarantoolSelectCursor select(String spaceName, String indexName, int pageSize) {
+        return new TarantoolSelectCursor(InstanceCommandRunner.of(this), spaceName, indexName, pageSize, false);
+    }
+
+    /**
+     * Back up the instance data into a tar archive on the host, see {@link #backup(OutputStream)}. The archive is
+     * removed if the backup fails.
+     *
+     * @param archive archive file, overwritten if exists
+     * @return backed up files and the backup duration
+     */
+    default TarantoolBackupResult backup(Path archive) {
+        TarantoolBackupResult result;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(archive), 1024 * 1024)) {
+            result = backup(out);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(archive);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            if (e instanceof TarantoolBackupException) {
+                throw (TarantoolBackupException) e;
+            }
+            throw new TarantoolBackupException(String.format("Failed to write the backup %s", archive), e);
+        }
+        return result;
+    }
+
+    /**
+     * Back up the instance data into a tar stream. A checkpoint is made with {@code box.snapshot()} and pinned with
+     * {@code box.backup.start()}, the checkpoint files are streamed from the container one by one without staging
+     * them in memory or in temporary files and {@code box.backup.stop()} is called afterwards. The entries are named
+     * by the absolute paths in the container without the leading slash, so the archive can be restored into a new
+     * container with the restore-on-start option of the container.
+     *
+     * @param out archive stream, not closed
+     * @return backed up files and the backup duration
+     */
+    default TarantoolBackupResult backup(OutputStream out) {
+        return TarantoolBackup.write(this, InstanceCommandRunner.of(this), out);
+    }
+
+    /**
+     * Make a checkpoint with {@code box.snapshot()} and wait for its completion. The duration of the checkpoint,
+     * the size of the written snapshot, the maximum delay of the event loop during the checkpoint and the WAL files
+     * before the checkpoint and after the garbage collection triggered by it are measured on the instance.
+     *
+     * @return checkpoint measurements, one for each instance
+     * @throws Exception if the checkpoint fails
+     */
+    default List<TarantoolCheckpointResult> checkpoint() throws Exception {
+        return TarantoolCheckpoints.checkpoint(InstanceCommandRunner.of(this));
+    }
+
+    /**
+     * Get the checkpoints kept by the garbage collector ({@code box.info.gc().checkpoints}) with the sizes of their
+     * snapshot files
+     *
+     * @return checkpoints from the oldest to the newest
+     * @throws Exception if failed to connect to the instance or execution fails
+     */
+    default List<TarantoolCheckpoint> getCheckpoints() throws Exception {
+        return TarantoolCheckpoints.getCheckpoints(InstanceCommandRunner.of(this));
+    }
+
+    /**
+     * Get a profiler recording the LuaJIT sysprof, memprof or jit.p profiles of the instance and copying them to the
+     * host, see {@link TarantoolProfiler}
+     *
+     * @return profiler for the instance
+     */
+    default TarantoolProfiler profiler() {
+        return new TarantoolProfiler(this, "", InstanceCommandRunner.of(this));
+    }
+
+    /**
+     * Generate a synthetic dataset inside the instance, see {@link TarantoolDataset}. Only the specification is
+     * sent to the instance, the rows are generated and inserted by several fibers in batched transactions.
+     *
+     * @param dataset dataset specification
+     * @return number of the inserted rows and the generation duration
+     * @throws Exception if the space does not exist or the generation fails
+     */
+    default TarantoolDatasetResult generate(TarantoolDataset dataset) throws Exception {
+        return dataset.generate(InstanceCommandRunner.of(this), false);
+    }
 }
@@ -0,0 +1,554 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.exceptions.TarantoolContainerPoolException;
+import org.testcontainers.lifecycle.Startable;
+
+/**
+ * Keeps a number of started containers warm in the background and leases them to the tests. A returned container
+ * gets its state reset (see {@link TarantoolContainerOperations#resetState()}) and is leased again without a
+ * restart:
+ *
+ * <pre>
+ * <code>
+ * TarantoolContainerPool&lt;TarantoolContainer&gt; pool = new TarantoolContainerPool&lt;&gt;(TarantoolContainer::new)
+ *     .withMinIdle(1)
+ *     .withMaxSize(4);
+ * pool.start();
+ *
+ * try (TarantoolContainerPool.Lease&lt;TarantoolContainer&gt; lease = pool.lease()) {
+ *     lease.getContainer().executeCommand("return box.info.version");
+ * }
+ * </code>
+ * </pre>
+ * <p>
+ * The number of the warm containers adapts to the demand: it grows by one when a caller has to wait for a container
+ * and shrinks back to the minimum when the containers stay unused. The containers are started on background threads,
+ * at most {@code maxSize} at once. The pool is closed at the JVM shutdown if it is not stopped explicitly.
+ *
+ * @param <C> container type
+ */
+public class TarantoolContainerPool<C extends Startable> implements Startable {
+
+    private static final Logger log = LoggerFactory.getLogger(TarantoolContainerPool.class);
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    protected static final int DEFAULT_MIN_IDLE = 1;
+    protected static final int DEFAULT_MAX_SIZE = 2;
+    protected static final Duration DEFAULT_LEASE_TIMEOUT = Duration.ofMinutes(5);
+    protected static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Supplier<C> factory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<C> idle = new ArrayDeque<>();
+    private final Set<C> all = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private StateReset<? super C> reset = TarantoolContainerPool::resetContainerState;
+    private int minIdle = DEFAULT_MIN_IDLE;
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private Duration leaseTimeout = DEFAULT_LEASE_TIMEOUT;
+    private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    // guarded by lock
+    private int targetIdle;
+    private int starting;
+    private int resetting;
+    private int leased;
+    private int waiting;
+    private boolean missedSinceLastCheck;
+    private long startFailures;
+    private Throwable lastStartFailure;
+    private boolean started;
+    private boolean closed;
+
+    // guarded by lock
+    private long leases;
+    private long hits;
+    private long totalLeaseWaitNanos;
+    private long maxLeaseWaitNanos;
+    private long resets;
+    private long resetFailures;
+    private long startedContainers;
+    private long stoppedContainers;
+
+    private ExecutorService workers;
+    private ScheduledExecutorService maintenance;
+    private Thread shutdownHook;
+
+    /**
+     * Basic constructor
+     *
+     * @param factory creates a new not started container
+     */
+    public TarantoolContainerPool(Supplier<C> factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Container factory must not be null");
+        }
+        this.factory = factory;
+    }
+
+    /**
+     * Set the number of the warm containers kept when there is no demand. Defaults to 1.
+     *
+     * @param minIdle number of the containers, must not be negative
+     * @return this pool instance
+     */
+    public TarantoolContainerPool<C> withMinIdle(int minIdle) {
+        checkNotStarted();
+        if (minIdle < 0) {
+            throw new IllegalArgumentException(
+                    String.format("The minimum number of idle containers must not be negative, but was %d", minIdle));
+        }
+        this.minIdle = minIdle;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of the started containers, both leased and idle. Defaults to 2.
+     *
+     * @param maxSize number of the containers, must be greater than 0
+     * @return this pool instance
+     */
+    public TarantoolContainerPool<C> withMaxSize(int maxSize) {
+        checkNotStarted();
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("The maximum pool size must be greater than 0, but was %d", maxSize));
+        }
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Set the maximum time {@link #lease()} waits for a container. Defaults to 5 minutes, which covers a cold start
+     * of a Cartridge cluster.
+     *
+     * @param leaseTimeout wait timeout
+     * @return this pool instance
+     */
+    public TarantoolContainerPool<C> withLeaseTimeout(Duration leaseTimeout) {
+        checkNotStarted();
+        this.leaseTimeout = leaseTimeout;
+        return this;
+    }
+
+    /**
+     * Set the interval after which the number of the warm containers is decreased by one if no caller had to wait
+     * for a container. Defaults to 30 seconds.
+     *
+     * @param idleTimeout interval
+     * @return this pool instance
+     */
+    public TarantoolContainerPool<C> withIdleTimeout(Duration idleTimeout) {
+        checkNotStarted();
+        if (idleTimeout.isZero() || idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("The idle timeout must be positive");
+        }
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    /**
+     * Set the action resetting a returned container. Defaults to {@link TarantoolContainerOperations#resetState()}.
+     *
+     * @param reset reset action, a failed reset replaces the container with a new one
+     * @return this pool instance
+     */
+    public TarantoolContainerPool<C> withStateReset(StateReset<? super C> reset) {
+        checkNotStarted();
+        this.reset = reset;
+        return this;
+    }
+
+    /**
+     * Start warming up the containers in the background. Does not wait for the containers to start.
+     */
+    @Override
+    public void start() {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new TarantoolContainerPoolException("The pool is closed");
+            }
+            if (started) {
+                return;
+            }
+            if (minIdle > maxSize) {
+                throw new IllegalStateException(String.format(
+                        "The minimum number of idle containers %d is greater than the maximum pool size %d",
+                        minIdle, maxSize));
+            }
+            int poolId = POOL_COUNTER.incrementAndGet();
+            String threadPrefix = "tarantool-pool-" + poolId;
+            workers = Executors.newCachedThreadPool(new DaemonThreadFactory(threadPrefix + "-worker"));
+            maintenance = Executors.newSingleThreadScheduledExecutor(
+                    new DaemonThreadFactory(threadPrefix + "-maintenance"));
+            long idleTimeoutMs = idleTimeout.toMillis();
+            maintenance.scheduleWithFixedDelay(this::shrink, idleTimeoutMs, idleTimeoutMs, TimeUnit.MILLISECONDS);
+            shutdownHook = new Thread(this::close, threadPrefix + "-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+            targetIdle = minIdle;
+            started = true;
+            replenish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lease a container, waiting for the default lease timeout if there are no warm containers. Starts the pool if
+     * it is not started yet.
+     *
+     * @return container lease, close it to return the container
+     * @throws TarantoolContainerPoolException if the pool is closed, the containers fail to start or no container
+     *                                         becomes available in time
+     */
+    public Lease<C> lease() {
+        return lease(leaseTimeout);
+    }
+
+    /**
+     * Lease a container, waiting for the specified time if there are no warm containers. Starts the pool if it is
+     * not started yet.
+     *
+     * @param timeout maximum time to wait
+     * @return container lease, close it to return the container
+     * @throws TarantoolContainerPoolException if the pool is closed, the containers fail to start or no container
+     *                                         becomes available in time
+     */
+    public Lease<C> lease(Duration timeout) {
+        start();
+        long startedAt = System.nanoTime();
+        C container;
+        lock.lock();
+        try {
+            leases++;
+            if (idle.isEmpty()) {
+                missedSinceLastCheck = true;
+                targetIdle = Math.min(targetIdle + 1, maxSize);
+            } else {
+                hits++;
+            }
+            long failuresBefore = startFailures;
+            waiting++;
+            try {
+                replenish();
+                long remaining = timeout.toNanos();
+                while (idle.isEmpty()) {
+                    if (closed) {
+                        throw new TarantoolContainerPoolException("The pool is closed");
+                    }
+                    if (startFailures > failuresBefore && starting == 0 && resetting == 0) {
+                        throw new TarantoolContainerPoolException(
+                                "Failed to start a container for the pool", lastStartFailure);
+                    }
+                    if (remaining <= 0) {
+                        throw new TarantoolContainerPoolException(
+                                String.format("No container is available after %d ms", timeout.toMillis()));
+                    }
+                    remaining = changed.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TarantoolContainerPoolException("Interrupted while waiting for a container", e);
+            } finally {
+                waiting--;
+            }
+            container = idle.pollFirst();
+            leased++;
+            long waited = System.nanoTime() - startedAt;
+            totalLeaseWaitNanos += waited;
+            maxLeaseWaitNanos = Math.max(maxLeaseWaitNanos, waited);
+            replenish();
+        } finally {
+            lock.unlock();
+        }
+        return new Lease<>(this, container);
+    }
+
+    /**
+     * Get a snapshot of the pool counters
+     *
+     * @return pool metrics
+     */
+    public TarantoolContainerPoolMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new TarantoolContainerPoolMetrics(leases, hits, totalLeaseWaitNanos, maxLeaseWaitNanos, resets,
+                    resetFailures, startedContainers, startFailures, stoppedContainers, idle.size(),
+                    leased, targetIdle);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop all containers, including the leased ones, and release the pool threads
+     */
+    @Override
+    public void stop() {
+        close();
+    }
+
+    /**
+     * Stop all containers, including the leased ones, and release the pool threads
+     */
+    @Override
+    public void close() {
+        List<C> containers;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            leased = 0;
+            containers = new ArrayList<>(all);
+            all.clear();
+            idle.clear();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (started) {
+            maintenance.shutdownNow();
+            workers.shutdown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // the JVM is shutting down
+            }
+        }
+        for (C container : containers) {
+            stopContainer(container);
+        }
+        log.info("Tarantool container pool is closed: {}", getMetrics());
+    }
+
+    void release(C container) {
+        lock.lock();
+        try {
+            if (closed || !all.contains(container)) {
+                return;
+            }
+            leased--;
+            resetting++;
+            // submitted under lock, so that close() cannot shut the workers down in between
+            workers.execute(() -> resetContainer(container));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resetContainer(C container) {
+        boolean ok;
+        try {
+            reset.reset(container);
+            ok = true;
+        } catch (Exception e) {
+            log.warn("Failed to reset the container state, the container will be replaced", e);
+            ok = false;
+        }
+        boolean stop;
+        lock.lock();
+        try {
+            resetting--;
+            // a closed pool has already stopped all its containers
+            stop = !closed && !ok;
+            if (ok) {
+                resets++;
+            } else {
+                resetFailures++;
+            }
+            if (stop) {
+                all.remove(container);
+            } else if (!closed) {
+                // the recently used containers are leased first, the others can be stopped by shrink()
+                idle.addFirst(container);
+            }
+            replenish();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (stop) {
+            stopContainer(container);
+        }
+    }
+
+    // Starts new containers until the idle, starting and resetting ones cover the demand. Must be called under lock.
+    private void replenish() {
+        if (!started || closed) {
+            return;
+        }
+        int available = idle.size() + starting + resetting;
+        int demand = Math.max(targetIdle, waiting);
+        int total = all.size() + starting;
+        while (available < demand && total < maxSize) {
+            starting++;
+            available++;
+            total++;
+            workers.execute(this::startContainer);
+        }
+    }
+
+    private void startContainer() {
+        C container = null;
+        Throwable failure = null;
+        try {
+            container = factory.get();
+            container.start();
+        } catch (Throwable e) {
+            failure = e;
+        }
+        boolean stop = false;
+        lock.lock();
+        try {
+            starting--;
+            if (failure != null) {
+                startFailures++;
+                lastStartFailure = failure;
+                log.error("Failed to start a container for the pool", failure);
+            } else if (closed) {
+                stop = true;
+            } else {
+                startedContainers++;
+                all.add(container);
+                idle.addLast(container);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (stop) {
+            stopContainer(container);
+        }
+    }
+
+    // Decreases the number of the warm containers if nobody had to wait for a container since the last check
+    private void shrink() {
+        List<C> excess = new ArrayList<>();
+        lock.lock();
+        try {
+            if (!missedSinceLastCheck && targetIdle > minIdle) {
+                targetIdle--;
+            }
+            missedSinceLastCheck = false;
+            while (idle.size() > targetIdle) {
+                C container = idle.pollLast();
+                all.remove(container);
+                excess.add(container);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (C container : excess) {
+            stopContainer(container);
+        }
+    }
+
+    private void stopContainer(C container) {
+        try {
+            container.stop();
+        } catch (Exception e) {
+            log.warn("Failed to stop a pooled container", e);
+        }
+        lock.lock();
+        try {
+            stoppedContainers++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkNotStarted() {
+        lock.lock();
+        try {
+            if (started || closed) {
+                throw new IllegalStateException("This option can be changed only before the pool is started");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void resetContainerState(Startable container) throws Exception {
+        if (container instanceof TarantoolContainerOperations) {
+            ((TarantoolContainerOperations<?>) container).resetState();
+        }
+    }
+
+    /**
+     * Resets the state of a container returned to the pool
+     *
+     * @param <C> container type
+     */
+    @FunctionalInterface
+    public interface StateReset<C> {
+        /**
+         * Reset the container state
+         *
+         * @param container returned container
+         * @throws Exception if the state cannot be reset
+         */
+        void reset(C container) throws Exception;
+    }
+
+    /**
+     * Leased container. Closing the lease returns the container to the pool.
+     *
+     * @param <C> container type
+     */
+    public static final class Lease<C extends Startable> implements AutoCloseable {
+        private final TarantoolContainerPool<C> pool;
+        private final C container;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        Lease(TarantoolContainerPool<C> pool, C container) {
+            this.pool = pool;
+            this.container = container;
+        }
+
+        /**
+         * Get the leased container
+         *
+         * @return started container
+         */
+        public C getContainer() {
+            if (returned.get()) {
+                throw new IllegalStateException("The container is already returned to the pool");
+            }
+            return container;
+        }
+
+        /**
+         * Return the container to the pool. Subsequent calls do nothing.
+         */
+        @Override
+        public void close() {
+            if (returned.compareAndSet(false, true)) {
+                pool.release(container);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the {@link TarantoolContainerPool} counters
+ */
+public final class TarantoolContainerPoolMetrics {
+
+    private final long leases;
+    private final long hits;
+    private final long totalLeaseWaitNanos;
+    private final long maxLeaseWaitNanos;
+    private final long resets;
+    private final long resetFailures;
+    private final long started;
+    private final long startFailures;
+    private final long stopped;
+    private final int idle;
+    private final int leased;
+    private final int targetIdle;
+
+    TarantoolContainerPoolMetrics(long leases, long hits, long totalLeaseWaitNanos, long maxLeaseWaitNanos,
+                                  long resets, long resetFailures, long started, long startFailures, long stopped,
+                                  int idle, int leased, int targetIdle) {
+        this.leases = leases;
+        this.hits = hits;
+        this.totalLeaseWaitNanos = totalLeaseWaitNanos;
+        this.maxLeaseWaitNanos = maxLeaseWaitNanos;
+        this.resets = resets;
+        this.resetFailures = resetFailures;
+        this.started = started;
+        this.startFailures = startFailures;
+        this.stopped = stopped;
+        this.idle = idle;
+        this.leased = leased;
+        this.targetIdle = targetIdle;
+    }
+
+    /**
+     * Get the number of the leases
+     *
+     * @return number of the leases
+     */
+    public long getLeases() {
+        return leases;
+    }
+
+    /**
+     * Get the number of the leases served by an already warm container
+     *
+     * @return number of the hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the share of the leases served by an already warm container
+     *
+     * @return value from 0 to 1, or 0 if there were no leases
+     */
+    public double getHitRate() {
+        return leases == 0 ? 0 : (double) hits / leases;
+    }
+
+    /**
+     * Get the average time the callers waited for a container
+     *
+     * @return average wait time
+     */
+    public Duration getAverageLeaseWait() {
+        return Duration.ofNanos(leases == 0 ? 0 : totalLeaseWaitNanos / leases);
+    }
+
+    /**
+     * Get the longest time a caller waited for a container
+     *
+     * @return maximum wait time
+     */
+    public Duration getMaxLeaseWait() {
+        return Duration.ofNanos(maxLeaseWaitNanos);
+    }
+
+    /**
+     * Get the number of the successful state resets of the returned containers
+     *
+     * @return number of the resets
+     */
+    public long getResets() {
+        return resets;
+    }
+
+    /**
+     * Get the number of the failed state resets, the containers are replaced after them
+     *
+     * @return number of the failed resets
+     */
+    public long getResetFailures() {
+        return resetFailures;
+    }
+
+    /**
+     * Get the number of the started containers
+     *
+     * @return number of the started containers
+     */
+    public long getStarted() {
+        return started;
+    }
+
+    /**
+     * Get the number of the containers which failed to start
+     *
+     * @return number of the start failures
+     */
+    public long getStartFailures() {
+        return startFailures;
+    }
+
+    /**
+     * Get the number of the stopped containers
+     *
+     * @return number of the stopped containers
+     */
+    public long getStopped() {
+        return stopped;
+    }
+
+    /**
+     * Get the number of the warm containers waiting for a lease
+     *
+     * @return number of the idle containers
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * Get the number of the leased containers
+     *
+     * @return number of the leased containers
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * Get the current number of the warm containers the pool keeps, adapted to the demand
+     *
+     * @return target number of the idle containers
+     */
+    public int getTargetIdle() {
+        return targetIdle;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TarantoolContainerPoolMetrics{leases=%d, hitRate=%.2f, averageLeaseWait=%d ms, " +
+                        "maxLeaseWait=%d ms, resets=%d, resetFailures=%d, started=%d, startFailures=%d, " +
+                        "stopped=%d, idle=%d, leased=%d, targetIdle=%d}",
+                leases, getHitRate(), getAverageLeaseWait().toMillis(), getMaxLeaseWait().toMillis(), resets,
+                resetFailures, started, startFailures, stopped, idle, leased, targetIdle);
+    }
+}
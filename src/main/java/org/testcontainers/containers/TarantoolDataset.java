@@ -0,0 +1,332 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Specification of a synthetic dataset generated and inserted inside the instances, so the data is not transferred
+ * from the test. Only the compact specification is sent: the space, the field distributions (see
+ * {@link TarantoolDatasetField}), the number of the rows and the seed.
+ * <p>
+ * The rows are split into contiguous ranges between several fibers, each fiber inserts its rows in transactions of
+ * the batch size and yields after each of them. The values of a row are derived from the seed and the row number
+ * with the splitmix64 generator, so the same seed produces identical data on every run, with any number of fibers.
+ * <p>
+ * On a Cartridge or Tarantool 3.x cluster the dataset is generated on every writable instance having the space in
+ * parallel. If the dataset has a bucket id field (see {@link TarantoolDatasetField#bucketId(int)}), each vshard
+ * storage inserts only the rows of the buckets it owns and the instances without the {@code _bucket} space are
+ * skipped, otherwise every instance receives the whole dataset.
+ */
+public class TarantoolDataset {
+
+    public static final long DEFAULT_SEED = 1;
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_FIBERS = 4;
+    public static final int DEFAULT_BUCKET_COUNT = 30000;
+
+    // splitmix64 over the seed, the row number and the field number, k selects one of the values of the field
+    private static final String RANDOM_FUNCTIONS =
+            "local bit = require('bit') " +
+            "local function rnd64(i, f, k) " +
+            "local z = seed + i * 0x9e3779b97f4a7c15ULL + f * 0xd1b54a32d192ed03ULL + k " +
+            "z = bit.bxor(z, bit.rshift(z, 30)) * 0xbf58476d1ce4e5b9ULL " +
+            "z = bit.bxor(z, bit.rshift(z, 27)) * 0x94d049bb133111ebULL " +
+            "return bit.bxor(z, bit.rshift(z, 31)) end " +
+            "local function rnd(i, f, k) return tonumber(bit.rshift(rnd64(i, f, k), 11)) / 9007199254740992 end " +
+            "local alphabet = 'abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-_' " +
+            "local function rstr(i, f, len) local buf, z = {}, 0ULL for k = 1, len do " +
+            "if k % 10 == 1 then z = rnd64(i, f, k) end " +
+            "local c = tonumber(bit.band(z, 63)) + 1 buf[k] = alphabet:sub(c, c) z = bit.rshift(z, 6) end " +
+            "return table.concat(buf) end ";
+
+    // Runs the fibers over the row ranges and waits for them, expects the space, row() and put to be defined
+    private static final String INSERT_COMMAND_TEMPLATE =
+            "local fiber, clock = require('fiber'), require('clock') " +
+            "local rows, fibers, batch = %d, %d, %d " +
+            "local inserted, errors, pending, cond = 0, {}, 0, fiber.cond() " +
+            "local per = math.ceil(rows / fibers) " +
+            "local started = clock.monotonic() " +
+            "for w = 0, fibers - 1 do local from, to = w * per + 1, math.min((w + 1) * per, rows) " +
+            "if from <= to then pending = pending + 1 fiber.create(function() " +
+            "local ok, err = pcall(function() local i = from while i <= to do " +
+            "local last = math.min(i + batch - 1, to) box.begin() " +
+            "for j = i, last do local t = row(j) if t ~= nil then put(space, t) inserted = inserted + 1 end end " +
+            "box.commit() fiber.yield() i = last + 1 end end) " +
+            "if not ok then if box.is_in_txn() then box.rollback() end table.insert(errors, tostring(err)) end " +
+            "pending = pending - 1 cond:signal() end) end end " +
+            "while pending > 0 do cond:wait() end " +
+            "if #errors > 0 then error(errors[1]) end " +
+            "return {rows = inserted, duration = clock.monotonic() - started}";
+
+    private final String spaceName;
+    private final List<TarantoolDatasetField> fields = new ArrayList<>();
+    private long rows;
+    private long seed = DEFAULT_SEED;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fibers = DEFAULT_FIBERS;
+    private Integer bucketCount;
+    private boolean replace;
+
+    private TarantoolDataset(String spaceName) {
+        this.spaceName = spaceName;
+    }
+
+    /**
+     * Create a dataset specification for a space
+     *
+     * @param spaceName space name
+     * @return dataset specification
+     */
+    public static TarantoolDataset forSpace(String spaceName) {
+        if (spaceName == null || spaceName.isEmpty()) {
+            throw new IllegalArgumentException("The space name must not be empty");
+        }
+        return new TarantoolDataset(spaceName);
+    }
+
+    /**
+     * Add the next tuple field
+     *
+     * @param field field distribution
+     * @return this dataset specification
+     */
+    public TarantoolDataset withField(TarantoolDatasetField field) {
+        fields.add(field);
+        return this;
+    }
+
+    /**
+     * Specify the number of the rows
+     *
+     * @param rows number of the rows in the whole dataset
+     * @return this dataset specification
+     */
+    public TarantoolDataset withRows(long rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("The number of the rows must not be negative");
+        }
+        this.rows = rows;
+        return this;
+    }
+
+    /**
+     * Specify the seed of the random values. Defaults to 1.
+     *
+     * @param seed seed
+     * @return this dataset specification
+     */
+    public TarantoolDataset withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Specify the number of the rows inserted in a transaction. Defaults to 1000.
+     *
+     * @param batchSize number of the rows
+     * @return this dataset specification
+     */
+    public TarantoolDataset withBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Specify the number of the fibers inserting the rows on each instance. Defaults to 4.
+     *
+     * @param fibers number of the fibers
+     * @return this dataset specification
+     */
+    public TarantoolDataset withFibers(int fibers) {
+        if (fibers <= 0) {
+            throw new IllegalArgumentException("The number of the fibers must be positive");
+        }
+        this.fibers = fibers;
+        return this;
+    }
+
+    /**
+     * Specify the total number of the vshard buckets used for computing the bucket ids. Defaults to the bucket
+     * count of the vshard storage or to 30000 on an instance without vshard.
+     *
+     * @param bucketCount number of the buckets
+     * @return this dataset specification
+     */
+    public TarantoolDataset withBucketCount(int bucketCount) {
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("The bucket count must be positive");
+        }
+        this.bucketCount = bucketCount;
+        return this;
+    }
+
+    /**
+     * Specify whether the existing tuples with the same primary key are replaced. By default the rows are inserted
+     * and a duplicate key fails the generation.
+     *
+     * @param replace true if the tuples must be replaced
+     * @return this dataset specification
+     */
+    public TarantoolDataset withReplace(boolean replace) {
+        this.replace = replace;
+        return this;
+    }
+
+    /**
+     * Get the space name
+     *
+     * @return space name
+     */
+    public String getSpaceName() {
+        return spaceName;
+    }
+
+    /**
+     * Get the number of the rows
+     *
+     * @return number of the rows in the whole dataset
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the seed
+     *
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Generate the dataset on each instance of the runner
+     *
+     * @param runner       command runner
+     * @param writableOnly true if the read-only instances and the instances without the space must be skipped
+     * @return inserted rows and the generation duration
+     * @throws Exception if the generation fails on any instance
+     */
+    TarantoolDatasetResult generate(InstanceCommandRunner runner, boolean writableOnly) throws Exception {
+        return parseResult(spaceName, runner.run(toCommand(writableOnly)));
+    }
+
+    /**
+     * Build the Lua command generating the dataset on an instance
+     *
+     * @param writableOnly true if the read-only instances and the instances without the space must be skipped
+     * @return Lua command
+     */
+    String toCommand(boolean writableOnly) {
+        if (fields.isEmpty()) {
+            throw new IllegalStateException("The dataset has no fields");
+        }
+        int bucketField = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            TarantoolDatasetField field = fields.get(i);
+            if (field.getKind() != TarantoolDatasetField.Kind.BUCKET_ID) {
+                continue;
+            }
+            if (bucketField != 0) {
+                throw new IllegalStateException("The dataset may have a single bucket id field");
+            }
+            int keyField = field.getKeyField();
+            if (keyField > fields.size() ||
+                    fields.get(keyField - 1).getKind() == TarantoolDatasetField.Kind.BUCKET_ID) {
+                throw new IllegalStateException(
+                        String.format("Field %d is not a valid key field for the bucket id", keyField));
+            }
+            bucketField = i + 1;
+        }
+
+        String space = LuaLiterals.string(spaceName);
+        StringBuilder sb = new StringBuilder();
+        if (writableOnly) {
+            sb.append("if box.info.ro then return nil end ");
+        }
+        sb.append("local space = box.space[").append(space).append("] ");
+        if (writableOnly) {
+            sb.append("if space == nil then return nil end ");
+        } else {
+            sb.append("if space == nil then error('Space not found: ' .. ").append(space).append(") end ");
+        }
+        sb.append("local put = ").append(replace ? "space.replace" : "space.insert").append(' ');
+        sb.append("local seed = 0x").append(Long.toHexString(seed)).append("ULL ");
+        sb.append(RANDOM_FUNCTIONS);
+        for (int i = 0; i < fields.size(); i++) {
+            sb.append(fields.get(i).declarations(i + 1));
+        }
+
+        if (bucketField != 0) {
+            int keyField = fields.get(bucketField - 1).getKeyField();
+            if (writableOnly) {
+                sb.append("if box.space._bucket == nil then return nil end ");
+            }
+            sb.append("local strcrc32 = require('vshard.hash').strcrc32 ");
+            if (bucketCount != null) {
+                sb.append("local bucket_count = ").append(bucketCount).append(' ');
+            } else {
+                sb.append("local ok, vshard = pcall(require, 'vshard') ");
+                sb.append("local bucket_count = ok and vshard.storage.internal.total_bucket_count or ")
+                        .append(DEFAULT_BUCKET_COUNT).append(' ');
+            }
+            // the buckets of a vshard storage, all rows are kept on an instance without vshard
+            sb.append("local owned = nil if box.space._bucket ~= nil then owned = {} ");
+            sb.append("for _, b in box.space._bucket:pairs() do ");
+            sb.append("if b.status == 'active' then owned[b.id] = true end end end ");
+            sb.append("local function row(i) local key = ").append(fields.get(keyField - 1).toLua(keyField))
+                    .append(' ');
+            sb.append("local bucket_id = strcrc32(key) % bucket_count + 1 ");
+            sb.append("if owned ~= nil and not owned[bucket_id] then return nil end ");
+        } else {
+            sb.append("local function row(i) ");
+        }
+        sb.append("return {");
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            TarantoolDatasetField field = fields.get(i);
+            if (field.getKind() == TarantoolDatasetField.Kind.BUCKET_ID) {
+                sb.append("bucket_id");
+            } else if (bucketField != 0 && fields.get(bucketField - 1).getKeyField() == i + 1) {
+                sb.append("key");
+            } else {
+                sb.append(field.toLua(i + 1));
+            }
+        }
+        sb.append("} end ");
+        sb.append(String.format(INSERT_COMMAND_TEMPLATE, rows, fibers, batchSize));
+        return sb.toString();
+    }
+
+    static TarantoolDatasetResult parseResult(String spaceName, Map<String, Object> results) {
+        Map<String, Long> rows = new TreeMap<>();
+        Duration duration = Duration.ZERO;
+        for (Map.Entry<String, Object> entry : results.entrySet()) {
+            if (!(entry.getValue() instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> value = (Map<?, ?>) entry.getValue();
+            rows.put(entry.getKey(), ((Number) value.get("rows")).longValue());
+            Duration instanceDuration =
+                    Duration.ofNanos((long) (((Number) value.get("duration")).doubleValue() * 1e9));
+            if (instanceDuration.compareTo(duration) > 0) {
+                duration = instanceDuration;
+            }
+        }
+        return new TarantoolDatasetResult(spaceName, Collections.unmodifiableMap(rows), duration);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows of %s, seed %d", spaceName, rows, fields, seed);
+    }
+}
@@ -0,0 +1,218 @@
+package org.testcontainers.containers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Value distribution of a tuple field generated by a {@link TarantoolDataset}.
+ * <p>
+ * The random values are derived from the dataset seed, the row number and the field number only, so a row does not
+ * depend on the rows generated before it, on the number of the fibers or on the cluster topology.
+ */
+public final class TarantoolDatasetField {
+
+    enum Kind {
+        VALUE,
+        BUCKET_ID
+    }
+
+    // largest integer range represented exactly by a double
+    private static final long MAX_RANGE = 1L << 53;
+
+    private final Kind kind;
+    private final IntFunction<String> expression;
+    private final IntFunction<String> declaration;
+    private final int keyField;
+    private final String description;
+
+    private TarantoolDatasetField(Kind kind, IntFunction<String> expression, IntFunction<String> declaration,
+                                  int keyField, String description) {
+        this.kind = kind;
+        this.expression = expression;
+        this.declaration = declaration;
+        this.keyField = keyField;
+        this.description = description;
+    }
+
+    private static TarantoolDatasetField value(IntFunction<String> expression, String description) {
+        return new TarantoolDatasetField(Kind.VALUE, expression, f -> "", 0, description);
+    }
+
+    /**
+     * Consecutive integers starting from 1, the row number
+     *
+     * @return field distribution
+     */
+    public static TarantoolDatasetField sequence() {
+        return sequence(1);
+    }
+
+    /**
+     * Consecutive integers, e.g. a primary key
+     *
+     * @param start value of the first row
+     * @return field distribution
+     */
+    public static TarantoolDatasetField sequence(long start) {
+        return value(f -> "(" + start + " + i - 1)", "sequence(" + start + ")");
+    }
+
+    /**
+     * Integers distributed uniformly in a range
+     *
+     * @param min minimum value, inclusive
+     * @param max maximum value, inclusive
+     * @return field distribution
+     */
+    public static TarantoolDatasetField uniform(long min, long max) {
+        if (min > max) {
+            throw new IllegalArgumentException("The minimum must not be greater than the maximum");
+        }
+        if (max - min >= MAX_RANGE || max - min < 0) {
+            throw new IllegalArgumentException("The range must be less than 2^53");
+        }
+        return value(f -> "(" + min + " + math.floor(rnd(i, " + f + ", 0) * " + (max - min + 1) + "))",
+                "uniform(" + min + ", " + max + ")");
+    }
+
+    /**
+     * Floating point numbers distributed uniformly in a range
+     *
+     * @param min minimum value, inclusive
+     * @param max maximum value, exclusive
+     * @return field distribution
+     */
+    public static TarantoolDatasetField uniformDouble(double min, double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("The minimum must not be greater than the maximum");
+        }
+        String offset = LuaLiterals.toLua(min);
+        String range = LuaLiterals.toLua(max - min);
+        return value(f -> "(" + offset + " + rnd(i, " + f + ", 0) * " + range + ")",
+                "uniformDouble(" + min + ", " + max + ")");
+    }
+
+    /**
+     * Floating point numbers with the normal distribution
+     *
+     * @param mean   mean value
+     * @param stddev standard deviation
+     * @return field distribution
+     */
+    public static TarantoolDatasetField normal(double mean, double stddev) {
+        if (stddev < 0) {
+            throw new IllegalArgumentException("The standard deviation must not be negative");
+        }
+        // Box-Muller transform of two uniform values
+        return value(f -> "(" + LuaLiterals.toLua(mean) + " + " + LuaLiterals.toLua(stddev) +
+                        " * math.sqrt(-2 * math.log(1 - rnd(i, " + f + ", 0)))" +
+                        " * math.cos(2 * math.pi * rnd(i, " + f + ", 1)))",
+                "normal(" + mean + ", " + stddev + ")");
+    }
+
+    /**
+     * Random strings of the letters, digits, '-' and '_'
+     *
+     * @param length string length
+     * @return field distribution
+     */
+    public static TarantoolDatasetField string(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("The string length must not be negative");
+        }
+        return value(f -> "rstr(i, " + f + ", " + length + ")", "string(" + length + ")");
+    }
+
+    /**
+     * Values chosen uniformly from a list
+     *
+     * @param values strings, numbers or booleans
+     * @return field distribution
+     */
+    public static TarantoolDatasetField choice(Object... values) {
+        return choice(Arrays.asList(values));
+    }
+
+    /**
+     * Values chosen uniformly from a list
+     *
+     * @param values strings, numbers or booleans
+     * @return field distribution
+     */
+    public static TarantoolDatasetField choice(List<?> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("At least one value is required");
+        }
+        String literal = LuaLiterals.toLua(values);
+        // the list is declared once, not allocated for each row
+        return new TarantoolDatasetField(Kind.VALUE,
+                f -> "choice_" + f + "[1 + math.floor(rnd(i, " + f + ", 0) * " + values.size() + ")]",
+                f -> "local choice_" + f + " = " + literal + " ", 0, "choice" + values);
+    }
+
+    /**
+     * The same value in all rows
+     *
+     * @param value string, number or boolean
+     * @return field distribution
+     */
+    public static TarantoolDatasetField constant(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value must not be null");
+        }
+        String literal = LuaLiterals.toLua(value);
+        return value(f -> literal, "constant(" + value + ")");
+    }
+
+    /**
+     * The vshard bucket id of another field, computed like {@code vshard.router.bucket_id_strcrc32(key)}, so the
+     * tuples can be found through the router. On a Cartridge cluster each storage keeps only the rows of its own
+     * buckets. A dataset may have a single bucket id field.
+     *
+     * @param keyField 1-based number of the sharding key field, the key field must not be a bucket id
+     * @return field distribution
+     */
+    public static TarantoolDatasetField bucketId(int keyField) {
+        if (keyField <= 0) {
+            throw new IllegalArgumentException("The key field number must be positive");
+        }
+        return new TarantoolDatasetField(Kind.BUCKET_ID, null, f -> "", keyField, "bucketId(" + keyField + ")");
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    int getKeyField() {
+        return keyField;
+    }
+
+    /**
+     * Get the Lua expression computing the value from the row number {@code i}
+     *
+     * @param fieldNo 1-based field number
+     * @return Lua expression
+     */
+    String toLua(int fieldNo) {
+        if (expression == null) {
+            throw new IllegalStateException("The bucket id is computed from the key field");
+        }
+        return expression.apply(fieldNo);
+    }
+
+    /**
+     * Get the Lua statements declaring the values used by the expression, executed once before the generation
+     *
+     * @param fieldNo 1-based field number
+     * @return Lua statements, empty if nothing is declared
+     */
+    String declarations(int fieldNo) {
+        return declaration.apply(fieldNo);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,82 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Rows inserted by a {@link TarantoolDataset} generation and its duration
+ */
+public class TarantoolDatasetResult {
+
+    private final String spaceName;
+    private final Map<String, Long> rowsByInstance;
+    private final Duration duration;
+
+    /**
+     * Basic constructor
+     *
+     * @param spaceName      space name
+     * @param rowsByInstance number of the inserted rows by instance alias, the alias is empty for a single instance
+     * @param duration       generation duration on the slowest instance
+     */
+    public TarantoolDatasetResult(String spaceName, Map<String, Long> rowsByInstance, Duration duration) {
+        this.spaceName = spaceName;
+        this.rowsByInstance = rowsByInstance;
+        this.duration = duration;
+    }
+
+    /**
+     * Get the space name
+     *
+     * @return space name
+     */
+    public String getSpaceName() {
+        return spaceName;
+    }
+
+    /**
+     * Get the number of the rows inserted on each instance
+     *
+     * @return number of the rows by instance alias
+     */
+    public Map<String, Long> getRowsByInstance() {
+        return rowsByInstance;
+    }
+
+    /**
+     * Get the total number of the inserted rows
+     *
+     * @return number of the rows on all instances
+     */
+    public long getRows() {
+        long rows = 0;
+        for (Long instanceRows : rowsByInstance.values()) {
+            rows += instanceRows;
+        }
+        return rows;
+    }
+
+    /**
+     * Get the generation duration measured inside the instances, the instances generate the rows in parallel
+     *
+     * @return duration on the slowest instance
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get the generation throughput
+     *
+     * @return inserted rows per second on all instances
+     */
+    public double getRowsPerSecond() {
+        return getRows() * 1e9 / Math.max(duration.toNanos(), 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows in %d ms (%.1f rows/s)", spaceName, getRows(), duration.toMillis(),
+                getRowsPerSecond());
+    }
+}
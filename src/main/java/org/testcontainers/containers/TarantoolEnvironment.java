@@ -0,0 +1,252 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.exceptions.TarantoolEnvironmentException;
+import org.testcontainers.lifecycle.Startable;
+
+/**
+ * Starts a set of containers in parallel, for example several Tarantool instances or a Cartridge cluster together
+ * with a standalone Tarantool:
+ *
+ * <pre>
+ * <code>
+ * TarantoolEnvironment environment = new TarantoolEnvironment();
+ * Future&lt;String&gt; image = environment.prepareImage(new TarantoolImageParams("tarantool-custom:1", dockerfile));
+ * environment
+ *     .withContainer("first", new TarantoolContainer(image))
+ *     .withContainer("second", new TarantoolContainer(image))
+ *     .withContainer("cluster", new TarantoolCartridgeContainer("cartridge/instances.yml", "cartridge/topology.lua"));
+ * environment.start();
+ *
+ * TarantoolContainer first = environment.getContainer("first");
+ * </code>
+ * </pre>
+ * <p>
+ * The images of all containers are pulled or built concurrently before the containers start, each image once. If a
+ * container fails to start, the other containers are stopped and the start is aborted.
+ */
+public class TarantoolEnvironment implements Startable {
+
+    private static final Logger log = LoggerFactory.getLogger(TarantoolEnvironment.class);
+    protected static final Duration STOP_TIMEOUT = Duration.ofMinutes(1);
+
+    private final Map<String, GenericContainer<?>> containers = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(new DaemonThreadFactory("tarantool-env"));
+    private TarantoolEnvironmentStartReport startReport;
+
+    /**
+     * Add a container
+     *
+     * @param name      unique container name, used in the start report and for getting the container
+     * @param container not started container
+     * @return this environment instance
+     */
+    public TarantoolEnvironment withContainer(String name, GenericContainer<?> container) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Container name must not be null or empty");
+        }
+        if (containers.containsKey(name)) {
+            throw new IllegalArgumentException(String.format("Container %s is already added", name));
+        }
+        containers.put(name, container);
+        return this;
+    }
+
+    /**
+     * Start checking for and building a custom Tarantool image in the background. The image is built once for
+     * each tag, also if it is requested by several environments or {@link TarantoolContainer} instances.
+     *
+     * @param imageParams image parameters
+     * @return future with image name, which can be passed to {@link TarantoolContainer#TarantoolContainer(Future)}
+     */
+    public Future<String> prepareImage(TarantoolImageParams imageParams) {
+        return TarantoolContainerImageHelper.getImageAsync(imageParams, executor);
+    }
+
+    /**
+     * Get a container by name
+     *
+     * @param name container name
+     * @param <C>  container type
+     * @return container
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends GenericContainer<?>> C getContainer(String name) {
+        GenericContainer<?> container = containers.get(name);
+        if (container == null) {
+            throw new IllegalArgumentException(String.format("Container %s is not found", name));
+        }
+        return (C) container;
+    }
+
+    /**
+     * Get the timings of the last start
+     *
+     * @return start report or null if the environment is not started
+     */
+    public TarantoolEnvironmentStartReport getStartReport() {
+        return startReport;
+    }
+
+    /**
+     * Prepare the images and start all containers in parallel
+     *
+     * @throws TarantoolEnvironmentException if an image cannot be prepared or a container fails to start
+     */
+    @Override
+    public void start() {
+        long startedAt = System.nanoTime();
+        prepareImages();
+        long imagesPreparedAt = System.nanoTime();
+
+        Map<String, Duration> startTimes = Collections.synchronizedMap(new LinkedHashMap<>());
+        CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+        Map<String, Future<String>> starts = new LinkedHashMap<>();
+        for (Map.Entry<String, GenericContainer<?>> entry : containers.entrySet()) {
+            String name = entry.getKey();
+            GenericContainer<?> container = entry.getValue();
+            starts.put(name, completion.submit(() -> {
+                long containerStartedAt = System.nanoTime();
+                container.start();
+                startTimes.put(name, Duration.ofNanos(System.nanoTime() - containerStartedAt));
+                return name;
+            }));
+        }
+
+        for (int i = 0; i < starts.size(); i++) {
+            try {
+                completion.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort(starts);
+                throw new TarantoolEnvironmentException("Interrupted while starting the containers", e);
+            } catch (ExecutionException e) {
+                String failed = findFailed(starts);
+                abort(starts);
+                throw new TarantoolEnvironmentException(
+                        String.format("Failed to start container %s", failed), e.getCause());
+            }
+        }
+
+        Map<String, Duration> orderedStartTimes = new LinkedHashMap<>();
+        for (String name : containers.keySet()) {
+            orderedStartTimes.put(name, startTimes.get(name));
+        }
+        long finishedAt = System.nanoTime();
+        startReport = new TarantoolEnvironmentStartReport(Duration.ofNanos(finishedAt - startedAt),
+                Duration.ofNanos(imagesPreparedAt - startedAt), orderedStartTimes);
+        log.info("Tarantool environment is started: {}", startReport);
+    }
+
+    /**
+     * Stop all containers in parallel
+     */
+    @Override
+    public void stop() {
+        stopAll();
+    }
+
+    // Resolves each distinct image future once, the futures memoize the resolved image names. A container wraps
+    // its image future, and the Tarantool containers share the wrapped pulling or building future per image name or
+    // tag, so each image is pulled or built once.
+    private void prepareImages() {
+        Set<Future<String>> images = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GenericContainer<?> container : containers.values()) {
+            images.add(getImage(container));
+        }
+        List<Future<?>> resolutions = new ArrayList<>(images.size());
+        for (Future<String> image : images) {
+            resolutions.add(executor.submit(() -> image.get()));
+        }
+        for (Future<?> resolution : resolutions) {
+            try {
+                resolution.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll(resolutions);
+                throw new TarantoolEnvironmentException("Interrupted while preparing the images", e);
+            } catch (ExecutionException e) {
+                cancelAll(resolutions);
+                throw new TarantoolEnvironmentException("Failed to prepare the container images", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Get the image of a container
+     *
+     * @param container container
+     * @return future resolving the image name, resolving the future pulls or builds the image
+     */
+    protected Future<String> getImage(GenericContainer<?> container) {
+        return container.getImage();
+    }
+
+    private String findFailed(Map<String, Future<String>> starts) {
+        for (Map.Entry<String, Future<String>> entry : starts.entrySet()) {
+            Future<String> start = entry.getValue();
+            if (start.isDone()) {
+                try {
+                    start.get();
+                } catch (Exception e) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return "<unknown>";
+    }
+
+    // Interrupts the starting containers and stops all of them
+    private void abort(Map<String, Future<String>> starts) {
+        cancelAll(starts.values());
+        stopAll();
+    }
+
+    private void stopAll() {
+        List<Future<?>> stops = new ArrayList<>(containers.size());
+        for (Map.Entry<String, GenericContainer<?>> entry : containers.entrySet()) {
+            stops.add(executor.submit(() -> {
+                try {
+                    entry.getValue().stop();
+                } catch (Exception e) {
+                    log.warn("Failed to stop container {}", entry.getKey(), e);
+                }
+            }));
+        }
+        long deadline = System.nanoTime() + STOP_TIMEOUT.toNanos();
+        for (Future<?> stop : stops) {
+            try {
+                stop.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Failed to stop the containers in time", e);
+                return;
+            }
+        }
+    }
+
+    private static void cancelAll(Iterable<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
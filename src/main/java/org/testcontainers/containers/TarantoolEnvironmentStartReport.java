@@ -0,0 +1,61 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Timings of a {@link TarantoolEnvironment} startup
+ */
+public final class TarantoolEnvironmentStartReport {
+
+    private final Duration total;
+    private final Duration imagePreparation;
+    private final Map<String, Duration> containerStartTimes;
+
+    TarantoolEnvironmentStartReport(Duration total, Duration imagePreparation,
+                                    Map<String, Duration> containerStartTimes) {
+        this.total = total;
+        this.imagePreparation = imagePreparation;
+        this.containerStartTimes = Collections.unmodifiableMap(new LinkedHashMap<>(containerStartTimes));
+    }
+
+    /**
+     * Get the time from the start call until all containers are started
+     *
+     * @return total start time
+     */
+    public Duration getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the time spent on pulling and building the images before starting the containers
+     *
+     * @return image preparation time
+     */
+    public Duration getImagePreparation() {
+        return imagePreparation;
+    }
+
+    /**
+     * Get the start time of each container, not including the image preparation
+     *
+     * @return start times by container name
+     */
+    public Map<String, Duration> getContainerStartTimes() {
+        return containerStartTimes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TarantoolEnvironmentStartReport{total=")
+                .append(total.toMillis()).append(" ms, imagePreparation=")
+                .append(imagePreparation.toMillis()).append(" ms");
+        for (Map.Entry<String, Duration> entry : containerStartTimes.entrySet()) {
+            sb.append(", ").append(entry.getKey()).append('=').append(entry.getValue().toMillis()).append(" ms");
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,83 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+
+/**
+ * CPU usage of a fiber reported by {@code fiber.top()}, see {@link TarantoolProfiler#fiberTop(Duration)}
+ */
+public class TarantoolFiberCpu {
+
+    private final long id;
+    private final String name;
+    private final double instant;
+    private final double average;
+    private final Duration time;
+
+    /**
+     * Basic constructor
+     *
+     * @param id      fiber id
+     * @param name    fiber name
+     * @param instant share of the CPU time in the last event loop iteration, in percent
+     * @param average moving average share of the CPU time, in percent
+     * @param time    CPU time consumed during the observed window
+     */
+    public TarantoolFiberCpu(long id, String name, double instant, double average, Duration time) {
+        this.id = id;
+        this.name = name;
+        this.instant = instant;
+        this.average = average;
+        this.time = time;
+    }
+
+    /**
+     * Get the fiber id
+     *
+     * @return fiber id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Get the fiber name
+     *
+     * @return fiber name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the share of the CPU time consumed by the fiber in the last event loop iteration
+     *
+     * @return percent of the iteration time
+     */
+    public double getInstant() {
+        return instant;
+    }
+
+    /**
+     * Get the exponential moving average of the share of the CPU time consumed by the fiber
+     *
+     * @return percent of the event loop time
+     */
+    public double getAverage() {
+        return average;
+    }
+
+    /**
+     * Get the CPU time consumed by the fiber during the observed window
+     *
+     * @return CPU time
+     */
+    public Duration getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%s: instant=%.2f%%, average=%.2f%%, time=%dus", id, name, instant, average,
+                time.toNanos() / 1000);
+    }
+}
@@ -0,0 +1,128 @@
+package org.testcontainers.containers;
+
+/**
+ * Histogram assembled from the "_bucket", "_sum" and "_count" samples of a metric, see
+ * {@link TarantoolMetrics#getHistogram(String, String...)}
+ */
+public class TarantoolHistogram {
+
+    private final String name;
+    private final double[] upperBounds;
+    private final double[] cumulativeCounts;
+    private final double sum;
+    private final double count;
+
+    /**
+     * Basic constructor
+     *
+     * @param name             metric name without the suffixes
+     * @param upperBounds      bucket upper bounds in ascending order, the last one may be positive infinity
+     * @param cumulativeCounts number of the observations less than or equal to each upper bound
+     * @param sum              sum of the observations
+     * @param count            number of the observations
+     */
+    public TarantoolHistogram(String name, double[] upperBounds, double[] cumulativeCounts, double sum,
+                              double count) {
+        if (upperBounds.length != cumulativeCounts.length) {
+            throw new IllegalArgumentException("Each bucket must have an upper bound and a count");
+        }
+        this.name = name;
+        this.upperBounds = upperBounds;
+        this.cumulativeCounts = cumulativeCounts;
+        this.sum = sum;
+        this.count = count;
+    }
+
+    /**
+     * Get the metric name
+     *
+     * @return metric name without the suffixes
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the bucket upper bounds
+     *
+     * @return upper bounds in ascending order
+     */
+    public double[] getUpperBounds() {
+        return upperBounds.clone();
+    }
+
+    /**
+     * Get the cumulative bucket counts
+     *
+     * @return number of the observations less than or equal to each upper bound
+     */
+    public double[] getCumulativeCounts() {
+        return cumulativeCounts.clone();
+    }
+
+    /**
+     * Get the sum of the observations
+     *
+     * @return sum
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Get the number of the observations
+     *
+     * @return count
+     */
+    public double getCount() {
+        return count;
+    }
+
+    /**
+     * Get the mean of the observations
+     *
+     * @return mean, NaN if there are no observations
+     */
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    /**
+     * Estimate a quantile by linear interpolation within the bucket containing it, like the histogram_quantile
+     * function of Prometheus. The quantiles falling into the last infinite bucket are estimated as the upper bound
+     * of the previous bucket.
+     *
+     * @param quantile quantile between 0 and 1
+     * @return estimated value, NaN if there are no observations
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("The quantile must be between 0 and 1");
+        }
+        int buckets = upperBounds.length;
+        if (buckets == 0 || cumulativeCounts[buckets - 1] <= 0) {
+            return Double.NaN;
+        }
+        double rank = quantile * cumulativeCounts[buckets - 1];
+        int bucket = 0;
+        while (bucket < buckets - 1 && cumulativeCounts[bucket] < rank) {
+            bucket++;
+        }
+        if (Double.isInfinite(upperBounds[bucket])) {
+            return bucket > 0 ? upperBounds[bucket - 1] : Double.NaN;
+        }
+        double lowerBound = bucket > 0 ? upperBounds[bucket - 1] : Math.min(0, upperBounds[0]);
+        double lowerCount = bucket > 0 ? cumulativeCounts[bucket - 1] : 0;
+        double bucketCount = cumulativeCounts[bucket] - lowerCount;
+        if (bucketCount <= 0) {
+            return upperBounds[bucket];
+        }
+        return lowerBound + (upperBounds[bucket] - lowerBound) * (rank - lowerCount) / bucketCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%s, sum=%s, p50=%s, p99=%s", name, count, sum, getQuantile(0.5),
+                getQuantile(0.99));
+    }
+}
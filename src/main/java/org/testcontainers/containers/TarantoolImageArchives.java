@@ -0,0 +1,434 @@
+package org.testcontainers.containers;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.NotFoundException;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.utility.LazyFuture;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Loads the images from a local directory of {@code docker save} tarballs instead of pulling them, for the
+ * environments without registry access.
+ * <p>
+ * The directory is configured with the {@code tarantool.image.archive.dir} system property or the
+ * {@code TARANTOOL_IMAGE_ARCHIVE_DIR} environment variable. The {@code .tar}, {@code .tar.gz} and {@code .tgz} files
+ * in it are indexed by the repository tags in their {@code manifest.json}. When an image is missing on the Docker
+ * host and an archive contains it, the archive is loaded and the image is tagged with the requested name, otherwise
+ * the image is pulled as usual. The archives are identified by the image config digest: an archive is loaded at most
+ * once in a JVM and not at all if the host already has an image with this digest.
+ * <p>
+ * The default {@link TarantoolContainer}, the {@link TarantoolImagePrewarmer} and the base images of the
+ * {@link TarantoolCartridgeContainer} and {@link TarantoolImageParams} Dockerfiles use the archives automatically.
+ * Other images can be wrapped with {@link #image(String)}:
+ *
+ * <pre>
+ * <code>
+ * TarantoolContainer container = new TarantoolContainer(TarantoolImageArchives.image("tarantool/tarantool:3.2"));
+ * </code>
+ * </pre>
+ */
+public final class TarantoolImageArchives {
+
+    public static final String ARCHIVE_DIR_PROPERTY = "tarantool.image.archive.dir";
+    public static final String ARCHIVE_DIR_ENV = "TARANTOOL_IMAGE_ARCHIVE_DIR";
+
+    private static final Logger log = LoggerFactory.getLogger(TarantoolImageArchives.class);
+    private static final String MANIFEST = "manifest.json";
+    private static final String DEFAULT_REGISTRY = "docker.io/";
+    private static final String LIBRARY_PREFIX = "library/";
+    private static final Pattern VARIABLE = Pattern.compile("\\$(?:\\{(\\w+)}|(\\w+))");
+
+    // Archive indexes by directory, and the loads by image digest
+    private static final ConcurrentMap<Path, Map<String, ImageArchive>> indexes = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, CompletableFuture<Void>> loads = new ConcurrentHashMap<>();
+
+    private TarantoolImageArchives() {
+    }
+
+    /**
+     * Get the configured archive directory
+     *
+     * @return directory or null if not configured
+     */
+    public static Path getArchiveDirectory() {
+        String value = System.getProperty(ARCHIVE_DIR_PROPERTY);
+        if (value == null) {
+            value = System.getenv(ARCHIVE_DIR_ENV);
+        }
+        return value == null || value.trim().isEmpty() ? null : Paths.get(value.trim());
+    }
+
+    /**
+     * Check whether the archive directory is configured
+     *
+     * @return true if configured
+     */
+    public static boolean isEnabled() {
+        return getArchiveDirectory() != null;
+    }
+
+    /**
+     * Wrap an image name into a future loading the image from the archives on resolution, if needed
+     *
+     * @param imageName full image name
+     * @return future with the image name, which can be passed to {@link TarantoolContainer#TarantoolContainer(Future)}
+     */
+    public static Future<String> image(String imageName) {
+        return new LazyFuture<String>() {
+            @Override
+            protected String resolve() {
+                load(imageName);
+                return imageName;
+            }
+        };
+    }
+
+    /**
+     * Load an image from the archives if it is missing on the Docker host
+     *
+     * @param imageName full image name
+     * @return true if the image has been loaded or tagged from an archive, false if the archives are not configured,
+     * the image is already present or no archive contains it
+     */
+    public static boolean load(String imageName) {
+        Path directory = getArchiveDirectory();
+        if (directory == null || hasImage(imageName)) {
+            return false;
+        }
+        ImageArchive archive = findArchive(getIndex(directory), imageName);
+        if (archive == null) {
+            log.debug("No archive in {} contains image {}", directory, imageName);
+            return false;
+        }
+        CompletableFuture<Void> load = new CompletableFuture<>();
+        CompletableFuture<Void> existing = loads.putIfAbsent(archive.getDigest(), load);
+        if (existing == null) {
+            try {
+                loadArchive(archive);
+                load.complete(null);
+            } catch (RuntimeException e) {
+                loads.remove(archive.getDigest(), load);
+                load.completeExceptionally(e);
+            }
+        }
+        try {
+            (existing == null ? load : existing).join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+        if (!hasImage(imageName)) {
+            tagImage(archive.getDigest(), imageName);
+        }
+        return true;
+    }
+
+    /**
+     * Load the base images of a Dockerfile from the archives, if needed
+     *
+     * @param dockerfile Dockerfile content
+     * @param buildArgs  build arguments overriding the ARG defaults
+     */
+    static void loadBaseImages(String dockerfile, Map<String, String> buildArgs) {
+        if (!isEnabled()) {
+            return;
+        }
+        for (String baseImage : getBaseImages(dockerfile, buildArgs)) {
+            load(baseImage);
+        }
+    }
+
+    /**
+     * Load the base images of a Dockerfile from the archives, if needed
+     *
+     * @param dockerfile Dockerfile or a directory with a file named Dockerfile
+     * @param buildArgs  build arguments overriding the ARG defaults
+     */
+    static void loadBaseImages(File dockerfile, Map<String, String> buildArgs) {
+        if (!isEnabled()) {
+            return;
+        }
+        Path path = dockerfile.isDirectory() ? dockerfile.toPath().resolve("Dockerfile") : dockerfile.toPath();
+        loadBaseImages(read(path), buildArgs);
+    }
+
+    /**
+     * Load the base images of a Dockerfile from the classpath resources from the archives, if needed
+     *
+     * @param dockerfileResource path to a Dockerfile in the classpath resources
+     * @param buildArgs          build arguments overriding the ARG defaults
+     */
+    static void loadClasspathBaseImages(String dockerfileResource, Map<String, String> buildArgs) {
+        if (!isEnabled()) {
+            return;
+        }
+        loadBaseImages(read(Paths.get(MountableFile.forClasspathResource(dockerfileResource).getResolvedPath())),
+                buildArgs);
+    }
+
+    /**
+     * Resolve the external images in the FROM instructions of a Dockerfile. The global ARG defaults and the build
+     * arguments are substituted, the references to the previous build stages and scratch are skipped.
+     *
+     * @param dockerfile Dockerfile content
+     * @param buildArgs  build arguments, may be null, null values are ignored
+     * @return image names in the order of appearance
+     */
+    static List<String> getBaseImages(String dockerfile, Map<String, String> buildArgs) {
+        Map<String, String> args = new HashMap<>();
+        Set<String> stages = new HashSet<>();
+        Set<String> images = new LinkedHashSet<>();
+        boolean beforeFrom = true;
+        for (String rawLine : dockerfile.split("\\r?\\n")) {
+            String line = rawLine.trim();
+            String[] words = line.split("\\s+");
+            if (beforeFrom && words.length >= 2 && words[0].equalsIgnoreCase("ARG")) {
+                String[] arg = words[1].split("=", 2);
+                String value = arg.length > 1 ? unquote(arg[1]) : null;
+                String buildArg = buildArgs == null ? null : buildArgs.get(arg[0]);
+                args.put(arg[0], buildArg != null ? buildArg : value);
+            } else if (words.length >= 2 && words[0].equalsIgnoreCase("FROM")) {
+                beforeFrom = false;
+                int index = 1;
+                while (index < words.length - 1 && words[index].startsWith("--")) {
+                    index++;
+                }
+                String image = substitute(words[index], args);
+                if (words.length >= index + 3 && words[index + 1].equalsIgnoreCase("AS")) {
+                    stages.add(words[index + 2]);
+                }
+                if (!stages.contains(image) && !image.equals("scratch") && !stages.contains(words[index])) {
+                    images.add(image);
+                }
+            }
+        }
+        return new ArrayList<>(images);
+    }
+
+    /**
+     * Read the images contained in a {@code docker save} archive
+     *
+     * @param archive path to the archive
+     * @return archive descriptors, one for each image
+     */
+    @SuppressWarnings("unchecked")
+    static List<ImageArchive> readArchive(Path archive) throws IOException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(archive));
+             TarArchiveInputStream tar = new TarArchiveInputStream(isGzipped(archive) ?
+                     new GZIPInputStream(file) : file)) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                if (!entry.getName().equals(MANIFEST) && !entry.getName().equals("./" + MANIFEST)) {
+                    continue;
+                }
+                ByteArrayOutputStream manifest = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = tar.read(buffer)) != -1) {
+                    manifest.write(buffer, 0, read);
+                }
+                List<ImageArchive> result = new ArrayList<>();
+                Object images = JsonUtils.parse(new String(manifest.toByteArray(), StandardCharsets.UTF_8));
+                for (Object image : (List<Object>) images) {
+                    Map<String, Object> descriptor = (Map<String, Object>) image;
+                    List<String> repoTags = descriptor.get("RepoTags") == null ?
+                            Collections.emptyList() : (List<String>) descriptor.get("RepoTags");
+                    result.add(new ImageArchive(archive, toDigest((String) descriptor.get("Config")), repoTags));
+                }
+                return result;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    static String normalizeImageName(String imageName) {
+        String name = imageName.startsWith(DEFAULT_REGISTRY) ?
+                imageName.substring(DEFAULT_REGISTRY.length()) : imageName;
+        if (name.startsWith(LIBRARY_PREFIX)) {
+            name = name.substring(LIBRARY_PREFIX.length());
+        }
+        int slash = name.lastIndexOf('/');
+        return name.indexOf(':', slash + 1) < 0 && !name.contains("@") ? name + ":latest" : name;
+    }
+
+    // Looks up the exact name, then the name without the registry, for the names prefixed with TARANTOOL_REGISTRY
+    static ImageArchive findArchive(Map<String, ImageArchive> index, String imageName) {
+        String name = normalizeImageName(imageName);
+        ImageArchive archive = index.get(name);
+        int slash = name.indexOf('/');
+        if (archive == null && slash > 0) {
+            String host = name.substring(0, slash);
+            if (host.contains(".") || host.contains(":") || host.equals("localhost")) {
+                archive = index.get(normalizeImageName(name.substring(slash + 1)));
+            }
+        }
+        return archive;
+    }
+
+    private static Map<String, ImageArchive> getIndex(Path directory) {
+        return indexes.computeIfAbsent(directory.toAbsolutePath().normalize(), dir -> {
+            Map<String, ImageArchive> index = new LinkedHashMap<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.{tar,tar.gz,tgz}")) {
+                for (Path file : files) {
+                    try {
+                        for (ImageArchive archive : readArchive(file)) {
+                            for (String repoTag : archive.getRepoTags()) {
+                                index.putIfAbsent(normalizeImageName(repoTag), archive);
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Failed to read image archive {}", file, e);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to list image archives in " + dir, e);
+            }
+            log.info("Indexed {} images in {}", index.size(), dir);
+            return index;
+        });
+    }
+
+    private static void loadArchive(ImageArchive archive) {
+        if (hasImage(archive.getDigest())) {
+            log.info("Image {} from {} is already loaded", archive.getDigest(), archive.getPath());
+            return;
+        }
+        long startedAt = System.nanoTime();
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(archive.getPath()))) {
+            getDockerClient().loadImageCmd(input).exec();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load image archive " + archive.getPath(), e);
+        }
+        log.info("Loaded image archive {} in {} ms", archive.getPath(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private static void tagImage(String digest, String imageName) {
+        int slash = imageName.lastIndexOf('/');
+        int colon = imageName.lastIndexOf(':');
+        String repository = colon > slash ? imageName.substring(0, colon) : imageName;
+        String tag = colon > slash ? imageName.substring(colon + 1) : "latest";
+        getDockerClient().tagImageCmd(digest, repository, tag).exec();
+    }
+
+    private static boolean hasImage(String imageNameOrId) {
+        try {
+            getDockerClient().inspectImageCmd(imageNameOrId).exec();
+            return true;
+        } catch (NotFoundException e) {
+            return false;
+        }
+    }
+
+    // "Config" is "<hex>.json" in the legacy format and "blobs/sha256/<hex>" in the OCI layout
+    private static String toDigest(String config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Image config is missing in the archive manifest");
+        }
+        String hex = config.substring(config.lastIndexOf('/') + 1);
+        if (hex.endsWith(".json")) {
+            hex = hex.substring(0, hex.length() - ".json".length());
+        }
+        return "sha256:" + hex;
+    }
+
+    private static boolean isGzipped(Path archive) {
+        String name = archive.getFileName().toString();
+        return name.endsWith(".gz") || name.endsWith(".tgz");
+    }
+
+    private static String substitute(String value, Map<String, String> args) {
+        Matcher matcher = VARIABLE.matcher(value);
+        StringBuffer result = new StringBuffer();
+        while (matcher.find()) {
+            String name = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+            String replacement = args.get(name);
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement == null ? "" : replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.startsWith("\"") && value.endsWith("\"") ||
+                value.startsWith("'") && value.endsWith("'"))) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static String read(Path path) {
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read Dockerfile " + path, e);
+        }
+    }
+
+    private static DockerClient getDockerClient() {
+        return DockerClientFactory.instance().client();
+    }
+
+    /**
+     * Image contained in a {@code docker save} archive
+     */
+    static final class ImageArchive {
+        private final Path path;
+        private final String digest;
+        private final List<String> repoTags;
+
+        ImageArchive(Path path, String digest, List<String> repoTags) {
+            this.path = path;
+            this.digest = digest;
+            this.repoTags = repoTags;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        String getDigest() {
+            return digest;
+        }
+
+        List<String> getRepoTags() {
+            return repoTags;
+        }
+
+        @Override
+        public String toString() {
+            return "ImageArchive{path=" + path + ", digest=" + digest + ", repoTags=" + repoTags + '}';
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.testcontainers.containers;
+
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Starts the {@link TarantoolImagePrewarmer} when the JUnit Platform launcher opens a session, before the test
+ * classes are discovered. The listener is registered with the service loader and does nothing unless the pre-warming
+ * is enabled.
+ */
+public class TarantoolImagePrewarmListener implements LauncherSessionListener {
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        TarantoolImagePrewarmer.startIfEnabled();
+    }
+}
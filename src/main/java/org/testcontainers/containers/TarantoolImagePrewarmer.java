@@ -0,0 +1,178 @@
+package org.testcontainers.containers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Pulls and builds the container images in the background before the first container needs them.
+ * <p>
+ * The pre-warmer is disabled by default. It is enabled with the {@code tarantool.image.prewarm=true} system property
+ * or the {@code TARANTOOL_IMAGE_PREWARM=true} environment variable and is started when the JUnit Platform launcher
+ * opens a session or when {@link TarantoolContainer} or {@link TarantoolCartridgeContainer} is loaded, whichever
+ * happens first. The following images are prepared:
+ * <ul>
+ *     <li>the default Tarantool image, resolved from {@code TARANTOOL_VERSION} and {@code TARANTOOL_REGISTRY}</li>
+ *     <li>the images listed in {@code tarantool.image.prewarm.images} or {@code TARANTOOL_PREWARM_IMAGES},
+ *     comma-separated</li>
+ *     <li>the Cartridge image built from the default Dockerfile with the name specified in
+ *     {@code tarantool.image.prewarm.cartridge} or {@code TARANTOOL_PREWARM_CARTRIDGE_IMAGE}</li>
+ * </ul>
+ * <p>
+ * A {@link TarantoolContainer} created with the default constructor waits for the pulled image instead of pulling it
+ * again, a {@link TarantoolCartridgeContainer} created with the same image name and the default build arguments
+ * waits for the shared build. A failed pre-warming is only logged, the container then prepares the image itself and
+ * reports the error.
+ */
+public final class TarantoolImagePrewarmer {
+
+    public static final String PREWARM_PROPERTY = "tarantool.image.prewarm";
+    public static final String PREWARM_ENV = "TARANTOOL_IMAGE_PREWARM";
+    public static final String IMAGES_PROPERTY = "tarantool.image.prewarm.images";
+    public static final String IMAGES_ENV = "TARANTOOL_PREWARM_IMAGES";
+    public static final String CARTRIDGE_IMAGE_PROPERTY = "tarantool.image.prewarm.cartridge";
+    public static final String CARTRIDGE_IMAGE_ENV = "TARANTOOL_PREWARM_CARTRIDGE_IMAGE";
+
+    private static final Logger log = LoggerFactory.getLogger(TarantoolImagePrewarmer.class);
+    private static final AtomicBoolean started = new AtomicBoolean();
+    private static final ConcurrentMap<String, CompletableFuture<String>> images = new ConcurrentHashMap<>();
+
+    private TarantoolImagePrewarmer() {
+    }
+
+    /**
+     * Check whether the pre-warming is enabled with the system property or the environment variable
+     *
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(getSetting(PREWARM_PROPERTY, PREWARM_ENV));
+    }
+
+    /**
+     * Start preparing the configured images in the background if the pre-warming is enabled. Subsequent calls have
+     * no effect.
+     */
+    public static void startIfEnabled() {
+        if (isEnabled()) {
+            start();
+        }
+    }
+
+    /**
+     * Start preparing the configured images in the background regardless of the enabling setting. Subsequent calls
+     * have no effect.
+     */
+    public static void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        List<String> imageNames = new ArrayList<>();
+        imageNames.add(TarantoolContainer.getImageNameFromEnv());
+        imageNames.addAll(parseImageNames(getSetting(IMAGES_PROPERTY, IMAGES_ENV)));
+        String cartridgeImage = getSetting(CARTRIDGE_IMAGE_PROPERTY, CARTRIDGE_IMAGE_ENV);
+
+        ExecutorService executor = Executors.newCachedThreadPool(new DaemonThreadFactory("tarantool-prewarm"));
+        for (String imageName : imageNames) {
+            prewarm(imageName, executor);
+        }
+        if (cartridgeImage != null && !cartridgeImage.trim().isEmpty()) {
+            prewarmCartridgeImage(cartridgeImage.trim(), executor);
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Start pulling an image in the background. The image is pulled once, also if requested several times.
+     *
+     * @param imageName full image name
+     * @return future with the image name, completed when the pull is finished or has failed
+     */
+    public static Future<String> prewarm(String imageName) {
+        ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("tarantool-prewarm"));
+        try {
+            return prewarm(imageName, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Get the pre-warming future of an image
+     *
+     * @param imageName full image name
+     * @return future with the image name or null if the image is not pre-warmed
+     */
+    static Future<String> getPrewarmedImage(String imageName) {
+        return images.get(imageName);
+    }
+
+    static CompletableFuture<String> prewarm(String imageName, Executor executor) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = images.putIfAbsent(imageName, future);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                TarantoolImageArchives.load(imageName);
+                new RemoteDockerImage(DockerImageName.parse(imageName)).get();
+                log.info("Image {} is pre-warmed in {} ms", imageName, (System.nanoTime() - startedAt) / 1_000_000);
+            } catch (Exception e) {
+                log.warn("Failed to pre-warm image {}", imageName, e);
+            } finally {
+                // the containers pull the image themselves if it has failed here
+                future.complete(imageName);
+            }
+        });
+        return future;
+    }
+
+    private static void prewarmCartridgeImage(String buildImageName, Executor executor) {
+        executor.execute(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                // the image instance is shared with the containers using the same name and build arguments
+                TarantoolCartridgeContainer.withBuildArgs(TarantoolCartridgeContainer.buildImage(
+                        TarantoolCartridgeContainer.DOCKERFILE, buildImageName, Collections.emptyMap()),
+                        Collections.emptyMap()).get();
+                log.info("Image {} is pre-warmed in {} ms", buildImageName,
+                        (System.nanoTime() - startedAt) / 1_000_000);
+            } catch (Exception e) {
+                log.warn("Failed to pre-warm image {}", buildImageName, e);
+            }
+        });
+    }
+
+    static List<String> parseImageNames(String value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<String> imageNames = new ArrayList<>();
+        for (String imageName : value.split(",")) {
+            if (!imageName.trim().isEmpty()) {
+                imageNames.add(imageName.trim());
+            }
+        }
+        return imageNames;
+    }
+
+    private static String getSetting(String property, String env) {
+        String value = System.getProperty(property);
+        return value != null ? value : System.getenv(env);
+    }
+}
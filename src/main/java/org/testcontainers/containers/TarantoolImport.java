@@ -0,0 +1,414 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.testcontainers.containers.exceptions.TarantoolImportException;
+
+/**
+ * Import of a CSV or JSON Lines file from the host into a space.
+ * <p>
+ * The file is streamed into the container through the Docker archive API without buffering it in the heap, then a
+ * fiber inside the instance parses it in chunks and inserts the rows in transactions of the batch size. The test
+ * polls the loader for the progress until the file is loaded, the file is removed from the container afterwards.
+ * <p>
+ * The values are mapped to the fields by the space format: the CSV columns by the header names or by their positions
+ * if the file has no header, the JSON objects by the field names and the JSON arrays by the positions. The CSV
+ * values are converted to the field types, an empty value of a nullable field is inserted as null.
+ */
+public class TarantoolImport {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final Duration DEFAULT_PROGRESS_INTERVAL = Duration.ofSeconds(1);
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("tarantool-import");
+
+    enum Format {
+        CSV(".csv"),
+        JSONL(".jsonl");
+
+        private final String suffix;
+
+        Format(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    // the owner of the data directory, the copied file is given to it so the loader can remove the file
+    static final String OWNER_COMMAND =
+            "local st = require('fio').stat(require('fio').abspath(box.cfg.memtx_dir)) " +
+            "return {uid = st.uid, gid = st.gid}";
+
+    // Declares the field converters, the batch and the state polled by the test, expects the parameters to be set
+    private static final String LOADER_FUNCTIONS =
+            "local fio, fiber, clock, json, ffi = " +
+            "require('fio'), require('fiber'), require('clock'), require('json'), require('ffi') " +
+            "local space = box.space[name] if space == nil then error('Space not found: ' .. name) end " +
+            "local put = replace and space.replace or space.insert " +
+            "local format = space:format() " +
+            "local function parser(f) local t = f.type " +
+            "if t == 'unsigned' or t == 'integer' then return tonumber64 end " +
+            "if t == 'number' then return tonumber end " +
+            "if t == 'double' then return function(v) return ffi.cast('double', tonumber(v)) end end " +
+            "if t == 'boolean' then return function(v) return v == 'true' or v == '1' end end " +
+            "if t == 'decimal' then return require('decimal').new end " +
+            "if t == 'uuid' then return require('uuid').fromstr end " +
+            "if t == 'map' or t == 'array' then return json.decode end " +
+            "return nil end " +
+            "local fields, conv = {}, {} " +
+            "for k, f in ipairs(format) do fields[f.name] = k " +
+            "local parse, nullable = parser(f), f.is_nullable " +
+            "conv[k] = function(v) if type(v) ~= 'string' then return v end " +
+            "if v == '' and nullable then return box.NULL end " +
+            "if parse == nil then return v end return parse(v) end end " +
+            "local imports = rawget(_G, '__testcontainers_imports') or {} " +
+            "rawset(_G, '__testcontainers_imports', imports) " +
+            "local state = {rows = 0, bytes = 0, line = 0, done = false, started = clock.monotonic()} " +
+            "imports[id] = state " +
+            "local fh = assert(fio.open(path, {'O_RDONLY'})) " +
+            "local reader = {read = function(self, n) local chunk = assert(fh:read(n)) " +
+            "state.bytes = state.bytes + #chunk return chunk end} " +
+            "local batch = {} " +
+            "local function flush() if #batch == 0 then return end " +
+            "box.begin() for _, t in ipairs(batch) do put(space, t) end box.commit() " +
+            "state.rows = state.rows + #batch batch = {} end " +
+            "local function set(t, f, v) local c = conv[f] if c ~= nil then v = c(v) end t[f] = v end " +
+            "local function add(t, width) for k = 1, math.max(width, #format) do " +
+            "if t[k] == nil then t[k] = box.NULL end end " +
+            "batch[#batch + 1] = t if #batch >= batch_size then flush() end end ";
+
+    // the columns are mapped by the header or by the positions
+    private static final String CSV_LOADER =
+            "local columns = nil " +
+            "if not header then columns = setmetatable({}, {__index = function(_, k) return k end}) end " +
+            "for i, record in require('csv').iterate(reader, " +
+            "{delimiter = delimiter, quote_char = quote, chunk_size = chunk_size}) do " +
+            "state.line = i " +
+            "if columns == nil then columns = {} for k, column in ipairs(record) do " +
+            "columns[k] = fields[column] or error('Unknown column: ' .. column) end " +
+            "elseif #record > 1 or (#record == 1 and record[1] ~= '') then " +
+            "local t, width = {}, 0 " +
+            "for k, v in ipairs(record) do local f = columns[k] " +
+            "if f == nil then error('Unexpected column ' .. k) end " +
+            "set(t, f, v) if f > width then width = f end end " +
+            "add(t, width) end end " +
+            "flush() ";
+
+    // the lines are split without copying the rest of the chunk for each line, the array elements are mapped by
+    // the positions and the object keys by the field names
+    private static final String JSONL_LOADER =
+            "local nl, cr = string.char(10), string.char(13) " +
+            "local function load_line(s) state.line = state.line + 1 " +
+            "if s:sub(-1) == cr then s = s:sub(1, -2) end " +
+            "if s:find('%S') == nil then return end " +
+            "local obj = json.decode(s) " +
+            "if type(obj) ~= 'table' then error('Not a JSON object or array') end " +
+            "local t, width = {}, 0 " +
+            "for column, v in pairs(obj) do " +
+            "local f = type(column) == 'number' and column or fields[column] " +
+            "if f == nil then error('Unknown field: ' .. tostring(column)) end " +
+            "set(t, f, v) if f > width then width = f end end " +
+            "add(t, width) end " +
+            "local buf, pos, eof = '', 1, false " +
+            "while true do local found = buf:find(nl, pos, true) " +
+            "if found ~= nil then load_line(buf:sub(pos, found - 1)) pos = found + 1 " +
+            "elseif eof then if pos <= #buf then load_line(buf:sub(pos)) end break " +
+            "else local chunk = reader:read(chunk_size) " +
+            "if #chunk == 0 then eof = true else buf = buf:sub(pos) .. chunk pos = 1 end end end " +
+            "flush() ";
+
+    private static final String PROGRESS_COMMAND_TEMPLATE =
+            "local imports = rawget(_G, '__testcontainers_imports') or {} " +
+            "local state = imports[%1$s] if state == nil then error('Import not found: ' .. %1$s) end " +
+            "if state.done then imports[%1$s] = nil end " +
+            "return {rows = state.rows, bytes = state.bytes, done = state.done, error = state.error, " +
+            "duration = state.duration or (require('clock').monotonic() - state.started)}";
+
+    private final Path file;
+    private final String spaceName;
+    private final Format format;
+    private boolean header = true;
+    private char delimiter = ',';
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean replace;
+    private Consumer<TarantoolImportProgress> progressListener;
+    private Duration progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+    private TarantoolImport(Path file, String spaceName, Format format) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException(String.format("File %s does not exist", file));
+        }
+        if (spaceName == null || spaceName.isEmpty()) {
+            throw new IllegalArgumentException("The space name must not be empty");
+        }
+        this.file = file;
+        this.spaceName = spaceName;
+        this.format = format;
+    }
+
+    /**
+     * Create an import of a CSV file. The first line is the header by default.
+     *
+     * @param file      CSV file on the host
+     * @param spaceName space name
+     * @return import specification
+     */
+    public static TarantoolImport csv(Path file, String spaceName) {
+        return new TarantoolImport(file, spaceName, Format.CSV);
+    }
+
+    /**
+     * Create an import of a JSON Lines file, each line is a JSON object or array
+     *
+     * @param file      JSON Lines file on the host
+     * @param spaceName space name
+     * @return import specification
+     */
+    public static TarantoolImport jsonl(Path file, String spaceName) {
+        return new TarantoolImport(file, spaceName, Format.JSONL);
+    }
+
+    /**
+     * Specify whether the first line of a CSV file contains the field names. Defaults to true.
+     *
+     * @param header true if the columns are mapped by the header, false if by the positions
+     * @return this import specification
+     */
+    public TarantoolImport withHeader(boolean header) {
+        this.header = header;
+        return this;
+    }
+
+    /**
+     * Specify the delimiter of the CSV values. Defaults to ','.
+     *
+     * @param delimiter delimiter character
+     * @return this import specification
+     */
+    public TarantoolImport withDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Specify the number of the rows inserted in a transaction. Defaults to 1000.
+     *
+     * @param batchSize number of the rows
+     * @return this import specification
+     */
+    public TarantoolImport withBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Specify whether the existing tuples with the same primary key are replaced. By default the rows are inserted
+     * and a duplicate key fails the import.
+     *
+     * @param replace true if the tuples must be replaced
+     * @return this import specification
+     */
+    public TarantoolImport withReplace(boolean replace) {
+        this.replace = replace;
+        return this;
+    }
+
+    /**
+     * Specify a listener receiving the loading progress periodically and once the file is loaded
+     *
+     * @param progressListener progress listener, called in the importing thread
+     * @return this import specification
+     */
+    public TarantoolImport withProgressListener(Consumer<TarantoolImportProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Specify the interval of the progress notifications. Defaults to 1 second.
+     *
+     * @param progressInterval notification interval
+     * @return this import specification
+     */
+    public TarantoolImport withProgressInterval(Duration progressInterval) {
+        this.progressInterval = progressInterval;
+        return this;
+    }
+
+    /**
+     * Get the imported file
+     *
+     * @return file on the host
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the space name
+     *
+     * @return space name
+     */
+    public String getSpaceName() {
+        return spaceName;
+    }
+
+    /**
+     * Copy the file into the container and load it into the space
+     *
+     * @param container  container receiving the file
+     * @param operations instance executing the loader
+     * @return import summary
+     * @throws Exception if the file cannot be copied, parsed or inserted
+     */
+    TarantoolImportResult execute(Container<?> container, TarantoolContainerOperations<?> operations)
+            throws Exception {
+        long size = Files.size(file);
+        String path = "/tmp/testcontainers-import-" + System.nanoTime() + format.suffix;
+        List<?> owner = operations.executeCommandDecoded(OWNER_COMMAND);
+        Map<?, ?> ids = (Map<?, ?>) owner.get(0);
+
+        long transferStartedAt = System.nanoTime();
+        copy(container, path, ((Number) ids.get("uid")).longValue(), ((Number) ids.get("gid")).longValue());
+        Duration transferDuration = Duration.ofNanos(System.nanoTime() - transferStartedAt);
+
+        String id = LuaLiterals.string(path);
+        try {
+            operations.executeCommandDecoded(toStartCommand(path));
+        } catch (Exception e) {
+            try {
+                operations.executeCommandDecoded("require('fio').unlink(" + id + ")");
+            } catch (Exception suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new TarantoolImportException(String.format("Failed to start the import of %s into space %s",
+                    file, spaceName), e);
+        }
+
+        String progressCommand = String.format(PROGRESS_COMMAND_TEMPLATE, id);
+        long notifiedAt = System.nanoTime();
+        while (true) {
+            List<?> result = operations.executeCommandDecoded(progressCommand);
+            Map<?, ?> state = (Map<?, ?>) result.get(0);
+            TarantoolImportProgress progress = new TarantoolImportProgress(toLong(state.get("rows")),
+                    toLong(state.get("bytes")), size,
+                    Duration.ofNanos((long) (((Number) state.get("duration")).doubleValue() * 1e9)));
+            boolean done = Boolean.TRUE.equals(state.get("done"));
+            if (state.get("error") != null) {
+                throw new TarantoolImportException(String.format("Failed to import %s into space %s: %s",
+                        file, spaceName, state.get("error")));
+            }
+            if (progressListener != null &&
+                    (done || System.nanoTime() - notifiedAt >= progressInterval.toNanos())) {
+                progressListener.accept(progress);
+                notifiedAt = System.nanoTime();
+            }
+            if (done) {
+                return new TarantoolImportResult(spaceName, progress.getRows(), size, transferDuration,
+                        progress.getElapsed());
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+    }
+
+    /**
+     * Build the Lua command starting the loader fiber
+     *
+     * @param path file path in the container, also the import id
+     * @return Lua command
+     */
+    String toStartCommand(String path) {
+        String literal = LuaLiterals.string(path);
+        StringBuilder sb = new StringBuilder();
+        sb.append("local name, id, path = ").append(LuaLiterals.string(spaceName)).append(", ")
+                .append(literal).append(", ").append(literal).append(' ');
+        sb.append("local replace, batch_size, chunk_size = ").append(replace).append(", ").append(batchSize)
+                .append(", ").append(BUFFER_SIZE).append(' ');
+        if (format == Format.CSV) {
+            sb.append("local header, delimiter, quote = ").append(header).append(", ")
+                    .append(LuaLiterals.string(String.valueOf(delimiter))).append(", ")
+                    .append(LuaLiterals.string("\"")).append(' ');
+        }
+        sb.append(LOADER_FUNCTIONS);
+        sb.append("fiber.create(function() ");
+        sb.append("local ok, err = pcall(function() ");
+        sb.append(format == Format.CSV ? CSV_LOADER : JSONL_LOADER);
+        sb.append("end) ");
+        sb.append("if box.is_in_txn() then box.rollback() end ");
+        sb.append("fh:close() fio.unlink(path) ");
+        sb.append("if not ok then state.error = 'Failed near line ' .. state.line .. ': ' .. tostring(err) end ");
+        sb.append("state.duration = clock.monotonic() - state.started state.done = true end) ");
+        sb.append("return true");
+        return sb.toString();
+    }
+
+    // Streams a single-entry tar archive through a pipe, so the file is never held in memory
+    private void copy(Container<?> container, String path, long uid, long gid) {
+        AtomicReference<IOException> writeError = new AtomicReference<>();
+        PipedInputStream in = new PipedInputStream(BUFFER_SIZE);
+        try {
+            PipedOutputStream pipe = new PipedOutputStream(in);
+            Thread writer = THREAD_FACTORY.newThread(() -> {
+                try (TarArchiveOutputStream tar = new TarArchiveOutputStream(pipe)) {
+                    tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+                    tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+                    TarArchiveEntry entry = new TarArchiveEntry(path.substring(1));
+                    entry.setSize(Files.size(file));
+                    entry.setMode(0100644);
+                    entry.setUserId(uid);
+                    entry.setGroupId(gid);
+                    tar.putArchiveEntry(entry);
+                    Files.copy(file, tar);
+                    tar.closeArchiveEntry();
+                } catch (IOException e) {
+                    writeError.set(e);
+                }
+            });
+            writer.start();
+            try {
+                container.getDockerClient().copyArchiveToContainerCmd(container.getContainerId())
+                        .withRemotePath("/")
+                        .withCopyUIDGID(true)
+                        .withTarInputStream(in)
+                        .exec();
+            } finally {
+                // unblocks the writer if the archive is not read to the end
+                in.close();
+                writer.join();
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new TarantoolImportException(String.format("Failed to copy %s into the container", file), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TarantoolImportException(String.format("Interrupted while copying %s", file), e);
+        }
+        if (writeError.get() != null) {
+            throw new TarantoolImportException(String.format("Failed to read %s", file), writeError.get());
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s import of %s into space %s", format, file, spaceName);
+    }
+}
@@ -0,0 +1,80 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+
+/**
+ * Progress of a file import, see {@link TarantoolImport#withProgressListener(java.util.function.Consumer)}
+ */
+public class TarantoolImportProgress {
+
+    private final long rows;
+    private final long bytesRead;
+    private final long totalBytes;
+    private final Duration elapsed;
+
+    /**
+     * Basic constructor
+     *
+     * @param rows       number of the committed rows
+     * @param bytesRead  number of the bytes of the file read by the loader
+     * @param totalBytes file size
+     * @param elapsed    time since the loading has started
+     */
+    public TarantoolImportProgress(long rows, long bytesRead, long totalBytes, Duration elapsed) {
+        this.rows = rows;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Get the number of the committed rows
+     *
+     * @return number of the rows
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the number of the read bytes, the rows of the last read chunk may be not committed yet
+     *
+     * @return number of the bytes
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Get the file size
+     *
+     * @return number of the bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Get the time since the loading has started, the transfer of the file is not included
+     *
+     * @return elapsed time
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Get the read part of the file
+     *
+     * @return fraction from 0 to 1
+     */
+    public double getFraction() {
+        return totalBytes == 0 ? 1 : Math.min(1, (double) bytesRead / totalBytes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows, %d of %d bytes (%.1f%%) in %d ms", rows, bytesRead, totalBytes,
+                getFraction() * 100, elapsed.toMillis());
+    }
+}
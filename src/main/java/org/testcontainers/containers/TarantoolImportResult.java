@@ -0,0 +1,93 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+
+/**
+ * Summary of a file import, see {@link TarantoolContainer#importFile(TarantoolImport)}
+ */
+public class TarantoolImportResult {
+
+    private final String spaceName;
+    private final long rows;
+    private final long bytes;
+    private final Duration transferDuration;
+    private final Duration loadDuration;
+
+    /**
+     * Basic constructor
+     *
+     * @param spaceName        space name
+     * @param rows             number of the inserted rows
+     * @param bytes            file size
+     * @param transferDuration time spent on copying the file into the container
+     * @param loadDuration     time spent on parsing and inserting the rows inside the instance
+     */
+    public TarantoolImportResult(String spaceName, long rows, long bytes, Duration transferDuration,
+                                 Duration loadDuration) {
+        this.spaceName = spaceName;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.transferDuration = transferDuration;
+        this.loadDuration = loadDuration;
+    }
+
+    /**
+     * Get the space name
+     *
+     * @return space name
+     */
+    public String getSpaceName() {
+        return spaceName;
+    }
+
+    /**
+     * Get the number of the inserted rows
+     *
+     * @return number of the rows
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the file size
+     *
+     * @return number of the bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the time spent on copying the file into the container
+     *
+     * @return transfer duration
+     */
+    public Duration getTransferDuration() {
+        return transferDuration;
+    }
+
+    /**
+     * Get the time spent on parsing and inserting the rows inside the instance
+     *
+     * @return load duration
+     */
+    public Duration getLoadDuration() {
+        return loadDuration;
+    }
+
+    /**
+     * Get the loading throughput
+     *
+     * @return inserted rows per second, excluding the transfer
+     */
+    public double getRowsPerSecond() {
+        return rows * 1e9 / Math.max(loadDuration.toNanos(), 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows, %d bytes, transfer %d ms, load %d ms (%.1f rows/s)", spaceName, rows,
+                bytes, transferDuration.toMillis(), loadDuration.toMillis(), getRowsPerSecond());
+    }
+}
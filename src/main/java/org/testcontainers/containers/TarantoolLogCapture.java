@@ -0,0 +1,531 @@
+package org.testcontainers.containers;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.StreamType;
+import org.slf4j.Logger;
+
+/**
+ * Capture of the Tarantool server log into structured records, see
+ * {@link TarantoolContainer#withLogCapture(TarantoolLogCapture)} and
+ * {@link TarantoolCartridgeContainer#withLogCapture(TarantoolLogCapture)}.
+ * <p>
+ * The capture reads the raw frames of the container log stream instead of the Testcontainers log consumers, which
+ * decode every line into a string. The lines are split and their level is detected on the bytes, so the lines more
+ * verbose than {@link #withLevel(TarantoolLogLevel)} cost no allocation. The other lines are parsed from the JSON log
+ * format enabled on the server by the containers, or from the plain format for the lines written before it is
+ * enabled, and kept in a bounded ring buffer for dumping them after a test failure. The kept lines can also be
+ * appended to a file rotated by size.
+ */
+public class TarantoolLogCapture {
+
+    private static final int DEFAULT_CAPACITY = 10_000;
+    private static final byte[] JSON_LEVEL_KEY = "\"level\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INSTANCE_SEPARATOR = " | ".getBytes(StandardCharsets.US_ASCII);
+    // the Cartridge CLI prints the instance name before each line
+    private static final int MAX_INSTANCE_PREFIX = 128;
+
+    private volatile TarantoolLogLevel level = TarantoolLogLevel.INFO;
+    private int capacity = DEFAULT_CAPACITY;
+    private Path spillFile;
+    private long spillFileSize;
+    private int spillFiles;
+    private Consumer<TarantoolLogRecord> listener;
+
+    private TarantoolLogRecord[] records;
+    private int head;
+    private int size;
+    private long capturedRecords;
+    private long filteredLines;
+    private OutputStream spill;
+    private long spillBytes;
+    private final LineBuffer stdout = new LineBuffer();
+    private final LineBuffer stderr = new LineBuffer();
+
+    /**
+     * Specify the most verbose level of the kept records, the more verbose lines are skipped before parsing. Can be
+     * changed at any time. Defaults to {@link TarantoolLogLevel#INFO}.
+     *
+     * @param level log level
+     * @return this capture
+     */
+    public TarantoolLogCapture withLevel(TarantoolLogLevel level) {
+        this.level = level;
+        return this;
+    }
+
+    /**
+     * Specify the number of the records kept in memory, the oldest records are overwritten. Defaults to 10000.
+     *
+     * @param capacity number of the records
+     * @return this capture
+     */
+    public synchronized TarantoolLogCapture withCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.records = null;
+        this.head = 0;
+        this.size = 0;
+        return this;
+    }
+
+    /**
+     * Append the kept lines to a file. When the file exceeds the size, it is renamed with the ".1" suffix, the
+     * previous files are shifted to the next suffixes and the oldest one is deleted.
+     *
+     * @param file     log file on the host
+     * @param fileSize maximum size of a file in bytes
+     * @param files    number of the rotated files kept besides the current one
+     * @return this capture
+     */
+    public synchronized TarantoolLogCapture withSpill(Path file, long fileSize, int files) {
+        if (fileSize <= 0 || files < 0) {
+            throw new IllegalArgumentException("The file size must be positive and the number of files not negative");
+        }
+        closeSpill();
+        this.spillFile = file;
+        this.spillFileSize = fileSize;
+        this.spillFiles = files;
+        return this;
+    }
+
+    /**
+     * Notify a listener of each kept record, e.g. for forwarding the records to a logger. The listener is called
+     * from the log reading thread.
+     *
+     * @param listener record listener
+     * @return this capture
+     */
+    public synchronized TarantoolLogCapture withListener(Consumer<TarantoolLogRecord> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Get the kept records
+     *
+     * @return records from the oldest to the newest
+     */
+    public synchronized List<TarantoolLogRecord> getRecords() {
+        List<TarantoolLogRecord> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(records[(head + i) % records.length]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of the records captured since the start or {@link #clear()}, including the overwritten ones
+     *
+     * @return number of the records
+     */
+    public synchronized long getCapturedRecords() {
+        return capturedRecords;
+    }
+
+    /**
+     * Get the number of the lines skipped by the level
+     *
+     * @return number of the lines
+     */
+    public synchronized long getFilteredLines() {
+        return filteredLines;
+    }
+
+    /**
+     * Remove the kept records and reset the counters, e.g. between the tests
+     */
+    public synchronized void clear() {
+        if (records != null) {
+            Arrays.fill(records, null);
+        }
+        head = 0;
+        size = 0;
+        capturedRecords = 0;
+        filteredLines = 0;
+    }
+
+    /**
+     * Write the kept records to a logger, the FATAL, CRITICAL and ERROR records at the error level, WARNING at the
+     * warn level, INFO at the info level, VERBOSE at the debug level and DEBUG at the trace level
+     *
+     * @param logger target logger
+     */
+    public void dump(Logger logger) {
+        for (TarantoolLogRecord record : getRecords()) {
+            switch (record.getLevel()) {
+                case FATAL:
+                case CRITICAL:
+                case ERROR:
+                    logger.error("{}", record);
+                    break;
+                case WARNING:
+                    logger.warn("{}", record);
+                    break;
+                case INFO:
+                    logger.info("{}", record);
+                    break;
+                case VERBOSE:
+                    logger.debug("{}", record);
+                    break;
+                default:
+                    logger.trace("{}", record);
+            }
+        }
+    }
+
+    /**
+     * Flush the spill file
+     */
+    public synchronized void flush() {
+        if (spill != null) {
+            try {
+                spill.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to flush the log file " + spillFile, e);
+            }
+        }
+    }
+
+    /**
+     * Follow the log of a container
+     *
+     * @param client      Docker client
+     * @param containerId container id
+     * @return handle stopping the capture
+     */
+    Closeable attach(DockerClient client, String containerId) {
+        ResultCallback.Adapter<Frame> callback = new ResultCallback.Adapter<Frame>() {
+            @Override
+            public void onNext(Frame frame) {
+                append(frame.getStreamType() == StreamType.STDERR, frame.getPayload());
+            }
+
+            @Override
+            public void onComplete() {
+                finish();
+                super.onComplete();
+            }
+        };
+        client.logContainerCmd(containerId).withFollowStream(true).withSince(0).withStdOut(true).withStdErr(true)
+                .exec(callback);
+        return () -> {
+            callback.close();
+            finish();
+        };
+    }
+
+    /**
+     * Process a chunk of the log stream
+     *
+     * @param isStderr true if the chunk is from stderr
+     * @param data     chunk bytes
+     */
+    synchronized void append(boolean isStderr, byte[] data) {
+        if (data == null) {
+            return;
+        }
+        LineBuffer buffer = isStderr ? stderr : stdout;
+        int start = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == '\n') {
+                if (buffer.length == 0) {
+                    // the whole line is in the chunk, it is processed without copying
+                    processLine(data, start, i);
+                } else {
+                    buffer.append(data, start, i);
+                    processLine(buffer.data, 0, buffer.length);
+                    buffer.length = 0;
+                }
+                start = i + 1;
+            }
+        }
+        if (start < data.length) {
+            buffer.append(data, start, data.length);
+        }
+    }
+
+    /**
+     * Process the last incomplete lines and flush the spill file
+     */
+    synchronized void finish() {
+        for (LineBuffer buffer : new LineBuffer[]{stdout, stderr}) {
+            if (buffer.length > 0) {
+                processLine(buffer.data, 0, buffer.length);
+                buffer.length = 0;
+            }
+        }
+        closeSpill();
+    }
+
+    private void processLine(byte[] data, int start, int end) {
+        if (end > start && data[end - 1] == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+        int prefixEnd = findInstancePrefix(data, start, end);
+        int lineStart = prefixEnd < 0 ? start : prefixEnd + INSTANCE_SEPARATOR.length;
+        boolean json = lineStart < end && data[lineStart] == '{';
+        TarantoolLogLevel lineLevel = json ? jsonLevel(data, lineStart, end) : plainLevel(data, lineStart, end);
+        if (lineLevel.ordinal() > level.ordinal()) {
+            filteredLines++;
+            return;
+        }
+
+        String instance = prefixEnd < 0 ? "" : new String(data, start, prefixEnd - start, StandardCharsets.UTF_8);
+        String line = new String(data, lineStart, end - lineStart, StandardCharsets.UTF_8);
+        TarantoolLogRecord record = json ? parseJson(instance, line, lineLevel) : parsePlain(instance, line,
+                lineLevel);
+        if (records == null) {
+            records = new TarantoolLogRecord[capacity];
+        }
+        if (size < records.length) {
+            records[(head + size++) % records.length] = record;
+        } else {
+            records[head] = record;
+            head = (head + 1) % records.length;
+        }
+        capturedRecords++;
+        spill(data, start, end);
+        if (listener != null) {
+            listener.accept(record);
+        }
+    }
+
+    private static int findInstancePrefix(byte[] data, int start, int end) {
+        int limit = Math.min(end - INSTANCE_SEPARATOR.length, start + MAX_INSTANCE_PREFIX);
+        for (int i = start; i <= limit; i++) {
+            if (data[i] == ' ') {
+                return i > start && startsWith(data, i, end, INSTANCE_SEPARATOR) ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static TarantoolLogLevel jsonLevel(byte[] data, int start, int end) {
+        for (int i = start; i <= end - JSON_LEVEL_KEY.length; i++) {
+            if (startsWith(data, i, end, JSON_LEVEL_KEY)) {
+                int pos = i + JSON_LEVEL_KEY.length;
+                while (pos < end && (data[pos] == ' ' || data[pos] == ':' || data[pos] == '"')) {
+                    pos++;
+                }
+                TarantoolLogLevel lineLevel = pos < end ? levelOf(data[pos]) : null;
+                return lineLevel != null ? lineLevel : TarantoolLogLevel.INFO;
+            }
+        }
+        return TarantoolLogLevel.INFO;
+    }
+
+    private static TarantoolLogLevel plainLevel(byte[] data, int start, int end) {
+        // "2024-01-01 12:00:00.000 [42] main/103/interactive I> message"
+        for (int i = start + 2; i < end; i++) {
+            if (data[i] == '>' && data[i - 2] == ' ' && (i + 1 == end || data[i + 1] == ' ')) {
+                TarantoolLogLevel lineLevel = levelOf(data[i - 1]);
+                if (lineLevel != null) {
+                    return lineLevel;
+                }
+            }
+        }
+        // the lines without a level, e.g. the Cartridge CLI messages
+        return TarantoolLogLevel.INFO;
+    }
+
+    private static TarantoolLogLevel levelOf(byte letter) {
+        switch (letter) {
+            case 'F':
+                return TarantoolLogLevel.FATAL;
+            case 'C':
+                return TarantoolLogLevel.CRITICAL;
+            case 'S':
+            case '!':
+            case 'E':
+                return TarantoolLogLevel.ERROR;
+            case 'W':
+                return TarantoolLogLevel.WARNING;
+            case 'I':
+                return TarantoolLogLevel.INFO;
+            case 'V':
+                return TarantoolLogLevel.VERBOSE;
+            case 'D':
+                return TarantoolLogLevel.DEBUG;
+            default:
+                return null;
+        }
+    }
+
+    private static TarantoolLogRecord parseJson(String instance, String line, TarantoolLogLevel level) {
+        Object parsed;
+        try {
+            parsed = JsonUtils.parse(line);
+        } catch (RuntimeException e) {
+            return new TarantoolLogRecord(instance, null, level, -1, null, null, line);
+        }
+        if (!(parsed instanceof Map)) {
+            return new TarantoolLogRecord(instance, null, level, -1, null, null, line);
+        }
+        Map<?, ?> map = (Map<?, ?>) parsed;
+        Object fiberId = map.get("fiber_id");
+        return new TarantoolLogRecord(instance, stringOf(map.get("time")), level,
+                fiberId instanceof Number ? ((Number) fiberId).longValue() : -1, stringOf(map.get("fiber_name")),
+                stringOf(map.get("module")), stringOf(map.get("message")));
+    }
+
+    private static TarantoolLogRecord parsePlain(String instance, String line, TarantoolLogLevel level) {
+        String[] tokens = line.split(" ", -1);
+        // time, [pid], cord/fiber id/fiber name, optional module or file:line, level>
+        int levelToken = -1;
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (token.length() == 2 && token.charAt(1) == '>' && levelOf((byte) token.charAt(0)) != null) {
+                levelToken = i;
+                break;
+            }
+        }
+        if (levelToken < 0) {
+            return new TarantoolLogRecord(instance, null, level, -1, null, null, line);
+        }
+        String time = null;
+        long fiberId = -1;
+        String fiberName = null;
+        String module = null;
+        int i = 0;
+        if (levelToken >= 2 && tokens[0].indexOf('-') > 0 && tokens[1].indexOf(':') > 0) {
+            time = tokens[0] + " " + tokens[1];
+            i = 2;
+        }
+        if (i < levelToken && tokens[i].startsWith("[")) {
+            i++;
+        }
+        if (i < levelToken) {
+            String[] fiber = tokens[i].split("/", 3);
+            if (fiber.length == 3) {
+                try {
+                    fiberId = Long.parseLong(fiber[1]);
+                    fiberName = fiber[2];
+                    i++;
+                } catch (NumberFormatException ignored) {
+                    // not a fiber token
+                }
+            }
+        }
+        for (; i < levelToken; i++) {
+            String token = tokens[i];
+            boolean fileLine = token.indexOf(':') > 0 && Character.isDigit(token.charAt(token.length() - 1));
+            if (!fileLine && !token.isEmpty()) {
+                module = token;
+            }
+        }
+        int messageStart = 0;
+        for (int t = 0; t <= levelToken; t++) {
+            messageStart += tokens[t].length() + 1;
+        }
+        String message = messageStart < line.length() ? line.substring(messageStart) : "";
+        return new TarantoolLogRecord(instance, time, level, fiberId, fiberName, module, message);
+    }
+
+    private void spill(byte[] data, int start, int end) {
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            int length = end - start + 1;
+            if (spill != null && spillBytes > 0 && spillBytes + length > spillFileSize) {
+                closeSpill();
+                rotate();
+            }
+            if (spill == null) {
+                spill = new BufferedOutputStream(Files.newOutputStream(spillFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND));
+                spillBytes = Files.size(spillFile);
+            }
+            spill.write(data, start, end - start);
+            spill.write('\n');
+            spillBytes += length;
+        } catch (IOException e) {
+            // the records are still kept in memory
+            closeSpill();
+            spillFile = null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (spillFiles == 0) {
+            Files.deleteIfExists(spillFile);
+            return;
+        }
+        Files.deleteIfExists(rotatedFile(spillFiles));
+        for (int i = spillFiles - 1; i >= 1; i--) {
+            if (Files.exists(rotatedFile(i))) {
+                Files.move(rotatedFile(i), rotatedFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(spillFile, rotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rotatedFile(int index) {
+        return spillFile.resolveSibling(spillFile.getFileName() + "." + index);
+    }
+
+    private void closeSpill() {
+        if (spill != null) {
+            try {
+                spill.close();
+            } catch (IOException ignored) {
+                // nothing to do with a failed close
+            }
+            spill = null;
+            spillBytes = 0;
+        }
+    }
+
+    private static boolean startsWith(byte[] data, int pos, int end, byte[] prefix) {
+        if (end - pos < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[pos + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stringOf(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static final class LineBuffer {
+        byte[] data = new byte[256];
+        int length;
+
+        void append(byte[] bytes, int start, int end) {
+            int required = length + end - start;
+            if (required > data.length) {
+                data = Arrays.copyOf(data, Math.max(required, data.length * 2));
+            }
+            System.arraycopy(bytes, start, data, length, end - start);
+            length = required;
+        }
+    }
+}
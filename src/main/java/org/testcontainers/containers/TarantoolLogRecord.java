@@ -0,0 +1,118 @@
+package org.testcontainers.containers;
+
+/**
+ * Line of a Tarantool log parsed by {@link TarantoolLogCapture}
+ */
+public class TarantoolLogRecord {
+
+    private final String instance;
+    private final String time;
+    private final TarantoolLogLevel level;
+    private final long fiberId;
+    private final String fiberName;
+    private final String module;
+    private final String message;
+
+    /**
+     * Basic constructor
+     *
+     * @param instance  instance name printed by the Cartridge CLI before the line, empty for a single instance
+     * @param time      time as printed by the server
+     * @param level     log level
+     * @param fiberId   fiber id, -1 if unknown
+     * @param fiberName fiber name, null if unknown
+     * @param module    module name, null if the line is not written by a module logger
+     * @param message   log message
+     */
+    public TarantoolLogRecord(String instance, String time, TarantoolLogLevel level, long fiberId, String fiberName,
+                              String module, String message) {
+        this.instance = instance;
+        this.time = time;
+        this.level = level;
+        this.fiberId = fiberId;
+        this.fiberName = fiberName;
+        this.module = module;
+        this.message = message;
+    }
+
+    /**
+     * Get the instance name
+     *
+     * @return instance name, empty for a single instance
+     */
+    public String getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the time of the record
+     *
+     * @return time as printed by the server, null if the line has no time
+     */
+    public String getTime() {
+        return time;
+    }
+
+    /**
+     * Get the log level
+     *
+     * @return log level
+     */
+    public TarantoolLogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Get the id of the fiber which wrote the record
+     *
+     * @return fiber id, -1 if unknown
+     */
+    public long getFiberId() {
+        return fiberId;
+    }
+
+    /**
+     * Get the name of the fiber which wrote the record
+     *
+     * @return fiber name, null if unknown
+     */
+    public String getFiberName() {
+        return fiberName;
+    }
+
+    /**
+     * Get the name of the module logger
+     *
+     * @return module name, null if the record is not written by a module logger
+     */
+    public String getModule() {
+        return module;
+    }
+
+    /**
+     * Get the log message
+     *
+     * @return message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (!instance.isEmpty()) {
+            sb.append(instance).append(" | ");
+        }
+        if (time != null) {
+            sb.append(time).append(' ');
+        }
+        if (fiberName != null) {
+            sb.append(fiberId).append('/').append(fiberName).append(' ');
+        }
+        if (module != null) {
+            sb.append(module).append(' ');
+        }
+        return sb.append(level).append("> ").append(message).toString();
+    }
+}
@@ -0,0 +1,167 @@
+package org.testcontainers.containers;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sample of a metric exported by the Tarantool metrics module: a name, a set of labels and a value
+ */
+public class TarantoolMetric {
+
+    /**
+     * Metric type, from the "# TYPE" comment of the Prometheus format or from the name suffix of the JSON format
+     */
+    public enum Type {
+        COUNTER,
+        GAUGE,
+        HISTOGRAM,
+        SUMMARY,
+        UNTYPED
+    }
+
+    private final String name;
+    private final Type type;
+    // label names and values alternately, in the exported order
+    private final String[] labels;
+    private final double value;
+
+    /**
+     * Basic constructor
+     *
+     * @param name   sample name, e.g. "http_server_request_latency_bucket" for a histogram bucket
+     * @param type   type of the metric family
+     * @param labels label names and values alternately
+     * @param value  sample value
+     */
+    public TarantoolMetric(String name, Type type, String[] labels, double value) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("The labels must be name and value pairs");
+        }
+        this.name = name;
+        this.type = type;
+        this.labels = labels;
+        this.value = value;
+    }
+
+    /**
+     * Get the sample name
+     *
+     * @return sample name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the type of the metric family
+     *
+     * @return metric type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the labels
+     *
+     * @return label values by label name
+     */
+    public Map<String, String> getLabels() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i += 2) {
+            result.put(labels[i], labels[i + 1]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the value of a label
+     *
+     * @param labelName label name
+     * @return label value, null if the sample has no such label
+     */
+    public String getLabel(String labelName) {
+        for (int i = 0; i < labels.length; i += 2) {
+            if (labels[i].equals(labelName)) {
+                return labels[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the sample value
+     *
+     * @return sample value
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Check whether the value only grows until the instance restarts: counters and the buckets, sums and counts of
+     * histograms and summaries
+     *
+     * @return true if the deltas of the value are meaningful
+     */
+    public boolean isCumulative() {
+        switch (type) {
+            case COUNTER:
+            case HISTOGRAM:
+                return true;
+            case SUMMARY:
+                return getLabel("quantile") == null;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Check whether the sample has the given name and labels, other labels of the sample are ignored
+     *
+     * @param name       sample name
+     * @param labelPairs label names and values alternately
+     * @return true if the sample matches
+     */
+    public boolean matches(String name, String... labelPairs) {
+        if (!this.name.equals(name)) {
+            return false;
+        }
+        for (int i = 0; i + 1 < labelPairs.length; i += 2) {
+            if (!labelPairs[i + 1].equals(getLabel(labelPairs[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    TarantoolMetric withValue(double value) {
+        return new TarantoolMetric(name, type, labels, value);
+    }
+
+    // identity of the series, the values are not compared
+    boolean isSameSeries(TarantoolMetric other) {
+        return name.equals(other.name) && Arrays.equals(labels, other.labels);
+    }
+
+    int seriesHashCode() {
+        return 31 * name.hashCode() + Arrays.hashCode(labels);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(name);
+        if (labels.length > 0) {
+            sb.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(labels[i]).append("=\"").append(labels[i + 1]).append('"');
+            }
+            sb.append('}');
+        }
+        return sb.append(' ').append(value).toString();
+    }
+}
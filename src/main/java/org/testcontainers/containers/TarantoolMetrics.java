@@ -0,0 +1,223 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Metrics of an instance scraped at a point in time, or the difference between two such points returned by
+ * {@link #delta(TarantoolMetrics)}
+ *
+ * @see CartridgeMetricsScraper
+ */
+public class TarantoolMetrics {
+
+    private final String instance;
+    private final Instant timestamp;
+    private final long nanoTime;
+    private final Duration elapsed;
+    private final List<TarantoolMetric> samples;
+
+    /**
+     * Basic constructor
+     *
+     * @param instance  instance name
+     * @param timestamp scrape time
+     * @param nanoTime  scrape time by {@link System#nanoTime()}, for measuring the intervals
+     * @param elapsed   interval covered by a delta, zero for a single scrape
+     * @param samples   metric samples
+     */
+    public TarantoolMetrics(String instance, Instant timestamp, long nanoTime, Duration elapsed,
+                            List<TarantoolMetric> samples) {
+        this.instance = instance;
+        this.timestamp = timestamp;
+        this.nanoTime = nanoTime;
+        this.elapsed = elapsed;
+        this.samples = Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * Get the instance name
+     *
+     * @return instance name
+     */
+    public String getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the scrape time, the time of the later scrape for a delta
+     *
+     * @return scrape time
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Get the interval covered by a delta
+     *
+     * @return interval between the scrapes, zero for a single scrape
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Get all samples
+     *
+     * @return samples in the exported order
+     */
+    public List<TarantoolMetric> getSamples() {
+        return samples;
+    }
+
+    /**
+     * Find the samples with the given name and labels, other labels of the samples are ignored
+     *
+     * @param name       sample name
+     * @param labelPairs label names and values alternately
+     * @return matching samples
+     */
+    public List<TarantoolMetric> find(String name, String... labelPairs) {
+        List<TarantoolMetric> result = new ArrayList<>();
+        for (TarantoolMetric sample : samples) {
+            if (sample.matches(name, labelPairs)) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the value of a sample
+     *
+     * @param name       sample name
+     * @param labelPairs label names and values alternately
+     * @return value of the first matching sample, null if there is none
+     */
+    public Double getValue(String name, String... labelPairs) {
+        for (TarantoolMetric sample : samples) {
+            if (sample.matches(name, labelPairs)) {
+                return sample.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sum the values of the samples, e.g. the request counts of all paths
+     *
+     * @param name       sample name
+     * @param labelPairs label names and values alternately
+     * @return sum of the matching samples, 0 if there are none
+     */
+    public double sum(String name, String... labelPairs) {
+        double sum = 0;
+        for (TarantoolMetric sample : samples) {
+            if (sample.matches(name, labelPairs)) {
+                sum += sample.getValue();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Get the per-second rate of the matching samples of a delta
+     *
+     * @param name       sample name
+     * @param labelPairs label names and values alternately
+     * @return sum of the matching samples divided by the elapsed seconds
+     * @throws IllegalStateException if the metrics are not a delta
+     */
+    public double getRate(String name, String... labelPairs) {
+        if (elapsed.isZero()) {
+            throw new IllegalStateException("The rate is available for the deltas only");
+        }
+        return sum(name, labelPairs) * 1e9 / elapsed.toNanos();
+    }
+
+    /**
+     * Assemble a histogram from the "_bucket", "_sum" and "_count" samples. The samples of all matching label sets
+     * are merged, e.g. the latencies of all paths.
+     *
+     * @param name       metric name without the suffixes
+     * @param labelPairs label names and values alternately
+     * @return histogram, null if there are no matching buckets
+     */
+    public TarantoolHistogram getHistogram(String name, String... labelPairs) {
+        TreeMap<Double, Double> buckets = new TreeMap<>();
+        for (TarantoolMetric sample : find(name + "_bucket", labelPairs)) {
+            String le = sample.getLabel("le");
+            if (le != null) {
+                buckets.merge(TarantoolMetricsParser.parseDouble(le), sample.getValue(), Double::sum);
+            }
+        }
+        if (buckets.isEmpty()) {
+            return null;
+        }
+        double[] upperBounds = new double[buckets.size()];
+        double[] counts = new double[buckets.size()];
+        int i = 0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            upperBounds[i] = bucket.getKey();
+            counts[i++] = bucket.getValue();
+        }
+        return new TarantoolHistogram(name, upperBounds, counts, sum(name + "_sum", labelPairs),
+                sum(name + "_count", labelPairs));
+    }
+
+    /**
+     * Compute the change since an earlier scrape. The cumulative samples (see {@link TarantoolMetric#isCumulative()})
+     * are subtracted, a decreased value is taken as is since it means that the instance was restarted. The other
+     * samples keep the later value.
+     *
+     * @param earlier metrics of the same instance scraped earlier
+     * @return delta covering the interval between the scrapes
+     */
+    public TarantoolMetrics delta(TarantoolMetrics earlier) {
+        Map<SeriesKey, TarantoolMetric> previous = new HashMap<>(earlier.samples.size() * 2);
+        for (TarantoolMetric sample : earlier.samples) {
+            previous.put(new SeriesKey(sample), sample);
+        }
+        List<TarantoolMetric> result = new ArrayList<>(samples.size());
+        for (TarantoolMetric sample : samples) {
+            TarantoolMetric before = sample.isCumulative() ? previous.get(new SeriesKey(sample)) : null;
+            if (before != null && sample.getValue() >= before.getValue()) {
+                result.add(sample.withValue(sample.getValue() - before.getValue()));
+            } else {
+                result.add(sample);
+            }
+        }
+        return new TarantoolMetrics(instance, timestamp, nanoTime, Duration.ofNanos(nanoTime - earlier.nanoTime),
+                result);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d samples at %s", instance, samples.size(), timestamp);
+    }
+
+    private static final class SeriesKey {
+        private final TarantoolMetric sample;
+
+        SeriesKey(TarantoolMetric sample) {
+            this.sample = sample;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SeriesKey && sample.isSameSeries(((SeriesKey) o).sample);
+        }
+
+        @Override
+        public int hashCode() {
+            return sample.seriesHashCode();
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package org.testcontainers.containers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.testcontainers.containers.exceptions.CartridgeMetricsException;
+
+/**
+ * Parser of the Prometheus text format and the JSON format exported by the Tarantool metrics module.
+ * <p>
+ * The Prometheus payload is parsed in place from the response bytes without splitting it into lines. The metric
+ * names, the label names and the label values repeat in every scrape, so they are interned in a table keyed by their
+ * bytes and the same strings are reused instead of decoding them again. The values are parsed without creating
+ * strings unless they have an exponent. The parser is not thread-safe, one parser is used per scraper.
+ */
+final class TarantoolMetricsParser {
+
+    private static final String[] NO_LABELS = new String[0];
+    // the table stops growing at this size, e.g. for the labels with a request id
+    private static final int MAX_INTERNED = 1 << 16;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private byte[][] internedBytes = new byte[1024][];
+    private String[] internedStrings = new String[1024];
+    private int internedCount;
+
+    private final List<String> labels = new ArrayList<>();
+    private byte[] data;
+    private int pos;
+    private int end;
+
+    /**
+     * Parse the Prometheus text exposition format
+     *
+     * @param data   response bytes
+     * @param length number of the response bytes
+     * @return samples in the exported order
+     */
+    List<TarantoolMetric> parsePrometheus(byte[] data, int length) {
+        this.data = data;
+        this.pos = 0;
+        this.end = length;
+        List<TarantoolMetric> samples = new ArrayList<>();
+        String family = null;
+        TarantoolMetric.Type familyType = TarantoolMetric.Type.UNTYPED;
+        try {
+            while (pos < end) {
+                skipSpaces();
+                if (pos >= end) {
+                    break;
+                }
+                byte b = data[pos];
+                if (b == '\n') {
+                    pos++;
+                } else if (b == '#') {
+                    pos++;
+                    skipSpaces();
+                    if (startsWith("TYPE ")) {
+                        pos += 5;
+                        skipSpaces();
+                        family = readName();
+                        skipSpaces();
+                        familyType = readType();
+                    }
+                    skipLine();
+                } else {
+                    String name = readName();
+                    String[] sampleLabels = NO_LABELS;
+                    if (pos < end && data[pos] == '{') {
+                        sampleLabels = readLabels();
+                    }
+                    skipSpaces();
+                    double value = readValue();
+                    // the optional timestamp is ignored
+                    skipLine();
+                    TarantoolMetric.Type type = family != null && belongsTo(name, family) ? familyType :
+                            TarantoolMetric.Type.UNTYPED;
+                    samples.add(new TarantoolMetric(name, type, sampleLabels, value));
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new CartridgeMetricsException("Failed to parse the metrics at offset " + pos, e);
+        } finally {
+            this.data = null;
+        }
+        return samples;
+    }
+
+    /**
+     * Parse the JSON format, an array of objects with the "metric_name", "value" and "label_pairs" fields. The JSON
+     * format has no types, they are derived from the names: the "_bucket" samples with the "le" label and the
+     * matching "_sum" and "_count" samples are histograms, the samples with the "quantile" label and the matching
+     * "_sum" and "_count" samples are summaries, the "_total" samples are counters and the others are gauges.
+     *
+     * @param json response text
+     * @return samples in the exported order
+     */
+    List<TarantoolMetric> parseJson(String json) {
+        Object parsed;
+        try {
+            parsed = JsonUtils.parse(json);
+        } catch (RuntimeException e) {
+            throw new CartridgeMetricsException("Failed to parse the metrics", e);
+        }
+        if (!(parsed instanceof List)) {
+            throw new CartridgeMetricsException("The metrics must be a JSON array");
+        }
+        List<?> objects = (List<?>) parsed;
+        Set<String> histograms = new HashSet<>();
+        Set<String> summaries = new HashSet<>();
+        for (Object object : objects) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            String name = String.valueOf(map.get("metric_name"));
+            Object labelPairs = map.get("label_pairs");
+            if (labelPairs instanceof Map && ((Map<?, ?>) labelPairs).containsKey("le") && name.endsWith("_bucket")) {
+                histograms.add(stripSuffix(name));
+            } else if (labelPairs instanceof Map && ((Map<?, ?>) labelPairs).containsKey("quantile")) {
+                summaries.add(name);
+            }
+        }
+
+        List<TarantoolMetric> samples = new ArrayList<>(objects.size());
+        for (Object object : objects) {
+            Map<?, ?> map = (Map<?, ?>) object;
+            String name = intern(String.valueOf(map.get("metric_name")));
+            String[] sampleLabels = NO_LABELS;
+            if (map.get("label_pairs") instanceof Map && !((Map<?, ?>) map.get("label_pairs")).isEmpty()) {
+                Map<?, ?> labelPairs = (Map<?, ?>) map.get("label_pairs");
+                sampleLabels = new String[labelPairs.size() * 2];
+                int i = 0;
+                for (Map.Entry<?, ?> label : labelPairs.entrySet()) {
+                    sampleLabels[i++] = intern(String.valueOf(label.getKey()));
+                    sampleLabels[i++] = intern(String.valueOf(label.getValue()));
+                }
+            }
+            Object value = map.get("value");
+            samples.add(new TarantoolMetric(name, jsonType(name, histograms, summaries), sampleLabels,
+                    value instanceof Number ? ((Number) value).doubleValue() : parseDouble(String.valueOf(value))));
+        }
+        return samples;
+    }
+
+    /**
+     * Parse a sample value or a bucket bound
+     *
+     * @param value text value, including "+Inf", "-Inf" and "NaN"
+     * @return parsed value
+     */
+    static double parseDouble(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "+inf":
+            case "inf":
+                return Double.POSITIVE_INFINITY;
+            case "-inf":
+                return Double.NEGATIVE_INFINITY;
+            case "nan":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+
+    private static TarantoolMetric.Type jsonType(String name, Set<String> histograms, Set<String> summaries) {
+        String family = stripSuffix(name);
+        if (histograms.contains(family)) {
+            return TarantoolMetric.Type.HISTOGRAM;
+        }
+        if (summaries.contains(name) || summaries.contains(family)) {
+            return TarantoolMetric.Type.SUMMARY;
+        }
+        return name.endsWith("_total") ? TarantoolMetric.Type.COUNTER : TarantoolMetric.Type.GAUGE;
+    }
+
+    private static String stripSuffix(String name) {
+        if (name.endsWith("_bucket")) {
+            return name.substring(0, name.length() - "_bucket".length());
+        }
+        if (name.endsWith("_sum")) {
+            return name.substring(0, name.length() - "_sum".length());
+        }
+        if (name.endsWith("_count")) {
+            return name.substring(0, name.length() - "_count".length());
+        }
+        return name;
+    }
+
+    private static boolean belongsTo(String name, String family) {
+        if (!name.startsWith(family)) {
+            return false;
+        }
+        if (name.length() == family.length()) {
+            return true;
+        }
+        String suffix = name.substring(family.length());
+        return suffix.equals("_bucket") || suffix.equals("_sum") || suffix.equals("_count") ||
+                suffix.equals("_total") || suffix.equals("_created");
+    }
+
+    private TarantoolMetric.Type readType() {
+        int start = pos;
+        while (pos < end && data[pos] > ' ') {
+            pos++;
+        }
+        switch (new String(data, start, pos - start, StandardCharsets.US_ASCII)) {
+            case "counter":
+                return TarantoolMetric.Type.COUNTER;
+            case "gauge":
+                return TarantoolMetric.Type.GAUGE;
+            case "histogram":
+                return TarantoolMetric.Type.HISTOGRAM;
+            case "summary":
+                return TarantoolMetric.Type.SUMMARY;
+            default:
+                return TarantoolMetric.Type.UNTYPED;
+        }
+    }
+
+    private String readName() {
+        int start = pos;
+        while (pos < end && isNameByte(data[pos])) {
+            pos++;
+        }
+        if (pos == start) {
+            throw new IllegalArgumentException("Metric name expected");
+        }
+        return intern(data, start, pos);
+    }
+
+    private String[] readLabels() {
+        labels.clear();
+        pos++;
+        while (true) {
+            skipSpaces();
+            if (data[pos] == '}') {
+                pos++;
+                break;
+            }
+            labels.add(readName());
+            skipSpaces();
+            expect('=');
+            skipSpaces();
+            expect('"');
+            labels.add(readLabelValue());
+            skipSpaces();
+            if (data[pos] == ',') {
+                pos++;
+            }
+        }
+        return labels.toArray(new String[0]);
+    }
+
+    private String readLabelValue() {
+        int start = pos;
+        boolean escaped = false;
+        while (data[pos] != '"') {
+            if (data[pos] == '\\') {
+                escaped = true;
+                pos++;
+            }
+            pos++;
+        }
+        int valueEnd = pos++;
+        if (!escaped) {
+            return intern(data, start, valueEnd);
+        }
+        StringBuilder sb = new StringBuilder();
+        String raw = new String(data, start, valueEnd - start, StandardCharsets.UTF_8);
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' && i + 1 < raw.length()) {
+                c = raw.charAt(++i);
+                sb.append(c == 'n' ? '\n' : c);
+            } else {
+                sb.append(c);
+            }
+        }
+        return intern(sb.toString());
+    }
+
+    private double readValue() {
+        int start = pos;
+        while (pos < end && data[pos] > ' ') {
+            pos++;
+        }
+        if (pos == start) {
+            throw new IllegalArgumentException("Metric value expected");
+        }
+        // fast path for the plain decimals: the mantissa and the power of ten are exact, so the division is
+        // correctly rounded
+        int i = start;
+        boolean negative = data[i] == '-';
+        if (negative || data[i] == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < pos; i++) {
+            byte b = data[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (++digits > 15) {
+                    break;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == pos && digits > 0 && fractionDigits <= 22) {
+            double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+        return parseDouble(new String(data, start, pos - start, StandardCharsets.US_ASCII));
+    }
+
+    private String intern(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return intern(bytes, 0, bytes.length);
+    }
+
+    private String intern(byte[] bytes, int start, int stop) {
+        int hash = 0;
+        for (int i = start; i < stop; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int mask = internedStrings.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (internedBytes[slot] != null) {
+            if (equalBytes(internedBytes[slot], bytes, start, stop)) {
+                return internedStrings[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        String value = new String(bytes, start, stop - start, StandardCharsets.UTF_8);
+        if (internedCount < MAX_INTERNED) {
+            internedBytes[slot] = Arrays.copyOfRange(bytes, start, stop);
+            internedStrings[slot] = value;
+            if (++internedCount * 2 > internedStrings.length) {
+                grow();
+            }
+        }
+        return value;
+    }
+
+    private void grow() {
+        byte[][] oldBytes = internedBytes;
+        String[] oldStrings = internedStrings;
+        internedBytes = new byte[oldBytes.length * 2][];
+        internedStrings = new String[oldStrings.length * 2];
+        int mask = internedStrings.length - 1;
+        for (int i = 0; i < oldBytes.length; i++) {
+            byte[] key = oldBytes[i];
+            if (key != null) {
+                int hash = 0;
+                for (byte b : key) {
+                    hash = 31 * hash + b;
+                }
+                int slot = (hash ^ (hash >>> 16)) & mask;
+                while (internedBytes[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                internedBytes[slot] = key;
+                internedStrings[slot] = oldStrings[i];
+            }
+        }
+    }
+
+    private static boolean equalBytes(byte[] key, byte[] bytes, int start, int stop) {
+        if (key.length != stop - start) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameByte(byte b) {
+        return b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' || b == '_' || b == ':';
+    }
+
+    private boolean startsWith(String prefix) {
+        if (end - pos < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (data[pos + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(char c) {
+        if (data[pos] != c) {
+            throw new IllegalArgumentException(String.format("'%s' expected", c));
+        }
+        pos++;
+    }
+
+    private void skipSpaces() {
+        while (pos < end && (data[pos] == ' ' || data[pos] == '\t' || data[pos] == '\r')) {
+            pos++;
+        }
+    }
+
+    private void skipLine() {
+        while (pos < end && data[pos] != '\n') {
+            pos++;
+        }
+    }
+}
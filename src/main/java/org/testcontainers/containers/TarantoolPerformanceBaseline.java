@@ -0,0 +1,237 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Performance baseline stored as a JSON file in the repository, which the benchmark results (see
+ * {@link TarantoolBenchmark}) are compared with.
+ * <p>
+ * The file maps the benchmark names to their median throughput (operations per second) and latency percentiles
+ * (microseconds), it is written with sorted keys to keep the diffs readable. A benchmark fails when its
+ * throughput drops or its p50, p90 or p99 latency grows by more than the tolerance; a latency growth must also
+ * exceed the absolute noise threshold, so that a few microseconds of jitter on a fast operation are not reported.
+ * The maximum latency is reported only. Set the {@value #UPDATE_PROPERTY} system property to true, e.g.
+ * {@code mvn test -Dtarantool.baseline.update=true}, to write the current results into the baseline instead.
+ */
+public class TarantoolPerformanceBaseline {
+
+    public static final String UPDATE_PROPERTY = "tarantool.baseline.update";
+    public static final double DEFAULT_TOLERANCE = 0.2;
+    public static final Duration DEFAULT_LATENCY_NOISE = Duration.ofNanos(20_000);
+
+    private static final String THROUGHPUT = "throughput";
+    private static final String[] PERCENTILES = {"p50", "p90", "p99"};
+    private static final String MAX = "max";
+
+    private final Path file;
+    private final Map<String, Map<String, Object>> benchmarks = new TreeMap<>();
+    private double throughputTolerance = DEFAULT_TOLERANCE;
+    private double latencyTolerance = DEFAULT_TOLERANCE;
+    private Duration latencyNoise = DEFAULT_LATENCY_NOISE;
+    private boolean update = Boolean.getBoolean(UPDATE_PROPERTY);
+
+    private TarantoolPerformanceBaseline(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Load a baseline file. A missing file is treated as an empty baseline.
+     *
+     * @param file JSON file, e.g. src/test/resources/performance-baseline.json
+     * @return baseline
+     */
+    @SuppressWarnings("unchecked")
+    public static TarantoolPerformanceBaseline load(Path file) {
+        TarantoolPerformanceBaseline baseline = new TarantoolPerformanceBaseline(file);
+        if (Files.exists(file)) {
+            Object document;
+            try {
+                document = JsonUtils.parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Failed to read the baseline %s", file), e);
+            }
+            if (!(document instanceof Map)) {
+                throw new IllegalArgumentException(String.format("Baseline %s must be a JSON object", file));
+            }
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) document).entrySet()) {
+                baseline.benchmarks.put(entry.getKey(), (Map<String, Object>) entry.getValue());
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * Specify the allowed relative throughput drop. Defaults to 0.2.
+     *
+     * @param throughputTolerance fraction of the baseline value
+     * @return this baseline
+     */
+    public TarantoolPerformanceBaseline withThroughputTolerance(double throughputTolerance) {
+        this.throughputTolerance = throughputTolerance;
+        return this;
+    }
+
+    /**
+     * Specify the allowed relative latency growth. Defaults to 0.2.
+     *
+     * @param latencyTolerance fraction of the baseline value
+     * @return this baseline
+     */
+    public TarantoolPerformanceBaseline withLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+        return this;
+    }
+
+    /**
+     * Specify the latency growth which is always treated as the noise. Defaults to 20 microseconds.
+     *
+     * @param latencyNoise absolute latency growth threshold
+     * @return this baseline
+     */
+    public TarantoolPerformanceBaseline withLatencyNoise(Duration latencyNoise) {
+        this.latencyNoise = latencyNoise;
+        return this;
+    }
+
+    /**
+     * Specify whether {@link #assertNoRegression(TarantoolBenchmarkResult)} writes the results into the baseline
+     * instead of comparing them. Defaults to the value of the {@value #UPDATE_PROPERTY} system property.
+     *
+     * @param update true if the baseline must be updated
+     * @return this baseline
+     */
+    public TarantoolPerformanceBaseline withUpdate(boolean update) {
+        this.update = update;
+        return this;
+    }
+
+    /**
+     * Get the baseline file
+     *
+     * @return file path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Compare the benchmark medians with the baseline
+     *
+     * @param result benchmark result
+     * @return comparison report
+     */
+    public TarantoolBaselineReport compare(TarantoolBenchmarkResult result) {
+        return compare(result, false);
+    }
+
+    /**
+     * Compare the benchmark medians with the baseline and fail on a regression or a missing baseline. In the update
+     * mode the results are written into the baseline file and nothing fails.
+     *
+     * @param result benchmark result
+     * @return comparison report
+     * @throws AssertionError with the report if a regression is found or the baseline has no values for the
+     *                        benchmark
+     */
+    public TarantoolBaselineReport assertNoRegression(TarantoolBenchmarkResult result) {
+        if (update) {
+            TarantoolBaselineReport report = compare(result, true);
+            update(result);
+            return report;
+        }
+        TarantoolBaselineReport report = compare(result);
+        if (report.isBaselineMissing()) {
+            throw new AssertionError(String.format("%sThe baseline %s has no values for %s, run the test with " +
+                    "-D%s=true to record them", report, file, result.getName(), UPDATE_PROPERTY));
+        }
+        if (report.hasRegressions()) {
+            throw new AssertionError(String.format("Performance regression found%n%s", report));
+        }
+        return report;
+    }
+
+    /**
+     * Write the benchmark medians into the baseline file, keeping the other benchmarks
+     *
+     * @param result benchmark result
+     */
+    public synchronized void update(TarantoolBenchmarkResult result) {
+        TarantoolBenchmarkMetrics median = result.getMedian();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(THROUGHPUT, round(median.getThroughput()));
+        values.put("p50", round(toMicros(median.getP50())));
+        values.put("p90", round(toMicros(median.getP90())));
+        values.put("p99", round(toMicros(median.getP99())));
+        values.put(MAX, round(toMicros(median.getMax())));
+        benchmarks.put(result.getName(), values);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, JsonUtils.writePretty(benchmarks).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to write the baseline %s", file), e);
+        }
+    }
+
+    private TarantoolBaselineReport compare(TarantoolBenchmarkResult result, boolean updated) {
+        Map<String, Object> values = benchmarks.get(result.getName());
+        TarantoolBenchmarkMetrics median = result.getMedian();
+        List<TarantoolBaselineReport.Metric> metrics = new ArrayList<>();
+
+        Double baseline = value(values, THROUGHPUT);
+        double throughput = median.getThroughput();
+        TarantoolBaselineReport.Status status = baseline == null ? TarantoolBaselineReport.Status.NEW :
+                throughput < baseline * (1 - throughputTolerance) ? TarantoolBaselineReport.Status.REGRESSION :
+                throughput > baseline * (1 + throughputTolerance) ? TarantoolBaselineReport.Status.IMPROVED :
+                TarantoolBaselineReport.Status.OK;
+        metrics.add(new TarantoolBaselineReport.Metric(THROUGHPUT, baseline, throughput, "ops/s", status));
+
+        Duration[] latencies = {median.getP50(), median.getP90(), median.getP99()};
+        double noise = toMicros(latencyNoise);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            baseline = value(values, PERCENTILES[i]);
+            double latency = toMicros(latencies[i]);
+            if (baseline == null) {
+                status = TarantoolBaselineReport.Status.NEW;
+            } else if (latency > baseline * (1 + latencyTolerance) && latency - baseline > noise) {
+                status = TarantoolBaselineReport.Status.REGRESSION;
+            } else if (latency < baseline * (1 - latencyTolerance) && baseline - latency > noise) {
+                status = TarantoolBaselineReport.Status.IMPROVED;
+            } else {
+                status = TarantoolBaselineReport.Status.OK;
+            }
+            metrics.add(new TarantoolBaselineReport.Metric(PERCENTILES[i], baseline, latency, "us", status));
+        }
+
+        baseline = value(values, MAX);
+        metrics.add(new TarantoolBaselineReport.Metric(MAX, baseline, toMicros(median.getMax()), "us",
+                baseline == null ? TarantoolBaselineReport.Status.NEW : TarantoolBaselineReport.Status.INFO));
+        return new TarantoolBaselineReport(result.getName(), metrics, updated);
+    }
+
+    private static Double value(Map<String, Object> values, String name) {
+        if (values == null || !(values.get(name) instanceof Number)) {
+            return null;
+        }
+        return ((Number) values.get(name)).doubleValue();
+    }
+
+    private static double toMicros(Duration duration) {
+        return duration.toNanos() / 1000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,86 @@
+package org.testcontainers.containers;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * A profile recorded by {@link TarantoolProfiler} and copied to the host
+ */
+public class TarantoolProfile {
+
+    private final String instance;
+    private final TarantoolProfilerType type;
+    private final Path profileFile;
+    private final Path parsedFile;
+    private final Duration duration;
+
+    /**
+     * Basic constructor
+     *
+     * @param instance    instance alias, empty for a single instance
+     * @param type        profiler type
+     * @param profileFile profile copied from the container
+     * @param parsedFile  parsed profile or null
+     * @param duration    time between the profiler start and stop
+     */
+    public TarantoolProfile(String instance, TarantoolProfilerType type, Path profileFile, Path parsedFile,
+                            Duration duration) {
+        this.instance = instance;
+        this.type = type;
+        this.profileFile = profileFile;
+        this.parsedFile = parsedFile;
+        this.duration = duration;
+    }
+
+    /**
+     * Get the alias of the profiled instance
+     *
+     * @return instance alias, empty for a single instance container
+     */
+    public String getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the profiler type
+     *
+     * @return profiler type
+     */
+    public TarantoolProfilerType getType() {
+        return type;
+    }
+
+    /**
+     * Get the profile as written by the profiler
+     *
+     * @return host file path
+     */
+    public Path getProfileFile() {
+        return profileFile;
+    }
+
+    /**
+     * Get the parsed profile: the collapsed stacks for {@link TarantoolProfilerType#SYSPROF} and the text report for
+     * {@link TarantoolProfilerType#MEMPROF}
+     *
+     * @return host file path or null if the profile has not been parsed
+     */
+    public Path getParsedFile() {
+        return parsedFile;
+    }
+
+    /**
+     * Get the profiled time window
+     *
+     * @return time between the profiler start and stop
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("instance=%s, type=%s, profile=%s, parsed=%s, duration=%dms", instance, type,
+                profileFile, parsedFile, duration.toMillis());
+    }
+}
@@ -0,0 +1,255 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.testcontainers.containers.exceptions.TarantoolProfilerException;
+
+/**
+ * Records the profiles of a Tarantool instance with the LuaJIT profilers and copies them to the host.
+ * <p>
+ * The profiler writes its output into a temporary file inside the container. When the profiler is stopped the file
+ * is copied to the host, optionally parsed by the parser bundled with Tarantool and removed from the container.
+ * The sysprof profiles are parsed into the collapsed stacks, which can be rendered with flamegraph.pl or
+ * speedscope. A profiler instance records one profile at a time.
+ */
+public class TarantoolProfiler {
+
+    public static final int DEFAULT_SAMPLING_INTERVAL_MILLIS = 10;
+
+    private static final String CONTAINER_DIR = "/tmp";
+
+    static final String FIBER_TOP_COMMAND_TEMPLATE =
+            "local fiber = require('fiber') " +
+            "local enabled = pcall(fiber.top) " +
+            "if not enabled then fiber.top_enable() end " +
+            "local before = fiber.top().cpu " +
+            "fiber.sleep(%s) " +
+            "local after = fiber.top().cpu " +
+            "if not enabled then fiber.top_disable() end " +
+            "local result = {} " +
+            "for key, cpu in pairs(after) do local slash = key:find('/', 1, true) if slash ~= nil then " +
+            "local was = before[key] " +
+            "table.insert(result, {id = tonumber(key:sub(1, slash - 1)), name = key:sub(slash + 1), " +
+            "instant = cpu.instant, average = cpu.average, time = cpu.time - (was and was.time or 0)}) end end " +
+            "return result";
+
+    private final Container<?> container;
+    private final String instance;
+    private final InstanceCommandRunner runner;
+    private int samplingIntervalMillis = DEFAULT_SAMPLING_INTERVAL_MILLIS;
+    private String jitProfilerMode;
+    private boolean parsing = true;
+    private TarantoolProfilerType activeType;
+    private String activeFile;
+    private long startedAt;
+
+    /**
+     * Basic constructor
+     *
+     * @param container container running the instance
+     * @param instance  instance alias, empty for a single instance
+     * @param runner    command runner for the instance
+     */
+    TarantoolProfiler(Container<?> container, String instance, InstanceCommandRunner runner) {
+        this.container = container;
+        this.instance = instance;
+        this.runner = runner;
+    }
+
+    /**
+     * Specify the sampling interval of sysprof and jit.p. Defaults to 10 ms.
+     *
+     * @param samplingIntervalMillis interval between the samples in milliseconds
+     * @return this profiler
+     */
+    public TarantoolProfiler withSamplingInterval(int samplingIntervalMillis) {
+        if (samplingIntervalMillis <= 0) {
+            throw new IllegalArgumentException("The sampling interval must be positive");
+        }
+        this.samplingIntervalMillis = samplingIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Specify the jit.p mode string, e.g. "Fl" for the functions with the line numbers or "G" for the raw output.
+     * Defaults to "F" with the sampling interval.
+     *
+     * @param jitProfilerMode jit.p mode
+     * @return this profiler
+     */
+    public TarantoolProfiler withJitProfilerMode(String jitProfilerMode) {
+        this.jitProfilerMode = jitProfilerMode;
+        return this;
+    }
+
+    /**
+     * Specify whether the sysprof and memprof profiles are parsed inside the container after they are recorded.
+     * Defaults to true.
+     *
+     * @param parsing true if the profiles must be parsed
+     * @return this profiler
+     */
+    public TarantoolProfiler withParsing(boolean parsing) {
+        this.parsing = parsing;
+        return this;
+    }
+
+    /**
+     * Start a profiler on the instance
+     *
+     * @param type profiler type
+     */
+    public synchronized void start(TarantoolProfilerType type) {
+        if (activeType != null) {
+            throw new IllegalStateException(String.format("Profiler %s is already running", activeType));
+        }
+        String file = String.format("%s/testcontainers-%s-%d.prof", CONTAINER_DIR,
+                type.name().toLowerCase(), System.nanoTime());
+        String mode = jitProfilerMode != null ? jitProfilerMode : "Fi" + samplingIntervalMillis;
+        try {
+            runner.run(type.toStartCommand(file, samplingIntervalMillis, mode));
+        } catch (Exception e) {
+            throw new TarantoolProfilerException(String.format("Failed to start %s on instance '%s'", type, instance),
+                    e);
+        }
+        activeType = type;
+        activeFile = file;
+        startedAt = System.nanoTime();
+    }
+
+    /**
+     * Stop the running profiler and copy the profile to the host. The parsed profile is written next to it with
+     * the ".folded" (sysprof) or ".txt" (memprof) suffix.
+     *
+     * @param output host file for the profile, overwritten if exists
+     * @return recorded profile
+     */
+    public synchronized TarantoolProfile stop(Path output) {
+        if (activeType == null) {
+            throw new IllegalStateException("No profiler is running");
+        }
+        TarantoolProfilerType type = activeType;
+        String file = activeFile;
+        Duration duration = Duration.ofNanos(System.nanoTime() - startedAt);
+        activeType = null;
+        activeFile = null;
+        try {
+            runner.run(type.toStopCommand());
+            container.copyFileFromContainer(file, output.toString());
+            Path parsed = null;
+            if (parsing && type.getParserModule() != null) {
+                parsed = output.resolveSibling(output.getFileName() + type.getParsedSuffix());
+                parse(type, file, parsed);
+            }
+            container.execInContainer("rm", "-f", file);
+            return new TarantoolProfile(instance, type, output, parsed, duration);
+        } catch (TarantoolProfilerException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new TarantoolProfilerException(String.format("Failed to stop %s on instance '%s'", type, instance),
+                    e);
+        }
+    }
+
+    /**
+     * Record a profile for a time window
+     *
+     * @param type   profiler type
+     * @param window profiling duration
+     * @param output host file for the profile
+     * @return recorded profile
+     */
+    public TarantoolProfile record(TarantoolProfilerType type, Duration window, Path output) {
+        return record(type, () -> {
+            try {
+                Thread.sleep(window.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, output);
+    }
+
+    /**
+     * Record a profile while an action runs. The profiler is stopped and the profile is copied even if the action
+     * fails.
+     *
+     * @param type   profiler type
+     * @param action profiled workload, e.g. the calls of a slow stored procedure
+     * @param output host file for the profile
+     * @return recorded profile
+     */
+    public TarantoolProfile record(TarantoolProfilerType type, Runnable action, Path output) {
+        start(type);
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            try {
+                stop(output);
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        return stop(output);
+    }
+
+    /**
+     * Measure the CPU time of the instance fibers with {@code fiber.top()} for a time window. fiber.top is enabled
+     * for the window unless it is already enabled.
+     *
+     * @param window observed time window
+     * @return fibers ordered by the CPU time consumed during the window, the busiest first
+     */
+    public List<TarantoolFiberCpu> fiberTop(Duration window) {
+        try {
+            Map<String, Object> results = runner.run(String.format(FIBER_TOP_COMMAND_TEMPLATE,
+                    LuaLiterals.toLua(window.toMillis() / 1000.0)));
+            return parseFiberTop(results.isEmpty() ? null : results.values().iterator().next());
+        } catch (Exception e) {
+            throw new TarantoolProfilerException(
+                    String.format("Failed to read fiber.top() on instance '%s'", instance), e);
+        }
+    }
+
+    static List<TarantoolFiberCpu> parseFiberTop(Object result) {
+        List<TarantoolFiberCpu> fibers = new ArrayList<>();
+        // an empty Lua table is decoded as a map
+        if (result instanceof List) {
+            for (Object item : (List<?>) result) {
+                Map<?, ?> fiber = (Map<?, ?>) item;
+                fibers.add(new TarantoolFiberCpu(((Number) fiber.get("id")).longValue(),
+                        String.valueOf(fiber.get("name")), toDouble(fiber.get("instant")),
+                        toDouble(fiber.get("average")),
+                        Duration.ofNanos((long) (Math.max(0, toDouble(fiber.get("time"))) * 1_000_000_000L))));
+            }
+        }
+        fibers.sort(Comparator.comparing(TarantoolFiberCpu::getTime).reversed());
+        return fibers;
+    }
+
+    private void parse(TarantoolProfilerType type, String file, Path parsed) throws Exception {
+        Container.ExecResult result = container.execInContainer("tarantool", "-e",
+                String.format("require('%s')(arg)", type.getParserModule()), "-", file);
+        if (result.getExitCode() != 0) {
+            throw new TarantoolProfilerException(String.format("Failed to parse the %s profile: %s", type,
+                    result.getStderr()));
+        }
+        try {
+            Files.write(parsed, result.getStdout().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new TarantoolProfilerException(String.format("Failed to write %s", parsed), e);
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
@@ -0,0 +1,63 @@
+package org.testcontainers.containers;
+
+/**
+ * Profilers available in the Tarantool instance, see {@link TarantoolProfiler}
+ */
+public enum TarantoolProfilerType {
+    /**
+     * LuaJIT sampling profiler ({@code misc.sysprof}) collecting the call chains, requires Tarantool 2.10+ on Linux
+     * x86_64. The profile is parsed into the collapsed stacks accepted by the flamegraph tools.
+     */
+    SYSPROF("sysprof", ".folded"),
+    /**
+     * LuaJIT allocation profiler ({@code misc.memprof}), requires Tarantool 2.8+. The profile is parsed into a text
+     * report of the allocations and the deallocations by source line.
+     */
+    MEMPROF("memprof", ".txt"),
+    /**
+     * LuaJIT built-in profiler ({@code jit.p}). The profile is written as text in the format selected by the mode,
+     * see {@link TarantoolProfiler#withJitProfilerMode(String)}, and is not parsed.
+     */
+    JIT_P(null, null);
+
+    private final String parserModule;
+    private final String parsedSuffix;
+
+    TarantoolProfilerType(String parserModule, String parsedSuffix) {
+        this.parserModule = parserModule;
+        this.parsedSuffix = parsedSuffix;
+    }
+
+    String getParserModule() {
+        return parserModule;
+    }
+
+    String getParsedSuffix() {
+        return parsedSuffix;
+    }
+
+    String toStartCommand(String path, int intervalMillis, String jitMode) {
+        String file = LuaLiterals.string(path);
+        switch (this) {
+            case SYSPROF:
+                return "local ok, err = misc.sysprof.start({mode = 'C', interval = " + intervalMillis +
+                        ", path = " + file + "}) if not ok then error(tostring(err)) end return true";
+            case MEMPROF:
+                return "local ok, err = misc.memprof.start(" + file + ") " +
+                        "if not ok then error(tostring(err)) end return true";
+            default:
+                return "require('jit.p').start(" + LuaLiterals.string(jitMode) + ", " + file + ") return true";
+        }
+    }
+
+    String toStopCommand() {
+        switch (this) {
+            case SYSPROF:
+                return "local ok, err = misc.sysprof.stop() if not ok then error(tostring(err)) end return true";
+            case MEMPROF:
+                return "local ok, err = misc.memprof.stop() if not ok then error(tostring(err)) end return true";
+            default:
+                return "require('jit.p').stop() return true";
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.testcontainers.containers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proxies of the mapped ports of a container, started on first use and closed with the container
+ */
+final class TarantoolProxies {
+
+    private final Map<String, TarantoolProxy> proxies = new ConcurrentHashMap<>();
+
+    /**
+     * Get the proxy of a port, starting it if necessary
+     *
+     * @param host mapped host
+     * @param port mapped port
+     * @return started proxy
+     */
+    TarantoolProxy get(String host, int port) {
+        return proxies.computeIfAbsent(host + ":" + port, key -> new TarantoolProxy(host, port).start());
+    }
+
+    /**
+     * Close all proxies
+     */
+    void close() {
+        for (TarantoolProxy proxy : proxies.values()) {
+            proxy.close();
+        }
+        proxies.clear();
+    }
+}
@@ -0,0 +1,605 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * TCP proxy running in the JVM between the clients and a port of a container, for testing the clients on a slow or
+ * unreliable network without {@code tc} on the host.
+ * <p>
+ * The proxy delays the data by the latency with a random jitter, limits the bandwidth and resets the connections on
+ * request. The settings are applied per direction and can be changed at any time, the changes affect the data read
+ * after them. The order of the data within a connection is always kept, so the jitter never exceeds the delay of the
+ * previous chunk. The transferred bytes and the connections are counted, so the tests can assert on the number of
+ * the round trips and the volume of the protocol.
+ * <p>
+ * All connections are served by a single NIO selector thread. When the queued data of a direction exceeds 1 MB the
+ * proxy stops reading from its source, so a bandwidth limit slows down the sender instead of buffering the data.
+ */
+public class TarantoolProxy implements AutoCloseable {
+
+    /**
+     * Direction of the data
+     */
+    public enum Direction {
+        /**
+         * From the client to the container
+         */
+        UPSTREAM,
+        /**
+         * From the container to the client
+         */
+        DOWNSTREAM
+    }
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final int MIN_CHUNK_SIZE = 512;
+    private static final int MAX_QUEUED_BYTES = 1024 * 1024;
+    private static final ThreadFactory THREAD_FACTORY = new DaemonThreadFactory("tarantool-proxy");
+    private static final Logger log = LoggerFactory.getLogger(TarantoolProxy.class);
+
+    // Network conditions of a direction
+    private static final class Shaping {
+        volatile long latencyNanos;
+        volatile long jitterNanos;
+        volatile long bytesPerSecond;
+    }
+
+    private static final class Chunk {
+        final ByteBuffer data;
+        final long releaseAt;
+
+        Chunk(ByteBuffer data, long releaseAt) {
+            this.data = data;
+            this.releaseAt = releaseAt;
+        }
+    }
+
+    // One direction of a connection
+    private final class Link {
+        final Direction direction;
+        final SocketChannel source;
+        final SocketChannel target;
+        final Shaping shaping;
+        final ArrayDeque<Chunk> queue = new ArrayDeque<>();
+        long queuedBytes;
+        long pacedUntil;
+        long lastReleaseAt;
+        boolean sourceClosed;
+        boolean targetShutdown;
+        boolean writeBlocked;
+
+        Link(Direction direction, SocketChannel source, SocketChannel target) {
+            this.direction = direction;
+            this.source = source;
+            this.target = target;
+            this.shaping = TarantoolProxy.this.shaping[direction.ordinal()];
+        }
+
+        boolean canRead() {
+            return !sourceClosed && queuedBytes < MAX_QUEUED_BYTES;
+        }
+
+        void read(long now) throws IOException {
+            long bandwidth = shaping.bytesPerSecond;
+            int size = bandwidth > 0 ? (int) Math.max(MIN_CHUNK_SIZE, Math.min(CHUNK_SIZE, bandwidth / 50)) :
+                    CHUNK_SIZE;
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            int read = source.read(buffer);
+            if (read < 0) {
+                sourceClosed = true;
+                return;
+            }
+            if (read == 0) {
+                return;
+            }
+            buffer.flip();
+            bytes[direction.ordinal()].addAndGet(read);
+
+            // the bandwidth serializes the chunks, then each chunk is delayed by the latency
+            long sentAt = now;
+            if (bandwidth > 0) {
+                sentAt = Math.max(now, pacedUntil) + read * 1_000_000_000L / bandwidth;
+                pacedUntil = sentAt;
+            }
+            long jitter = shaping.jitterNanos;
+            long releaseAt = sentAt + shaping.latencyNanos +
+                    (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+            releaseAt = Math.max(releaseAt, lastReleaseAt);
+            lastReleaseAt = releaseAt;
+            queue.add(new Chunk(buffer, releaseAt));
+            queuedBytes += read;
+        }
+
+        void write(long now) throws IOException {
+            while (!queue.isEmpty() && queue.peek().releaseAt <= now) {
+                Chunk chunk = queue.peek();
+                target.write(chunk.data);
+                if (chunk.data.hasRemaining()) {
+                    writeBlocked = true;
+                    return;
+                }
+                queue.poll();
+                queuedBytes -= chunk.data.limit();
+            }
+            writeBlocked = false;
+            if (queue.isEmpty() && sourceClosed && !targetShutdown) {
+                target.shutdownOutput();
+                targetShutdown = true;
+            }
+        }
+
+        long nextReleaseAt() {
+            return queue.isEmpty() || writeBlocked ? Long.MAX_VALUE : queue.peek().releaseAt;
+        }
+    }
+
+    private final class Connection {
+        final SocketChannel client;
+        final SocketChannel server;
+        final Link upstream;
+        final Link downstream;
+        SelectionKey clientKey;
+        SelectionKey serverKey;
+        boolean connected;
+
+        Connection(SocketChannel client, SocketChannel server) {
+            this.client = client;
+            this.server = server;
+            this.upstream = new Link(Direction.UPSTREAM, client, server);
+            this.downstream = new Link(Direction.DOWNSTREAM, server, client);
+        }
+
+        void updateInterest() {
+            if (!connected) {
+                serverKey.interestOps(SelectionKey.OP_CONNECT);
+                clientKey.interestOps(0);
+                return;
+            }
+            clientKey.interestOps((upstream.canRead() ? SelectionKey.OP_READ : 0) |
+                    (downstream.writeBlocked ? SelectionKey.OP_WRITE : 0));
+            serverKey.interestOps((downstream.canRead() ? SelectionKey.OP_READ : 0) |
+                    (upstream.writeBlocked ? SelectionKey.OP_WRITE : 0));
+        }
+
+        boolean isFinished() {
+            return upstream.targetShutdown && downstream.targetShutdown;
+        }
+    }
+
+    private final String targetHost;
+    private final int targetPort;
+    private final Shaping[] shaping = {new Shaping(), new Shaping()};
+    private final AtomicLong[] bytes = {new AtomicLong(), new AtomicLong()};
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private final AtomicLong resetConnections = new AtomicLong();
+    private final AtomicLong activeConnections = new AtomicLong();
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // accessed by the selector thread only
+    private final Set<Connection> connections = new HashSet<>();
+    private volatile boolean resetNewConnections;
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread thread;
+
+    /**
+     * Basic constructor
+     *
+     * @param targetHost host of the proxied port, e.g. the Docker host
+     * @param targetPort proxied port, e.g. a mapped port of a container
+     */
+    public TarantoolProxy(String targetHost, int targetPort) {
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+    }
+
+    /**
+     * Start listening on an ephemeral port of the loopback interface
+     *
+     * @return this proxy
+     */
+    public synchronized TarantoolProxy start() {
+        if (running) {
+            return this;
+        }
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(String.format("Failed to start the proxy to %s:%d", targetHost,
+                    targetPort), e);
+        }
+        running = true;
+        thread = THREAD_FACTORY.newThread(this::run);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Get the host the clients connect to
+     *
+     * @return loopback address
+     */
+    public String getHost() {
+        return InetAddress.getLoopbackAddress().getHostAddress();
+    }
+
+    /**
+     * Get the port the clients connect to
+     *
+     * @return listening port
+     */
+    public int getPort() {
+        if (serverChannel == null) {
+            throw new IllegalStateException("The proxy is not started");
+        }
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Get the proxied port
+     *
+     * @return target port
+     */
+    public int getTargetPort() {
+        return targetPort;
+    }
+
+    /**
+     * Delay the data in both directions
+     *
+     * @param latency fixed delay
+     * @param jitter  maximum random delay added to the latency
+     * @return this proxy
+     */
+    public TarantoolProxy setLatency(Duration latency, Duration jitter) {
+        setLatency(Direction.UPSTREAM, latency, jitter);
+        return setLatency(Direction.DOWNSTREAM, latency, jitter);
+    }
+
+    /**
+     * Delay the data in one direction
+     *
+     * @param direction data direction
+     * @param latency   fixed delay
+     * @param jitter    maximum random delay added to the latency
+     * @return this proxy
+     */
+    public TarantoolProxy setLatency(Direction direction, Duration latency, Duration jitter) {
+        if (latency.isNegative() || jitter.isNegative()) {
+            throw new IllegalArgumentException("The latency and the jitter must not be negative");
+        }
+        shaping[direction.ordinal()].latencyNanos = latency.toNanos();
+        shaping[direction.ordinal()].jitterNanos = jitter.toNanos();
+        return this;
+    }
+
+    /**
+     * Limit the bandwidth of each connection in both directions
+     *
+     * @param bytesPerSecond maximum rate, 0 for no limit
+     * @return this proxy
+     */
+    public TarantoolProxy setBandwidth(long bytesPerSecond) {
+        setBandwidth(Direction.UPSTREAM, bytesPerSecond);
+        return setBandwidth(Direction.DOWNSTREAM, bytesPerSecond);
+    }
+
+    /**
+     * Limit the bandwidth of each connection in one direction
+     *
+     * @param direction      data direction
+     * @param bytesPerSecond maximum rate, 0 for no limit
+     * @return this proxy
+     */
+    public TarantoolProxy setBandwidth(Direction direction, long bytesPerSecond) {
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("The bandwidth must not be negative");
+        }
+        shaping[direction.ordinal()].bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Specify whether the new connections are reset right after being accepted, e.g. to simulate an unreachable
+     * server. The established connections are not affected.
+     *
+     * @param resetNewConnections true if the new connections must be reset
+     * @return this proxy
+     */
+    public TarantoolProxy setResetNewConnections(boolean resetNewConnections) {
+        this.resetNewConnections = resetNewConnections;
+        return this;
+    }
+
+    /**
+     * Remove the latency, the bandwidth limits and the resetting of the new connections
+     *
+     * @return this proxy
+     */
+    public TarantoolProxy clear() {
+        setLatency(Duration.ZERO, Duration.ZERO);
+        setBandwidth(0);
+        return setResetNewConnections(false);
+    }
+
+    /**
+     * Reset all established connections: both the client and the server side receive a TCP RST. The queued data is
+     * dropped.
+     */
+    public void resetConnections() {
+        execute(() -> {
+            for (Connection connection : new ArrayList<>(connections)) {
+                reset(connection);
+            }
+        });
+    }
+
+    /**
+     * Get the number of the bytes read from the source of a direction
+     *
+     * @param direction data direction
+     * @return number of the bytes
+     */
+    public long getBytes(Direction direction) {
+        return bytes[direction.ordinal()].get();
+    }
+
+    /**
+     * Get the number of the accepted connections, including the reset ones
+     *
+     * @return number of the connections
+     */
+    public long getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    /**
+     * Get the number of the currently open connections
+     *
+     * @return number of the connections
+     */
+    public long getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    /**
+     * Get the number of the connections reset by the proxy
+     *
+     * @return number of the connections
+     */
+    public long getResetConnections() {
+        return resetConnections.get();
+    }
+
+    /**
+     * Set the byte and connection counters to zero, the active connections are not affected
+     */
+    public void resetCounters() {
+        for (AtomicLong counter : bytes) {
+            counter.set(0);
+        }
+        acceptedConnections.set(0);
+        resetConnections.set(0);
+    }
+
+    /**
+     * Stop listening and close all connections
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeQuietly();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s -> %s:%d, %d bytes up, %d bytes down, %d connections", running ?
+                        getHost() + ":" + getPort() : "stopped", targetHost, targetPort,
+                getBytes(Direction.UPSTREAM), getBytes(Direction.DOWNSTREAM), getAcceptedConnections());
+    }
+
+    private void execute(Runnable task) {
+        tasks.add(task);
+        if (running) {
+            selector.wakeup();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                long nextReleaseAt = Long.MAX_VALUE;
+                for (Connection connection : connections) {
+                    nextReleaseAt = Math.min(nextReleaseAt, Math.min(connection.upstream.nextReleaseAt(),
+                            connection.downstream.nextReleaseAt()));
+                }
+                if (nextReleaseAt == Long.MAX_VALUE) {
+                    selector.select();
+                } else if (nextReleaseAt <= now) {
+                    selector.selectNow();
+                } else {
+                    selector.select(Math.max(1, (nextReleaseAt - now + 999_999) / 1_000_000));
+                }
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid()) {
+                        handle(key);
+                    }
+                }
+                now = System.nanoTime();
+                for (Connection connection : new ArrayList<>(connections)) {
+                    transfer(connection, now);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Proxy to {}:{} has failed, closing the listening port", targetHost, targetPort, e);
+            running = false;
+        } finally {
+            for (Connection connection : new ArrayList<>(connections)) {
+                close(connection);
+            }
+            // the new clients are refused instead of waiting in the accept backlog
+            closeQuietly();
+        }
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                if (connection.server.finishConnect()) {
+                    connection.connected = true;
+                }
+            } else if (key.channel() == connection.client && key.isReadable()) {
+                connection.upstream.read(System.nanoTime());
+            } else if (key.channel() == connection.server && key.isReadable()) {
+                connection.downstream.read(System.nanoTime());
+            }
+        } catch (IOException e) {
+            reset(connection);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel client = serverChannel.accept();
+        if (client == null) {
+            return;
+        }
+        acceptedConnections.incrementAndGet();
+        if (resetNewConnections) {
+            // counted before the close, so that the counter is updated when the client sees the reset
+            resetConnections.incrementAndGet();
+            client.setOption(StandardSocketOptions.SO_LINGER, 0);
+            client.close();
+            return;
+        }
+        SocketChannel server = SocketChannel.open();
+        try {
+            client.configureBlocking(false);
+            client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            server.configureBlocking(false);
+            server.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(client, server);
+            connection.connected = server.connect(new InetSocketAddress(targetHost, targetPort));
+            connection.clientKey = client.register(selector, 0, connection);
+            connection.serverKey = server.register(selector, 0, connection);
+            connections.add(connection);
+            activeConnections.incrementAndGet();
+            connection.updateInterest();
+        } catch (IOException e) {
+            resetConnections.incrementAndGet();
+            client.setOption(StandardSocketOptions.SO_LINGER, 0);
+            client.close();
+            server.close();
+        }
+    }
+
+    private void transfer(Connection connection, long now) {
+        if (!connections.contains(connection)) {
+            return;
+        }
+        try {
+            if (connection.connected) {
+                connection.upstream.write(now);
+                connection.downstream.write(now);
+            }
+            if (connection.isFinished()) {
+                close(connection);
+            } else {
+                connection.updateInterest();
+            }
+        } catch (IOException e) {
+            reset(connection);
+        }
+    }
+
+    private void reset(Connection connection) {
+        for (SocketChannel channel : new SocketChannel[]{connection.client, connection.server}) {
+            try {
+                if (channel.isOpen()) {
+                    channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+                }
+            } catch (IOException ignored) {
+                // the channel is closed below anyway
+            }
+        }
+        if (connections.contains(connection)) {
+            resetConnections.incrementAndGet();
+        }
+        close(connection);
+    }
+
+    private void close(Connection connection) {
+        if (connections.remove(connection)) {
+            activeConnections.decrementAndGet();
+        }
+        for (SocketChannel channel : new SocketChannel[]{connection.client, connection.server}) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // nothing to do with a failed close
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        for (AutoCloseable resource : new AutoCloseable[]{serverChannel, selector}) {
+            if (resource != null) {
+                try {
+                    resource.close();
+                } catch (Exception ignored) {
+                    // nothing to do with a failed close
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.testcontainers.containers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.testcontainers.containers.exceptions.TarantoolQueryException;
+
+/**
+ * Reads the tuples of a space index page by page, requesting the next page only when the previous one has been
+ * consumed.
+ * <p>
+ * The pages are selected with the keyset pagination: each page starts after the key of the last tuple of the
+ * previous one, so the server keeps no iterator between the pages and closing the cursor simply stops the reading.
+ * At most one page per instance is held in the JVM. The index must be unique and consist of scalar parts.
+ * <p>
+ * On a Cartridge or Tarantool 3.x cluster every writable instance having the space is read in parallel, the tuples
+ * are ordered by the index key within each instance, but not across the instances.
+ */
+public class TarantoolSelectCursor implements Iterator<List<?>>, AutoCloseable {
+
+    private final InstanceCommandRunner runner;
+    private final String spaceName;
+    private final String indexName;
+    private final int pageSize;
+    private final boolean writableOnly;
+    // the key of the last read tuple or false if the instance is exhausted, by the instance UUID
+    private final Map<String, Object> positions = new HashMap<>();
+    private final Deque<List<?>> page = new ArrayDeque<>();
+    private boolean exhausted;
+    private boolean closed;
+    private long pages;
+    private long tuples;
+
+    /**
+     * Basic constructor
+     *
+     * @param runner       command runner for the instances having the space
+     * @param spaceName    space name
+     * @param indexName    index name, the primary index if null
+     * @param pageSize     maximum number of the tuples read from each instance at once
+     * @param writableOnly true if the read-only instances and the instances without the space must be skipped
+     */
+    TarantoolSelectCursor(InstanceCommandRunner runner, String spaceName, String indexName, int pageSize,
+                          boolean writableOnly) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size must be positive");
+        }
+        this.runner = runner;
+        this.spaceName = spaceName;
+        this.indexName = indexName;
+        this.pageSize = pageSize;
+        this.writableOnly = writableOnly;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (page.isEmpty() && !exhausted && !closed) {
+            fetchPage();
+        }
+        return !page.isEmpty();
+    }
+
+    @Override
+    public List<?> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        tuples++;
+        return page.poll();
+    }
+
+    /**
+     * Get the remaining tuples as a sequential stream. Closing the stream closes the cursor.
+     *
+     * @return stream of tuples
+     */
+    public Stream<List<?>> stream() {
+        Spliterator<List<?>> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Get the number of the pages requested so far
+     *
+     * @return number of the requests
+     */
+    public long getPages() {
+        return pages;
+    }
+
+    /**
+     * Get the number of the tuples returned so far
+     *
+     * @return number of the tuples
+     */
+    public long getTuples() {
+        return tuples;
+    }
+
+    /**
+     * Stop reading and release the buffered page. The server keeps no state for the cursor.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        page.clear();
+    }
+
+    private void fetchPage() {
+        Map<String, Object> results;
+        try {
+            results = runner.run(toPageCommand());
+        } catch (Exception e) {
+            throw new TarantoolQueryException(String.format("Failed to read a page of space %s", spaceName), e);
+        }
+        pages++;
+        boolean more = false;
+        for (Object result : results.values()) {
+            if (!(result instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> value = (Map<?, ?>) result;
+            boolean done = Boolean.TRUE.equals(value.get("done"));
+            positions.put(value.get("uuid").toString(), done ? Boolean.FALSE : value.get("last"));
+            Object rows = value.get("rows");
+            if (rows instanceof List) {
+                for (Object row : (List<?>) rows) {
+                    page.add((List<?>) row);
+                }
+            }
+            more |= !done;
+        }
+        exhausted = !more;
+    }
+
+    String toPageCommand() {
+        String space = LuaLiterals.string(spaceName);
+        String index = indexName == null ? "0" : LuaLiterals.string(indexName);
+        return (writableOnly ? "if box.info.ro then return nil end " : "") +
+                "local space = box.space[" + space + "] " +
+                (writableOnly ? "if space == nil then return nil end " :
+                        "if space == nil then error('Space not found: ' .. " + space + ") end ") +
+                "local index = space.index[" + index + "] " +
+                "if index == nil then error('Index not found: ' .. tostring(" + index + ")) end " +
+                "if not index.unique then error('The paged select requires a unique index') end " +
+                "local after = (" + LuaLiterals.toLua(positions) + ")[box.info.uuid] " +
+                "if after == false then return nil end " +
+                "local tuples = index:select(after or {}, {iterator = after and 'GT' or 'GE', limit = " + pageSize +
+                "}) " +
+                "local rows, last = {}, box.NULL " +
+                "for i, t in ipairs(tuples) do rows[i] = t:totable() end " +
+                "if #tuples > 0 then last = {} for _, part in ipairs(index.parts) do " +
+                "table.insert(last, tuples[#tuples][part.fieldno]) end end " +
+                "return {uuid = box.info.uuid, rows = rows, last = last, done = #tuples < " + pageSize + "}";
+    }
+}
@@ -0,0 +1,266 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import org.testcontainers.containers.exceptions.TarantoolQueryException;
+
+/**
+ * Captures the committed changes of a space into a bounded buffer on the server and delivers them to the test on
+ * demand.
+ * <p>
+ * An {@code on_replace} trigger is installed on the space and registers an {@code on_commit} trigger, so that only
+ * the committed changes are captured. The buffer keeps at most {@code capacity} events on each instance, the oldest
+ * events are dropped when a slow consumer lets it fill up (see {@link #getDroppedEvents()}). The events are pulled
+ * with {@link #poll(int)}, so nothing is buffered in the JVM beyond the latest batch. Closing the subscription
+ * removes the trigger and the buffer.
+ * <p>
+ * On a Cartridge or Tarantool 3.x cluster the trigger is installed on every writable instance and the events of all
+ * instances are merged in each poll.
+ */
+public class TarantoolSpaceSubscription implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private static final Duration MIN_POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Duration MAX_POLL_INTERVAL = Duration.ofMillis(200);
+
+    private final InstanceCommandRunner runner;
+    private final String spaceName;
+    private final String id;
+    private final int capacity;
+    private final Map<String, Long> droppedEvents = new LinkedHashMap<>();
+    private final Deque<TarantoolChangeEvent> pending = new ArrayDeque<>();
+    private boolean closed;
+
+    private TarantoolSpaceSubscription(InstanceCommandRunner runner, String spaceName, int capacity) {
+        this.runner = runner;
+        this.spaceName = spaceName;
+        this.capacity = capacity;
+        this.id = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Install the triggers and create the subscription
+     *
+     * @param runner    command runner for the subscribed instances
+     * @param spaceName space name
+     * @param capacity  maximum number of the buffered events on each instance
+     * @return subscription
+     * @throws Exception if the space does not exist or the execution fails
+     */
+    static TarantoolSpaceSubscription open(InstanceCommandRunner runner, String spaceName, int capacity)
+            throws Exception {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The buffer capacity must be positive");
+        }
+        TarantoolSpaceSubscription subscription = new TarantoolSpaceSubscription(runner, spaceName, capacity);
+        Map<String, Object> installed = runner.run(subscription.toSubscribeCommand());
+        if (installed.values().stream().noneMatch(Boolean.TRUE::equals)) {
+            throw new IllegalStateException(
+                    String.format("No writable instance accepted the subscription to space %s", spaceName));
+        }
+        return subscription;
+    }
+
+    /**
+     * Get the subscribed space name
+     *
+     * @return space name
+     */
+    public String getSpaceName() {
+        return spaceName;
+    }
+
+    /**
+     * Get the maximum number of the buffered events on each instance
+     *
+     * @return buffer capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of the events dropped because of the buffer overflow, as reported by the latest poll
+     *
+     * @return number of the dropped events on all instances
+     */
+    public synchronized long getDroppedEvents() {
+        return droppedEvents.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Take the buffered events without waiting
+     *
+     * @param maxEvents maximum number of the events taken from each instance
+     * @return events in the order of the instance aliases and the sequence numbers, empty if there are none
+     * @throws Exception if the execution fails
+     */
+    public synchronized List<TarantoolChangeEvent> poll(int maxEvents) throws Exception {
+        if (closed) {
+            throw new IllegalStateException("The subscription is closed");
+        }
+        if (!pending.isEmpty()) {
+            List<TarantoolChangeEvent> events = new ArrayList<>(pending);
+            pending.clear();
+            return events;
+        }
+        Map<String, Object> results = runner.run(toPollCommand(maxEvents));
+        List<TarantoolChangeEvent> events = new ArrayList<>();
+        for (Map.Entry<String, Object> result : results.entrySet()) {
+            if (result.getValue() instanceof Map) {
+                Map<?, ?> value = (Map<?, ?>) result.getValue();
+                Object dropped = value.get("dropped");
+                droppedEvents.put(result.getKey(), dropped instanceof Number ? ((Number) dropped).longValue() : 0L);
+                events.addAll(parseEvents(result.getKey(), value.get("events")));
+            }
+        }
+        events.sort(Comparator.comparing(TarantoolChangeEvent::getInstance)
+                .thenComparingLong(TarantoolChangeEvent::getSequence));
+        return events;
+    }
+
+    /**
+     * Take the buffered events, waiting until at least one is available
+     *
+     * @param maxEvents maximum number of the events taken from each instance
+     * @param timeout   maximum time to wait
+     * @return events, empty if none have arrived in time
+     * @throws Exception if the execution fails
+     */
+    public List<TarantoolChangeEvent> poll(int maxEvents, Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Duration interval = MIN_POLL_INTERVAL;
+        while (true) {
+            List<TarantoolChangeEvent> events = poll(maxEvents);
+            long remaining = deadline - System.nanoTime();
+            if (!events.isEmpty() || remaining <= 0) {
+                return events;
+            }
+            Thread.sleep(Math.min(interval.toMillis(), Duration.ofNanos(remaining).toMillis() + 1));
+            interval = interval.multipliedBy(2).compareTo(MAX_POLL_INTERVAL) > 0 ? MAX_POLL_INTERVAL :
+                    interval.multipliedBy(2);
+        }
+    }
+
+    /**
+     * Wait for an event matching the condition. The events preceding it are consumed, the following ones are
+     * returned by the next poll.
+     *
+     * @param condition event condition
+     * @param timeout   maximum time to wait
+     * @return the first matching event
+     * @throws TimeoutException if no matching event has arrived in time
+     * @throws Exception        if the execution fails
+     */
+    public TarantoolChangeEvent await(Predicate<TarantoolChangeEvent> condition, Duration timeout)
+            throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException(String.format("No matching change of space %s in %d ms", spaceName,
+                        timeout.toMillis()));
+            }
+            List<TarantoolChangeEvent> events = poll(capacity, Duration.ofNanos(remaining));
+            for (int i = 0; i < events.size(); i++) {
+                if (condition.test(events.get(i))) {
+                    synchronized (this) {
+                        pending.addAll(events.subList(i + 1, events.size()));
+                    }
+                    return events.get(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the triggers and the buffered events. Subsequent calls have no effect.
+     *
+     * @throws TarantoolQueryException if the execution fails
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.clear();
+        try {
+            runner.run(toUnsubscribeCommand());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new TarantoolQueryException(
+                    String.format("Failed to remove the subscription to space %s", spaceName), e);
+        }
+    }
+
+    String toSubscribeCommand() {
+        String name = LuaLiterals.string(spaceName);
+        return "if box.info.ro then return nil end " +
+                "local space = box.space[" + name + "] " +
+                "if space == nil then error('Space not found: ' .. " + name + ") end " +
+                "local subs = rawget(_G, '__testcontainers_cdc') or {} " +
+                "rawset(_G, '__testcontainers_cdc', subs) " +
+                "local sub = {space = " + name + ", events = {}, first = 1, last = 0, seq = 0, dropped = 0} " +
+                "sub.trigger = function(old, new, _, op) box.on_commit(function() " +
+                "sub.seq = sub.seq + 1 " +
+                "if sub.last - sub.first + 1 >= " + capacity + " then " +
+                "sub.events[sub.first] = nil sub.first = sub.first + 1 sub.dropped = sub.dropped + 1 end " +
+                "sub.last = sub.last + 1 " +
+                "sub.events[sub.last] = {sub.seq, op, box.info.lsn, " +
+                "old and old:totable() or box.NULL, new and new:totable() or box.NULL} end) end " +
+                "space:on_replace(sub.trigger) " +
+                "subs[" + LuaLiterals.string(id) + "] = sub " +
+                "return true";
+    }
+
+    String toPollCommand(int maxEvents) {
+        return "local sub = (rawget(_G, '__testcontainers_cdc') or {})[" + LuaLiterals.string(id) + "] " +
+                "if sub == nil then return nil end " +
+                "local events = {} " +
+                "while sub.first <= sub.last and #events < " + maxEvents + " do " +
+                "table.insert(events, sub.events[sub.first]) sub.events[sub.first] = nil " +
+                "sub.first = sub.first + 1 end " +
+                "return {events = events, dropped = sub.dropped}";
+    }
+
+    String toUnsubscribeCommand() {
+        return "local subs = rawget(_G, '__testcontainers_cdc') or {} " +
+                "local sub = subs[" + LuaLiterals.string(id) + "] " +
+                "if sub == nil then return nil end " +
+                "subs[" + LuaLiterals.string(id) + "] = nil " +
+                "local space = box.space[sub.space] " +
+                "if space ~= nil then space:on_replace(nil, sub.trigger) end " +
+                "return true";
+    }
+
+    static List<TarantoolChangeEvent> parseEvents(String instance, Object events) {
+        if (!(events instanceof List)) {
+            // an empty Lua table is decoded as an empty map
+            return Collections.emptyList();
+        }
+        List<TarantoolChangeEvent> result = new ArrayList<>();
+        for (Object event : (List<?>) events) {
+            List<?> fields = (List<?>) event;
+            result.add(new TarantoolChangeEvent(instance, ((Number) fields.get(0)).longValue(),
+                    (String) fields.get(1), ((Number) fields.get(2)).longValue(),
+                    fields.size() > 3 ? (List<?>) fields.get(3) : null,
+                    fields.size() > 4 ? (List<?>) fields.get(4) : null));
+        }
+        return result;
+    }
+}
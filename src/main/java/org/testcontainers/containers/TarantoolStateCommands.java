@@ -0,0 +1,94 @@
+package org.testcontainers.containers;
+
+/**
+ * Lua commands for cleaning up the instance state between tests. The commands are executed on a single instance,
+ * see {@link TarantoolCartridgeContainer#executeCommandOnAllInstances(String)} for running them on the whole cluster.
+ * <p>
+ * The schema baseline is kept in a global variable of the instance, so it survives until the instance restart.
+ */
+final class TarantoolStateCommands {
+
+    private TarantoolStateCommands() {
+    }
+
+    // Records the current schema as the baseline, replacing the existing one
+    private static final String CAPTURE_FUNCTION =
+            "local function capture() " +
+            "local b = {spaces = {}, users = {}, funcs = {}, seqs = {}} " +
+            "for _, t in box.space._space:pairs() do b.spaces[t[1]] = true end " +
+            "for _, t in box.space._user:pairs() do b.users[t[1]] = true end " +
+            "for _, t in box.space._func:pairs() do b.funcs[t[1]] = true end " +
+            "for _, t in box.space._sequence:pairs() do b.seqs[t[1]] = true end " +
+            "rawset(_G, '__testcontainers_baseline', b) " +
+            "return b end ";
+
+    // Returns the baseline, capturing it first if it does not exist yet
+    private static final String BASELINE_FUNCTION = CAPTURE_FUNCTION +
+            "local function baseline() " +
+            "local b = rawget(_G, '__testcontainers_baseline') " +
+            "if b ~= nil then return b, false end " +
+            "return capture(), true end ";
+
+    /**
+     * Captures the schema baseline on a writable instance, replacing the existing one. Returns true if the baseline
+     * has been captured and false if the instance is read-only.
+     */
+    static final String CAPTURE_BASELINE_COMMAND = CAPTURE_FUNCTION +
+            "if box.info.ro then return false end " +
+            "capture() " +
+            "return true";
+
+    /**
+     * Captures the schema baseline on a writable instance unless it already exists, so that the baseline of a
+     * reused container survives its restart. Returns true if the baseline has been captured and false if it
+     * already exists or the instance is read-only.
+     */
+    static final String CAPTURE_MISSING_BASELINE_COMMAND = BASELINE_FUNCTION +
+            "if box.info.ro then return false end " +
+            "local _, captured = baseline() " +
+            "return captured";
+
+    /**
+     * Restores the schema baseline on a writable instance: drops the spaces, functions, sequences, users and roles
+     * created after it, truncates the remaining user spaces and resets the sequences. Returns the counters of the
+     * changed objects or nil if the instance is read-only.
+     */
+    static final String RESET_STATE_COMMAND = BASELINE_FUNCTION +
+            "if box.info.ro then return nil end " +
+            "local b = baseline() " +
+            "local r = {dropped_spaces = 0, truncated_spaces = 0, dropped_functions = 0, dropped_sequences = 0, " +
+            "dropped_users = 0} " +
+            "local spaces = {} " +
+            "for _, t in box.space._space:pairs({512}, {iterator = 'GE'}) do " +
+            "if not b.spaces[t[1]] then table.insert(spaces, t[1]) end end " +
+            "for _, id in ipairs(spaces) do box.space[id]:drop() r.dropped_spaces = r.dropped_spaces + 1 end " +
+            "for _, t in box.space._space:pairs({512}, {iterator = 'GE'}) do " +
+            "if t[3]:sub(1, 1) ~= '_' then box.space[t[1]]:truncate() " +
+            "r.truncated_spaces = r.truncated_spaces + 1 end end " +
+            "local funcs = {} " +
+            "for _, t in box.space._func:pairs() do if not b.funcs[t[1]] then table.insert(funcs, t[3]) end end " +
+            "for _, name in ipairs(funcs) do box.schema.func.drop(name) " +
+            "r.dropped_functions = r.dropped_functions + 1 end " +
+            "local seqs = {} " +
+            "for _, t in box.space._sequence:pairs() do " +
+            "if b.seqs[t[1]] then box.sequence[t[3]]:reset() else table.insert(seqs, t[3]) end end " +
+            "for _, name in ipairs(seqs) do box.schema.sequence.drop(name) " +
+            "r.dropped_sequences = r.dropped_sequences + 1 end " +
+            "local users = {} " +
+            "for _, t in box.space._user:pairs() do if not b.users[t[1]] then table.insert(users, t) end end " +
+            "for _, t in ipairs(users) do " +
+            "if t[4] == 'role' then box.schema.role.drop(t[3]) else box.schema.user.drop(t[3]) end " +
+            "r.dropped_users = r.dropped_users + 1 end " +
+            "return r";
+
+    /**
+     * Truncates the spaces created by the application on a writable instance. Returns the number of the truncated
+     * spaces.
+     */
+    static final String TRUNCATE_USER_SPACES_COMMAND =
+            "if box.info.ro then return 0 end " +
+            "local count = 0 " +
+            "for _, space in box.space._space:pairs({512}, {iterator = 'GE'}) do " +
+            "if space[3]:sub(1, 1) ~= '_' then box.space[space[3]]:truncate() count = count + 1 end end " +
+            "return count";
+}
@@ -0,0 +1,451 @@
+package org.testcontainers.containers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the rows of a Tarantool .xlog or .snap file copied from the container data directory
+ * ({@code memtx_dir} and {@code wal_dir}, {@code TARANTOOL_DATADIR} in the Cartridge containers).
+ * <p>
+ * The file is memory-mapped in windows of {@value #WINDOW_SIZE} bytes, so files of several gigabytes are read without
+ * loading them into the heap. The rows are decoded in place into a single reused {@link TarantoolXlogRow}: iterating
+ * with {@link #next()} allocates nothing per row, the tuples are decoded only when requested. The zstd-compressed
+ * blocks are decompressed into a reused direct buffer, which requires {@code com.github.luben:zstd-jni} on the
+ * classpath. The block checksums are not verified.
+ * <pre>
+ * try (TarantoolXlogReader reader = TarantoolXlogReader.open(path)) {
+ *     while (reader.next()) {
+ *         TarantoolXlogRow row = reader.row();
+ *         if (row.getSpaceId() == 512) {
+ *             ...
+ *         }
+ *     }
+ * }
+ * </pre>
+ */
+public final class TarantoolXlogReader implements Closeable {
+
+    static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    static final int ROW_MARKER = 0xd5ba0bab;
+    static final int ZROW_MARKER = 0xd5ba0bba;
+    static final int EOF_MARKER = 0xd510aded;
+    static final int FIXHEADER_SIZE = 19;
+
+    private static final int KEY_REQUEST_TYPE = 0x00;
+    private static final int KEY_REPLICA_ID = 0x02;
+    private static final int KEY_LSN = 0x03;
+    private static final int KEY_TIMESTAMP = 0x04;
+    private static final int KEY_SPACE_ID = 0x10;
+    private static final int KEY_INDEX_ID = 0x11;
+    private static final int KEY_KEY = 0x20;
+    private static final int KEY_TUPLE = 0x21;
+    private static final int KEY_OPS = 0x28;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final int windowSize;
+    private final long size;
+    private final String fileType;
+    private final String version;
+    private final Map<String, String> meta;
+    private final MsgPackDecoder decoder = new MsgPackDecoder();
+    private final TarantoolXlogRow row = new TarantoolXlogRow();
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private ZstdBlockDecompressor decompressor;
+    private long nextBlock;
+    private ByteBuffer block;
+    private long blockOffset;
+    private int rowPosition;
+    private int blockEnd;
+    private boolean complete;
+    private boolean finished;
+
+    private TarantoolXlogReader(Path file, FileChannel channel, int windowSize) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.windowSize = windowSize;
+        this.size = channel.size();
+        mapWindow(0, (int) Math.min(size, Math.max(windowSize, 4096)));
+        // the text header ends with an empty line
+        int position = 0;
+        int lineStart = 0;
+        String fileType = null;
+        String version = null;
+        Map<String, String> meta = new LinkedHashMap<>();
+        while (true) {
+            if (position >= window.limit()) {
+                throw new IOException("Unterminated header of " + file);
+            }
+            if (window.get(position++) != '\n') {
+                continue;
+            }
+            String line = readAscii(lineStart, position - 1);
+            lineStart = position;
+            if (line.isEmpty()) {
+                break;
+            } else if (fileType == null) {
+                fileType = line;
+            } else if (version == null) {
+                version = line;
+            } else {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    meta.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+                }
+            }
+        }
+        if (!"XLOG".equals(fileType) && !"SNAP".equals(fileType) && !"VYLOG".equals(fileType)) {
+            throw new IOException(String.format("%s is not a Tarantool xlog or snapshot file: %s", file, fileType));
+        }
+        this.fileType = fileType;
+        this.version = version;
+        this.meta = Collections.unmodifiableMap(meta);
+        this.nextBlock = position;
+    }
+
+    /**
+     * Open a file
+     *
+     * @param file .xlog or .snap file
+     * @return reader positioned before the first row
+     * @throws IOException if the file cannot be read or has no valid header
+     */
+    public static TarantoolXlogReader open(Path file) throws IOException {
+        return open(file, WINDOW_SIZE);
+    }
+
+    static TarantoolXlogReader open(Path file, int windowSize) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new TarantoolXlogReader(file, channel, windowSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * List the .snap and .xlog files of a data directory in the order of their LSN
+     *
+     * @param directory directory with the files copied from the container
+     * @return file paths, the snapshots first for the same LSN
+     * @throws IOException if the directory cannot be read
+     */
+    public static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.endsWith(".snap") || name.endsWith(".xlog");
+            }).sorted((a, b) -> {
+                String first = a.getFileName().toString();
+                String second = b.getFileName().toString();
+                int byLsn = first.substring(0, first.lastIndexOf('.'))
+                        .compareTo(second.substring(0, second.lastIndexOf('.')));
+                return byLsn != 0 ? byLsn : first.compareTo(second);
+            }).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Get the file type from the header
+     *
+     * @return XLOG, SNAP or VYLOG
+     */
+    public String getFileType() {
+        return fileType;
+    }
+
+    /**
+     * Get the format version from the header
+     *
+     * @return format version, e.g. 0.13
+     */
+    public String getFormatVersion() {
+        return version;
+    }
+
+    /**
+     * Get the header fields following the format version, e.g. Version, Instance and VClock
+     *
+     * @return header values by name
+     */
+    public Map<String, String> getMeta() {
+        return meta;
+    }
+
+    /**
+     * Parse the VClock header field
+     *
+     * @return LSN by replica id, empty if the field is missing
+     */
+    public Map<Integer, Long> getVClock() {
+        Map<Integer, Long> vclock = new LinkedHashMap<>();
+        String value = meta.get("VClock");
+        if (value == null) {
+            return vclock;
+        }
+        for (String component : value.replace("{", "").replace("}", "").split(",")) {
+            int colon = component.indexOf(':');
+            if (colon > 0) {
+                vclock.put(Integer.parseInt(component.substring(0, colon).trim()),
+                        Long.parseLong(component.substring(colon + 1).trim()));
+            }
+        }
+        return vclock;
+    }
+
+    /**
+     * Check whether the end-of-file marker has been reached. A file being written or cut by a crash has no marker.
+     *
+     * @return true if the whole file has been read up to the marker
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Move to the next row
+     *
+     * @return false if there are no more rows
+     * @throws IOException if the file cannot be read or is corrupted
+     */
+    public boolean next() throws IOException {
+        while (!finished) {
+            if (block != null && rowPosition < blockEnd) {
+                readRow();
+                return true;
+            }
+            readBlock();
+        }
+        return false;
+    }
+
+    /**
+     * Get the current row. The instance is reused and refers to the file data, it is valid until the next call of
+     * {@link #next()} and until the reader is closed.
+     *
+     * @return current row
+     */
+    public TarantoolXlogRow row() {
+        return row;
+    }
+
+    /**
+     * Iterate the remaining rows without keeping them
+     *
+     * @param action consumer of the reused row instance
+     * @throws IOException if the file cannot be read or is corrupted
+     */
+    public void forEach(Consumer<TarantoolXlogRow> action) throws IOException {
+        while (next()) {
+            action.accept(row);
+        }
+    }
+
+    /**
+     * Get the remaining rows as a stream of detached copies (see {@link TarantoolXlogRow#copy()}). Closing the
+     * stream closes the reader.
+     *
+     * @return stream of rows
+     */
+    public Stream<TarantoolXlogRow> stream() {
+        Spliterator<TarantoolXlogRow> spliterator = new Spliterators.AbstractSpliterator<TarantoolXlogRow>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super TarantoolXlogRow> action) {
+                try {
+                    if (!next()) {
+                        return false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                action.accept(row.copy());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        window = null;
+        block = null;
+        if (decompressor != null) {
+            decompressor.close();
+            decompressor = null;
+        }
+        channel.close();
+    }
+
+    private void readBlock() throws IOException {
+        block = null;
+        if (size - nextBlock < 4) {
+            finished = true;
+            return;
+        }
+        int headerSize = (int) Math.min(FIXHEADER_SIZE, size - nextBlock);
+        int position = ensureMapped(nextBlock, headerSize);
+        int magic = window.getInt(position);
+        if (magic == EOF_MARKER) {
+            complete = true;
+            finished = true;
+            return;
+        }
+        if (magic == 0) {
+            // a zero-filled tail left by a crash, the file has no more written blocks
+            finished = true;
+            return;
+        }
+        if (magic != ROW_MARKER && magic != ZROW_MARKER) {
+            throw new IOException(String.format("Unexpected block marker 0x%08x at offset %d of %s", magic,
+                    nextBlock, file));
+        }
+        if (headerSize < FIXHEADER_SIZE) {
+            // the last block has been cut
+            finished = true;
+            return;
+        }
+        long length = decoder.reset(window, position + 4, position + FIXHEADER_SIZE).readLong();
+        if (nextBlock + FIXHEADER_SIZE + length > size) {
+            finished = true;
+            return;
+        }
+        if (FIXHEADER_SIZE + length > Integer.MAX_VALUE) {
+            throw new IOException(String.format("Block of %d bytes at offset %d is too large", length, nextBlock));
+        }
+        position = ensureMapped(nextBlock, (int) (FIXHEADER_SIZE + length));
+        blockOffset = nextBlock;
+        nextBlock += FIXHEADER_SIZE + length;
+        int dataStart = position + FIXHEADER_SIZE;
+        int dataEnd = dataStart + (int) length;
+        if (magic == ROW_MARKER) {
+            block = window;
+            rowPosition = dataStart;
+            blockEnd = dataEnd;
+        } else {
+            if (decompressor == null) {
+                decompressor = ZstdBlockDecompressor.create();
+            }
+            block = decompressor.decompress(window, dataStart, dataEnd);
+            rowPosition = 0;
+            blockEnd = block.limit();
+        }
+    }
+
+    private void readRow() throws IOException {
+        row.reset(block, blockOffset);
+        decoder.reset(block, rowPosition, blockEnd);
+        int type = 0;
+        int replicaId = 0;
+        long lsn = 0;
+        double timestamp = 0;
+        int fields = decoder.readMapHeader();
+        for (int i = 0; i < fields; i++) {
+            int key = (int) decoder.readLong();
+            switch (key) {
+                case KEY_REQUEST_TYPE:
+                    type = (int) decoder.readLong();
+                    break;
+                case KEY_REPLICA_ID:
+                    replicaId = (int) decoder.readLong();
+                    break;
+                case KEY_LSN:
+                    lsn = decoder.readLong();
+                    break;
+                case KEY_TIMESTAMP:
+                    timestamp = decoder.readDouble();
+                    break;
+                default:
+                    decoder.skip();
+            }
+        }
+        row.setHeader(type, replicaId, lsn, timestamp);
+        if (type != TarantoolXlogRow.TYPE_NOP && decoder.hasRemaining() && decoder.isMap()) {
+            readBody();
+        }
+        rowPosition = decoder.position();
+    }
+
+    private void readBody() throws IOException {
+        int spaceId = -1;
+        int indexId = 0;
+        int fields = decoder.readMapHeader();
+        for (int i = 0; i < fields; i++) {
+            int key = (int) decoder.readLong();
+            int start = decoder.position();
+            switch (key) {
+                case KEY_SPACE_ID:
+                    spaceId = (int) decoder.readLong();
+                    break;
+                case KEY_INDEX_ID:
+                    indexId = (int) decoder.readLong();
+                    break;
+                case KEY_TUPLE:
+                    decoder.skip();
+                    row.setTuple(start, decoder.position());
+                    break;
+                case KEY_KEY:
+                    decoder.skip();
+                    row.setKey(start, decoder.position());
+                    break;
+                case KEY_OPS:
+                    decoder.skip();
+                    row.setOps(start, decoder.position());
+                    break;
+                default:
+                    decoder.skip();
+            }
+        }
+        row.setSpace(spaceId, indexId);
+    }
+
+    // Maps a window containing the region if needed, returns the region offset in the window
+    private int ensureMapped(long offset, int length) throws IOException {
+        if (window == null || offset < windowStart || offset + length > windowStart + window.limit()) {
+            mapWindow(offset, (int) Math.min(size - offset, Math.max(length, windowSize)));
+        }
+        return (int) (offset - windowStart);
+    }
+
+    private void mapWindow(long offset, int length) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        windowStart = offset;
+    }
+
+    private String readAscii(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = window.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,274 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A row of a Tarantool .xlog or .snap file read by {@link TarantoolXlogReader}.
+ * <p>
+ * The row returned by {@link TarantoolXlogReader#row()} is reused by the reader and refers to the file data in place,
+ * so it is valid only until the next call of {@link TarantoolXlogReader#next()}. The tuple, key and update operations
+ * are decoded only when requested. Use {@link #copy()} to keep a row.
+ */
+public final class TarantoolXlogRow {
+
+    public static final int TYPE_INSERT = 2;
+    public static final int TYPE_REPLACE = 3;
+    public static final int TYPE_UPDATE = 4;
+    public static final int TYPE_DELETE = 5;
+    public static final int TYPE_UPSERT = 9;
+    public static final int TYPE_NOP = 12;
+
+    private final MsgPackDecoder decoder = new MsgPackDecoder();
+    private ByteBuffer buffer;
+    private long offset;
+    private int type;
+    private int replicaId;
+    private long lsn;
+    private double timestamp;
+    private int spaceId;
+    private int indexId;
+    private int tupleStart;
+    private int tupleEnd;
+    private int keyStart;
+    private int keyEnd;
+    private int opsStart;
+    private int opsEnd;
+
+    TarantoolXlogRow() {
+    }
+
+    void reset(ByteBuffer buffer, long offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        type = 0;
+        replicaId = 0;
+        lsn = 0;
+        timestamp = 0;
+        spaceId = -1;
+        indexId = 0;
+        tupleStart = tupleEnd = keyStart = keyEnd = opsStart = opsEnd = -1;
+    }
+
+    void setHeader(int type, int replicaId, long lsn, double timestamp) {
+        this.type = type;
+        this.replicaId = replicaId;
+        this.lsn = lsn;
+        this.timestamp = timestamp;
+    }
+
+    void setSpace(int spaceId, int indexId) {
+        this.spaceId = spaceId;
+        this.indexId = indexId;
+    }
+
+    void setTuple(int start, int end) {
+        tupleStart = start;
+        tupleEnd = end;
+    }
+
+    void setKey(int start, int end) {
+        keyStart = start;
+        keyEnd = end;
+    }
+
+    void setOps(int start, int end) {
+        opsStart = start;
+        opsEnd = end;
+    }
+
+    /**
+     * Get the offset of the block containing the row in the file
+     *
+     * @return file offset
+     */
+    public long getBlockOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the request type code, see the TYPE_* constants
+     *
+     * @return request type
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Get the request type name
+     *
+     * @return INSERT, REPLACE, UPDATE, DELETE, UPSERT, NOP or the numeric code for the other requests
+     */
+    public String getOperation() {
+        switch (type) {
+            case TYPE_INSERT:
+                return "INSERT";
+            case TYPE_REPLACE:
+                return "REPLACE";
+            case TYPE_UPDATE:
+                return "UPDATE";
+            case TYPE_DELETE:
+                return "DELETE";
+            case TYPE_UPSERT:
+                return "UPSERT";
+            case TYPE_NOP:
+                return "NOP";
+            default:
+                return String.valueOf(type);
+        }
+    }
+
+    /**
+     * Get the id of the instance which has made the change
+     *
+     * @return replica id
+     */
+    public int getReplicaId() {
+        return replicaId;
+    }
+
+    /**
+     * Get the log sequence number
+     *
+     * @return LSN
+     */
+    public long getLsn() {
+        return lsn;
+    }
+
+    /**
+     * Get the time of the change
+     *
+     * @return seconds since the epoch, 0 if not recorded
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Get the id of the changed space
+     *
+     * @return space id or -1 if the request has no space
+     */
+    public int getSpaceId() {
+        return spaceId;
+    }
+
+    /**
+     * Get the id of the index used by the request
+     *
+     * @return index id
+     */
+    public int getIndexId() {
+        return indexId;
+    }
+
+    /**
+     * Check whether the request has a tuple (insert, replace and upsert)
+     *
+     * @return true if the tuple is present
+     */
+    public boolean hasTuple() {
+        return tupleStart >= 0;
+    }
+
+    /**
+     * Get the encoded tuple without decoding it
+     *
+     * @return read-only view of the MessagePack array or null if the request has no tuple
+     */
+    public ByteBuffer getTupleBuffer() {
+        return slice(tupleStart, tupleEnd);
+    }
+
+    /**
+     * Decode the tuple
+     *
+     * @return tuple fields or null if the request has no tuple
+     */
+    public List<?> getTuple() {
+        return decode(tupleStart, tupleEnd);
+    }
+
+    /**
+     * Decode the key of a delete or update request
+     *
+     * @return key parts or null if the request has no key
+     */
+    public List<?> getKey() {
+        return decode(keyStart, keyEnd);
+    }
+
+    /**
+     * Decode the operations of an update or upsert request
+     *
+     * @return operations or null if the request has none
+     */
+    public List<?> getOps() {
+        return decode(opsStart, opsEnd);
+    }
+
+    /**
+     * Copy the row, so that it stays valid after the reader has moved on
+     *
+     * @return detached row
+     */
+    public TarantoolXlogRow copy() {
+        int start = minStart();
+        int end = Math.max(tupleEnd, Math.max(keyEnd, opsEnd));
+        ByteBuffer data = ByteBuffer.allocate(Math.max(end - start, 0));
+        for (int i = start; i < end; i++) {
+            data.put(buffer.get(i));
+        }
+        TarantoolXlogRow copy = new TarantoolXlogRow();
+        copy.reset(data, offset);
+        copy.setHeader(type, replicaId, lsn, timestamp);
+        copy.setSpace(spaceId, indexId);
+        copy.setTuple(shift(tupleStart, start), shift(tupleEnd, start));
+        copy.setKey(shift(keyStart, start), shift(keyEnd, start));
+        copy.setOps(shift(opsStart, start), shift(opsEnd, start));
+        return copy;
+    }
+
+    private int minStart() {
+        int start = Integer.MAX_VALUE;
+        for (int value : new int[]{tupleStart, keyStart, opsStart}) {
+            if (value >= 0) {
+                start = Math.min(start, value);
+            }
+        }
+        return start == Integer.MAX_VALUE ? 0 : start;
+    }
+
+    private static int shift(int position, int start) {
+        return position < 0 ? -1 : position - start;
+    }
+
+    private ByteBuffer slice(int start, int end) {
+        if (start < 0) {
+            return null;
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.limit(end).position(start);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    private List<?> decode(int start, int end) {
+        if (start < 0) {
+            return null;
+        }
+        try {
+            return (List<?>) decoder.reset(buffer, start, end).readValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s lsn=%d replica=%d space=%d", getOperation(), lsn, replicaId, spaceId);
+    }
+}
@@ -0,0 +1,89 @@
+package org.testcontainers.containers;
+
+import java.util.Map;
+
+/**
+ * Bucket counters of a vshard storage replicaset, as reported by {@code vshard.storage.info().bucket}
+ */
+public class VshardBucketCounts {
+
+    private final int active;
+    private final int pinned;
+    private final int sending;
+    private final int receiving;
+    private final int garbage;
+    private final int total;
+
+    /**
+     * Basic constructor
+     *
+     * @param active    number of active buckets
+     * @param pinned    number of pinned buckets
+     * @param sending   number of buckets being sent
+     * @param receiving number of buckets being received
+     * @param garbage   number of buckets waiting for garbage collection
+     * @param total     total number of buckets on the storage
+     */
+    public VshardBucketCounts(int active, int pinned, int sending, int receiving, int garbage, int total) {
+        this.active = active;
+        this.pinned = pinned;
+        this.sending = sending;
+        this.receiving = receiving;
+        this.garbage = garbage;
+        this.total = total;
+    }
+
+    static VshardBucketCounts fromMap(Map<?, ?> map) {
+        return new VshardBucketCounts(
+                intValue(map, "active"),
+                intValue(map, "pinned"),
+                intValue(map, "sending"),
+                intValue(map, "receiving"),
+                intValue(map, "garbage"),
+                intValue(map, "total"));
+    }
+
+    private static int intValue(Map<?, ?> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getPinned() {
+        return pinned;
+    }
+
+    public int getSending() {
+        return sending;
+    }
+
+    public int getReceiving() {
+        return receiving;
+    }
+
+    public int getGarbage() {
+        return garbage;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Check if there are buckets in transfer on the storage
+     *
+     * @return true if some buckets are being sent or received
+     */
+    public boolean isTransferring() {
+        return sending > 0 || receiving > 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{active=%d, pinned=%d, sending=%d, receiving=%d, garbage=%d, total=%d}",
+                active, pinned, sending, receiving, garbage, total);
+    }
+}
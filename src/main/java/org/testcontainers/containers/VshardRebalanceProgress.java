@@ -0,0 +1,116 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A single sample of the vshard rebalancing state, collected from all storage replicasets of a Cartridge cluster
+ */
+public class VshardRebalanceProgress {
+
+    private final Duration elapsed;
+    private final Map<String, VshardBucketCounts> buckets;
+    private final Map<String, Double> weights;
+    private final double sentPerSecond;
+    private final double receivedPerSecond;
+
+    /**
+     * Basic constructor
+     *
+     * @param elapsed           time passed since the rebalancing observation has started
+     * @param buckets           bucket counters by replicaset alias
+     * @param weights           replicaset weights by replicaset alias
+     * @param sentPerSecond     buckets sent per second since the previous sample
+     * @param receivedPerSecond buckets received per second since the previous sample
+     */
+    public VshardRebalanceProgress(Duration elapsed, Map<String, VshardBucketCounts> buckets,
+                                   Map<String, Double> weights, double sentPerSecond, double receivedPerSecond) {
+        this.elapsed = elapsed;
+        this.buckets = Collections.unmodifiableMap(buckets);
+        this.weights = Collections.unmodifiableMap(weights);
+        this.sentPerSecond = sentPerSecond;
+        this.receivedPerSecond = receivedPerSecond;
+    }
+
+    /**
+     * Get the time passed since the rebalancing observation has started
+     *
+     * @return elapsed time
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Get the bucket counters of each storage replicaset
+     *
+     * @return bucket counters by replicaset alias
+     */
+    public Map<String, VshardBucketCounts> getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Get the weights of storage replicasets
+     *
+     * @return replicaset weights by replicaset alias
+     */
+    public Map<String, Double> getWeights() {
+        return weights;
+    }
+
+    /**
+     * Get the number of buckets per second that left their replicasets since the previous sample
+     *
+     * @return buckets per second
+     */
+    public double getSentPerSecond() {
+        return sentPerSecond;
+    }
+
+    /**
+     * Get the number of buckets per second that arrived to their new replicasets since the previous sample
+     *
+     * @return buckets per second
+     */
+    public double getReceivedPerSecond() {
+        return receivedPerSecond;
+    }
+
+    /**
+     * Check if the buckets are distributed according to the replicaset weights and no buckets are in transfer.
+     *
+     * @param disbalanceThreshold allowed deviation from the ideal bucket count in percents, like the vshard
+     *                            {@code rebalancer_disbalance_threshold} option
+     * @return true if the cluster is balanced
+     */
+    public boolean isBalanced(double disbalanceThreshold) {
+        double totalWeight = 0;
+        long totalBuckets = 0;
+        for (Map.Entry<String, VshardBucketCounts> entry : buckets.entrySet()) {
+            if (entry.getValue().isTransferring()) {
+                return false;
+            }
+            totalWeight += weights.getOrDefault(entry.getKey(), 1.0);
+            totalBuckets += entry.getValue().getActive();
+        }
+        if (totalWeight <= 0) {
+            return true;
+        }
+        for (Map.Entry<String, VshardBucketCounts> entry : buckets.entrySet()) {
+            double ideal = totalBuckets * weights.getOrDefault(entry.getKey(), 1.0) / totalWeight;
+            double allowed = Math.max(1.0, ideal * disbalanceThreshold / 100);
+            if (Math.abs(entry.getValue().getActive() - ideal) > allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("elapsed=%dms, sent=%.1f/s, received=%.1f/s, buckets=%s",
+                elapsed.toMillis(), sentPerSecond, receivedPerSecond, buckets);
+    }
+}
@@ -0,0 +1,71 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of an observed vshard rebalancing
+ */
+public class VshardRebalanceResult {
+
+    private final Duration duration;
+    private final long bucketsMoved;
+    private final List<VshardRebalanceProgress> samples;
+
+    /**
+     * Basic constructor
+     *
+     * @param duration     total rebalancing time
+     * @param bucketsMoved total number of buckets received by the replicasets
+     * @param samples      all collected progress samples in chronological order
+     */
+    public VshardRebalanceResult(Duration duration, long bucketsMoved, List<VshardRebalanceProgress> samples) {
+        this.duration = duration;
+        this.bucketsMoved = bucketsMoved;
+        this.samples = Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * Get the total rebalancing time
+     *
+     * @return time passed from the start of observation until the cluster became balanced
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get the total number of buckets moved between the replicasets
+     *
+     * @return bucket count
+     */
+    public long getBucketsMoved() {
+        return bucketsMoved;
+    }
+
+    /**
+     * Get the average rebalancing throughput
+     *
+     * @return buckets per second
+     */
+    public double getBucketsPerSecond() {
+        long millis = duration.toMillis();
+        return millis == 0 ? 0 : bucketsMoved * 1000.0 / millis;
+    }
+
+    /**
+     * Get the collected progress samples
+     *
+     * @return samples in chronological order
+     */
+    public List<VshardRebalanceProgress> getSamples() {
+        return samples;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("duration=%dms, bucketsMoved=%d, bucketsPerSecond=%.1f",
+                duration.toMillis(), bucketsMoved, getBucketsPerSecond());
+    }
+}
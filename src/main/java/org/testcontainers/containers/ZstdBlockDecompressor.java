@@ -0,0 +1,65 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.github.luben.zstd.ZstdDecompressCtx;
+
+/**
+ * Decompresses the zstd blocks of the xlog files into a reused direct buffer. The class is loaded only when a
+ * compressed block is met, so zstd-jni is needed on the classpath only for such files.
+ */
+final class ZstdBlockDecompressor {
+
+    private static final int INITIAL_CAPACITY = 256 * 1024;
+
+    private final ZstdDecompressCtx context = new ZstdDecompressCtx();
+    private ByteBuffer output = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+
+    private ZstdBlockDecompressor() {
+    }
+
+    static ZstdBlockDecompressor create() throws IOException {
+        try {
+            return new ZstdBlockDecompressor();
+        } catch (NoClassDefFoundError | UnsatisfiedLinkError e) {
+            throw new IOException("Reading the compressed xlog blocks requires com.github.luben:zstd-jni", e);
+        }
+    }
+
+    /**
+     * Decompress a block
+     *
+     * @param source direct buffer with the compressed data
+     * @param start  offset of the compressed data
+     * @param end    offset after the compressed data
+     * @return buffer with the decompressed data from 0 to the limit, valid until the next call
+     * @throws IOException if the data is corrupted
+     */
+    ByteBuffer decompress(ByteBuffer source, int start, int end) throws IOException {
+        ByteBuffer input = source.duplicate();
+        input.limit(end).position(start);
+        context.reset();
+        output.clear();
+        try {
+            while (!context.decompressDirectByteBufferStream(output, input)) {
+                if (!output.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocateDirect(output.capacity() * 2);
+                    output.flip();
+                    larger.put(output);
+                    output = larger;
+                } else if (!input.hasRemaining()) {
+                    throw new IOException("Truncated zstd block");
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to decompress a zstd block", e);
+        }
+        output.flip();
+        return output;
+    }
+
+    void close() {
+        context.close();
+    }
+}
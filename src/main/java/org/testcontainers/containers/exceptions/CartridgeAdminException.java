@@ -0,0 +1,15 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when a request to the Cartridge HTTP admin API fails
+ */
+public class CartridgeAdminException extends CartridgeContainerException {
+
+    public CartridgeAdminException(String message) {
+        super(message);
+    }
+
+    public CartridgeAdminException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
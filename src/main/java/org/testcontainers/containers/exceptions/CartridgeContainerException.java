@@ -6,4 +6,16 @@ package org.testcontainers.containers.exceptions;
  * @author Artyom Dubinin
  */
 public abstract class CartridgeContainerException extends TarantoolContainerException {
+
+    public CartridgeContainerException() {
+        super();
+    }
+
+    public CartridgeContainerException(String message) {
+        super(message);
+    }
+
+    public CartridgeContainerException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,15 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when the metrics of a Cartridge instance cannot be scraped or parsed
+ */
+public class CartridgeMetricsException extends CartridgeContainerException {
+
+    public CartridgeMetricsException(String message) {
+        super(message);
+    }
+
+    public CartridgeMetricsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
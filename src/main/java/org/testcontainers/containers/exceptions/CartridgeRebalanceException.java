@@ -0,0 +1,15 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when the vshard rebalancing cannot be started or does not finish in time
+ */
+public class CartridgeRebalanceException extends CartridgeContainerException {
+
+    public CartridgeRebalanceException(String message) {
+        super(message);
+    }
+
+    public CartridgeRebalanceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
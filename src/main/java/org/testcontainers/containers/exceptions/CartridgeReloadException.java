@@ -0,0 +1,15 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when the application code cannot be synchronized into the container or the roles fail to reload
+ */
+public class CartridgeReloadException extends CartridgeContainerException {
+
+    public CartridgeReloadException(String message) {
+        super(message);
+    }
+
+    public CartridgeReloadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -8,6 +8,10 @@ public class CartridgeTopologyException extends TarantoolContainerException {
         super(message);
     }
 
+    public CartridgeTopologyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
     public CartridgeTopologyException(Throwable cause) {
         super(errorMsg, cause);
     }
@@ -0,0 +1,11 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when the instance data cannot be backed up or restored
+ */
+public class TarantoolBackupException extends TarantoolContainerException {
+
+    public TarantoolBackupException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
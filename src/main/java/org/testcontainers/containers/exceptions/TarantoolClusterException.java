@@ -0,0 +1,15 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when a Tarantool 3.x cluster fails to start or to apply a configuration
+ */
+public class TarantoolClusterException extends TarantoolContainerException {
+
+    public TarantoolClusterException(String message) {
+        super(message);
+    }
+
+    public TarantoolClusterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
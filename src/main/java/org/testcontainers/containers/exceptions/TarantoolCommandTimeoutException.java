@@ -0,0 +1,31 @@
+package org.testcontainers.containers.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a command has not completed within its timeout. The fiber executing the command in the instance is
+ * cancelled before the exception is thrown.
+ */
+public class TarantoolCommandTimeoutException extends TarantoolContainerException {
+
+    private final Duration timeout;
+
+    public TarantoolCommandTimeoutException(String message, Duration timeout) {
+        super(message);
+        this.timeout = timeout;
+    }
+
+    public TarantoolCommandTimeoutException(String message, Duration timeout, Throwable cause) {
+        super(message, cause);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Get the exceeded timeout
+     *
+     * @return command timeout
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
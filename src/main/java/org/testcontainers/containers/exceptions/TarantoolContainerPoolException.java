@@ -0,0 +1,16 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when a container cannot be leased from a pool: the pool is closed, the containers fail to start or no
+ * container becomes available in time
+ */
+public class TarantoolContainerPoolException extends TarantoolContainerException {
+
+    public TarantoolContainerPoolException(String message) {
+        super(message);
+    }
+
+    public TarantoolContainerPoolException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when the files of a directory binding cannot be sent to the container
+ */
+public class TarantoolDirectorySyncException extends TarantoolContainerException {
+
+    public TarantoolDirectorySyncException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when the images of a Tarantool environment cannot be prepared or one of its containers fails to start
+ */
+public class TarantoolEnvironmentException extends TarantoolContainerException {
+
+    public TarantoolEnvironmentException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when a file cannot be copied into the container or loaded into a space
+ */
+public class TarantoolImportException extends TarantoolContainerException {
+
+    public TarantoolImportException(String message) {
+        super(message);
+    }
+
+    public TarantoolImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when a profiler cannot be started, stopped or its output cannot be copied to the host
+ */
+public class TarantoolProfilerException extends TarantoolContainerException {
+
+    public TarantoolProfilerException(String message) {
+        super(message);
+    }
+
+    public TarantoolProfilerException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package org.testcontainers.containers.exceptions;
+
+/**
+ * Thrown when a query streamed from the container fails
+ */
+public class TarantoolQueryException extends TarantoolContainerException {
+
+    public TarantoolQueryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
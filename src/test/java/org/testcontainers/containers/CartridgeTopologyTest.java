@@ -0,0 +1,70 @@
+package org.testcontainers.containers;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CartridgeTopologyTest {
+
+    private CartridgeTopology topology() {
+        return new CartridgeTopology("testapp")
+                .withInstance("router", "localhost:3301", 8081)
+                .withInstance("s1-master", "localhost:3302", 8082,
+                        Collections.singletonMap("memtx_memory", 60000000))
+                .withReplicaset(new CartridgeTopology.Replicaset("router")
+                        .withRoles("vshard-router", "app.roles.custom")
+                        .withInstances("router"))
+                .withReplicaset(new CartridgeTopology.Replicaset("s-1")
+                        .withRoles("vshard-storage")
+                        .withInstances("s1-master")
+                        .withWeight(1)
+                        .withVshardGroup("default"));
+    }
+
+    @Test
+    void test_editTopologyCommand_containsAllReplicasets() {
+        assertEquals("return require('cartridge').admin_edit_topology({replicasets = {" +
+                        "{['alias'] = 'router', ['roles'] = {'vshard-router', 'app.roles.custom'}, " +
+                        "['join_servers'] = {{['uri'] = 'localhost:3301'}}}, " +
+                        "{['alias'] = 's-1', ['roles'] = {'vshard-storage'}, " +
+                        "['join_servers'] = {{['uri'] = 'localhost:3302'}}, ['weight'] = 1.0, " +
+                        "['vshard_group'] = 'default'}}})",
+                topology().toEditTopologyCommand());
+    }
+
+    @Test
+    void test_instancesYaml_isPrefixedWithAppName() {
+        Map<String, Map<String, Object>> instances = new Yaml().load(topology().toInstancesYaml());
+        assertEquals(2, instances.size());
+        assertEquals("localhost:3302", instances.get("testapp.s1-master").get("advertise_uri"));
+        assertEquals(60000000, instances.get("testapp.s1-master").get("memtx_memory"));
+        assertEquals(8081, instances.get("testapp.router").get("http_port"));
+
+        CartridgeConfigParser parser = new CartridgeConfigParser(topology().toInstancesMap());
+        assertArrayEquals(new Integer[]{3301, 3302, 8081, 8082}, parser.getExposablePorts());
+    }
+
+    @Test
+    void test_failoverCommand() {
+        CartridgeTopology topology = topology().withFailover(new CartridgeTopology.Failover("stateful")
+                .withStateboard("localhost:4401", "passwd")
+                .withFailoverTimeout(5));
+        assertEquals("return require('cartridge').failover_set_params({['mode'] = 'stateful', " +
+                        "['state_provider'] = 'tarantool', " +
+                        "['tarantool_params'] = {['uri'] = 'localhost:4401', ['password'] = 'passwd'}, " +
+                        "['failover_timeout'] = 5.0})",
+                topology.toFailoverCommand());
+    }
+
+    @Test
+    void test_unknownInstance_isRejected() {
+        CartridgeTopology topology = new CartridgeTopology("testapp")
+                .withReplicaset(new CartridgeTopology.Replicaset("router").withInstances("router"));
+        assertThrows(IllegalStateException.class, topology::toEditTopologyCommand);
+    }
+}
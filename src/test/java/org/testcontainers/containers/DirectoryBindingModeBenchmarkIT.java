@@ -0,0 +1,55 @@
+package org.testcontainers.containers;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the container startup time and the Lua module load time of the directory binding modes. The numbers
+ * are logged, the difference is noticeable on Docker Desktop and rootless Docker, where the bind mounts are slow.
+ */
+class DirectoryBindingModeBenchmarkIT {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryBindingModeBenchmarkIT.class);
+
+    private static final int LOADS = 1000;
+    // loadfile() reads and compiles the file like require() does, without caching it
+    private static final String LOAD_MODULE_COMMAND = "local clock = require('clock') " +
+            "local started = clock.monotonic() " +
+            "for _ = 1, " + LOADS + " do assert(loadfile('/app/custom.lua')) end " +
+            "return clock.monotonic() - started";
+
+    @Test
+    void test_directoryBindingModes_startupAndModuleLoadTime() throws Exception {
+        Map<DirectoryBindingMode, long[]> results = new EnumMap<>(DirectoryBindingMode.class);
+        for (DirectoryBindingMode mode : DirectoryBindingMode.values()) {
+            try (TarantoolContainer container = new TarantoolContainer()
+                    .withDirectoryBinding("io/tarantool")
+                    .withScriptFileName("custom.lua")
+                    .withDirectoryBindingMode(mode)) {
+                long startedAt = System.nanoTime();
+                container.start();
+                long startupMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+                List<?> result = container.executeCommandDecoded("return user_function_no_param()");
+                assertEquals(5, result.get(0));
+                result = container.executeCommandDecoded(LOAD_MODULE_COMMAND);
+                long loadMicros = (long) (((Number) result.get(0)).doubleValue() * 1_000_000 / LOADS);
+
+                results.put(mode, new long[]{startupMillis, loadMicros});
+                assertEquals(0, container.syncDirectoryBinding().getSentFiles());
+            }
+        }
+        for (Map.Entry<DirectoryBindingMode, long[]> result : results.entrySet()) {
+            log.info("{}: startup {} ms, module load {} us", result.getKey(), result.getValue()[0],
+                    result.getValue()[1]);
+            assertTrue(result.getValue()[0] > 0);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectorySnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void test_diff_findsChangedFiles() throws IOException {
+        write("init.lua", "return 1");
+        write("app/roles/api.lua", "return 2");
+        write("app/roles/old.lua", "return 3");
+        write(".rocks/share/module.lua", "ignored");
+        DirectorySnapshot before = DirectorySnapshot.of(tempDir);
+        assertEquals(3, before.getHashes().size());
+        assertTrue(DirectorySnapshot.of(tempDir).diff(before).isEmpty());
+
+        write("app/roles/api.lua", "return 20");
+        write("app/roles/new.lua", "return 4");
+        Files.delete(tempDir.resolve("app/roles/old.lua"));
+        write(".rocks/share/module.lua", "changed");
+        DirectorySnapshot.Changes changes = DirectorySnapshot.of(tempDir).diff(before);
+
+        assertEquals(Collections.singletonList("app/roles/new.lua"), changes.getAdded());
+        assertEquals(Collections.singletonList("app/roles/api.lua"), changes.getModified());
+        assertEquals(Collections.singletonList("app/roles/old.lua"), changes.getDeleted());
+        assertEquals(Arrays.asList("app/roles/api.lua", "app/roles/new.lua"), changes.getChanged());
+        assertEquals(3, DirectorySnapshot.of(tempDir).diff(DirectorySnapshot.empty()).getAdded().size());
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = tempDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
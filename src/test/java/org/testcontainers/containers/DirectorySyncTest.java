@@ -0,0 +1,56 @@
+package org.testcontainers.containers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DirectorySyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void test_writeArchive_containsRelativeFiles() throws IOException {
+        write("init.lua", "return 1");
+        write("app/roles/api.lua", "return 2");
+        Path script = write("run.sh", "#!/bin/sh");
+        script.toFile().setExecutable(true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DirectorySync.writeArchive(tempDir, Arrays.asList("app/roles/api.lua", "init.lua", "run.sh"), out);
+
+        Map<String, String> contents = new HashMap<>();
+        Map<String, Integer> modes = new HashMap<>();
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                contents.put(entry.getName(), new String(IOUtils.toByteArray(tar), StandardCharsets.UTF_8));
+                modes.put(entry.getName(), entry.getMode() & 0777);
+            }
+        }
+        assertEquals(3, contents.size());
+        assertEquals("return 2", contents.get("app/roles/api.lua"));
+        assertEquals("return 1", contents.get("init.lua"));
+        assertEquals(0644, modes.get("init.lua").intValue());
+        assertEquals(0755, modes.get("run.sh").intValue());
+    }
+
+    private Path write(String path, String content) throws IOException {
+        Path file = tempDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
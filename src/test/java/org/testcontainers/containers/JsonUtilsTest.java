@@ -0,0 +1,50 @@
+package org.testcontainers.containers;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonUtilsTest {
+
+    @Test
+    void test_parse() {
+        Map<?, ?> result = (Map<?, ?>) JsonUtils.parse(
+                "{\"data\": {\"servers\": [{\"uri\": \"localhost:3301\", \"weight\": 1.5, \"id\": 1}," +
+                " {\"uri\": \"http:\\/\\/host\\u0021\", \"id\": 12345678901, \"ok\": true, \"msg\": null}]}}");
+        List<?> servers = (List<?>) ((Map<?, ?>) result.get("data")).get("servers");
+        assertEquals(2, servers.size());
+        Map<?, ?> first = (Map<?, ?>) servers.get(0);
+        assertEquals("localhost:3301", first.get("uri"));
+        assertEquals(1.5, first.get("weight"));
+        assertEquals(1, first.get("id"));
+        Map<?, ?> second = (Map<?, ?>) servers.get(1);
+        assertEquals("http://host!", second.get("uri"));
+        assertEquals(12345678901L, second.get("id"));
+        assertEquals(true, second.get("ok"));
+        assertNull(second.get("msg"));
+    }
+
+    @Test
+    void test_write() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("query", "query { \"a\\b\" }\n");
+        value.put("variables", Arrays.asList(1, 2.5, null, false));
+        String json = JsonUtils.write(value);
+        assertEquals("{\"query\":\"query { \\\"a\\\\b\\\" }\\n\",\"variables\":[1,2.5,null,false]}", json);
+        assertEquals(value, JsonUtils.parse(json));
+        assertEquals(value, JsonUtils.parse(JsonUtils.writePretty(value)));
+    }
+
+    @Test
+    void test_malformed() {
+        assertThrows(IllegalArgumentException.class, () -> JsonUtils.parse("{\"a\": }"));
+        assertThrows(IllegalArgumentException.class, () -> JsonUtils.parse("[1, 2"));
+        assertThrows(IllegalArgumentException.class, () -> JsonUtils.parse("{} x"));
+    }
+}
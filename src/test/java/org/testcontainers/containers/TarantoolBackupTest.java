@@ -0,0 +1,115 @@
+package org.testcontainers.containers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.exceptions.TarantoolBackupException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolBackupTest {
+
+    @Test
+    void test_write_streamsFilesWithParentDirectories() throws IOException {
+        Map<String, Object> manifests = new LinkedHashMap<>();
+        manifests.put("s1-master", manifest(Arrays.asList("/data/s1/00000000000000000010.snap"),
+                Arrays.asList(dir("/data", 040755), dir("/data/s1", 040750))));
+        manifests.put("s2-master", manifest(Arrays.asList("/data/s2/00000000000000000020.snap"),
+                Arrays.asList(dir("/data", 040755), dir("/data/s2", 040750))));
+        List<String> commands = new ArrayList<>();
+        InstanceCommandRunner runner = command -> {
+            commands.add(command);
+            return command.equals(TarantoolBackup.START_COMMAND) ? manifests : new HashMap<>();
+        };
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TarantoolBackupResult result = TarantoolBackup.write(runner, TarantoolBackupTest::dockerArchive, out);
+
+        assertEquals(Arrays.asList(TarantoolBackup.START_COMMAND, TarantoolBackup.STOP_COMMAND), commands);
+        assertEquals(Arrays.asList("s1-master", "s2-master"), result.getInstances());
+        assertEquals(2, result.getFiles().size());
+        List<String> names = new ArrayList<>();
+        Map<String, String> contents = new HashMap<>();
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                names.add(entry.getName());
+                if (entry.isFile()) {
+                    contents.put(entry.getName(), new String(IOUtils.toByteArray(tar), StandardCharsets.UTF_8));
+                    assertEquals(999, entry.getLongUserId());
+                    assertEquals(0640, entry.getMode() & 0777);
+                } else {
+                    assertEquals(999, entry.getLongGroupId());
+                }
+            }
+        }
+        assertEquals(Arrays.asList("data/", "data/s1/", "data/s2/", "data/s1/00000000000000000010.snap",
+                "data/s2/00000000000000000020.snap"), names);
+        assertEquals("/data/s2/00000000000000000020.snap", contents.get("data/s2/00000000000000000020.snap"));
+        assertEquals(result.getBytes(), contents.values().stream().mapToLong(String::length).sum());
+    }
+
+    @Test
+    void test_write_stopsBackupOnFailure() {
+        List<String> commands = new ArrayList<>();
+        InstanceCommandRunner runner = command -> {
+            commands.add(command);
+            return command.equals(TarantoolBackup.START_COMMAND) ?
+                    Collections.singletonMap("", manifest(Arrays.asList("/data/1.snap"),
+                            Arrays.asList(dir("/data", 040755)))) :
+                    new HashMap<>();
+        };
+
+        TarantoolBackupException e = assertThrows(TarantoolBackupException.class,
+                () -> TarantoolBackup.write(runner, path -> {
+                    throw new FileNotFoundException(path);
+                }, new ByteArrayOutputStream()));
+
+        assertTrue(e.getCause() instanceof FileNotFoundException);
+        assertEquals(TarantoolBackup.STOP_COMMAND, commands.get(commands.size() - 1));
+    }
+
+    private static Map<String, Object> manifest(List<String> files, List<List<Object>> dirs) {
+        Map<String, Object> manifest = new HashMap<>();
+        manifest.put("files", files);
+        manifest.put("dirs", dirs);
+        return manifest;
+    }
+
+    private static List<Object> dir(String path, int mode) {
+        return Arrays.asList(path, mode, 999, 999);
+    }
+
+    // Imitates the Docker archive API: a single entry named by the base name of the file
+    private static ByteArrayInputStream dockerArchive(String path) throws IOException {
+        byte[] content = path.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            TarArchiveEntry entry = new TarArchiveEntry(path.substring(path.lastIndexOf('/') + 1));
+            entry.setSize(content.length);
+            entry.setMode(0100640);
+            entry.setUserId(999);
+            entry.setGroupId(999);
+            tar.putArchiveEntry(entry);
+            tar.write(content);
+            tar.closeArchiveEntry();
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
@@ -0,0 +1,66 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Testcontainers
+public class TarantoolCartridgeBootstrapFromJavaIT {
+
+    private static final CartridgeTopology topology = new CartridgeTopology("testapp")
+            .withInstance("router", "localhost:3301", 8081,
+                    Collections.singletonMap("memtx_memory", 60000000))
+            .withInstance("s1-master", "localhost:3302", 8082,
+                    Collections.singletonMap("memtx_memory", 60000000))
+            .withReplicaset(new CartridgeTopology.Replicaset("router")
+                    .withRoles("vshard-router", "app.roles.custom", "app.roles.api_router")
+                    .withInstances("router"))
+            .withReplicaset(new CartridgeTopology.Replicaset("s1-storage")
+                    .withRoles("vshard-storage", "app.roles.api_storage")
+                    .withInstances("s1-master")
+                    .withWeight(1))
+            .withFailover(new CartridgeTopology.Failover("eventual"));
+
+    @Container
+    private static final TarantoolCartridgeContainer container =
+            new TarantoolCartridgeContainer(
+                    "Dockerfile",
+                    System.getenv().getOrDefault("TESTCONTAINERS_HUB_IMAGE_NAME_PREFIX", "") + "cartridge",
+                    topology)
+                    .withStartupTimeout(Duration.ofMinutes(5))
+                    .withLogConsumer(new Slf4jLogConsumer(
+                            LoggerFactory.getLogger(TarantoolCartridgeBootstrapFromJavaIT.class)));
+
+    @Test
+    public void test_ClusterContainer_StartsSuccessfully_withJavaTopology() throws Exception {
+        CartridgeContainerTestUtils.executeProfileReplaceSmokeTest(container);
+    }
+
+    @Test
+    public void test_failoverParams_areApplied() throws Exception {
+        List<Map<String, Object>> result =
+                container.executeCommandDecoded("return require('cartridge').failover_get_params()");
+        assertEquals("eventual", result.get(0).get("mode"));
+    }
+
+    @Test
+    public void test_resetState_truncatesSpacesOnStorages() throws Exception {
+        CartridgeContainerTestUtils.executeProfileReplaceSmokeTest(container);
+
+        container.resetState();
+
+        Map<String, Object> result = container.executeCommandOnAllInstances(
+                "return box.space.profile ~= nil and box.space.profile:len() or nil");
+        assertEquals(Collections.singletonMap("s1-master", 0), result);
+        assertEquals(true, container.executeCommandOnAllInstances(
+                "return box.space._bucket == nil or box.space._bucket:len() > 0").get("s1-master"));
+    }
+}
@@ -1,6 +1,7 @@
 package org.testcontainers.containers;
 
 import java.time.Duration;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.slf4j.LoggerFactory;
@@ -9,6 +10,7 @@ import org.testcontainers.containers.output.Slf4jLogConsumer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Alexey Kuzin
@@ -43,4 +45,27 @@ public class TarantoolCartridgeBootstrapFromYamlIT {
                 "...\n" +
                 "\n", result.getStdout());
     }
+
+    @Test
+    public void test_adminClient_readsClusterState() {
+        CartridgeAdminClient client = container.getAdminClient();
+
+        List<CartridgeAdminClient.Server> servers = client.getServers();
+        assertEquals(2, servers.size());
+
+        List<CartridgeAdminClient.Replicaset> replicasets = client.getReplicasets();
+        assertEquals(2, replicasets.size());
+        assertTrue(replicasets.stream().anyMatch(rs -> rs.getRoles().contains("vshard-storage")));
+
+        assertTrue(client.getHealth().isHealthy());
+        assertEquals("disabled", client.getFailoverParams().getMode());
+        assertEquals("eventual", client.setFailoverParams("eventual", null, null, null).getMode());
+        CartridgeAdminClient.FailoverParams params = client.setFailoverParams(
+                new CartridgeTopology.Failover("eventual").withFailoverTimeout(25));
+        assertEquals(Double.valueOf(25), params.getFailoverTimeout());
+        assertEquals("disabled", client.setFailoverParams("disabled", null, null, null).getMode());
+
+        client.uploadConfig("custom_section:\n  key: value\n");
+        assertTrue(client.downloadConfig().contains("custom_section"));
+    }
 }
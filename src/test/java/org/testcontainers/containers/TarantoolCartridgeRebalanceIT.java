@@ -0,0 +1,60 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers
+public class TarantoolCartridgeRebalanceIT {
+
+    private static final int BUCKET_COUNT = 3000;
+
+    @Container
+    private static final TarantoolCartridgeContainer container =
+            new TarantoolCartridgeContainer(
+                    "Dockerfile",
+                    System.getenv().getOrDefault("TESTCONTAINERS_HUB_IMAGE_NAME_PREFIX", "") + "cartridge",
+                    "cartridge/instances_rebalance.yml",
+                    "cartridge/topology.lua")
+                    .withEnv("TARANTOOL_INSTANCES_FILE", "instances_rebalance.yml")
+                    .withBucketCount(BUCKET_COUNT)
+                    .withBucketChunkSize(100)
+                    .withStartupTimeout(Duration.ofMinutes(5))
+                    .withLogConsumer(new Slf4jLogConsumer(
+                            LoggerFactory.getLogger(TarantoolCartridgeRebalanceIT.class)));
+
+    @Test
+    public void test_rebalancing_isObserved() throws Exception {
+        List<Object> bucketCount = container.executeCommandDecoded(
+                "return require('cartridge').service_get('vshard-router').get():bucket_count()");
+        assertEquals(BUCKET_COUNT, bucketCount.get(0));
+
+        List<VshardRebalanceProgress> samples = Collections.synchronizedList(new ArrayList<>());
+        VshardRebalanceResult result = container.joinStorageReplicaset("s2-storage",
+                Arrays.asList("vshard-storage", "app.roles.api_storage"),
+                Collections.singletonList("localhost:3303"), 1, samples::add);
+
+        assertFalse(samples.isEmpty());
+        assertTrue(result.getBucketsMoved() > 0);
+        assertTrue(result.getDuration().toMillis() > 0);
+        VshardRebalanceProgress last = samples.get(samples.size() - 1);
+        assertEquals(2, last.getBuckets().size());
+        assertEquals(BUCKET_COUNT / 2, last.getBuckets().get("s2-storage").getActive(), BUCKET_COUNT / 100);
+
+        result = container.changeReplicasetWeight("s2-storage", 0);
+        assertTrue(result.getBucketsMoved() > 0);
+        assertEquals(0, result.getSamples().get(result.getSamples().size() - 1)
+                .getBuckets().get("s2-storage").getActive());
+    }
+}
@@ -0,0 +1,63 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolCheckpointsTest {
+
+    @Test
+    void test_parseCheckpointResults_convertsSecondsAndOrdersByInstance() {
+        Map<String, Object> storage = new HashMap<>();
+        storage.put("signature", 120);
+        storage.put("duration", 0.25);
+        storage.put("snapshot_size", 4096);
+        storage.put("wal_files_before", 3);
+        storage.put("wal_files_after", 1);
+        storage.put("wal_bytes_before", 30000);
+        storage.put("wal_bytes_after", 200);
+        storage.put("max_lag", 0.0015);
+        Map<String, Object> results = new HashMap<>();
+        results.put("s2-master", storage);
+        results.put("router", new HashMap<>(storage));
+
+        List<TarantoolCheckpointResult> checkpoints = TarantoolCheckpoints.parseCheckpointResults(results);
+
+        assertEquals(2, checkpoints.size());
+        TarantoolCheckpointResult result = checkpoints.get(1);
+        assertEquals("s2-master", result.getInstance());
+        assertEquals(120, result.getSignature());
+        assertEquals(Duration.ofMillis(250), result.getDuration());
+        assertEquals(4096, result.getSnapshotSize());
+        assertEquals(2, result.getRemovedWalFiles());
+        assertEquals(200, result.getWalBytesAfter());
+        assertEquals(Duration.ofNanos(1_500_000), result.getMaxEventLoopLag());
+    }
+
+    @Test
+    void test_parseCheckpoints_keepsReferences() {
+        Map<String, Object> first = new HashMap<>();
+        first.put("signature", 10);
+        first.put("snapshot_size", 100);
+        first.put("references", Collections.emptyMap());
+        Map<String, Object> second = new HashMap<>();
+        second.put("signature", 20);
+        second.put("snapshot_size", 200);
+        second.put("references", Collections.singletonList("backup"));
+
+        List<TarantoolCheckpoint> checkpoints = TarantoolCheckpoints.parseCheckpoints(
+                Collections.singletonMap("", Arrays.asList(first, second)));
+
+        assertEquals(2, checkpoints.size());
+        assertTrue(checkpoints.get(0).getReferences().isEmpty());
+        assertEquals(20, checkpoints.get(1).getSignature());
+        assertEquals(Collections.singletonList("backup"), checkpoints.get(1).getReferences());
+    }
+}
@@ -0,0 +1,102 @@
+package org.testcontainers.containers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolClusterConfigTest {
+
+    @Test
+    void test_generatedConfig_isParsedBack() {
+        TarantoolClusterConfig config = new TarantoolClusterConfig()
+                .withCredentials("admin", "secret")
+                .withOption("replication.failover", "manual")
+                .withGroup(new TarantoolClusterConfig.Group("routers")
+                        .withOption("roles", Collections.singletonList("roles.crud-router"))
+                        .withReplicaset(new TarantoolClusterConfig.Replicaset("router")
+                                .withInstance("router", 3301)))
+                .withGroup(new TarantoolClusterConfig.Group("storages")
+                        .withReplicaset(new TarantoolClusterConfig.Replicaset("storage-a")
+                                .withOption("leader", "storage-a-001")
+                                .withInstance("storage-a-001", 3302,
+                                        Collections.singletonMap("memtx.memory", 268435456))
+                                .withInstance("storage-a-002", 3303)));
+
+        TarantoolClusterConfig parsed = TarantoolClusterConfig.fromYaml(config.toYaml());
+
+        Map<String, Integer> expectedPorts = new LinkedHashMap<>();
+        expectedPorts.put("router", 3301);
+        expectedPorts.put("storage-a-001", 3302);
+        expectedPorts.put("storage-a-002", 3303);
+        assertEquals(expectedPorts, parsed.getInstancePorts());
+        assertEquals(config.toMap(), parsed.toMap());
+
+        Map<String, Object> root = parsed.toMap();
+        assertEquals("manual", TarantoolClusterConfig.getOption(root, "replication.failover"));
+        assertEquals("admin", TarantoolClusterConfig.getOption(root, "iproto.advertise.peer.login"));
+        assertEquals(Collections.singletonList("super"),
+                TarantoolClusterConfig.getOption(root, "credentials.users.admin.roles"));
+        assertEquals("localhost:3302", TarantoolClusterConfig.getOption(root,
+                "groups.storages.replicasets.storage-a.instances.storage-a-001.iproto.advertise.peer.uri"));
+        assertEquals(268435456, TarantoolClusterConfig.getOption(root,
+                "groups.storages.replicasets.storage-a.instances.storage-a-001.memtx.memory"));
+    }
+
+    @Test
+    void test_configResource_isLoaded() {
+        TarantoolClusterConfig config = TarantoolClusterConfig.fromResource("cluster/config.yaml");
+
+        assertEquals(Arrays.asList("router", "storage-a-001", "storage-a-002"), config.getInstanceNames());
+        assertEquals(3303, config.getInstancePorts().get("storage-a-002"));
+        assertThrows(IllegalArgumentException.class, () -> TarantoolClusterConfig.fromResource("cluster/none.yaml"));
+    }
+
+    @Test
+    void test_instancePorts_areParsedFromListenUris() {
+        TarantoolClusterConfig config = TarantoolClusterConfig.fromYaml(
+                "groups:\n" +
+                "  g:\n" +
+                "    replicasets:\n" +
+                "      r:\n" +
+                "        instances:\n" +
+                "          a:\n" +
+                "            iproto: {listen: [{uri: '3301'}]}\n" +
+                "          b:\n" +
+                "            iproto: {listen: [{uri: 'unix/:./b.iproto'}]}\n" +
+                "          c: {}\n");
+
+        Map<String, Integer> expectedPorts = new HashMap<>();
+        expectedPorts.put("a", 3301);
+        expectedPorts.put("b", null);
+        expectedPorts.put("c", null);
+        assertEquals(expectedPorts, config.getInstancePorts());
+    }
+
+    @Test
+    void test_startScript_startsAllInstances() {
+        TarantoolClusterContainer container =
+                new TarantoolClusterContainer(TarantoolClusterConfig.fromResource("cluster/config.yaml"));
+
+        String script = container.toStartScript();
+        assertTrue(script.contains("exec tt start -i cluster"));
+        assertTrue(script.contains("tarantool --name storage-a-002 --config " +
+                "/opt/tarantool/instances.enabled/cluster/config.yaml &"));
+        assertFalse(container.withTt(false).toStartScript().contains("tt start"));
+        assertEquals("guest", container.getUsername());
+
+        Map<String, Object> statuses = new HashMap<>();
+        statuses.put("router", "ready");
+        statuses.put("storage-a-001", "check_warnings");
+        assertTrue(TarantoolClusterContainer.isConfigured(statuses));
+        statuses.put("storage-a-002", "startup_in_progress");
+        assertFalse(TarantoolClusterContainer.isConfigured(statuses));
+    }
+}
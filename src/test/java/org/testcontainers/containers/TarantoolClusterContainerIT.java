@@ -0,0 +1,49 @@
+package org.testcontainers.containers;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@Testcontainers
+public class TarantoolClusterContainerIT {
+
+    @Container
+    private static final TarantoolClusterContainer container =
+            new TarantoolClusterContainer("cluster/config.yaml")
+                    .withUsername("admin")
+                    .withPassword("secret")
+                    .withLogConsumer(new Slf4jLogConsumer(LoggerFactory.getLogger(TarantoolClusterContainerIT.class)));
+
+    @Test
+    public void test_instances_areStartedFromConfig() throws Exception {
+        Map<String, Object> names = container.executeCommandOnAllInstances("return box.info.name");
+        assertEquals("router", names.get("router"));
+        assertEquals("storage-a-002", names.get("storage-a-002"));
+
+        List<?> ro = container.executeCommandDecoded("storage-a-001", "return box.info.ro");
+        assertEquals(false, ro.get(0));
+        assertNotEquals(container.getInstancePort("router"), container.getInstancePort("storage-a-001"));
+    }
+
+    @Test
+    public void test_config_isReloadedWithoutRestart() throws Exception {
+        List<?> pid = container.executeCommandDecoded("storage-a-002", "return box.info.pid");
+
+        TarantoolClusterConfig config = TarantoolClusterConfig.fromResource("cluster/config.yaml");
+        config.getGroup("storages").getReplicaset("storage-a").withOption("leader", "storage-a-002");
+        container.reloadConfig(config);
+
+        List<?> ro = container.executeCommandDecoded("storage-a-002", "return box.info.ro");
+        assertEquals(false, ro.get(0));
+        assertEquals(pid, container.executeCommandDecoded("storage-a-002", "return box.info.pid"));
+
+        container.reloadConfig("cluster/config.yaml");
+    }
+}
@@ -0,0 +1,27 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolContainerClientHelperTest {
+
+    @Test
+    void test_toTimedCommand_wrapsCommandIntoCancellableFiber() {
+        String command = TarantoolContainerClientHelper.toTimedCommand("return box.space.users:get('a')",
+                "'localhost:3301', {}", Duration.ofMillis(1500), "token1");
+
+        assertTrue(command.contains("local timeout, token = 1.5, 'token1' "));
+        assertTrue(command.contains("calls[token] = require([[fiber]]).id() "));
+        assertTrue(command.contains("loadstring([=====[return box.space.users:get(\\'a\\')]=====])"));
+        assertTrue(command.contains("pcall(require([[fiber]]).kill, id)"));
+        assertTrue(command.contains("os.exit(124)"));
+        assertTrue(command.endsWith("tarantool container-tmp-token1.lua; code=$?; rm -f container-tmp-token1.lua; " +
+                "exit $code"));
+
+        assertThrows(IllegalArgumentException.class, () -> TarantoolContainerClientHelper.toTimedCommand(
+                "return ']=====]'", "'localhost:3301', {}", Duration.ofSeconds(1), "token2"));
+    }
+}
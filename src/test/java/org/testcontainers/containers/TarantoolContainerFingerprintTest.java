@@ -0,0 +1,80 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TarantoolContainerFingerprintTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void test_buildArgsOrderDoesNotMatter() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("TARANTOOL_VERSION", "2.11.8");
+        first.put("CARTRIDGE_SRC_DIR", "cartridge");
+        Map<String, String> second = new LinkedHashMap<>();
+        second.put("CARTRIDGE_SRC_DIR", "cartridge");
+        second.put("TARANTOOL_VERSION", "2.11.8");
+
+        assertEquals(new TarantoolContainerFingerprint().add("args", first).toHex(),
+                new TarantoolContainerFingerprint().add("args", second).toHex());
+
+        second.put("TARANTOOL_VERSION", "3.2.0");
+        assertNotEquals(new TarantoolContainerFingerprint().add("args", first).toHex(),
+                new TarantoolContainerFingerprint().add("args", second).toHex());
+    }
+
+    @Test
+    void test_valuesAreDelimited() {
+        assertNotEquals(new TarantoolContainerFingerprint().add("a", "bc").toHex(),
+                new TarantoolContainerFingerprint().add("ab", "c").toHex());
+        assertNotEquals(new TarantoolContainerFingerprint().add("a", (String) null).toHex(),
+                new TarantoolContainerFingerprint().add("a", "").toHex());
+        assertNotEquals(new TarantoolContainerFingerprint().add("a", new HashMap<>()).toHex(),
+                new TarantoolContainerFingerprint().add("a", "").toHex());
+    }
+
+    @Test
+    void test_directoryContents() throws IOException {
+        write("init.lua", "require('cartridge')");
+        write("app/roles/api.lua", "return {}");
+        String initial = new TarantoolContainerFingerprint().addPath("dir", tempDir.toString()).toHex();
+
+        // the instance working files are ignored
+        write("tmp/db_dev/3301/00000000000000000000.snap", "data");
+        write(".rocks/share/tarantool/cartridge.lua", "return {}");
+        assertEquals(initial, new TarantoolContainerFingerprint().addPath("dir", tempDir.toString()).toHex());
+
+        write("app/roles/api.lua", "return {name = 'api'}");
+        assertNotEquals(initial, new TarantoolContainerFingerprint().addPath("dir", tempDir.toString()).toHex());
+    }
+
+    @Test
+    void test_classpathResource() {
+        String instances = new TarantoolContainerFingerprint()
+                .addResource("file", "cartridge/instances.yml").toHex();
+        assertEquals(instances, new TarantoolContainerFingerprint()
+                .addResource("file", "cartridge/instances.yml").toHex());
+        assertNotEquals(instances, new TarantoolContainerFingerprint()
+                .addResource("file", "cartridge/instances_fixedport.yml").toHex());
+        assertNotEquals(instances, new TarantoolContainerFingerprint()
+                .addResource("file", "cartridge/missing.yml").toHex());
+    }
+
+    private void write(String relativePath, String contents) throws IOException {
+        Path file = tempDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
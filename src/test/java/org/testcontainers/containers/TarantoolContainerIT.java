@@ -1,12 +1,24 @@
 package org.testcontainers.containers;
 
+import java.io.DataInputStream;
 import java.lang.reflect.Field;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcontainers.containers.exceptions.TarantoolCommandTimeoutException;
 
 /**
  * @author Alexey Kuzin
@@ -46,6 +58,306 @@ class TarantoolContainerIT {
         }
     }
 
+    @Test
+    public void testResetState() throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('baseline_space') " +
+                    "box.space.baseline_space:create_index('pk')");
+            container.captureStateBaseline();
+
+            container.executeCommand("box.space.baseline_space:insert({1}) " +
+                    "box.schema.space.create('test_space') box.schema.user.create('test_user') " +
+                    "box.schema.func.create('test_func') box.schema.sequence.create('test_seq')");
+            container.resetState();
+
+            List<?> result = container.executeCommandDecoded("return box.space.baseline_space:len(), " +
+                    "box.space.test_space == nil, box.schema.user.exists('test_user'), " +
+                    "box.schema.func.exists('test_func'), box.sequence.test_seq == nil");
+            assertEquals(Arrays.asList(0, true, false, false, true), result);
+        }
+    }
+
+    @Test
+    public void testSpaceSubscription() throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('cdc_space') box.space.cdc_space:create_index('pk')");
+
+            try (TarantoolSpaceSubscription subscription = container.subscribe("cdc_space", 2)) {
+                container.executeCommand("box.space.cdc_space:insert({1, 'a'}) " +
+                        "box.space.cdc_space:update({1}, {{'=', 2, 'b'}}) box.space.cdc_space:delete({1})");
+                List<TarantoolChangeEvent> events = subscription.poll(10, Duration.ofSeconds(5));
+                assertEquals(2, events.size());
+                assertEquals("UPDATE", events.get(0).getOperation());
+                assertEquals(Arrays.asList(1, "b"), events.get(0).getNewTuple());
+                assertEquals("DELETE", events.get(1).getOperation());
+                assertEquals(1, subscription.getDroppedEvents());
+            }
+
+            List<?> result = container.executeCommandDecoded("return #box.space.cdc_space:on_replace()");
+            assertEquals(0, result.get(0));
+        }
+    }
+
+    @Test
+    public void testPagedSelect() throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('paged_space') " +
+                    "box.space.paged_space:create_index('pk') " +
+                    "for i = 1, 25 do box.space.paged_space:insert({i, 'value'}) end");
+
+            try (TarantoolSelectCursor cursor = container.select("paged_space", 10)) {
+                long sum = cursor.stream().mapToLong(tuple -> ((Number) tuple.get(0)).longValue()).sum();
+                assertEquals(325, sum);
+                assertEquals(3, cursor.getPages());
+            }
+        }
+    }
+
+    @Test
+    public void testReadSnapshot(@TempDir Path tempDir) throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('persisted_space', {id = 600}) " +
+                    "box.space.persisted_space:create_index('pk') " +
+                    "for i = 1, 100 do box.space.persisted_space:insert({i, 'value'}) end box.snapshot()");
+            List<?> result = container.executeCommandDecoded("local fio = require('fio') " +
+                    "local files = fio.glob(fio.pathjoin(fio.abspath(box.cfg.memtx_dir), '*.snap')) " +
+                    "table.sort(files) return files[#files]");
+            Path snapshot = tempDir.resolve("latest.snap");
+            container.copyFileFromContainer((String) result.get(0), snapshot.toString());
+
+            long rows = 0;
+            try (TarantoolXlogReader reader = TarantoolXlogReader.open(snapshot)) {
+                assertEquals("SNAP", reader.getFileType());
+                while (reader.next()) {
+                    if (reader.row().getSpaceId() == 600) {
+                        rows++;
+                    }
+                }
+                assertTrue(reader.isComplete());
+            }
+            assertEquals(100, rows);
+        }
+    }
+
+    @Test
+    public void testBackupAndRestore(@TempDir Path tempDir) throws Exception {
+        Path archive = tempDir.resolve("backup.tar");
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('backed_up_space') " +
+                    "box.space.backed_up_space:create_index('pk') " +
+                    "for i = 1, 100 do box.space.backed_up_space:insert({i, 'value'}) end");
+            TarantoolBackupResult result = container.backup(archive);
+            assertTrue(result.getFiles().stream().anyMatch(file -> file.endsWith(".snap")));
+            assertTrue(Files.size(archive) > result.getBytes());
+        }
+        try (TarantoolContainer container = new TarantoolContainer().withRestoreFrom(archive)) {
+            container.start();
+            List<?> result = container.executeCommandDecoded("return box.space.backed_up_space:count()");
+            assertEquals(100, result.get(0));
+        }
+    }
+
+    @Test
+    public void testCheckpoint() throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('checkpointed_space') " +
+                    "box.space.checkpointed_space:create_index('pk') " +
+                    "for i = 1, 1000 do box.space.checkpointed_space:insert({i, 'value'}) end");
+            List<TarantoolCheckpointResult> results = container.checkpoint();
+            assertEquals(1, results.size());
+            TarantoolCheckpointResult result = results.get(0);
+            assertTrue(result.getSnapshotSize() > 0);
+            assertTrue(result.getWalFilesBefore() > 0);
+
+            List<TarantoolCheckpoint> checkpoints = container.getCheckpoints();
+            assertEquals(result.getSignature(), checkpoints.get(checkpoints.size() - 1).getSignature());
+        }
+    }
+
+    @Test
+    public void testProfiler(@TempDir Path tempDir) throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            TarantoolProfiler profiler = container.profiler().withSamplingInterval(1);
+            TarantoolProfile profile = profiler.record(TarantoolProfilerType.SYSPROF, () -> {
+                try {
+                    container.executeCommand("local s = 0 for i = 1, 1e8 do s = s + i % 7 end return s");
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }, tempDir.resolve("sysprof.bin"));
+            assertTrue(Files.size(profile.getProfileFile()) > 0);
+            assertTrue(Files.size(profile.getParsedFile()) > 0);
+
+            List<TarantoolFiberCpu> fibers = profiler.fiberTop(Duration.ofMillis(100));
+            assertTrue(fibers.stream().anyMatch(fiber -> fiber.getName().equals("sched")));
+        }
+    }
+
+    @Test
+    public void testLuaBenchmark(@TempDir Path tempDir) throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('benchmarked_space') " +
+                    "box.space.benchmarked_space:create_index('pk') box.space.benchmarked_space:insert({1, 'value'})");
+            TarantoolBenchmarkResult result = TarantoolBenchmark.lua("get", container,
+                    "return box.space.benchmarked_space:get(1)").withRuns(3).withIterations(10_000).run();
+            assertTrue(result.getMedian().getThroughput() > 0);
+
+            TarantoolPerformanceBaseline baseline = TarantoolPerformanceBaseline.load(tempDir.resolve("b.json"));
+            baseline.update(result);
+            assertTrue(baseline.withThroughputTolerance(1.0).withLatencyTolerance(10.0).compare(result)
+                    .getMetrics().stream().noneMatch(m -> m.getStatus() == TarantoolBaselineReport.Status.NEW));
+        }
+    }
+
+    @Test
+    public void testGenerateDataset() throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('generated_space') " +
+                    "box.space.generated_space:create_index('pk')");
+            TarantoolDataset dataset = TarantoolDataset.forSpace("generated_space")
+                    .withField(TarantoolDatasetField.sequence())
+                    .withField(TarantoolDatasetField.uniform(1, 100))
+                    .withField(TarantoolDatasetField.string(12))
+                    .withField(TarantoolDatasetField.choice("new", "active", "closed"))
+                    .withRows(10_000)
+                    .withSeed(42);
+            TarantoolDatasetResult result = container.generate(dataset);
+            assertEquals(10_000, result.getRows());
+            assertTrue(result.getRowsPerSecond() > 0);
+            List<?> first = container.executeCommandDecoded("return box.space.generated_space:get(5000)");
+
+            container.executeCommand("box.space.generated_space:truncate()");
+            container.generate(dataset.withFibers(1).withBatchSize(333));
+            assertEquals(first, container.executeCommandDecoded("return box.space.generated_space:get(5000)"));
+        }
+    }
+
+    @Test
+    public void testImportFiles(@TempDir Path tempDir) throws Exception {
+        Path csv = tempDir.resolve("users.csv");
+        Files.write(csv, Arrays.asList("id,name,age", "1,\"Doe, John\",30", "2,Jane,"));
+        Path jsonl = tempDir.resolve("users.jsonl");
+        Files.write(jsonl, Arrays.asList("{\"id\": 3, \"name\": \"Bob\", \"age\": 41}", "[4, \"Alice\", null]"));
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("box.schema.space.create('imported_space', {format = {" +
+                    "{name = 'id', type = 'unsigned'}, {name = 'name', type = 'string'}, " +
+                    "{name = 'age', type = 'unsigned', is_nullable = true}}}) " +
+                    "box.space.imported_space:create_index('pk')");
+            List<TarantoolImportProgress> progress = new ArrayList<>();
+            TarantoolImportResult result = container.importFile(TarantoolImport.csv(csv, "imported_space")
+                    .withProgressListener(progress::add));
+            assertEquals(2, result.getRows());
+            assertEquals(2, progress.get(progress.size() - 1).getRows());
+            assertEquals(2, container.importFile(TarantoolImport.jsonl(jsonl, "imported_space")).getRows());
+
+            List<?> tuples = container.executeCommandDecoded("return box.space.imported_space:select()");
+            assertEquals(Arrays.asList(1, "Doe, John", 30), ((List<?>) tuples.get(0)).get(0));
+            assertEquals(4, ((List<?>) tuples.get(0)).size());
+        }
+    }
+
+    @Test
+    public void testCommandTimeout() throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()) {
+            container.start();
+            container.executeCommand("rawset(_G, 'slow_command_finished', false)");
+            TarantoolCommandTimeoutException e = assertThrows(TarantoolCommandTimeoutException.class,
+                    () -> container.executeCommand("require('fiber').sleep(30) " +
+                            "rawset(_G, 'slow_command_finished', true)", Duration.ofMillis(500)));
+            assertEquals(Duration.ofMillis(500), e.getTimeout());
+
+            container.withCommandTimeout(Duration.ofSeconds(10));
+            List<?> result = container.executeCommandDecoded("require('fiber').sleep(1) " +
+                    "return rawget(_G, 'slow_command_finished')");
+            assertEquals(false, result.get(0));
+        }
+    }
+
+    @Test
+    public void testProxy() throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer().withProxy(true)) {
+            container.start();
+            TarantoolProxy proxy = container.getProxy();
+            assertEquals(proxy.getPort(), container.getPort());
+
+            proxy.setLatency(TarantoolProxy.Direction.DOWNSTREAM, Duration.ofMillis(300), Duration.ZERO);
+            long start = System.nanoTime();
+            try (Socket socket = new Socket(proxy.getHost(), container.getPort())) {
+                byte[] greeting = new byte[128];
+                new DataInputStream(socket.getInputStream()).readFully(greeting);
+                assertTrue(new String(greeting, StandardCharsets.US_ASCII).startsWith("Tarantool"));
+            }
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(300).toNanos());
+            assertEquals(128, proxy.getBytes(TarantoolProxy.Direction.DOWNSTREAM));
+            assertEquals(1, proxy.getAcceptedConnections());
+        }
+    }
+
+    @Test
+    public void testLogCapture() throws Exception {
+        TarantoolLogCapture capture = new TarantoolLogCapture().withLevel(TarantoolLogLevel.WARNING);
+        try (TarantoolContainer container = new TarantoolContainer().withLogCapture(capture)) {
+            container.start();
+            container.executeCommand("require('log').warn('captured warning') require('log').info('filtered info') " +
+                    "require('log').warn('last warning')");
+            // the lines are captured in the stream order, so the info line is handled before the last warning
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (capture.getRecords().stream().noneMatch(record -> record.getMessage().equals("last warning"))) {
+                assertTrue(System.nanoTime() < deadline, "The last warning is not captured");
+                Thread.sleep(50);
+            }
+
+            assertTrue(capture.getRecords().stream().anyMatch(record -> record.getLevel() ==
+                    TarantoolLogLevel.WARNING && record.getMessage().equals("captured warning")));
+            assertTrue(capture.getRecords().stream().noneMatch(record -> record.getMessage().equals("filtered info")));
+            assertTrue(capture.getFilteredLines() > 0);
+        }
+    }
+
+    @Test
+    public void testTmpfsDirectoryBindingWithRocks() throws Exception {
+        try (TarantoolContainer container = new TarantoolContainer()
+                .withDirectoryBinding("rocks")
+                .withScriptFileName("server.lua")
+                .withUsername("uuuser")
+                .withPassword("secret")
+                .withDirectoryBindingMode(DirectoryBindingMode.TMPFS)) {
+            container.start();
+
+            List<?> result = container.executeCommandDecoded("return rock.version()");
+            assertEquals(Arrays.asList("1.0.0"), result);
+            assertEquals(0, container.syncDirectoryBinding().getSentFiles());
+        }
+    }
+
+    @Test
+    public void testContainerPool() throws Exception {
+        try (TarantoolContainerPool<TarantoolContainer> pool =
+                     new TarantoolContainerPool<>(TarantoolContainer::new).withMaxSize(1)) {
+            TarantoolContainer first;
+            try (TarantoolContainerPool.Lease<TarantoolContainer> lease = pool.lease()) {
+                first = lease.getContainer();
+                first.executeCommand("box.schema.space.create('pooled_space')");
+            }
+            try (TarantoolContainerPool.Lease<TarantoolContainer> lease = pool.lease()) {
+                assertSame(first, lease.getContainer());
+                List<?> result = lease.getContainer().executeCommandDecoded("return box.space.pooled_space == nil");
+                assertEquals(true, result.get(0));
+            }
+            assertEquals(1, pool.getMetrics().getResets());
+        }
+    }
+
     @Test
     public void testContainerWithParameters() throws Exception {
         int memory = 256 * 1024 * 1024;
@@ -0,0 +1,138 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.exceptions.TarantoolContainerPoolException;
+import org.testcontainers.lifecycle.Startable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolContainerPoolTest {
+
+    private static class FakeContainer implements Startable {
+        private final AtomicInteger resets = new AtomicInteger();
+        private volatile boolean running;
+
+        @Override
+        public void start() {
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+    }
+
+    @Test
+    void test_returnedContainer_isResetAndLeasedAgain() {
+        try (TarantoolContainerPool<FakeContainer> pool = new TarantoolContainerPool<>(FakeContainer::new)
+                .withStateReset(container -> container.resets.incrementAndGet())) {
+            pool.start();
+            awaitTrue(() -> pool.getMetrics().getIdle() == 1);
+
+            FakeContainer first;
+            try (TarantoolContainerPool.Lease<FakeContainer> lease = pool.lease()) {
+                first = lease.getContainer();
+                assertTrue(first.running);
+            }
+            awaitTrue(() -> pool.getMetrics().getResets() == 1);
+
+            try (TarantoolContainerPool.Lease<FakeContainer> lease = pool.lease()) {
+                assertSame(first, lease.getContainer());
+                assertEquals(1, first.resets.get());
+            }
+
+            TarantoolContainerPoolMetrics metrics = pool.getMetrics();
+            assertEquals(2, metrics.getLeases());
+            assertEquals(2, metrics.getHits());
+            assertEquals(1.0, metrics.getHitRate());
+            // a new container is warmed up when the idle one is leased
+            awaitTrue(() -> pool.getMetrics().getStarted() == 2);
+        }
+    }
+
+    @Test
+    void test_pool_growsOnDemandUpToMaxSize() {
+        try (TarantoolContainerPool<FakeContainer> pool = new TarantoolContainerPool<>(FakeContainer::new)
+                .withMinIdle(0)
+                .withMaxSize(2)) {
+            TarantoolContainerPool.Lease<FakeContainer> first = pool.lease(Duration.ofSeconds(10));
+            TarantoolContainerPool.Lease<FakeContainer> second = pool.lease(Duration.ofSeconds(10));
+            assertTrue(first.getContainer() != second.getContainer());
+
+            assertThrows(TarantoolContainerPoolException.class, () -> pool.lease(Duration.ofMillis(100)));
+
+            TarantoolContainerPoolMetrics metrics = pool.getMetrics();
+            assertEquals(3, metrics.getLeases());
+            assertEquals(0, metrics.getHits());
+            assertEquals(2, metrics.getLeased());
+            assertEquals(2, metrics.getTargetIdle());
+        }
+    }
+
+    @Test
+    void test_failedReset_replacesContainer() {
+        try (TarantoolContainerPool<FakeContainer> pool = new TarantoolContainerPool<>(FakeContainer::new)
+                .withStateReset(container -> {
+                    throw new IllegalStateException("reset failed");
+                })) {
+            FakeContainer first;
+            try (TarantoolContainerPool.Lease<FakeContainer> lease = pool.lease()) {
+                first = lease.getContainer();
+            }
+            // the failed container is stopped after it is removed from the pool
+            awaitTrue(() -> pool.getMetrics().getResetFailures() == 1 && pool.getMetrics().getIdle() >= 1 &&
+                    !first.running);
+
+            try (TarantoolContainerPool.Lease<FakeContainer> lease = pool.lease()) {
+                assertTrue(first != lease.getContainer());
+            }
+        }
+    }
+
+    @Test
+    void test_startFailure_isReported() {
+        try (TarantoolContainerPool<FakeContainer> pool = new TarantoolContainerPool<FakeContainer>(() -> {
+            throw new IllegalStateException("no docker");
+        })) {
+            TarantoolContainerPoolException e = assertThrows(TarantoolContainerPoolException.class,
+                    () -> pool.lease(Duration.ofSeconds(10)));
+            assertEquals("no docker", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void test_close_stopsAllContainers() {
+        TarantoolContainerPool<FakeContainer> pool = new TarantoolContainerPool<>(FakeContainer::new)
+                .withMinIdle(2)
+                .withMaxSize(3);
+        TarantoolContainerPool.Lease<FakeContainer> lease = pool.lease();
+        awaitTrue(() -> pool.getMetrics().getIdle() == 2);
+
+        pool.close();
+
+        assertTrue(!lease.getContainer().running);
+        assertEquals(3, pool.getMetrics().getStopped());
+        assertThrows(TarantoolContainerPoolException.class, pool::lease);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition is not met in time");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolDatasetTest {
+
+    @Test
+    void test_toCommand_computesBucketIdFromKeyAndSkipsForeignBuckets() {
+        TarantoolDataset dataset = TarantoolDataset.forSpace("users")
+                .withField(TarantoolDatasetField.sequence(100))
+                .withField(TarantoolDatasetField.bucketId(1))
+                .withField(TarantoolDatasetField.choice("a", "b'c"))
+                .withRows(10)
+                .withSeed(-1)
+                .withFibers(2)
+                .withBatchSize(5);
+
+        String command = dataset.toCommand(true);
+
+        assertTrue(command.startsWith("if box.info.ro then return nil end "));
+        assertTrue(command.contains("local seed = 0xffffffffffffffffULL "));
+        assertTrue(command.contains("local function row(i) local key = (100 + i - 1) "));
+        assertTrue(command.contains("if owned ~= nil and not owned[bucket_id] then return nil end "));
+        assertTrue(command.contains("local choice_3 = {'a', string.char(98,39,99)} "));
+        assertTrue(command.contains("return {key, bucket_id, choice_3[1 + math.floor(rnd(i, 3, 0) * 2)]} end "));
+        assertTrue(command.contains("local rows, fibers, batch = 10, 2, 5 "));
+        assertFalse(command.contains("\\") || command.contains("$") || command.contains("`") ||
+                command.contains("\"") || command.contains("]==]"));
+
+        String single = TarantoolDataset.forSpace("users").withField(TarantoolDatasetField.sequence()).toCommand(false);
+        assertTrue(single.contains("if space == nil then error('Space not found: ' .. 'users') end "));
+        assertTrue(single.contains("local function row(i) return {(1 + i - 1)} end "));
+
+        assertThrows(IllegalStateException.class, () -> TarantoolDataset.forSpace("users").toCommand(false));
+        assertThrows(IllegalStateException.class, () -> TarantoolDataset.forSpace("users")
+                .withField(TarantoolDatasetField.bucketId(1)).toCommand(false));
+        assertThrows(IllegalArgumentException.class, () -> TarantoolDatasetField.uniform(5, 1));
+    }
+
+    @Test
+    void test_parseResult_sumsRowsAndTakesSlowestInstance() {
+        Map<String, Object> s1 = new HashMap<>();
+        s1.put("rows", 600);
+        s1.put("duration", 0.5);
+        Map<String, Object> s2 = new HashMap<>();
+        s2.put("rows", 400);
+        s2.put("duration", 0.25);
+        Map<String, Object> results = new HashMap<>();
+        results.put("s2-master", s2);
+        results.put("s1-master", s1);
+        results.put("router", null);
+
+        TarantoolDatasetResult result = TarantoolDataset.parseResult("users", results);
+
+        assertEquals(1000, result.getRows());
+        assertEquals(2, result.getRowsByInstance().size());
+        assertEquals(Long.valueOf(600), result.getRowsByInstance().get("s1-master"));
+        assertEquals(Duration.ofMillis(500), result.getDuration());
+        assertEquals(2000, result.getRowsPerSecond(), 1e-9);
+    }
+}
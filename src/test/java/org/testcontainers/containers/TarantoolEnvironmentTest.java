@@ -0,0 +1,126 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.exceptions.TarantoolEnvironmentException;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.LazyFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolEnvironmentTest {
+
+    private static class FakeImage extends LazyFuture<String> {
+        private final AtomicInteger resolutions = new AtomicInteger();
+
+        @Override
+        protected String resolve() {
+            resolutions.incrementAndGet();
+            return "tarantool/tarantool:fake";
+        }
+    }
+
+    // Resolves the fake images instead of pulling them
+    private static class FakeEnvironment extends TarantoolEnvironment {
+        @Override
+        protected Future<String> getImage(GenericContainer<?> container) {
+            return ((FakeContainer) container).image;
+        }
+    }
+
+    private static class FakeContainer extends GenericContainer<FakeContainer> {
+        private final FakeImage image;
+        private final CountDownLatch startLatch;
+        private final RuntimeException startFailure;
+        private volatile boolean running;
+
+        FakeContainer(FakeImage image, CountDownLatch startLatch, RuntimeException startFailure) {
+            super(DockerImageName.parse("tarantool/tarantool:fake"));
+            this.image = image;
+            this.startLatch = startLatch;
+            this.startFailure = startFailure;
+        }
+
+        @Override
+        public void start() {
+            startLatch.countDown();
+            if (startFailure != null) {
+                throw startFailure;
+            }
+            try {
+                // all containers must be starting at the same time
+                assertTrue(startLatch.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+    }
+
+    @Test
+    void test_containers_startInParallel() {
+        FakeImage image = new FakeImage();
+        CountDownLatch latch = new CountDownLatch(3);
+        TarantoolEnvironment environment = new FakeEnvironment()
+                .withContainer("first", new FakeContainer(image, latch, null))
+                .withContainer("second", new FakeContainer(image, latch, null))
+                .withContainer("third", new FakeContainer(new FakeImage(), latch, null));
+
+        environment.start();
+
+        FakeContainer first = environment.getContainer("first");
+        assertTrue(first.isRunning());
+        assertEquals(1, image.resolutions.get());
+        TarantoolEnvironmentStartReport report = environment.getStartReport();
+        assertEquals(3, report.getContainerStartTimes().size());
+        assertTrue(report.getTotal().compareTo(report.getImagePreparation()) >= 0);
+
+        environment.stop();
+        assertFalse(first.isRunning());
+    }
+
+    @Test
+    void test_failedContainer_stopsSiblings() {
+        FakeImage image = new FakeImage();
+        CountDownLatch latch = new CountDownLatch(3);
+        TarantoolEnvironment environment = new FakeEnvironment()
+                .withContainer("first", new FakeContainer(image, latch, null))
+                .withContainer("broken", new FakeContainer(image, latch, new IllegalStateException("broken")))
+                .withContainer("third", new FakeContainer(image, latch, null));
+
+        long startedAt = System.nanoTime();
+        TarantoolEnvironmentException e = assertThrows(TarantoolEnvironmentException.class, environment::start);
+        assertTrue(Duration.ofNanos(System.nanoTime() - startedAt).compareTo(Duration.ofSeconds(5)) < 0);
+
+        assertEquals("Failed to start container broken", e.getMessage());
+        assertEquals("broken", e.getCause().getMessage());
+        assertFalse(environment.<FakeContainer>getContainer("first").isRunning());
+        assertFalse(environment.<FakeContainer>getContainer("third").isRunning());
+    }
+
+    @Test
+    void test_imagesWithSameName_areShared() {
+        Future<String> image = TarantoolContainerImageHelper.getSharedImage("tarantool/tarantool:shared");
+        assertSame(image, TarantoolContainerImageHelper.getSharedImage("tarantool/tarantool:shared"));
+        assertNotSame(image, TarantoolContainerImageHelper.getSharedImage("tarantool/tarantool:other"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TarantoolImageArchivesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void test_baseImages_areResolvedFromDockerfile() {
+        String dockerfile = "ARG IMAGE=\"tarantool/tarantool\"\n" +
+                "ARG TARANTOOL_VERSION=\"2.11.8-ubuntu20.04\"\n" +
+                "FROM $IMAGE:${TARANTOOL_VERSION} AS cartridge-base\n" +
+                "RUN cartridge version\n" +
+                "FROM --platform=linux/amd64 cartridge-base AS cartridge-app\n" +
+                "FROM scratch\n";
+
+        assertEquals(Collections.singletonList("tarantool/tarantool:2.11.8-ubuntu20.04"),
+                TarantoolImageArchives.getBaseImages(dockerfile, null));
+
+        Map<String, String> buildArgs = new HashMap<>();
+        buildArgs.put("IMAGE", "registry:5000/tarantool/tarantool");
+        buildArgs.put("TARANTOOL_VERSION", null);
+        assertEquals(Collections.singletonList("registry:5000/tarantool/tarantool:2.11.8-ubuntu20.04"),
+                TarantoolImageArchives.getBaseImages(dockerfile, buildArgs));
+    }
+
+    @Test
+    void test_imageNames_areNormalized() {
+        assertEquals("tarantool/tarantool:3.2", TarantoolImageArchives.normalizeImageName("tarantool/tarantool:3.2"));
+        assertEquals("tarantool/tarantool:3.2",
+                TarantoolImageArchives.normalizeImageName("docker.io/tarantool/tarantool:3.2"));
+        assertEquals("centos:latest", TarantoolImageArchives.normalizeImageName("docker.io/library/centos"));
+        assertEquals("localhost:5000/tarantool:latest",
+                TarantoolImageArchives.normalizeImageName("localhost:5000/tarantool"));
+    }
+
+    @Test
+    void test_archive_isReadAndFoundByTag() throws IOException {
+        Path legacy = writeArchive("legacy.tar", false,
+                "[{\"Config\":\"abc123.json\",\"RepoTags\":[\"tarantool/tarantool:2.11\"],\"Layers\":[]}]");
+        Path oci = writeArchive("oci.tar.gz", true,
+                "[{\"Config\":\"blobs/sha256/def456\",\"RepoTags\":[\"tarantool/tarantool:3.2\"],\"Layers\":[]}]");
+
+        List<TarantoolImageArchives.ImageArchive> legacyImages = TarantoolImageArchives.readArchive(legacy);
+        List<TarantoolImageArchives.ImageArchive> ociImages = TarantoolImageArchives.readArchive(oci);
+        assertEquals("sha256:abc123", legacyImages.get(0).getDigest());
+        assertEquals("sha256:def456", ociImages.get(0).getDigest());
+        assertEquals(Collections.singletonList("tarantool/tarantool:3.2"), ociImages.get(0).getRepoTags());
+
+        Map<String, TarantoolImageArchives.ImageArchive> index = new HashMap<>();
+        index.put("tarantool/tarantool:3.2", ociImages.get(0));
+        assertSame(ociImages.get(0), TarantoolImageArchives.findArchive(index, "docker.io/tarantool/tarantool:3.2"));
+        assertSame(ociImages.get(0), TarantoolImageArchives.findArchive(index, "registry:5000/tarantool/tarantool:3.2"));
+        assertNull(TarantoolImageArchives.findArchive(index, "tarantool/tarantool:2.11"));
+    }
+
+    private Path writeArchive(String name, boolean gzipped, String manifest) throws IOException {
+        Path archive = tempDir.resolve(name);
+        try (OutputStream file = Files.newOutputStream(archive);
+             OutputStream output = gzipped ? new GZIPOutputStream(file) : file;
+             TarArchiveOutputStream tar = new TarArchiveOutputStream(output)) {
+            for (String entryName : Arrays.asList("layer.tar", "manifest.json")) {
+                byte[] content = entryName.equals("manifest.json") ?
+                        manifest.getBytes(StandardCharsets.UTF_8) : new byte[1024];
+                TarArchiveEntry entry = new TarArchiveEntry(entryName);
+                entry.setSize(content.length);
+                tar.putArchiveEntry(entry);
+                tar.write(content);
+                tar.closeArchiveEntry();
+            }
+        }
+        return archive;
+    }
+}
@@ -0,0 +1,47 @@
+package org.testcontainers.containers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TarantoolImagePrewarmerTest {
+
+    @Test
+    void test_imageName_isResolvedFromVersionAndRegistry() {
+        assertEquals(TarantoolContainer.DEFAULT_BASE_IMAGE, TarantoolContainer.resolveImageName(null, null));
+        assertEquals(TarantoolContainer.DEFAULT_BASE_IMAGE, TarantoolContainer.resolveImageName(" ", "registry"));
+        assertEquals("tarantool/tarantool:3.2", TarantoolContainer.resolveImageName("3.2", ""));
+        assertEquals("registry:5000/tarantool/tarantool:3.2",
+                TarantoolContainer.resolveImageName("3.2", "registry:5000/"));
+        assertEquals("registry:5000/tarantool/tarantool:3.2",
+                TarantoolContainer.resolveImageName("3.2", "registry:5000"));
+    }
+
+    @Test
+    void test_imageNames_areParsed() {
+        assertEquals(Collections.emptyList(), TarantoolImagePrewarmer.parseImageNames(null));
+        assertEquals(Arrays.asList("tarantool/tarantool:2.11", "tarantool/tarantool:3.2"),
+                TarantoolImagePrewarmer.parseImageNames(" tarantool/tarantool:2.11,, tarantool/tarantool:3.2 "));
+    }
+
+    @Test
+    void test_image_isPrewarmedOnce() {
+        String imageName = "tarantool/tarantool:prewarm-test";
+        List<Runnable> pulls = new ArrayList<>();
+
+        assertNull(TarantoolImagePrewarmer.getPrewarmedImage(imageName));
+        Future<String> first = TarantoolImagePrewarmer.prewarm(imageName, pulls::add);
+        Future<String> second = TarantoolImagePrewarmer.prewarm(imageName, pulls::add);
+
+        assertSame(first, second);
+        assertSame(first, TarantoolImagePrewarmer.getPrewarmedImage(imageName));
+        assertEquals(1, pulls.size());
+    }
+}
@@ -0,0 +1,51 @@
+package org.testcontainers.containers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolImportTest {
+
+    @Test
+    void test_toStartCommand_embedsParametersWithoutShellSensitiveCharacters(@TempDir Path tempDir) throws Exception {
+        Path file = Files.write(tempDir.resolve("users.csv"), "id;name\n1;a\n".getBytes());
+        String path = "/tmp/testcontainers-import-1.csv";
+
+        String csv = TarantoolImport.csv(file, "users").withDelimiter(';').withBatchSize(500).withReplace(true)
+                .toStartCommand(path);
+
+        assertTrue(csv.startsWith("local name, id, path = 'users', '" + path + "', '" + path + "' "));
+        assertTrue(csv.contains("local replace, batch_size, chunk_size = true, 500, 1048576 "));
+        assertTrue(csv.contains("local header, delimiter, quote = true, ';', string.char(34) "));
+        assertTrue(csv.contains("require('csv').iterate(reader, "));
+        assertTrue(csv.endsWith("return true"));
+
+        String jsonl = TarantoolImport.jsonl(file, "users").toStartCommand(path);
+        assertFalse(jsonl.contains("require('csv')"));
+        assertTrue(jsonl.contains("json.decode(s)"));
+        for (String command : new String[]{csv, jsonl}) {
+            assertFalse(command.contains("\\") || command.contains("$") || command.contains("`") ||
+                    command.contains("\""));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> TarantoolImport.csv(tempDir.resolve("missing"), "users"));
+    }
+
+    @Test
+    void test_progress_reportsReadFraction() {
+        TarantoolImportProgress progress = new TarantoolImportProgress(10, 250, 1000, Duration.ofMillis(20));
+        assertEquals(0.25, progress.getFraction(), 1e-9);
+        assertEquals(1, new TarantoolImportProgress(0, 0, 0, Duration.ZERO).getFraction(), 1e-9);
+
+        TarantoolImportResult result = new TarantoolImportResult("users", 1000, 4096, Duration.ofSeconds(3),
+                Duration.ofMillis(500));
+        assertEquals(2000, result.getRowsPerSecond(), 1e-9);
+    }
+}
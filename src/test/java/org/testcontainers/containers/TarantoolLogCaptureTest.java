@@ -0,0 +1,96 @@
+package org.testcontainers.containers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolLogCaptureTest {
+
+    @Test
+    void test_append_parsesPlainAndJsonLinesSplitAcrossFrames() {
+        List<TarantoolLogRecord> listened = new ArrayList<>();
+        TarantoolLogCapture capture = new TarantoolLogCapture().withListener(listened::add);
+
+        capture.append(true, bytes("2024-05-10 12:00:00.123 [42] main/103/interactive I> ready to accept requests\n" +
+                "2024-05-10 12:00:00.124 [42] main/104/gc V> verbose line\n" +
+                "{\"time\": \"2024-05-10T12:00:01.000+0000\", \"level\": \"WARN\", " +
+                "\"message\": \"too long WAL write\", "));
+        capture.append(true, bytes("\"pid\": 42, \"fiber_id\": 105, \"fiber_name\": \"wal\", " +
+                "\"module\": \"app.storage\"}\r\ntestapp.router | {\"level\": \"DEBUG\", \"message\": \"skipped\"}\n"));
+        capture.append(false, bytes("testapp.s1-master | 2024-05-10 12:00:02.000 [43] main/101/main E> Failed"));
+        capture.finish();
+
+        List<TarantoolLogRecord> records = capture.getRecords();
+        assertEquals(3, records.size());
+        assertEquals(records, listened);
+
+        TarantoolLogRecord plain = records.get(0);
+        assertEquals("", plain.getInstance());
+        assertEquals("2024-05-10 12:00:00.123", plain.getTime());
+        assertEquals(TarantoolLogLevel.INFO, plain.getLevel());
+        assertEquals(103, plain.getFiberId());
+        assertEquals("interactive", plain.getFiberName());
+        assertNull(plain.getModule());
+        assertEquals("ready to accept requests", plain.getMessage());
+
+        TarantoolLogRecord json = records.get(1);
+        assertEquals(TarantoolLogLevel.WARNING, json.getLevel());
+        assertEquals(105, json.getFiberId());
+        assertEquals("wal", json.getFiberName());
+        assertEquals("app.storage", json.getModule());
+        assertEquals("too long WAL write", json.getMessage());
+
+        TarantoolLogRecord prefixed = records.get(2);
+        assertEquals("testapp.s1-master", prefixed.getInstance());
+        assertEquals(TarantoolLogLevel.ERROR, prefixed.getLevel());
+        assertEquals("Failed", prefixed.getMessage());
+
+        assertEquals(3, capture.getCapturedRecords());
+        assertEquals(2, capture.getFilteredLines());
+    }
+
+    @Test
+    void test_append_overwritesOldestRecordsAndRotatesSpillFiles(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("tarantool.log");
+        TarantoolLogCapture capture = new TarantoolLogCapture()
+                .withLevel(TarantoolLogLevel.DEBUG)
+                .withCapacity(3)
+                .withSpill(file, 100, 1);
+
+        for (int i = 1; i <= 5; i++) {
+            capture.append(true, bytes(String.format("2024-05-10 12:00:0%d.000 [42] main/103/main D> message %d\n",
+                    i, i)));
+        }
+        capture.flush();
+
+        List<TarantoolLogRecord> records = capture.getRecords();
+        assertEquals(3, records.size());
+        assertEquals("message 3", records.get(0).getMessage());
+        assertEquals("message 5", records.get(2).getMessage());
+        assertEquals(5, capture.getCapturedRecords());
+
+        List<String> current = Files.readAllLines(file);
+        List<String> rotated = Files.readAllLines(tempDir.resolve("tarantool.log.1"));
+        assertTrue(current.get(current.size() - 1).endsWith("message 5"));
+        assertTrue(rotated.get(0).endsWith("message 3") || rotated.get(0).endsWith("message 4"));
+        assertFalse(Files.exists(tempDir.resolve("tarantool.log.2")));
+
+        capture.clear();
+        assertEquals(Arrays.asList(), capture.getRecords());
+        assertEquals(0, capture.getCapturedRecords());
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
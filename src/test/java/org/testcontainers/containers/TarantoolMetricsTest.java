@@ -0,0 +1,155 @@
+package org.testcontainers.containers;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.exceptions.CartridgeMetricsException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolMetricsTest {
+
+    private static final String PROMETHEUS = "# HELP http_server_request_latency HTTP requests\n" +
+            "# TYPE http_server_request_latency histogram\n" +
+            "http_server_request_latency_bucket{path=\"/hello\",method=\"GET\",le=\"0.01\"} 2\n" +
+            "http_server_request_latency_bucket{path=\"/hello\",method=\"GET\",le=\"0.1\"} 6\n" +
+            "http_server_request_latency_bucket{path=\"/hello\",method=\"GET\",le=\"+Inf\"} 8\n" +
+            "http_server_request_latency_sum{path=\"/hello\",method=\"GET\"} 0.75\n" +
+            "http_server_request_latency_count{path=\"/hello\",method=\"GET\"} 8\n" +
+            "# TYPE tnt_info_memory_lua gauge\n" +
+            "tnt_info_memory_lua{alias=\"router\"} 1.5e6\n" +
+            "# TYPE tnt_stats_op_total counter\n" +
+            "tnt_stats_op_total{operation=\"select\",alias=\"with \\\"quotes\\\"\"} 100 1700000000000\n" +
+            "tnt_unknown -12.25\r\n";
+
+    @Test
+    void test_parsePrometheus_readsTypedSamples() {
+        TarantoolMetricsParser parser = new TarantoolMetricsParser();
+        byte[] data = PROMETHEUS.getBytes(StandardCharsets.UTF_8);
+        List<TarantoolMetric> samples = parser.parsePrometheus(data, data.length);
+
+        assertEquals(8, samples.size());
+        assertEquals(TarantoolMetric.Type.HISTOGRAM, samples.get(0).getType());
+        assertEquals("0.01", samples.get(0).getLabel("le"));
+        assertEquals(Double.POSITIVE_INFINITY,
+                TarantoolMetricsParser.parseDouble(samples.get(2).getLabel("le")));
+        assertEquals(0.75, samples.get(3).getValue());
+        assertEquals(TarantoolMetric.Type.GAUGE, samples.get(5).getType());
+        assertEquals(1.5e6, samples.get(5).getValue());
+        assertEquals(TarantoolMetric.Type.COUNTER, samples.get(6).getType());
+        assertEquals("with \"quotes\"", samples.get(6).getLabel("alias"));
+        assertEquals(100, samples.get(6).getValue());
+        assertEquals(TarantoolMetric.Type.UNTYPED, samples.get(7).getType());
+        assertEquals(-12.25, samples.get(7).getValue());
+
+        // the names and the labels are reused between the scrapes
+        List<TarantoolMetric> again = parser.parsePrometheus(data, data.length);
+        assertSame(samples.get(0).getName(), again.get(0).getName());
+        assertSame(samples.get(0).getLabel("path"), again.get(1).getLabel("path"));
+
+        byte[] broken = "metric{label=\"value\"}\n".getBytes(StandardCharsets.UTF_8);
+        assertThrows(CartridgeMetricsException.class, () -> parser.parsePrometheus(broken, broken.length));
+    }
+
+    @Test
+    void test_parseJson_derivesTypesFromNames() {
+        String json = "[{\"metric_name\": \"lat_bucket\", \"value\": 3, \"label_pairs\": {\"le\": \"inf\"}}, " +
+                "{\"metric_name\": \"lat_count\", \"value\": 3, \"label_pairs\": {}}, " +
+                "{\"metric_name\": \"ops_total\", \"value\": 7.5, \"label_pairs\": {\"alias\": \"s1\"}}, " +
+                "{\"metric_name\": \"mem\", \"value\": 1024}]";
+
+        List<TarantoolMetric> samples = new TarantoolMetricsParser().parseJson(json);
+
+        assertEquals(TarantoolMetric.Type.HISTOGRAM, samples.get(0).getType());
+        assertEquals(TarantoolMetric.Type.HISTOGRAM, samples.get(1).getType());
+        assertEquals(TarantoolMetric.Type.COUNTER, samples.get(2).getType());
+        assertEquals("s1", samples.get(2).getLabel("alias"));
+        assertEquals(TarantoolMetric.Type.GAUGE, samples.get(3).getType());
+        assertFalse(samples.get(3).isCumulative());
+    }
+
+    @Test
+    void test_delta_subtractsCumulativeSamplesAndEstimatesQuantiles() {
+        TarantoolMetrics before = metrics(0, sample("reqs_total", TarantoolMetric.Type.COUNTER, 10, "path", "/a"),
+                sample("reqs_total", TarantoolMetric.Type.COUNTER, 50, "path", "/b"),
+                sample("mem", TarantoolMetric.Type.GAUGE, 100),
+                sample("lat_bucket", TarantoolMetric.Type.HISTOGRAM, 0, "le", "1"),
+                sample("lat_bucket", TarantoolMetric.Type.HISTOGRAM, 0, "le", "+Inf"));
+        TarantoolMetrics after = metrics(2_000_000_000L,
+                sample("reqs_total", TarantoolMetric.Type.COUNTER, 30, "path", "/a"),
+                sample("reqs_total", TarantoolMetric.Type.COUNTER, 5, "path", "/b"),
+                sample("mem", TarantoolMetric.Type.GAUGE, 80),
+                sample("lat_bucket", TarantoolMetric.Type.HISTOGRAM, 8, "le", "1"),
+                sample("lat_bucket", TarantoolMetric.Type.HISTOGRAM, 10, "le", "+Inf"),
+                sample("lat_sum", TarantoolMetric.Type.HISTOGRAM, 9),
+                sample("lat_count", TarantoolMetric.Type.HISTOGRAM, 10));
+
+        TarantoolMetrics delta = after.delta(before);
+
+        assertEquals(Duration.ofSeconds(2), delta.getElapsed());
+        assertEquals(20, delta.getValue("reqs_total", "path", "/a"));
+        // the counter was reset by a restart
+        assertEquals(5, delta.getValue("reqs_total", "path", "/b"));
+        assertEquals(12.5, delta.getRate("reqs_total"));
+        assertEquals(80, delta.getValue("mem"));
+        assertNull(delta.getValue("reqs_total", "path", "/c"));
+
+        TarantoolHistogram histogram = delta.getHistogram("lat");
+        assertEquals(10, histogram.getCount());
+        assertEquals(0.9, histogram.getMean(), 1e-9);
+        assertEquals(0.5, histogram.getQuantile(0.4), 1e-9);
+        assertEquals(1, histogram.getQuantile(0.99), 1e-9);
+        assertThrows(IllegalStateException.class, () -> before.getRate("reqs_total"));
+    }
+
+    @Test
+    void test_scrape_readsEachInstanceEndpoint() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = ("# TYPE ops_total counter\nops_total " + requests.incrementAndGet() * 10 + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            CartridgeMetricsScraper scraper = new CartridgeMetricsScraper(
+                    InetAddress.getLoopbackAddress().getHostAddress(),
+                    Collections.singletonMap("router", server.getAddress().getPort()));
+            Map<String, TarantoolMetrics> before = scraper.scrape();
+            Map<String, TarantoolMetrics> delta = CartridgeMetricsScraper.delta(before, scraper.scrape());
+
+            assertEquals(10, before.get("router").getValue("ops_total"));
+            assertEquals(10, delta.get("router").getValue("ops_total"));
+            assertTrue(delta.get("router").getElapsed().toNanos() > 0);
+            assertThrows(CartridgeMetricsException.class, () -> scraper.withPath("/missing").scrape());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static TarantoolMetrics metrics(long nanoTime, TarantoolMetric... samples) {
+        return new TarantoolMetrics("router", Instant.EPOCH, nanoTime, Duration.ZERO,
+                Arrays.asList(samples));
+    }
+
+    private static TarantoolMetric sample(String name, TarantoolMetric.Type type, double value, String... labels) {
+        return new TarantoolMetric(name, type, labels, value);
+    }
+}
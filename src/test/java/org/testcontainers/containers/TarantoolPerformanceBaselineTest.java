@@ -0,0 +1,73 @@
+package org.testcontainers.containers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolPerformanceBaselineTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void test_assertNoRegression_requiresBaselineUntilUpdated() {
+        Path file = tempDir.resolve("baseline.json");
+        AtomicInteger calls = new AtomicInteger();
+        TarantoolBenchmarkResult result = TarantoolBenchmark.java("counter", calls::incrementAndGet)
+                .withRuns(3).withIterations(100).withWarmupIterations(10).run();
+        assertEquals(330, calls.get());
+        assertEquals(3, result.getRuns().size());
+
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> TarantoolPerformanceBaseline.load(file).withUpdate(false).assertNoRegression(result));
+        assertTrue(error.getMessage().contains(TarantoolPerformanceBaseline.UPDATE_PROPERTY), error.getMessage());
+
+        TarantoolBaselineReport report = TarantoolPerformanceBaseline.load(file).withUpdate(true)
+                .assertNoRegression(result);
+        assertTrue(report.isUpdated());
+        assertTrue(Files.exists(file));
+
+        // the latencies of a trivial callback are far below the noise threshold
+        report = TarantoolPerformanceBaseline.load(file).withUpdate(false).withThroughputTolerance(1.0)
+                .assertNoRegression(result);
+        assertFalse(report.hasRegressions());
+    }
+
+    @Test
+    void test_compare_appliesToleranceAndNoise() {
+        Path file = tempDir.resolve("baseline.json");
+        TarantoolPerformanceBaseline baseline = TarantoolPerformanceBaseline.load(file);
+        baseline.update(result(1000, 100, 200, 400));
+
+        TarantoolBaselineReport report = baseline.compare(result(700, 110, 215, 600));
+
+        assertTrue(report.hasRegressions());
+        assertEquals(TarantoolBaselineReport.Status.REGRESSION, report.getMetrics().get(0).getStatus());
+        assertEquals(-0.3, report.getMetrics().get(0).getChange(), 1e-9);
+        assertEquals(TarantoolBaselineReport.Status.OK, report.getMetrics().get(1).getStatus());
+        // +7.5% is within the tolerance
+        assertEquals(TarantoolBaselineReport.Status.OK, report.getMetrics().get(2).getStatus());
+        assertEquals(TarantoolBaselineReport.Status.REGRESSION, report.getMetrics().get(3).getStatus());
+        assertEquals(TarantoolBaselineReport.Status.INFO, report.getMetrics().get(4).getStatus());
+        assertTrue(report.toString().contains("REGRESSION"), report.toString());
+
+        // +50% of 30us is below the 20us noise threshold
+        baseline.update(result(1000, 30, 30, 30));
+        assertFalse(TarantoolPerformanceBaseline.load(file).compare(result(1000, 45, 45, 45)).hasRegressions());
+    }
+
+    private static TarantoolBenchmarkResult result(double throughput, long p50, long p90, long p99) {
+        return new TarantoolBenchmarkResult("get", Arrays.asList(new TarantoolBenchmarkMetrics(throughput,
+                Duration.ofNanos(p50 * 1000), Duration.ofNanos(p90 * 1000), Duration.ofNanos(p99 * 1000),
+                Duration.ofNanos(p99 * 2000))));
+    }
+}
@@ -0,0 +1,56 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolProfilerTest {
+
+    @Test
+    void test_start_sendsProfilerCommandOnce() {
+        List<String> commands = new ArrayList<>();
+        TarantoolProfiler profiler = new TarantoolProfiler(null, "s1-master", command -> {
+            commands.add(command);
+            return Collections.singletonMap("s1-master", true);
+        }).withSamplingInterval(5);
+
+        profiler.start(TarantoolProfilerType.SYSPROF);
+
+        assertEquals(1, commands.size());
+        assertTrue(commands.get(0).startsWith("local ok, err = misc.sysprof.start({mode = 'C', interval = 5, " +
+                "path = '/tmp/testcontainers-sysprof-"), commands.get(0));
+        assertThrows(IllegalStateException.class, () -> profiler.start(TarantoolProfilerType.MEMPROF));
+    }
+
+    @Test
+    void test_parseFiberTop_ordersByCpuTime() {
+        List<TarantoolFiberCpu> fibers = TarantoolProfiler.parseFiberTop(Arrays.asList(
+                fiber(1, "sched", 0.002), fiber(115, "procedure", 0.25), fiber(104, "console", 0.0)));
+
+        assertEquals(3, fibers.size());
+        assertEquals("procedure", fibers.get(0).getName());
+        assertEquals(115, fibers.get(0).getId());
+        assertEquals(Duration.ofMillis(250), fibers.get(0).getTime());
+        assertEquals("console", fibers.get(2).getName());
+        assertTrue(TarantoolProfiler.parseFiberTop(Collections.emptyMap()).isEmpty());
+    }
+
+    private static Map<String, Object> fiber(int id, String name, double time) {
+        Map<String, Object> fiber = new HashMap<>();
+        fiber.put("id", id);
+        fiber.put("name", name);
+        fiber.put("instant", 1.5);
+        fiber.put("average", 2.5);
+        fiber.put("time", time);
+        return fiber;
+    }
+}
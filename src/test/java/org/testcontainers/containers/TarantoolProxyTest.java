@@ -0,0 +1,128 @@
+package org.testcontainers.containers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolProxyTest {
+
+    private ServerSocket echoServer;
+    private TarantoolProxy proxy;
+
+    @BeforeEach
+    void startEchoServer() throws IOException {
+        echoServer = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new DaemonThreadFactory("echo-server").newThread(() -> {
+            while (!echoServer.isClosed()) {
+                try {
+                    Socket socket = echoServer.accept();
+                    new DaemonThreadFactory("echo-connection").newThread(() -> echo(socket)).start();
+                } catch (IOException ignored) {
+                    // the server is closed
+                }
+            }
+        });
+        acceptor.start();
+        proxy = new TarantoolProxy(InetAddress.getLoopbackAddress().getHostAddress(), echoServer.getLocalPort())
+                .start();
+    }
+
+    @AfterEach
+    void stopEchoServer() throws IOException {
+        proxy.close();
+        echoServer.close();
+    }
+
+    @Test
+    void test_proxy_delaysLimitsAndCountsTraffic() throws IOException {
+        try (Socket socket = new Socket(proxy.getHost(), proxy.getPort())) {
+            assertArrayEquals("ping".getBytes(), roundTrip(socket, "ping".getBytes()));
+            assertEquals(4, proxy.getBytes(TarantoolProxy.Direction.UPSTREAM));
+            assertEquals(4, proxy.getBytes(TarantoolProxy.Direction.DOWNSTREAM));
+
+            proxy.setLatency(TarantoolProxy.Direction.DOWNSTREAM, Duration.ofMillis(200), Duration.ofMillis(50));
+            long start = System.nanoTime();
+            roundTrip(socket, "ping".getBytes());
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+
+            proxy.clear().setBandwidth(TarantoolProxy.Direction.UPSTREAM, 50_000);
+            byte[] payload = new byte[25_000];
+            start = System.nanoTime();
+            assertArrayEquals(payload, roundTrip(socket, payload));
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(450).toNanos());
+        }
+
+        assertEquals(25_008, proxy.getBytes(TarantoolProxy.Direction.UPSTREAM));
+        assertEquals(1, proxy.getAcceptedConnections());
+        proxy.resetCounters();
+        assertEquals(0, proxy.getBytes(TarantoolProxy.Direction.DOWNSTREAM));
+        assertThrows(IllegalArgumentException.class, () -> proxy.setBandwidth(-1));
+    }
+
+    @Test
+    void test_proxy_resetsConnections() throws Exception {
+        try (Socket socket = new Socket(proxy.getHost(), proxy.getPort())) {
+            roundTrip(socket, "ping".getBytes());
+            assertEquals(1, proxy.getActiveConnections());
+
+            proxy.resetConnections();
+            assertThrows(IOException.class, () -> {
+                // the first write may still succeed before the RST is received
+                for (int i = 0; i < 10; i++) {
+                    roundTrip(socket, "ping".getBytes());
+                    Thread.sleep(50);
+                }
+            });
+        }
+        assertEquals(1, proxy.getResetConnections());
+        assertEquals(0, proxy.getActiveConnections());
+
+        proxy.setResetNewConnections(true);
+        try (Socket socket = new Socket(proxy.getHost(), proxy.getPort())) {
+            assertThrows(IOException.class, () -> roundTrip(socket, "ping".getBytes()));
+        }
+        assertEquals(2, proxy.getAcceptedConnections());
+        assertEquals(2, proxy.getResetConnections());
+    }
+
+    private static byte[] roundTrip(Socket socket, byte[] data) throws IOException {
+        socket.getOutputStream().write(data);
+        byte[] result = new byte[data.length];
+        InputStream input = socket.getInputStream();
+        int offset = 0;
+        while (offset < result.length) {
+            int read = input.read(result, offset, result.length - offset);
+            if (read < 0) {
+                throw new IOException("Connection is closed");
+            }
+            offset += read;
+        }
+        return result;
+    }
+
+    private static void echo(Socket socket) {
+        try (Socket s = socket) {
+            InputStream input = s.getInputStream();
+            OutputStream output = s.getOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException ignored) {
+            // the connection is reset
+        }
+    }
+}
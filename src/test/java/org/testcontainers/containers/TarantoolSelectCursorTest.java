@@ -0,0 +1,93 @@
+package org.testcontainers.containers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.exceptions.TarantoolQueryException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolSelectCursorTest {
+
+    // Answers the page commands with the queued results
+    private static class FakeRunner implements InstanceCommandRunner {
+        private final List<String> commands = new ArrayList<>();
+        private final Deque<Map<String, Object>> pages = new ArrayDeque<>();
+
+        @Override
+        public Map<String, Object> run(String command) {
+            commands.add(command);
+            assertFalse(command.matches("(?s).*[\\n\\\\$`].*"), command);
+            return pages.isEmpty() ? Collections.emptyMap() : pages.poll();
+        }
+    }
+
+    private static Map<String, Object> page(String uuid, List<?> rows, List<?> last, boolean done) {
+        Map<String, Object> page = new HashMap<>();
+        page.put("uuid", uuid);
+        page.put("rows", rows);
+        page.put("last", last);
+        page.put("done", done);
+        return page;
+    }
+
+    @Test
+    void test_cursor_readsPagesOnDemand() {
+        FakeRunner runner = new FakeRunner();
+        Map<String, Object> first = new HashMap<>();
+        first.put("s1-master", page("uuid-a", Arrays.asList(Arrays.asList(1, "a"), Arrays.asList(2, "b")),
+                Collections.singletonList(2), false));
+        first.put("s2-master", page("uuid-b", Collections.singletonList(Arrays.asList(10, "x")),
+                Collections.singletonList(10), true));
+        first.put("router", null);
+        runner.pages.add(first);
+        runner.pages.add(Collections.singletonMap("s1-master",
+                page("uuid-a", Collections.singletonList(Arrays.asList(3, "c")), Collections.singletonList(3), true)));
+
+        TarantoolSelectCursor cursor = new TarantoolSelectCursor(runner, "users", null, 2, true);
+        assertEquals(0, runner.commands.size());
+        assertTrue(cursor.hasNext());
+        assertEquals(1, runner.commands.size());
+        assertTrue(runner.commands.get(0).contains("({})[box.info.uuid]"));
+
+        List<Object> keys = cursor.stream().map(tuple -> tuple.get(0)).collect(Collectors.toList());
+        assertEquals(4, keys.size());
+        assertTrue(keys.containsAll(Arrays.asList(1, 2, 3, 10)));
+        assertEquals(2, cursor.getPages());
+        assertEquals(4, cursor.getTuples());
+        String second = runner.commands.get(1);
+        assertTrue(second.contains("['uuid-a'] = {2}"), second);
+        assertTrue(second.contains("['uuid-b'] = false"), second);
+    }
+
+    @Test
+    void test_cursor_stopsWhenClosed() {
+        FakeRunner runner = new FakeRunner();
+        runner.pages.add(Collections.singletonMap("", page("uuid-a",
+                Arrays.asList(Arrays.asList(1), Arrays.asList(2)), Collections.singletonList(2), false)));
+
+        TarantoolSelectCursor cursor = new TarantoolSelectCursor(runner, "users", "pk", 2, false);
+        try (Stream<List<?>> stream = cursor.stream()) {
+            assertEquals(Arrays.asList(1), stream.findFirst().get());
+        }
+        assertFalse(cursor.hasNext());
+        assertEquals(1, runner.commands.size());
+        assertTrue(runner.commands.get(0).contains("error('Space not found: ' .. 'users')"));
+
+        TarantoolSelectCursor failing = new TarantoolSelectCursor(command -> {
+            throw new IllegalStateException("broken");
+        }, "users", null, 10, false);
+        assertThrows(TarantoolQueryException.class, failing::hasNext);
+    }
+}
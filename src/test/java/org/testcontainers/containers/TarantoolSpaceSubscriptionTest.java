@@ -0,0 +1,115 @@
+package org.testcontainers.containers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolSpaceSubscriptionTest {
+
+    // Answers the subscription commands with the queued poll results
+    private static class FakeRunner implements InstanceCommandRunner {
+        private final List<String> commands = new ArrayList<>();
+        private final Deque<Map<String, Object>> polls = new ArrayDeque<>();
+
+        @Override
+        public Map<String, Object> run(String command) {
+            commands.add(command);
+            assertFalse(command.matches("(?s).*[\\n\\\\$`].*"), command);
+            Map<String, Object> result = new HashMap<>();
+            if (command.contains("space:on_replace(sub.trigger)")) {
+                result.put("router", null);
+                result.put("s1-master", true);
+            } else if (command.contains("return {events = events")) {
+                return polls.isEmpty() ? Collections.emptyMap() : polls.poll();
+            } else {
+                result.put("s1-master", true);
+            }
+            return result;
+        }
+    }
+
+    private static List<Object> event(long seq, String op, List<?> oldTuple, List<?> newTuple) {
+        return Arrays.asList(seq, op, 100 + seq, oldTuple, newTuple);
+    }
+
+    private static Map<String, Object> batch(long dropped, Object events) {
+        Map<String, Object> value = new HashMap<>();
+        value.put("dropped", dropped);
+        value.put("events", events);
+        return value;
+    }
+
+    @Test
+    void test_poll_mergesInstancesAndKeepsOrder() throws Exception {
+        FakeRunner runner = new FakeRunner();
+        TarantoolSpaceSubscription subscription = TarantoolSpaceSubscription.open(runner, "users", 100);
+
+        Map<String, Object> results = new HashMap<>();
+        results.put("s2-master", batch(0, Arrays.asList(event(1, "INSERT", null, Arrays.asList(2, "b")))));
+        results.put("s1-master", batch(3, Arrays.asList(
+                event(4, "UPDATE", Arrays.asList(1, "a"), Arrays.asList(1, "aa")),
+                event(5, "DELETE", Arrays.asList(1, "aa"), null))));
+        results.put("router", null);
+        runner.polls.add(results);
+
+        List<TarantoolChangeEvent> events = subscription.poll(10);
+        assertEquals(3, events.size());
+        assertEquals("s1-master", events.get(0).getInstance());
+        assertEquals("UPDATE", events.get(0).getOperation());
+        assertEquals(104, events.get(0).getLsn());
+        assertEquals(Arrays.asList(1, "aa"), events.get(0).getNewTuple());
+        assertNull(events.get(1).getNewTuple());
+        assertEquals("s2-master", events.get(2).getInstance());
+        assertEquals(3, subscription.getDroppedEvents());
+
+        // an empty Lua table is decoded as a map
+        runner.polls.add(Collections.singletonMap("s1-master", batch(3, Collections.emptyMap())));
+        assertTrue(subscription.poll(10).isEmpty());
+
+        subscription.close();
+        subscription.close();
+        assertTrue(runner.commands.get(runner.commands.size() - 1).contains("on_replace(nil, sub.trigger)"));
+        assertEquals(4, runner.commands.size());
+        assertThrows(IllegalStateException.class, () -> subscription.poll(10));
+    }
+
+    @Test
+    void test_await_keepsFollowingEvents() throws Exception {
+        FakeRunner runner = new FakeRunner();
+        TarantoolSpaceSubscription subscription = TarantoolSpaceSubscription.open(runner, "users", 100);
+        runner.polls.add(Collections.singletonMap("s1-master", batch(0, Arrays.asList(
+                event(1, "INSERT", null, Arrays.asList(1)),
+                event(2, "INSERT", null, Arrays.asList(2)),
+                event(3, "INSERT", null, Arrays.asList(3))))));
+
+        TarantoolChangeEvent event = subscription.await(e -> e.getNewTuple().contains(2), Duration.ofSeconds(1));
+        assertEquals(2, event.getSequence());
+        List<TarantoolChangeEvent> rest = subscription.poll(10);
+        assertEquals(1, rest.size());
+        assertEquals(3, rest.get(0).getSequence());
+
+        assertThrows(TimeoutException.class, () -> subscription.await(e -> true, Duration.ofMillis(50)));
+    }
+
+    @Test
+    void test_open_requiresWritableInstance() {
+        InstanceCommandRunner runner = command -> Collections.singletonMap("replica", null);
+        assertThrows(IllegalStateException.class, () -> TarantoolSpaceSubscription.open(runner, "users", 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> TarantoolSpaceSubscription.open(new FakeRunner(), "users", 0));
+    }
+}
@@ -0,0 +1,141 @@
+package org.testcontainers.containers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TarantoolXlogReaderTest {
+
+    private static final String HEADER = "XLOG\n0.13\nVersion: 2.11.8\n" +
+            "Instance: 2b3a4c5d-0000-4000-8000-000000000001\nVClock: {1: 9, 2: 3}\n\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void test_reader_decodesPlainAndCompressedBlocks() throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        // INSERT into space 512 with a timestamp
+        plain.write(new byte[]{(byte) 0x84, 0x00, 0x02, 0x02, 0x01, 0x03, 0x0a, 0x04, (byte) 0xcb});
+        plain.write(ByteBuffer.allocate(8).putDouble(1.5).array());
+        plain.write(new byte[]{(byte) 0x82, 0x10, (byte) 0xcd, 0x02, 0x00, 0x21, (byte) 0x92, 0x01, (byte) 0xa1, 'a'});
+        // DELETE from space 512 by key
+        plain.write(new byte[]{(byte) 0x83, 0x00, 0x05, 0x02, 0x01, 0x03, 0x0b,
+                (byte) 0x82, 0x10, (byte) 0xcd, 0x02, 0x00, 0x20, (byte) 0x91, 0x01});
+        // NOP without a body
+        plain.write(new byte[]{(byte) 0x83, 0x00, 0x0c, 0x02, 0x01, 0x03, 0x0c});
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        // REPLACE into space 513 with a large unsigned field
+        compressed.write(new byte[]{(byte) 0x83, 0x00, 0x03, 0x02, 0x02, 0x03, 0x0d,
+                (byte) 0x82, 0x10, (byte) 0xcd, 0x02, 0x01, 0x21, (byte) 0x92, 0x02,
+                (byte) 0xce, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff});
+
+        Path file = tempDir.resolve("00000000000000000009.xlog");
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            out.write(HEADER.getBytes(StandardCharsets.US_ASCII));
+            writeBlock(out, TarantoolXlogReader.ROW_MARKER, plain.toByteArray());
+            writeBlock(out, TarantoolXlogReader.ZROW_MARKER, zstd(compressed.toByteArray()));
+            out.write(ByteBuffer.allocate(4).putInt(TarantoolXlogReader.EOF_MARKER).array());
+            Files.write(file, out.toByteArray());
+        }
+
+        // a tiny window forces remapping for every block
+        try (TarantoolXlogReader reader = TarantoolXlogReader.open(file, 16)) {
+            assertEquals("XLOG", reader.getFileType());
+            assertEquals("0.13", reader.getFormatVersion());
+            assertEquals("2.11.8", reader.getMeta().get("Version"));
+            assertEquals(Long.valueOf(3), reader.getVClock().get(2));
+
+            assertTrue(reader.next());
+            TarantoolXlogRow insert = reader.row().copy();
+            assertEquals("INSERT", insert.getOperation());
+            assertEquals(10, insert.getLsn());
+            assertEquals(1.5, insert.getTimestamp());
+            assertEquals(512, insert.getSpaceId());
+
+            assertTrue(reader.next());
+            assertEquals("DELETE", reader.row().getOperation());
+            assertEquals(Arrays.asList(1), reader.row().getKey());
+            assertNull(reader.row().getTuple());
+
+            assertTrue(reader.next());
+            assertEquals(TarantoolXlogRow.TYPE_NOP, reader.row().getType());
+            assertEquals(-1, reader.row().getSpaceId());
+
+            assertTrue(reader.next());
+            assertEquals("REPLACE", reader.row().getOperation());
+            assertEquals(2, reader.row().getReplicaId());
+            assertEquals(Arrays.asList(2, 4294967295L), reader.row().getTuple());
+            assertEquals(5, reader.row().getTupleBuffer().remaining() - 2);
+
+            assertFalse(reader.next());
+            assertTrue(reader.isComplete());
+            // the copy stays valid after the reader has moved on
+            assertEquals(Arrays.asList(1, "a"), insert.getTuple());
+        }
+
+        try (Stream<TarantoolXlogRow> rows = TarantoolXlogReader.open(file).stream()) {
+            assertEquals(Arrays.asList(10L, 11L, 12L, 13L),
+                    rows.map(TarantoolXlogRow::getLsn).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void test_reader_stopsAtCutBlock() throws IOException {
+        Path file = tempDir.resolve("00000000000000000009.xlog");
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            out.write(HEADER.getBytes(StandardCharsets.US_ASCII));
+            writeBlock(out, TarantoolXlogReader.ROW_MARKER,
+                    new byte[]{(byte) 0x83, 0x00, 0x0c, 0x02, 0x01, 0x03, 0x0c});
+            byte[] data = out.toByteArray();
+            Files.write(file, Arrays.copyOf(data, data.length + 10));
+            Files.write(tempDir.resolve("00000000000000000009.snap"), HEADER.replace("XLOG", "SNAP")
+                    .getBytes(StandardCharsets.US_ASCII));
+            Files.write(tempDir.resolve("00000000000000000001.xlog"), new byte[0]);
+        }
+
+        try (TarantoolXlogReader reader = TarantoolXlogReader.open(file)) {
+            assertTrue(reader.next());
+            assertFalse(reader.next());
+            assertFalse(reader.isComplete());
+        }
+        List<String> names = TarantoolXlogReader.listFiles(tempDir).stream()
+                .map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        assertEquals(Arrays.asList("00000000000000000001.xlog", "00000000000000000009.snap",
+                "00000000000000000009.xlog"), names);
+    }
+
+    private static void writeBlock(ByteArrayOutputStream out, int marker, byte[] data) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(TarantoolXlogReader.FIXHEADER_SIZE);
+        header.putInt(marker);
+        header.put((byte) 0xce).putInt(data.length);
+        header.put((byte) 0xce).putInt(0);
+        header.put((byte) 0xce).putInt(0);
+        out.write(header.array());
+        out.write(data);
+    }
+
+    private static byte[] zstd(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZstdOutputStream zstd = new ZstdOutputStream(out)) {
+            zstd.write(data);
+        }
+        return out.toByteArray();
+    }
+}
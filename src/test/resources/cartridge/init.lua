@@ -27,12 +27,13 @@ else
 end
 
 -- For faster set up, discovery all buckets at once
-require('vshard.consts').BUCKET_CHUNK_SIZE = 30000
+require('vshard.consts').BUCKET_CHUNK_SIZE = tonumber(os.getenv('TARANTOOL_BUCKET_CHUNK_SIZE')) or 30000
 require('migrator')
 
 local cartridge = require('cartridge')
 local ok, err = cartridge.cfg({
     workdir = 'tmp/db',
+    roles_reload_allowed = true,
     roles = {
         'cartridge.roles.vshard-storage',
         'cartridge.roles.vshard-router',
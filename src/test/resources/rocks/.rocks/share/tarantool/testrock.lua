@@ -0,0 +1,5 @@
+return {
+    version = function()
+        return '1.0.0'
+    end,
+}
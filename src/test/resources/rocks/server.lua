@@ -0,0 +1,11 @@
+-- the rocks are installed into the .rocks directory next to the script
+package.path = require('fio').dirname(arg[0]) .. '/.rocks/share/tarantool/?.lua;' .. package.path
+
+box.cfg {
+    listen = 3301,
+}
+
+box.schema.user.create('uuuser', { password = 'secret', if_not_exists = true })
+box.schema.user.grant('uuuser', 'read,write,execute', 'universe', nil, { if_not_exists = true })
+
+rock = require('testrock')